@@ -0,0 +1,76 @@
+package com.example.gestionnotes.bench;
+
+import com.example.gestionnotes.analytics.AnalyticsReport;
+import com.example.gestionnotes.analytics.NoteAnalytics;
+import com.example.gestionnotes.analytics.NoteColumns;
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.model.GradingPolicy;
+import com.example.gestionnotes.model.Statistiques;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analyse détaillée des notes (bouton "Analyse" de l'écran principal), sur le stockage en mémoire.
+ * <ul>
+ *     <li>chargerColonnes : la lecture de toutes les notes en colonnes (NoteColumns) ;</li>
+ *     <li>analyserParallele : le calcul des distributions sur le pool commun ;</li>
+ *     <li>analyserSequentiel : le même calcul sur un seul thread, pour mesurer le gain du parallélisme ;</li>
+ *     <li>statistiquesObjets : le calcul des statistiques par filière existant (calculerStatistiques), pour comparaison.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AnalyticsBenchmark {
+
+    private NoteRepository noteDAO;
+    private NoteColumns colonnes;
+    private ForkJoinPool unThread;
+
+    @Setup
+    public void setup() throws Exception {
+        noteDAO = BenchData.memoryStore().getNoteDAO();
+        colonnes = NoteColumns.load(noteDAO);
+        unThread = new ForkJoinPool(1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        unThread.shutdown();
+    }
+
+    @Benchmark
+    public NoteColumns chargerColonnes() {
+        return NoteColumns.load(noteDAO);
+    }
+
+    @Benchmark
+    public AnalyticsReport analyserParallele() {
+        return NoteAnalytics.analyser(colonnes);
+    }
+
+    @Benchmark
+    public AnalyticsReport analyserSequentiel() {
+        return NoteAnalytics.analyser(colonnes, GradingPolicy.getCurrent(), unThread);
+    }
+
+    @Benchmark
+    public Statistiques statistiquesObjets() {
+        return noteDAO.calculerStatistiques();
+    }
+}
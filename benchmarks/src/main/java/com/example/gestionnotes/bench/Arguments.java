@@ -0,0 +1,76 @@
+package com.example.gestionnotes.bench;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Options de la ligne de commande des outils de ce module, sous la forme --nom valeur ou --nom (vaut "true").
+ * Une option inconnue ou une valeur invalide lève IllegalArgumentException, avec un message destiné à l'utilisateur.
+ */
+final class Arguments {
+
+    private final Map<String, String> valeurs = new LinkedHashMap<>();
+
+    /**
+     * @param args Les arguments de main().
+     * @param connues Les noms d'options acceptés (sans les tirets).
+     */
+    Arguments(String[] args, Collection<String> connues) {
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Option attendue au lieu de : " + args[i]);
+            }
+            String nom = args[i].substring(2);
+            if (!connues.contains(nom)) {
+                throw new IllegalArgumentException("Option inconnue : --" + nom);
+            }
+            boolean avecValeur = i + 1 < args.length && !args[i + 1].startsWith("--");
+            valeurs.put(nom, avecValeur ? args[++i] : "true");
+        }
+    }
+
+    boolean has(String nom) {
+        return valeurs.containsKey(nom);
+    }
+
+    String get(String nom, String defaut) {
+        return valeurs.getOrDefault(nom, defaut);
+    }
+
+    int getInt(String nom, int defaut) {
+        String valeur = valeurs.get(nom);
+        if (valeur == null) {
+            return defaut;
+        }
+        try {
+            return Integer.parseInt(valeur);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nombre entier attendu pour --" + nom + " : " + valeur);
+        }
+    }
+
+    long getLong(String nom, long defaut) {
+        String valeur = valeurs.get(nom);
+        if (valeur == null) {
+            return defaut;
+        }
+        try {
+            return Long.parseLong(valeur);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nombre entier attendu pour --" + nom + " : " + valeur);
+        }
+    }
+
+    double getDouble(String nom, double defaut) {
+        String valeur = valeurs.get(nom);
+        if (valeur == null) {
+            return defaut;
+        }
+        try {
+            return Double.parseDouble(valeur);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nombre attendu pour --" + nom + " : " + valeur);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.gestionnotes.bench;
+
+import com.example.gestionnotes.dao.DBConnection;
+import com.example.gestionnotes.dao.EtudiantDAO;
+import com.example.gestionnotes.dao.MemoryStore;
+import com.example.gestionnotes.dao.MigrationRunner;
+import com.example.gestionnotes.dao.NoteDAO;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Jeu de données des mesures JMH et bases qui le contiennent, produits par DataGenerator (graine fixe) :
+ * deux exécutions mesurent exactement les mêmes données.
+ * <ul>
+ *     <li>-Dbench.etudiants : nombre d'étudiants (10000 par défaut) ;</li>
+ *     <li>-Dbench.matieres : nombre de notes par étudiant (8 par défaut).</li>
+ * </ul>
+ * La base JDBC est par défaut une base H2 en mémoire, en mode MySQL, dont le schéma est créé par MigrationRunner.
+ * Les propriétés -Ddb.url, -Ddb.user, -Ddb.password et -Ddb.driver permettent de mesurer une autre base ;
+ * une base qui contient déjà des étudiants n'est pas remplie.
+ */
+final class BenchData {
+
+    static final String JDBC = "jdbc";
+    static final String MEMORY = "memory";
+
+    static final int NB_ETUDIANTS = Integer.getInteger("bench.etudiants", 10000);
+    static final int NB_MATIERES = Integer.getInteger("bench.matieres", 8);
+
+    // Filière de DataGenerator utilisée par les mesures limitées à une filière
+    static final String FILIERE = "Informatique";
+
+    private static boolean jdbcPret;
+
+    private BenchData() {
+    }
+
+    static DataGenerator generator() {
+        return DataGenerator.of(NB_ETUDIANTS, NB_MATIERES);
+    }
+
+    /**
+     * @return Un stockage en mémoire rempli avec le jeu de données.
+     */
+    static MemoryStore memoryStore() throws IOException, SQLException {
+        MemoryStore store = new MemoryStore();
+        generator().write(store.getEtudiantDAO(), store.getNoteDAO());
+        return store;
+    }
+
+    /**
+     * Écrit le jeu de données dans deux fichiers CSV temporaires, supprimés à l'arrêt de la JVM.
+     * @return Le fichier des étudiants puis celui des notes.
+     */
+    static File[] csvFiles() throws IOException, SQLException {
+        File etudiants = File.createTempFile("bench-etudiants", ".csv");
+        File notes = File.createTempFile("bench-notes", ".csv");
+        etudiants.deleteOnExit();
+        notes.deleteOnExit();
+        generator().writeCsv(etudiants, notes);
+        return new File[]{etudiants, notes};
+    }
+
+    /**
+     * Prépare la base JDBC (schéma et données) lors du premier appel, puis la rend telle quelle.
+     * Doit être appelé avant toute utilisation d'un DAO JDBC : DBConnection lit sa configuration une seule fois.
+     */
+    static synchronized void prepareJdbc() throws IOException, SQLException {
+        if (jdbcPret) {
+            return;
+        }
+        if (System.getProperty("db.url") == null) {
+            System.setProperty("db.url", "jdbc:h2:mem:gestion_notes;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+            System.setProperty("db.driver", "org.h2.Driver");
+            System.setProperty("db.user", "sa");
+            System.setProperty("db.password", "");
+        }
+        new MigrationRunner().migrate();
+        if (countEtudiants() == 0) {
+            generator().write(new EtudiantDAO(), new NoteDAO());
+        }
+        jdbcPret = true;
+    }
+
+    static int countEtudiants() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM etudiant")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
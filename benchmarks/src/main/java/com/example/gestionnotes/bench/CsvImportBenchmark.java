@@ -0,0 +1,90 @@
+package com.example.gestionnotes.bench;
+
+import com.example.gestionnotes.dao.MemoryStore;
+import com.example.gestionnotes.io.CsvReader;
+import com.example.gestionnotes.io.NoteCsvImporter;
+import com.example.gestionnotes.io.StudentCsvImporter;
+import com.example.gestionnotes.model.ImportReport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture des fichiers CSV importés, sans base de données.
+ * <ul>
+ *     <li>lireCsv : le découpage seul (CsvReader) d'un fichier d'étudiants déjà en mémoire ;</li>
+ *     <li>importerEtudiants : l'import complet d'un fichier d'étudiants (lecture, validation, lots)
+ *     dans un stockage en mémoire vide ;</li>
+ *     <li>simulerImportNotes : l'import des notes en simulation (lecture, rattachement aux étudiants,
+ *     conversion en Note), dans le format produit par l'export.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CsvImportBenchmark {
+
+    private String etudiantsCsv;
+    private File fichierEtudiants;
+    private File fichierNotes;
+    private MemoryStore store;
+
+    @Setup
+    public void setup() throws Exception {
+        File[] fichiers = BenchData.csvFiles();
+        fichierEtudiants = fichiers[0];
+        fichierNotes = fichiers[1];
+        etudiantsCsv = new String(Files.readAllBytes(fichierEtudiants.toPath()), StandardCharsets.UTF_8);
+        // Étudiants auxquels l'import des notes rattache chaque ligne
+        store = BenchData.memoryStore();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fichierEtudiants.delete();
+        fichierNotes.delete();
+    }
+
+    @Benchmark
+    public int lireCsv() throws IOException {
+        int champs = 0;
+        try (CsvReader csv = new CsvReader(new StringReader(etudiantsCsv))) {
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                champs += record.size();
+            }
+        }
+        return champs;
+    }
+
+    @Benchmark
+    public ImportReport importerEtudiants() throws Exception {
+        MemoryStore vide = new MemoryStore();
+        return new StudentCsvImporter(vide.getEtudiantDAO(), 5000).importer(fichierEtudiants, false, (fait, total) -> { });
+    }
+
+    @Benchmark
+    public ImportReport simulerImportNotes() throws Exception {
+        return new NoteCsvImporter(store.getEtudiantDAO(), store.getNoteDAO(), 5000)
+                .importer(fichierNotes, true, (fait, total) -> { });
+    }
+}
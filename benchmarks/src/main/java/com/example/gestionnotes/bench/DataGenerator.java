@@ -0,0 +1,508 @@
+package com.example.gestionnotes.bench;
+
+import com.example.gestionnotes.dao.DBConnection;
+import com.example.gestionnotes.dao.EtudiantBulkInsert;
+import com.example.gestionnotes.dao.EtudiantDAO;
+import com.example.gestionnotes.dao.EtudiantRepository;
+import com.example.gestionnotes.dao.MigrationRunner;
+import com.example.gestionnotes.dao.NoteBulkUpsert;
+import com.example.gestionnotes.dao.NoteDAO;
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.io.CsvWriter;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.ImportReport;
+import com.example.gestionnotes.model.NoteRecord;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Génère un jeu de données synthétique (étudiants et notes), reproductible pour une même graine.
+ * Les étudiants sont produits par lots : la mémoire utilisée ne dépend pas de la taille du jeu.
+ *
+ * Lancement (après mvn -f benchmarks/pom.xml package) :
+ *   java [-Ddb.url=... -Ddb.user=... -Ddb.password=...] -cp benchmarks/target/benchmarks.jar \
+ *        com.example.gestionnotes.bench.DataGenerator [options]
+ *
+ * Options :
+ * <ul>
+ *     <li>--etudiants N : nombre d'étudiants (50000) ;</li>
+ *     <li>--notes-par-etudiant N ou MIN-MAX : notes de chaque étudiant, une par matière (40) ;</li>
+ *     <li>--filieres Nom=poids,... : filières et part des étudiants de chacune (six filières de poids égal) ;</li>
+ *     <li>--matieres N ou Nom=poids,... : matières, et fréquence relative de chacune parmi les notes (48 matières) ;</li>
+ *     <li>--notes normale:MOYENNE:ECART ou uniforme:MIN:MAX : distribution des notes de devoir et d'examen
+ *     (normale:11:3) ;</li>
+ *     <li>--niveau ECART : écart type du niveau propre à chaque étudiant, ajouté à toutes ses notes (2) ;</li>
+ *     <li>--graine N : graine des tirages (42) ;</li>
+ *     <li>--sortie base ou csv : enregistrement par les DAOs dans la base configurée (clés db.*),
+ *     ou fichiers etudiants.csv et notes.csv au format de l'import (base) ;</li>
+ *     <li>--dossier DIR : dossier des fichiers CSV (dossier courant) ;</li>
+ *     <li>--lot N : nombre d'étudiants par lot (5000).</li>
+ * </ul>
+ * En sortie base, le schéma est d'abord mis à jour par MigrationRunner ; une base qui contient déjà
+ * des étudiants est refusée, sauf avec --ajouter.
+ */
+public final class DataGenerator {
+
+    static final List<String> OPTIONS = Arrays.asList("etudiants", "notes-par-etudiant", "filieres", "matieres",
+            "notes", "niveau", "graine", "sortie", "dossier", "lot", "ajouter");
+
+    private static final String[] FILIERES = {
+            "Informatique", "Mathématiques", "Physique", "Génie civil", "Économie", "Biologie"
+    };
+    private static final String[] MATIERES = {
+            "Algorithmique", "Analyse", "Algèbre", "Anglais", "Bases de données", "Électronique",
+            "Mécanique", "Probabilités", "Programmation", "Réseaux", "Statistiques", "Thermodynamique",
+            "Chimie", "Droit", "Comptabilité", "Marketing", "Gestion de projet", "Optique",
+            "Génétique", "Écologie", "Topographie", "Résistance des matériaux", "Compilation", "Systèmes d'exploitation"
+    };
+    private static final String[] NOMS = {
+            "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+            "Simon", "Laurent", "Lefèvre", "Michel", "Garcia", "David", "Bertrand", "Roux", "Vincent", "Fournier",
+            "Morel", "Girard", "André", "Mercier", "Dupont", "Lambert", "Bonnet", "François", "Martinez", "Legrand",
+            "Diallo", "Traoré", "Koné", "Ndiaye", "Mbaye", "Ouédraogo", "Kouassi", "Nguema", "Mensah", "Sow",
+            "Camara", "Keita", "Cissé", "Touré", "Bamba", "Sylla", "Fofana", "Sangaré", "Diop", "Faye"
+    };
+    private static final String[] PRENOMS = {
+            "Awa", "Moussa", "Fatou", "Ibrahima", "Aminata", "Cheikh", "Mariam", "Ousmane", "Léa", "Hugo",
+            "Chloé", "Lucas", "Inès", "Louis", "Zoé", "Jules", "Élodie", "Gabriel", "Aïcha", "Yannick",
+            "Khadija", "Mamadou", "Adama", "Salif", "Rokia", "Seydou", "Nadia", "Karim", "Sarah", "Paul"
+    };
+
+    private static final String NORMALE = "normale";
+    private static final String UNIFORME = "uniforme";
+
+    // Notes enregistrées par transaction en sortie base : chaque commit recalcule la table note_stats
+    private static final int NOTES_PAR_TRANSACTION = 200_000;
+
+    private final int nbEtudiants;
+    private final int notesMin;
+    private final int notesMax;
+    private final String[] filieres;
+    private final double[] cumulFilieres;
+    private final String[] matieres;
+    private final double[] poidsMatieres;
+    private final String distribution;
+    private final double parametre1;
+    private final double parametre2;
+    private final double niveau;
+    private final long graine;
+    private final int tailleLot;
+
+    DataGenerator(Arguments args) {
+        nbEtudiants = args.getInt("etudiants", 50_000);
+        String notes = args.get("notes-par-etudiant", "40");
+        int tiret = notes.indexOf('-');
+        try {
+            notesMin = Integer.parseInt(tiret < 0 ? notes : notes.substring(0, tiret));
+            notesMax = tiret < 0 ? notesMin : Integer.parseInt(notes.substring(tiret + 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("N ou MIN-MAX attendu pour --notes-par-etudiant : " + notes);
+        }
+        if (notesMin < 0 || notesMax < notesMin) {
+            throw new IllegalArgumentException("Nombre de notes par étudiant invalide : " + notes);
+        }
+
+        Map<String, Double> parFiliere = parsePoids(args.get("filieres", null), FILIERES, "--filieres");
+        filieres = parFiliere.keySet().toArray(new String[0]);
+        cumulFilieres = new double[filieres.length];
+        double cumul = 0;
+        for (int i = 0; i < filieres.length; i++) {
+            cumul += parFiliere.get(filieres[i]);
+            cumulFilieres[i] = cumul;
+        }
+
+        String specMatieres = args.get("matieres", "48");
+        Map<String, Double> parMatiere = specMatieres.matches("\\d+")
+                ? parsePoids(null, nommerMatieres(Integer.parseInt(specMatieres)), "--matieres")
+                : parsePoids(specMatieres, null, "--matieres");
+        matieres = parMatiere.keySet().toArray(new String[0]);
+        poidsMatieres = new double[matieres.length];
+        for (int i = 0; i < matieres.length; i++) {
+            poidsMatieres[i] = parMatiere.get(matieres[i]);
+        }
+        if (notesMax > matieres.length) {
+            throw new IllegalArgumentException("Au plus une note par matière : " + notesMax + " notes demandées pour "
+                    + matieres.length + " matières.");
+        }
+
+        String[] loi = args.get("notes", NORMALE + ":11:3").split(":");
+        if (loi.length != 3 || !(NORMALE.equals(loi[0]) || UNIFORME.equals(loi[0]))) {
+            throw new IllegalArgumentException("normale:MOYENNE:ECART ou uniforme:MIN:MAX attendu pour --notes.");
+        }
+        distribution = loi[0];
+        try {
+            parametre1 = Double.parseDouble(loi[1]);
+            parametre2 = Double.parseDouble(loi[2]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Paramètres numériques attendus pour --notes : " + args.get("notes", ""));
+        }
+        niveau = args.getDouble("niveau", 2.0);
+        graine = args.getLong("graine", 42L);
+        tailleLot = Math.max(1, args.getInt("lot", 5000));
+    }
+
+    /**
+     * Jeu de données de taille donnée, avec les distributions par défaut.
+     */
+    static DataGenerator of(int nbEtudiants, int notesParEtudiant) {
+        return new DataGenerator(new Arguments(new String[]{
+                "--etudiants", String.valueOf(nbEtudiants),
+                "--notes-par-etudiant", String.valueOf(notesParEtudiant)}, OPTIONS));
+    }
+
+    public static void main(String[] args) {
+        int code = 0;
+        try {
+            Arguments arguments = new Arguments(args, OPTIONS);
+            DataGenerator generator = new DataGenerator(arguments);
+            long debut = System.nanoTime();
+            long[] totaux;
+            if ("csv".equals(arguments.get("sortie", "base"))) {
+                File dossier = new File(arguments.get("dossier", "."));
+                if (!dossier.isDirectory() && !dossier.mkdirs()) {
+                    throw new IOException("Impossible de créer le dossier " + dossier);
+                }
+                totaux = generator.writeCsv(new File(dossier, "etudiants.csv"), new File(dossier, "notes.csv"));
+            } else {
+                new MigrationRunner().migrate();
+                int existants = BenchData.countEtudiants();
+                if (existants > 0 && !arguments.has("ajouter")) {
+                    throw new IllegalArgumentException("La base contient déjà " + existants
+                            + " étudiants : relancez avec --ajouter pour compléter ce jeu de données.");
+                }
+                totaux = generator.write(new EtudiantDAO(), new NoteDAO());
+            }
+            System.out.printf("%d étudiants et %d notes générés en %.1f s.%n", totaux[0], totaux[1],
+                    (System.nanoTime() - debut) / 1e9);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            code = 2;
+        } catch (IOException | SQLException e) {
+            e.printStackTrace();
+            code = 1;
+        } finally {
+            DBConnection.closeConnection();
+        }
+        System.exit(code);
+    }
+
+    /**
+     * Enregistre le jeu de données par les sessions d'insertion par lots des DAOs.
+     * @return Le nombre d'étudiants et le nombre de notes enregistrés.
+     */
+    long[] write(EtudiantRepository etudiantDAO, NoteRepository noteDAO) throws IOException, SQLException {
+        try (VersDepots depots = new VersDepots(etudiantDAO, noteDAO)) {
+            return generate(depots);
+        }
+    }
+
+    /**
+     * Écrit le jeu de données dans deux fichiers CSV encodés en UTF-8, aux formats acceptés par l'import :
+     * Nom,Prenom,Filiere pour les étudiants, et celui de l'export pour les notes.
+     * @return Le nombre d'étudiants et le nombre de notes écrits.
+     */
+    long[] writeCsv(File fichierEtudiants, File fichierNotes) throws IOException, SQLException {
+        try (VersCsv csv = new VersCsv(fichierEtudiants, fichierNotes)) {
+            return generate(csv);
+        }
+    }
+
+    private long[] generate(Destination destination) throws IOException, SQLException {
+        // Deux suites de tirages indépendantes : le jeu ne dépend pas de la taille des lots
+        Random tiragesEtudiants = new Random(graine);
+        Random tiragesNotes = new Random(graine + 1);
+        Map<String, Integer> homonymes = new HashMap<>();
+        long nbNotes = 0;
+        int prochainPalier = 1;
+
+        for (int debut = 0; debut < nbEtudiants; debut += tailleLot) {
+            int taille = Math.min(tailleLot, nbEtudiants - debut);
+            List<Etudiant> lot = new ArrayList<>(taille);
+            double[] niveaux = new double[taille];
+            for (int i = 0; i < taille; i++) {
+                lot.add(newEtudiant(tiragesEtudiants, homonymes));
+                niveaux[i] = tiragesEtudiants.nextGaussian() * niveau;
+            }
+            destination.etudiants(lot);
+
+            for (int i = 0; i < taille; i++) {
+                Etudiant etudiant = lot.get(i);
+                int nombre = notesMin + (notesMax > notesMin ? tiragesNotes.nextInt(notesMax - notesMin + 1) : 0);
+                List<NoteRecord> sesNotes = new ArrayList<>(nombre);
+                for (int m : choisirMatieres(tiragesNotes, nombre)) {
+                    sesNotes.add(new NoteRecord(0, etudiant, matieres[m],
+                            tirerNote(tiragesNotes, niveaux[i]), tirerNote(tiragesNotes, niveaux[i])));
+                }
+                destination.notes(etudiant, sesNotes);
+                nbNotes += nombre;
+            }
+
+            int faits = debut + taille;
+            if (faits * 10L >= (long) prochainPalier * nbEtudiants) {
+                System.out.printf("%d %%  (%d étudiants, %d notes)%n", faits * 100L / nbEtudiants, faits, nbNotes);
+                prochainPalier = (int) (faits * 10L / nbEtudiants) + 1;
+            }
+        }
+        destination.terminer();
+        return new long[]{nbEtudiants, nbNotes};
+    }
+
+    /**
+     * Tire un étudiant. Un homonyme (même nom, prénom et filière) reçoit un numéro après son prénom,
+     * pour que l'import des notes par nom puisse rattacher chaque ligne à un seul étudiant.
+     */
+    private Etudiant newEtudiant(Random random, Map<String, Integer> homonymes) {
+        String nom = NOMS[random.nextInt(NOMS.length)];
+        String prenom = PRENOMS[random.nextInt(PRENOMS.length)];
+        if (random.nextInt(4) == 0) {
+            prenom += "-" + PRENOMS[random.nextInt(PRENOMS.length)]; // Prénom composé
+        }
+        String filiere = filieres[indexOf(cumulFilieres, random.nextDouble() * cumulFilieres[cumulFilieres.length - 1])];
+        int rang = homonymes.merge((nom + '\u0000' + prenom + '\u0000' + filiere).toLowerCase(Locale.ROOT), 1, Integer::sum);
+        return new Etudiant(0, nom, rang == 1 ? prenom : prenom + " " + rang, filiere);
+    }
+
+    /**
+     * Tire sans remise les matières d'un étudiant, chacune avec une probabilité proportionnelle à son poids
+     * (clé aléatoire u^(1/poids), les plus grandes clés sont retenues).
+     * @return Les indices des matières retenues.
+     */
+    private int[] choisirMatieres(Random random, int nombre) {
+        int[] choisies = new int[nombre];
+        if (nombre == 0) {
+            return choisies;
+        }
+        double[] cles = new double[matieres.length];
+        Integer[] ordre = new Integer[matieres.length];
+        for (int m = 0; m < matieres.length; m++) {
+            cles[m] = Math.pow(random.nextDouble(), 1.0 / poidsMatieres[m]);
+            ordre[m] = m;
+        }
+        Arrays.sort(ordre, (a, b) -> Double.compare(cles[b], cles[a]));
+        for (int i = 0; i < nombre; i++) {
+            choisies[i] = ordre[i];
+        }
+        Arrays.sort(choisies);
+        return choisies;
+    }
+
+    /**
+     * Note sur 20 au quart de point.
+     */
+    private double tirerNote(Random random, double niveauEtudiant) {
+        double note = NORMALE.equals(distribution)
+                ? parametre1 + random.nextGaussian() * parametre2
+                : parametre1 + random.nextDouble() * (parametre2 - parametre1);
+        note += niveauEtudiant;
+        return Math.round(Math.max(0, Math.min(20, note)) * 4) / 4.0;
+    }
+
+    private static int indexOf(double[] cumuls, double tirage) {
+        int i = Arrays.binarySearch(cumuls, tirage);
+        return Math.min(i >= 0 ? i : -i - 1, cumuls.length - 1);
+    }
+
+    /**
+     * Noms des N premières matières : la liste de base, puis numérotée (Analyse 2, Algèbre 2...) au-delà.
+     */
+    private static String[] nommerMatieres(int nombre) {
+        if (nombre < 1) {
+            throw new IllegalArgumentException("Au moins une matière est nécessaire.");
+        }
+        String[] noms = new String[nombre];
+        for (int i = 0; i < nombre; i++) {
+            noms[i] = nombre <= MATIERES.length || i < MATIERES.length
+                    ? MATIERES[i % MATIERES.length]
+                    : MATIERES[i % MATIERES.length] + " " + (i / MATIERES.length + 1);
+        }
+        return noms;
+    }
+
+    /**
+     * Lit une liste Nom=poids,Nom=poids ; un nom sans poids vaut 1.
+     * @param spec La liste, ou null pour les noms par défaut, tous de poids 1.
+     */
+    private static Map<String, Double> parsePoids(String spec, String[] defaut, String option) {
+        Map<String, Double> poids = new LinkedHashMap<>();
+        if (spec == null) {
+            for (String nom : defaut) {
+                poids.put(nom, 1.0);
+            }
+            return poids;
+        }
+        for (String element : spec.split(",")) {
+            int egal = element.lastIndexOf('=');
+            String nom = (egal < 0 ? element : element.substring(0, egal)).trim();
+            double valeur;
+            try {
+                valeur = egal < 0 ? 1.0 : Double.parseDouble(element.substring(egal + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Poids invalide dans " + option + " : " + element);
+            }
+            if (nom.isEmpty() || valeur <= 0) {
+                throw new IllegalArgumentException("Nom vide ou poids négatif dans " + option + " : " + element);
+            }
+            poids.put(nom, valeur);
+        }
+        return poids;
+    }
+
+    /**
+     * Reçoit le jeu de données au fil de la génération.
+     */
+    private interface Destination extends AutoCloseable {
+
+        /**
+         * Reçoit un lot d'étudiants ; leur id est renseigné au retour si la destination en attribue.
+         */
+        void etudiants(List<Etudiant> lot) throws IOException, SQLException;
+
+        void notes(Etudiant etudiant, List<NoteRecord> sesNotes) throws IOException, SQLException;
+
+        void terminer() throws IOException, SQLException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    /**
+     * Enregistrement par les DAOs : un lot d'étudiants par insertion, les notes par transactions
+     * de NOTES_PAR_TRANSACTION notes au plus.
+     */
+    private static final class VersDepots implements Destination {
+        private final NoteRepository noteDAO;
+        private final EtudiantBulkInsert insert;
+        private NoteBulkUpsert upsert;
+        private final List<NoteRecord> lot = new ArrayList<>();
+        private int notesEnCours;
+        private int ligne;
+
+        private VersDepots(EtudiantRepository etudiantDAO, NoteRepository noteDAO) throws SQLException {
+            this.noteDAO = noteDAO;
+            this.insert = etudiantDAO.openBulkInsert(false);
+        }
+
+        @Override
+        public void etudiants(List<Etudiant> etudiants) throws SQLException {
+            List<Integer> lignes = new ArrayList<>(etudiants.size());
+            for (int i = 0; i < etudiants.size(); i++) {
+                lignes.add(++ligne);
+            }
+            ImportReport report = new ImportReport();
+            insert.insertLot(etudiants, lignes, report);
+            if (report.hasErreurs()) {
+                throw new SQLException("Étudiants refusés par la base : " + report.getErreurs().get(0));
+            }
+        }
+
+        @Override
+        public void notes(Etudiant etudiant, List<NoteRecord> sesNotes) throws SQLException {
+            lot.addAll(sesNotes);
+            if (lot.size() >= 5000) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (lot.isEmpty()) {
+                return;
+            }
+            if (upsert == null) {
+                upsert = noteDAO.openBulkUpsert();
+            }
+            upsert.upsertLot(lot);
+            notesEnCours += lot.size();
+            lot.clear();
+            if (notesEnCours >= NOTES_PAR_TRANSACTION) {
+                commit();
+            }
+        }
+
+        private void commit() throws SQLException {
+            if (upsert != null) {
+                upsert.commit();
+                upsert.close();
+                upsert = null;
+                notesEnCours = 0;
+            }
+        }
+
+        @Override
+        public void terminer() throws SQLException {
+            flush();
+            commit();
+        }
+
+        @Override
+        public void close() {
+            if (upsert != null) {
+                upsert.close();
+            }
+            insert.close();
+        }
+    }
+
+    /**
+     * Écriture dans les fichiers CSV de l'import.
+     */
+    private static final class VersCsv implements Destination {
+        private final CsvWriter etudiants;
+        private final CsvWriter notes;
+
+        private VersCsv(File fichierEtudiants, File fichierNotes) throws IOException {
+            etudiants = open(fichierEtudiants);
+            notes = open(fichierNotes);
+            etudiants.writeRow("Nom", "Prenom", "Filiere");
+            notes.writeRow("Nom Etudiant", "Prenom Etudiant", "Filiere", "Matiere", "Note Devoir", "Note Examen");
+        }
+
+        private static CsvWriter open(File fichier) throws IOException {
+            return new CsvWriter(new BufferedWriter(
+                    new OutputStreamWriter(new FileOutputStream(fichier), StandardCharsets.UTF_8), 64 * 1024));
+        }
+
+        @Override
+        public void etudiants(List<Etudiant> lot) throws IOException {
+            for (Etudiant etudiant : lot) {
+                etudiants.writeRow(etudiant.getNom(), etudiant.getPrenom(), etudiant.getFiliere());
+            }
+        }
+
+        @Override
+        public void notes(Etudiant etudiant, List<NoteRecord> sesNotes) throws IOException {
+            for (NoteRecord note : sesNotes) {
+                notes.writeRow(etudiant.getNom(), etudiant.getPrenom(), etudiant.getFiliere(), note.getMatiere(),
+                        String.valueOf(note.getNoteDevoir()), String.valueOf(note.getNoteExamen()));
+            }
+        }
+
+        @Override
+        public void terminer() throws IOException {
+            etudiants.flush();
+            notes.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                etudiants.close();
+            } finally {
+                notes.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.gestionnotes.bench;
+
+import com.example.gestionnotes.dao.NoteDAO;
+import com.example.gestionnotes.io.NotesCsvExporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export CSV des notes (NotesCsvExporter) vers un fichier temporaire, sur la base JDBC et sur le stockage en mémoire :
+ * toutes les filières, puis une seule.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+
+    @Param({BenchData.JDBC, BenchData.MEMORY})
+    public String stockage;
+
+    private NotesCsvExporter exporter;
+    private File fichier;
+
+    @Setup
+    public void setup() throws Exception {
+        if (BenchData.JDBC.equals(stockage)) {
+            BenchData.prepareJdbc();
+            exporter = new NotesCsvExporter(new NoteDAO());
+        } else {
+            exporter = new NotesCsvExporter(BenchData.memoryStore().getNoteDAO());
+        }
+        fichier = File.createTempFile("bench-export", ".csv");
+    }
+
+    @TearDown
+    public void tearDown() {
+        fichier.delete();
+    }
+
+    @Benchmark
+    public long exporterTout() throws IOException {
+        return exporter.export(null, fichier);
+    }
+
+    @Benchmark
+    public long exporterFiliere() throws IOException {
+        return exporter.export(BenchData.FILIERE, fichier);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.gestionnotes.bench;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Durées mesurées par opération, pour en calculer les centiles.
+ * Toutes les durées sont gardées (8 octets chacune) : les centiles sont exacts, sans histogramme approché.
+ * Non thread-safe : chaque utilisateur simulé a ses propres Latences, réunies par addAll() à la fin du test.
+ */
+final class Latences {
+
+    private final Map<String, Serie> series = new LinkedHashMap<>();
+
+    /**
+     * @param operations Les opérations attendues, dans l'ordre d'affichage ; les autres sont affichées à la suite.
+     */
+    Latences(String... operations) {
+        for (String operation : operations) {
+            serie(operation);
+        }
+    }
+
+    void record(String operation, long nanos) {
+        serie(operation).add(nanos);
+    }
+
+    void error(String operation) {
+        serie(operation).erreurs++;
+    }
+
+    void addAll(Latences autres) {
+        for (Map.Entry<String, Serie> entry : autres.series.entrySet()) {
+            Serie serie = serie(entry.getKey());
+            Serie autre = entry.getValue();
+            for (int i = 0; i < autre.taille; i++) {
+                serie.add(autre.durees[i]);
+            }
+            serie.erreurs += autre.erreurs;
+        }
+    }
+
+    private Serie serie(String operation) {
+        return series.computeIfAbsent(operation, k -> new Serie());
+    }
+
+    /**
+     * Affiche une ligne par opération : nombre, erreurs, médiane, 99e centile, maximum et débit.
+     * @param secondes Durée de la mesure, pour le débit.
+     */
+    void print(PrintStream out, double secondes) {
+        out.printf("%-20s %9s %8s %10s %10s %10s %10s%n",
+                "Opération", "Nombre", "Erreurs", "p50 (ms)", "p99 (ms)", "max (ms)", "Débit (/s)");
+        for (Map.Entry<String, Serie> entry : series.entrySet()) {
+            Serie serie = entry.getValue();
+            if (serie.taille == 0 && serie.erreurs == 0) {
+                continue; // Opération jamais exécutée (par exemple les écritures en --lecture-seule)
+            }
+            long[] triees = Arrays.copyOf(serie.durees, serie.taille);
+            Arrays.sort(triees);
+            out.printf("%-20s %9d %8d %10.2f %10.2f %10.2f %10.1f%n", entry.getKey(), serie.taille, serie.erreurs,
+                    millis(centile(triees, 50)), millis(centile(triees, 99)),
+                    millis(triees.length > 0 ? triees[triees.length - 1] : 0), serie.taille / secondes);
+        }
+    }
+
+    /**
+     * Centile par la méthode du rang le plus proche.
+     */
+    static long centile(long[] triees, double centile) {
+        if (triees.length == 0) {
+            return 0;
+        }
+        int rang = (int) Math.ceil(centile / 100.0 * triees.length);
+        return triees[Math.max(0, rang - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Serie {
+        private long[] durees = new long[256];
+        private int taille;
+        private long erreurs;
+
+        private void add(long nanos) {
+            if (taille == durees.length) {
+                durees = Arrays.copyOf(durees, taille * 2);
+            }
+            durees[taille++] = nanos;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.gestionnotes.bench;
+
+import com.example.gestionnotes.dao.DBConnection;
+import com.example.gestionnotes.dao.EtudiantRepository;
+import com.example.gestionnotes.dao.MigrationRunner;
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.dao.Repositories;
+import com.example.gestionnotes.io.NotesCsvExporter;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.NotesEtudiant;
+import com.example.gestionnotes.model.Page;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test de charge sans interface : des utilisateurs simulés rejouent en parallèle des sessions de saisie
+ * à travers les mêmes dépôts que l'application (Repositories, donc avec les caches en stockage jdbc),
+ * puis la médiane et le 99e centile de chaque opération sont affichés.
+ *
+ * Une session : recherche d'étudiants (parfois suivie de la page suivante), sélection d'un étudiant
+ * et préchargement de ses voisins, ajout d'une note, modification, suppression de la note ajoutée
+ * (les statistiques du pied de page sont relues après chaque écriture), et de temps en temps un export.
+ * Entre deux actions, l'utilisateur marque une pause de durée aléatoire (loi exponentielle).
+ *
+ * Lancement (après mvn -f benchmarks/pom.xml package) :
+ *   java [-Ddb.url=...] [-Dstorage.backend=memory] -cp benchmarks/target/benchmarks.jar \
+ *        com.example.gestionnotes.bench.LoadTestDriver [options]
+ *
+ * Options :
+ * <ul>
+ *     <li>--utilisateurs N : utilisateurs simultanés (20) ;</li>
+ *     <li>--duree S : durée de la mesure en secondes (60), après --echauffement S secondes non mesurées (10) ;</li>
+ *     <li>--pause MS : pause moyenne entre deux actions d'un utilisateur (300) ;</li>
+ *     <li>--export N : un export de filière toutes les N sessions de chaque utilisateur, 0 pour aucun (20) ;</li>
+ *     <li>--lecture-seule : sessions sans ajout, modification ni suppression ;</li>
+ *     <li>--taille-page N : étudiants par page de recherche (50) ;</li>
+ *     <li>--graine N : graine des tirages des utilisateurs (42).</li>
+ * </ul>
+ * En stockage jdbc, la base doit déjà contenir un jeu de données (voir DataGenerator). En stockage memory,
+ * le jeu est généré au démarrage, avec les options de DataGenerator.
+ */
+public final class LoadTestDriver {
+
+    private static final List<String> OPTIONS_TEST = Arrays.asList("utilisateurs", "duree", "echauffement", "pause",
+            "export", "lecture-seule", "taille-page");
+
+    // Opérations mesurées, dans l'ordre d'une session
+    private static final String[] OPERATIONS = {"recherche", "page suivante", "sélection", "préchargement",
+            "ajout note", "modification note", "suppression note", "statistiques", "export"};
+
+    // Nombre de cartes voisines préchargées de chaque côté, comme cache.notes.prefetchRadius
+    private static final int RAYON_PRECHARGEMENT = 3;
+
+    private final EtudiantRepository etudiantDAO;
+    private final NoteRepository noteDAO;
+    private final List<Etudiant> etudiants;
+    private final List<String> filieres;
+    private final List<String> matieres;
+
+    private final long pauseMoyenneMs;
+    private final int exportToutes;
+    private final boolean lectureSeule;
+    private final int taillePage;
+
+    private volatile long debutMesure;
+    private volatile long fin;
+
+    private LoadTestDriver(Arguments args, EtudiantRepository etudiantDAO, NoteRepository noteDAO) {
+        this.etudiantDAO = etudiantDAO;
+        this.noteDAO = noteDAO;
+        this.etudiants = etudiantDAO.getAllEtudiants();
+        this.filieres = etudiantDAO.getAllFilieres();
+        this.matieres = new ArrayList<>(noteDAO.getStatistiques().getParMatiere().keySet());
+        this.pauseMoyenneMs = args.getLong("pause", 300);
+        this.exportToutes = args.getInt("export", 20);
+        this.lectureSeule = args.has("lecture-seule");
+        this.taillePage = args.getInt("taille-page", 50);
+    }
+
+    public static void main(String[] args) {
+        int code = 0;
+        try {
+            List<String> options = new ArrayList<>(OPTIONS_TEST);
+            options.addAll(DataGenerator.OPTIONS);
+            Arguments arguments = new Arguments(args, options);
+
+            EtudiantRepository etudiantDAO = Repositories.getEtudiantRepository();
+            NoteRepository noteDAO = Repositories.getNoteRepository();
+            if (Repositories.isMemoryBackend()) {
+                System.out.println("Stockage en mémoire : génération du jeu de données...");
+                new DataGenerator(arguments).write(etudiantDAO, noteDAO);
+            } else {
+                new MigrationRunner().migrate();
+            }
+
+            LoadTestDriver driver = new LoadTestDriver(arguments, etudiantDAO, noteDAO);
+            if (driver.etudiants.isEmpty() || driver.matieres.isEmpty()) {
+                throw new IllegalArgumentException("La base ne contient ni étudiants ni notes : "
+                        + "remplissez-la d'abord avec DataGenerator.");
+            }
+            int utilisateurs = arguments.getInt("utilisateurs", 20);
+            int duree = arguments.getInt("duree", 60);
+            System.out.printf("%d étudiants, %d filières, %d matières ; %d utilisateurs pendant %d s (+ %d s d'échauffement).%n",
+                    driver.etudiants.size(), driver.filieres.size(), driver.matieres.size(), utilisateurs, duree,
+                    arguments.getInt("echauffement", 10));
+            Latences latences = driver.run(utilisateurs, arguments.getInt("echauffement", 10), duree,
+                    arguments.getLong("graine", 42L));
+            latences.print(System.out, duree);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            code = 2;
+        } catch (Exception e) {
+            e.printStackTrace();
+            code = 1;
+        } finally {
+            DBConnection.closeConnection();
+        }
+        System.exit(code);
+    }
+
+    /**
+     * Lance les utilisateurs et attend la fin du test.
+     * @return Les durées mesurées de tous les utilisateurs, hors échauffement.
+     */
+    private Latences run(int nbUtilisateurs, int echauffement, int duree, long graine) throws Exception {
+        long maintenant = System.nanoTime();
+        debutMesure = maintenant + TimeUnit.SECONDS.toNanos(echauffement);
+        fin = debutMesure + TimeUnit.SECONDS.toNanos(duree);
+
+        ExecutorService executor = Executors.newFixedThreadPool(nbUtilisateurs);
+        List<Future<Latences>> resultats = new ArrayList<>();
+        for (int i = 0; i < nbUtilisateurs; i++) {
+            Utilisateur utilisateur = new Utilisateur(i, new Random(graine + i));
+            resultats.add(executor.submit(utilisateur::run));
+        }
+        executor.shutdown();
+        Latences toutes = new Latences(OPERATIONS);
+        for (Future<Latences> resultat : resultats) {
+            toutes.addAll(resultat.get());
+        }
+        return toutes;
+    }
+
+    /**
+     * Une opération mesurée. Un résultat null ou false compte comme une erreur.
+     */
+    @FunctionalInterface
+    private interface Operation<T> {
+        T run() throws Exception;
+    }
+
+    /**
+     * Un utilisateur simulé, sur son propre thread.
+     */
+    private final class Utilisateur {
+        private final int numero;
+        private final Random random;
+        private final Latences latences = new Latences();
+        private int sessions;
+
+        private Utilisateur(int numero, Random random) {
+            this.numero = numero;
+            this.random = random;
+        }
+
+        private Latences run() throws Exception {
+            File export = File.createTempFile("charge-export-" + numero + "-", ".csv");
+            try {
+                // Départs étalés : les utilisateurs n'arrivent pas tous au même instant
+                Thread.sleep((long) (random.nextDouble() * pauseMoyenneMs));
+                while (System.nanoTime() < fin) {
+                    session(export);
+                }
+            } finally {
+                export.delete();
+            }
+            return latences;
+        }
+
+        private void session(File export) throws InterruptedException {
+            String filiere = random.nextBoolean() ? choisir(filieres) : null;
+            String terme = random.nextInt(10) < 6 ? prefixe(choisir(etudiants).getNom()) : null;
+            Page<Etudiant> page = mesurer("recherche", () -> etudiantDAO.searchEtudiants(filiere, terme, null, taillePage));
+            List<Etudiant> cartes = page != null ? page.getItems() : new ArrayList<>();
+            pause();
+            if (page != null && page.hasMore() && random.nextInt(10) < 3) {
+                Page<Etudiant> suivante = mesurer("page suivante",
+                        () -> etudiantDAO.searchEtudiants(filiere, terme, page.getDernier(), taillePage));
+                if (suivante != null && !suivante.getItems().isEmpty()) {
+                    cartes = suivante.getItems();
+                }
+                pause();
+            }
+            if (cartes.isEmpty()) {
+                cartes = Arrays.asList(choisir(etudiants));
+            }
+
+            int rang = random.nextInt(cartes.size());
+            Etudiant etudiant = cartes.get(rang);
+            NotesEtudiant notes = mesurer("sélection", () -> {
+                NotesEtudiant cached = noteDAO.getIfPresent(etudiant.getId());
+                return cached != null ? cached : noteDAO.getNotesEtudiant(etudiant.getId());
+            });
+            List<Integer> voisins = voisins(cartes, rang);
+            mesurer("préchargement", () -> {
+                noteDAO.prefetch(voisins);
+                return Boolean.TRUE;
+            });
+            pause();
+
+            if (!lectureSeule && notes != null) {
+                saisir(etudiant, notes);
+            }
+
+            sessions++;
+            if (exportToutes > 0 && sessions % exportToutes == 0) {
+                String exportee = filiere != null ? filiere : choisir(filieres);
+                mesurer("export", () -> new NotesCsvExporter(noteDAO).export(exportee, export) >= 0);
+                pause();
+            }
+        }
+
+        /**
+         * Ajout d'une note dans une matière que l'étudiant n'a pas, modification, puis suppression de cette note :
+         * le volume de la base reste stable au fil du test.
+         */
+        private void saisir(Etudiant etudiant, NotesEtudiant notes) throws InterruptedException {
+            Set<String> dejaNotees = new HashSet<>();
+            for (Note note : notes.getNotes()) {
+                dejaNotees.add(note.getMatiere());
+            }
+            List<String> libres = new ArrayList<>();
+            for (String matiere : matieres) {
+                if (!dejaNotees.contains(matiere)) {
+                    libres.add(matiere);
+                }
+            }
+            if (libres.isEmpty()) {
+                return;
+            }
+            Note note = new Note(0, etudiant.getId(), etudiant.getNom(), etudiant.getPrenom(), choisir(libres),
+                    tirerNote(), tirerNote());
+            if (mesurer("ajout note", () -> noteDAO.addNote(note)) == null) {
+                return;
+            }
+            mesurer("statistiques", noteDAO::getStatistiquesGlobales);
+            pause();
+
+            Note corrigee = new Note(note.getId(), etudiant.getId(), etudiant.getNom(), etudiant.getPrenom(),
+                    note.getMatiere(), tirerNote(), tirerNote());
+            mesurer("modification note", () -> noteDAO.updateNote(corrigee));
+            mesurer("statistiques", noteDAO::getStatistiquesGlobales);
+            pause();
+
+            mesurer("suppression note", () -> noteDAO.deleteNote(note.getId()));
+            mesurer("statistiques", noteDAO::getStatistiquesGlobales);
+            pause();
+        }
+
+        /**
+         * Exécute et chronomètre une opération ; seules celles commencées après l'échauffement sont comptées.
+         * @return Le résultat de l'opération, ou null en cas d'erreur.
+         */
+        private <T> T mesurer(String nom, Operation<T> operation) {
+            long debut = System.nanoTime();
+            T resultat;
+            try {
+                resultat = operation.run();
+            } catch (Exception e) {
+                resultat = null;
+            }
+            boolean echec = resultat == null || Boolean.FALSE.equals(resultat);
+            if (debut >= debutMesure && debut < fin) {
+                if (echec) {
+                    latences.error(nom);
+                } else {
+                    latences.record(nom, System.nanoTime() - debut);
+                }
+            }
+            return echec ? null : resultat;
+        }
+
+        private void pause() throws InterruptedException {
+            if (pauseMoyenneMs > 0) {
+                Thread.sleep((long) (-Math.log(1 - random.nextDouble()) * pauseMoyenneMs));
+            }
+        }
+
+        private List<Integer> voisins(List<Etudiant> cartes, int rang) {
+            List<Integer> ids = new ArrayList<>();
+            for (int i = Math.max(0, rang - RAYON_PRECHARGEMENT); i <= Math.min(cartes.size() - 1, rang + RAYON_PRECHARGEMENT); i++) {
+                if (i != rang) {
+                    ids.add(cartes.get(i).getId());
+                }
+            }
+            return ids;
+        }
+
+        private String prefixe(String nom) {
+            return nom.substring(0, Math.min(nom.length(), 2 + random.nextInt(3)));
+        }
+
+        private double tirerNote() {
+            return Math.round(random.nextDouble() * 80) / 4.0;
+        }
+
+        private <T> T choisir(List<T> liste) {
+            return liste.get(random.nextInt(liste.size()));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.gestionnotes.bench;
+
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.NoteRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût d'une note lue : Note, dont les propriétés JavaFX ne sont créées qu'à l'affichage, et NoteRecord.
+ * <ul>
+ *     <li>creerNote : la construction seule, comme dans getNotesByEtudiant ;</li>
+ *     <li>creerEtAfficherNote : la construction puis la lecture des colonnes affichées par le tableau des notes ;</li>
+ *     <li>creerEtLierNote : la construction puis la création des propriétés auxquelles les cellules du tableau se lient ;</li>
+ *     <li>creerNoteRecord : la note compacte de getAllNotes et de l'import des notes.</li>
+ * </ul>
+ * Les valeurs sont tirées d'avance dans des tableaux pour que le compilateur ne puisse pas les traiter comme des constantes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NoteBenchmark {
+
+    private static final int NB_VALEURS = 1024;
+
+    private final String[] noms = new String[NB_VALEURS];
+    private final String[] matieres = new String[NB_VALEURS];
+    private final double[] notes = new double[NB_VALEURS];
+    private final Etudiant[] etudiants = new Etudiant[NB_VALEURS];
+    private int suivant;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(11);
+        for (int i = 0; i < NB_VALEURS; i++) {
+            noms[i] = "Nom " + i;
+            matieres[i] = "Matière " + (i % 12);
+            notes[i] = Math.round(random.nextDouble() * 80) / 4.0;
+            etudiants[i] = new Etudiant(i, noms[i], "Prénom " + i, "Informatique");
+        }
+    }
+
+    private Note nouvelleNote() {
+        int i = suivant;
+        suivant = (i + 1) & (NB_VALEURS - 1);
+        int j = (i + 1) & (NB_VALEURS - 1);
+        return new Note(i, j, noms[i], noms[j], matieres[i], notes[i], notes[j]);
+    }
+
+    @Benchmark
+    public Note creerNote() {
+        return nouvelleNote();
+    }
+
+    @Benchmark
+    public void creerEtAfficherNote(Blackhole bh) {
+        Note note = nouvelleNote();
+        bh.consume(note.getMatiere());
+        bh.consume(note.getNoteDevoir());
+        bh.consume(note.getNoteExamen());
+        bh.consume(note.getMoyenne());
+        bh.consume(note.getStatutValidation());
+    }
+
+    @Benchmark
+    public void creerEtLierNote(Blackhole bh) {
+        Note note = nouvelleNote();
+        bh.consume(note.matiereProperty());
+        bh.consume(note.noteDevoirProperty());
+        bh.consume(note.noteExamenProperty());
+        bh.consume(note.moyenneProperty());
+        bh.consume(note.statutValidationProperty());
+    }
+
+    @Benchmark
+    public NoteRecord creerNoteRecord() {
+        int i = suivant;
+        suivant = (i + 1) & (NB_VALEURS - 1);
+        int j = (i + 1) & (NB_VALEURS - 1);
+        return new NoteRecord(i, etudiants[i], matieres[i], notes[i], notes[j]);
+    }
+}
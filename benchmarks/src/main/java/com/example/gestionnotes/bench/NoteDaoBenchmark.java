@@ -0,0 +1,129 @@
+package com.example.gestionnotes.bench;
+
+import com.example.gestionnotes.dao.CachedNoteDAO;
+import com.example.gestionnotes.dao.EtudiantDAO;
+import com.example.gestionnotes.dao.EtudiantRepository;
+import com.example.gestionnotes.dao.MemoryStore;
+import com.example.gestionnotes.dao.NoteDAO;
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.NoteRecord;
+import com.example.gestionnotes.model.NotesEtudiant;
+import com.example.gestionnotes.model.Statistiques;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lectures de notes faites par l'écran principal, sur la base JDBC et sur le stockage en mémoire.
+ * <ul>
+ *     <li>getAllNotes : toutes les notes du jeu de données ;</li>
+ *     <li>notesEtudiant : le chargement de loadNotesForStudentTask (getIfPresent, puis getNotesEtudiant
+ *     si le cache ne les a pas), pour un étudiant pris au hasard : le cas d'un défilement dans une grande liste ;</li>
+ *     <li>notesEtudiantRevu : le même chargement parmi une centaine d'étudiants déjà consultés ;</li>
+ *     <li>notesEtudiantSansCache : la requête par étudiant seule ;</li>
+ *     <li>statistiquesPiedDePage : les statistiques globales du pied de page (table note_stats) ;</li>
+ *     <li>statistiquesRecalcul : le même calcul par un parcours complet des notes, pour comparaison.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoteDaoBenchmark {
+
+    // Nombre d'étudiants déjà consultés dans notesEtudiantRevu : tous tiennent dans le cache des notes
+    private static final int DEJA_VUS = 100;
+    private static final int NB_TIRAGES = 4096;
+
+    @Param({BenchData.JDBC, BenchData.MEMORY})
+    public String stockage;
+
+    private NoteRepository noteDAO;
+    private NoteRepository sansCache;
+    private int[] tirages;
+    private int[] dejaVus;
+    private int suivant;
+
+    @Setup
+    public void setup() throws Exception {
+        EtudiantRepository etudiantDAO;
+        if (BenchData.JDBC.equals(stockage)) {
+            BenchData.prepareJdbc();
+            etudiantDAO = new EtudiantDAO();
+            noteDAO = new CachedNoteDAO(500);
+            sansCache = new NoteDAO();
+        } else {
+            MemoryStore store = BenchData.memoryStore();
+            etudiantDAO = store.getEtudiantDAO();
+            noteDAO = store.getNoteDAO();
+            sansCache = noteDAO;
+        }
+        // Les ids sont lus dans le stockage : une base existante peut ne pas les numéroter à partir de 1
+        List<Etudiant> etudiants = etudiantDAO.getAllEtudiants();
+        Random random = new Random(7);
+        tirages = new int[NB_TIRAGES];
+        dejaVus = new int[NB_TIRAGES];
+        for (int i = 0; i < NB_TIRAGES; i++) {
+            tirages[i] = etudiants.get(random.nextInt(etudiants.size())).getId();
+            dejaVus[i] = etudiants.get(random.nextInt(Math.min(DEJA_VUS, etudiants.size()))).getId();
+        }
+    }
+
+    private int suivant() {
+        suivant = (suivant + 1) & (NB_TIRAGES - 1);
+        return suivant;
+    }
+
+    @Benchmark
+    public List<NoteRecord> getAllNotes() {
+        return noteDAO.getAllNotes();
+    }
+
+    @Benchmark
+    public NotesEtudiant notesEtudiant() {
+        return charger(tirages[suivant()]);
+    }
+
+    @Benchmark
+    public NotesEtudiant notesEtudiantRevu() {
+        return charger(dejaVus[suivant()]);
+    }
+
+    @Benchmark
+    public NotesEtudiant notesEtudiantSansCache() {
+        return sansCache.getNotesEtudiant(tirages[suivant()]);
+    }
+
+    /**
+     * Même enchaînement que MainController.loadNotesForStudentTask, sans l'affichage.
+     */
+    private NotesEtudiant charger(int etudiantId) {
+        NotesEtudiant cached = noteDAO.getIfPresent(etudiantId);
+        return cached != null ? cached : noteDAO.getNotesEtudiant(etudiantId);
+    }
+
+    @Benchmark
+    public Statistiques.Ligne statistiquesPiedDePage() {
+        return noteDAO.getStatistiquesGlobales();
+    }
+
+    @Benchmark
+    public Statistiques statistiquesRecalcul() {
+        return noteDAO.calculerStatistiques();
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.gestionnotes;
 
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.dao.AsyncDao;
+import com.example.gestionnotes.dao.DBConnection;
+import com.example.gestionnotes.dao.MigrationRunner;
+import com.example.gestionnotes.dao.Repositories;
+import com.example.gestionnotes.dao.NoteWriteBehind;
+import com.example.gestionnotes.task.TaskScheduler;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
 import java.io.IOException;
+import java.sql.SQLException;
 
 /**
  * Classe principale de l'application de gestion des notes.
@@ -15,12 +23,18 @@ public class Main extends Application {
 
     /**
      * Méthode `start` appelée au lancement de l'application JavaFX.
-     * Charge le fichier FXML de l'interface utilisateur et affiche la fenêtre.
+     * Lance la mise à jour du schéma de la base en arrière-plan, puis charge le fichier FXML de l'interface
+     * utilisateur et affiche la fenêtre : les lectures asynchrones (AsyncDao), les tâches des contrôleurs
+     * (TaskScheduler) et la saisie différée (NoteWriteBehind) attendent la fin des migrations.
      * @param stage Le stage (fenêtre principale) de l'application.
      * @throws IOException Si le fichier FXML ne peut pas être chargé.
      */
     @Override
     public void start(Stage stage) throws IOException {
+        if (!Repositories.isMemoryBackend() && AppConfig.getBoolean("db.migrate", true)) {
+            // Les tâches des contrôleurs et la saisie différée attendent elles aussi la fin des migrations
+            TaskScheduler.getInstance().setPrerequisite(AsyncDao.getInstance().prepare(Main::migrateSchema));
+        }
         // Charge le fichier FXML de la vue principale
         FXMLLoader fxmlLoader = new FXMLLoader(Main.class.getResource("MainView.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 800, 600); // Définit la taille initiale de la fenêtre
@@ -29,6 +43,33 @@ public class Main extends Application {
         stage.show(); // Affiche la fenêtre
     }
 
+    /**
+     * Applique les migrations manquantes. Un échec est signalé sans empêcher le démarrage :
+     * l'application reste utilisable sur un schéma créé à la main.
+     */
+    private static void migrateSchema() {
+        try {
+            new MigrationRunner().migrate();
+        } catch (SQLException e) {
+            System.err.println("Erreur: mise à jour du schéma de la base impossible.");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Méthode `stop` appelée à la fermeture de l'application.
+     * Arrête les tâches d'arrière-plan, écrit les notes de la saisie rapide encore en attente,
+     * enregistre le stockage en mémoire s'il est utilisé et ferme le pool de connexions à la base de données.
+     */
+    @Override
+    public void stop() {
+        TaskScheduler.getInstance().shutdown();
+        AsyncDao.shutdownInstance();
+        NoteWriteBehind.shutdownInstance();
+        Repositories.saveMemoryStore();
+        DBConnection.closeConnection();
+    }
+
     /**
      * Méthode `main` : point d'entrée standard pour une application Java.
      * Appelle `launch()` qui initialise JavaFX et appelle la méthode `start`.
@@ -0,0 +1,52 @@
+package com.example.gestionnotes.analytics;
+
+import com.example.gestionnotes.model.GradingPolicy;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Résultat de NoteAnalytics : la distribution des moyennes pour toute l'école, par filière et par matière,
+ * selon le barème utilisé pour le calcul.
+ */
+public final class AnalyticsReport {
+
+    private final GradingPolicy bareme;
+    private final Distribution global;
+    private final Map<String, Distribution> parFiliere;
+    private final Map<String, Distribution> parMatiere;
+    private final double dureeMillis;
+
+    AnalyticsReport(GradingPolicy bareme, Distribution global, Map<String, Distribution> parFiliere,
+                    Map<String, Distribution> parMatiere, double dureeMillis) {
+        this.bareme = bareme;
+        this.global = global;
+        this.parFiliere = Collections.unmodifiableMap(parFiliere);
+        this.parMatiere = Collections.unmodifiableMap(parMatiere);
+        this.dureeMillis = dureeMillis;
+    }
+
+    /** @return Le barème des moyennes et des statuts du rapport. */
+    public GradingPolicy getBareme() {
+        return bareme;
+    }
+
+    public Distribution getGlobal() {
+        return global;
+    }
+
+    /** @return Les distributions par filière, triées par nom. */
+    public Map<String, Distribution> getParFiliere() {
+        return parFiliere;
+    }
+
+    /** @return Les distributions par matière, triées par nom. */
+    public Map<String, Distribution> getParMatiere() {
+        return parMatiere;
+    }
+
+    /** @return La durée du calcul, sans le chargement des colonnes. */
+    public double getDureeMillis() {
+        return dureeMillis;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.gestionnotes.analytics;
+
+/**
+ * Distribution des moyennes pondérées d'un groupe de notes (toute l'école, une filière ou une matière).
+ * La médiane et les centiles sont calculés sur les moyennes arrondies au centième de point.
+ */
+public final class Distribution {
+
+    /** Nombre de classes de l'histogramme : une par point, de [0, 1[ à [19, 20]. */
+    public static final int NB_CLASSES = 20;
+
+    private final long nbNotes;
+    private final long nbEtudiants;
+    private final double moyenne;
+    private final double ecartType;
+    private final double premierDecile;
+    private final double premierQuartile;
+    private final double mediane;
+    private final double troisiemeQuartile;
+    private final double dernierDecile;
+    private final double tauxReussite;
+    private final long nbAdmis;
+    private final long[] histogramme;
+
+    Distribution(long nbNotes, long nbEtudiants, double moyenne, double ecartType, double premierDecile,
+                 double premierQuartile, double mediane, double troisiemeQuartile, double dernierDecile,
+                 double tauxReussite, long nbAdmis, long[] histogramme) {
+        this.nbNotes = nbNotes;
+        this.nbEtudiants = nbEtudiants;
+        this.moyenne = moyenne;
+        this.ecartType = ecartType;
+        this.premierDecile = premierDecile;
+        this.premierQuartile = premierQuartile;
+        this.mediane = mediane;
+        this.troisiemeQuartile = troisiemeQuartile;
+        this.dernierDecile = dernierDecile;
+        this.tauxReussite = tauxReussite;
+        this.nbAdmis = nbAdmis;
+        this.histogramme = histogramme;
+    }
+
+    public long getNbNotes() {
+        return nbNotes;
+    }
+
+    /** @return Le nombre d'étudiants ayant au moins une note dans le groupe. */
+    public long getNbEtudiants() {
+        return nbEtudiants;
+    }
+
+    public double getMoyenne() {
+        return moyenne;
+    }
+
+    /** @return L'écart type (de la population) des moyennes pondérées. */
+    public double getEcartType() {
+        return ecartType;
+    }
+
+    public double getPremierDecile() {
+        return premierDecile;
+    }
+
+    public double getPremierQuartile() {
+        return premierQuartile;
+    }
+
+    public double getMediane() {
+        return mediane;
+    }
+
+    public double getTroisiemeQuartile() {
+        return troisiemeQuartile;
+    }
+
+    public double getDernierDecile() {
+        return dernierDecile;
+    }
+
+    /** @return Le pourcentage de notes validées (moyenne atteignant le seuil de leur matière), de 0 à 100. */
+    public double getTauxReussite() {
+        return tauxReussite;
+    }
+
+    /**
+     * @return Le nombre d'étudiants admis : moyenne générale (pondérée par les coefficients) atteignant le seuil
+     * d'admission pour l'école et une filière, note validée pour une matière.
+     */
+    public long getNbAdmis() {
+        return nbAdmis;
+    }
+
+    /** @return Le pourcentage d'étudiants admis parmi ceux du groupe, de 0 à 100. */
+    public double getTauxAdmission() {
+        return nbEtudiants == 0 ? 0.0 : nbAdmis * 100.0 / nbEtudiants;
+    }
+
+    /**
+     * @return Le nombre de notes par classe d'un point (copie) ; la dernière classe contient aussi les 20.
+     */
+    public long[] getHistogramme() {
+        return histogramme.clone();
+    }
+}
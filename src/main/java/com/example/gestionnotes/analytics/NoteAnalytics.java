@@ -0,0 +1,251 @@
+package com.example.gestionnotes.analytics;
+
+import com.example.gestionnotes.model.GradingPolicy;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Statistiques détaillées des notes (moyenne, écart type, médiane, quartiles, déciles, taux de réussite,
+ * histogramme) pour toute l'école, par filière et par matière, calculées sur NoteColumns.
+ * <p>
+ * Les notes sont découpées en tranches traitées en parallèle (fork-join) ; chaque tranche compte ses
+ * moyennes par centième de point dans un tableau par groupe, puis les tranches sont additionnées.
+ * Les centiles se lisent ensuite dans ces comptes, sans trier les notes : le calcul est linéaire
+ * et la mémoire utilisée ne dépend que du nombre de groupes.
+ * <p>
+ * Moyennes, validations et admissions suivent le barème donné (GradingPolicy) : le même passage permet
+ * de simuler un autre barème sur toute l'école, par exemple un seuil de réussite à 9,5 au lieu de 10.
+ */
+public final class NoteAnalytics {
+
+    // Moyennes arrondies au centième : 0,00 à 20,00
+    private static final int NB_CENTIEMES = 2001;
+    private static final int TRANCHE_MIN = 1 << 14;
+
+    private NoteAnalytics() {
+    }
+
+    /**
+     * Analyse les notes avec le barème de l'application, sur le pool fork-join commun.
+     */
+    public static AnalyticsReport analyser(NoteColumns colonnes) {
+        return analyser(colonnes, GradingPolicy.getCurrent());
+    }
+
+    /**
+     * Analyse les notes avec un autre barème que celui de l'application (simulation), sur le pool fork-join commun.
+     */
+    public static AnalyticsReport analyser(NoteColumns colonnes, GradingPolicy bareme) {
+        return analyser(colonnes, bareme, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool Le pool qui exécute le calcul ; un pool d'un seul thread donne le calcul séquentiel.
+     */
+    public static AnalyticsReport analyser(NoteColumns colonnes, GradingPolicy bareme, ForkJoinPool pool) {
+        long debut = System.nanoTime();
+        int nbGroupes = 1 + colonnes.getNbFilieres() + colonnes.getNbMatieres();
+        int tranche = Math.max(TRANCHE_MIN, colonnes.size / (pool.getParallelism() * 4));
+        // Règle de chaque matière, indexée par son code : une seule recherche par matière et non par note
+        GradingPolicy.Regle[] regles = new GradingPolicy.Regle[colonnes.getNbMatieres()];
+        for (int m = 0; m < regles.length; m++) {
+            regles[m] = bareme.regle(colonnes.libellesMatieres[m]);
+        }
+        Comptes comptes = colonnes.size == 0
+                ? new Comptes(nbGroupes)
+                : pool.invoke(new Calcul(colonnes, bareme, regles, nbGroupes, tranche, 0, colonnes.size));
+
+        Distribution global = comptes.distribution(0);
+        Map<String, Distribution> parFiliere = new TreeMap<>();
+        for (int f = 0; f < colonnes.getNbFilieres(); f++) {
+            parFiliere.put(colonnes.libellesFilieres[f], comptes.distribution(1 + f));
+        }
+        Map<String, Distribution> parMatiere = new TreeMap<>();
+        int premiereMatiere = 1 + colonnes.getNbFilieres();
+        for (int m = 0; m < colonnes.getNbMatieres(); m++) {
+            parMatiere.put(colonnes.libellesMatieres[m], comptes.distribution(premiereMatiere + m));
+        }
+        return new AnalyticsReport(bareme, global, parFiliere, parMatiere, (System.nanoTime() - debut) / 1_000_000.0);
+    }
+
+    /**
+     * Calcule les comptes d'une tranche de notes, en la divisant tant qu'elle dépasse la taille d'une tranche.
+     * Les tranches sont coupées entre deux étudiants, pour que chaque moyenne générale soit calculée par une seule.
+     * ForkJoinTask est sérialisable, mais un Calcul n'est jamais sérialisé.
+     */
+    @SuppressWarnings("serial")
+    private static final class Calcul extends RecursiveTask<Comptes> {
+        private final NoteColumns colonnes;
+        private final GradingPolicy bareme;
+        private final GradingPolicy.Regle[] regles;
+        private final int nbGroupes;
+        private final int tranche;
+        private final int debut;
+        private final int fin;
+
+        private Calcul(NoteColumns colonnes, GradingPolicy bareme, GradingPolicy.Regle[] regles, int nbGroupes,
+                       int tranche, int debut, int fin) {
+            this.colonnes = colonnes;
+            this.bareme = bareme;
+            this.regles = regles;
+            this.nbGroupes = nbGroupes;
+            this.tranche = tranche;
+            this.debut = debut;
+            this.fin = fin;
+        }
+
+        @Override
+        protected Comptes compute() {
+            if (fin - debut <= tranche) {
+                return compter();
+            }
+            int milieu = (debut + fin) >>> 1;
+            int[] etudiantIds = colonnes.etudiantIds;
+            while (milieu < fin && etudiantIds[milieu - 1] == etudiantIds[milieu]) {
+                milieu++;
+            }
+            if (milieu == fin) {
+                return compter();
+            }
+            Calcul gauche = new Calcul(colonnes, bareme, regles, nbGroupes, tranche, debut, milieu);
+            gauche.fork();
+            Comptes droite = new Calcul(colonnes, bareme, regles, nbGroupes, tranche, milieu, fin).compute();
+            Comptes resultat = gauche.join();
+            resultat.add(droite);
+            return resultat;
+        }
+
+        private Comptes compter() {
+            Comptes comptes = new Comptes(nbGroupes);
+            int premiereMatiere = 1 + colonnes.getNbFilieres();
+            int[] etudiantIds = colonnes.etudiantIds;
+            // Moyenne générale de l'étudiant en cours : somme des moyennes multipliées par leur coefficient
+            double sommePonderee = 0.0;
+            double coefficients = 0.0;
+            int filiere = 0;
+            for (int i = debut; i < fin; i++) {
+                GradingPolicy.Regle regle = regles[colonnes.matieres[i]];
+                double moyenne = regle.moyenne(colonnes.notesDevoir[i], colonnes.notesExamen[i]);
+                boolean valide = regle.estValide(moyenne);
+                // Les notes d'un étudiant sont contiguës et ne sont pas partagées entre deux tranches :
+                // la première le compte, et clôt la moyenne générale de l'étudiant précédent
+                if (i == debut || etudiantIds[i - 1] != etudiantIds[i]) {
+                    if (i > debut) {
+                        admettre(comptes, filiere, sommePonderee / coefficients);
+                    }
+                    sommePonderee = 0.0;
+                    coefficients = 0.0;
+                    filiere = 1 + colonnes.filieres[i];
+                    comptes.etudiants[0]++;
+                    comptes.etudiants[filiere]++;
+                }
+                int matiere = premiereMatiere + colonnes.matieres[i];
+                comptes.add(0, moyenne, valide);
+                comptes.add(filiere, moyenne, valide);
+                comptes.add(matiere, moyenne, valide);
+                // Une seule note par étudiant et par matière : l'étudiant est admis dans la matière s'il la valide
+                comptes.etudiants[matiere]++;
+                if (valide) {
+                    comptes.admis[matiere]++;
+                }
+                sommePonderee += moyenne * regle.getCoefficient();
+                coefficients += regle.getCoefficient();
+            }
+            if (fin > debut) {
+                admettre(comptes, filiere, sommePonderee / coefficients);
+            }
+            return comptes;
+        }
+
+        private void admettre(Comptes comptes, int filiere, double moyenneGenerale) {
+            if (bareme.estAdmis(moyenneGenerale)) {
+                comptes.admis[0]++;
+                comptes.admis[filiere]++;
+            }
+        }
+    }
+
+    /**
+     * Comptes par groupe : nombre de notes par centième de moyenne, sommes et notes validées.
+     * Le groupe 0 est l'école, puis viennent les filières et les matières dans l'ordre de leurs codes.
+     */
+    private static final class Comptes {
+        private final int[] parCentieme;
+        private final double[] sommes;
+        private final double[] sommesCarres;
+        private final long[] valides;
+        private final long[] etudiants;
+        private final long[] admis;
+
+        private Comptes(int nbGroupes) {
+            parCentieme = new int[nbGroupes * NB_CENTIEMES];
+            sommes = new double[nbGroupes];
+            sommesCarres = new double[nbGroupes];
+            valides = new long[nbGroupes];
+            etudiants = new long[nbGroupes];
+            admis = new long[nbGroupes];
+        }
+
+        private void add(int groupe, double moyenne, boolean valide) {
+            int centieme = (int) Math.round(moyenne * 100);
+            centieme = Math.max(0, Math.min(NB_CENTIEMES - 1, centieme));
+            parCentieme[groupe * NB_CENTIEMES + centieme]++;
+            sommes[groupe] += moyenne;
+            sommesCarres[groupe] += moyenne * moyenne;
+            if (valide) {
+                valides[groupe]++;
+            }
+        }
+
+        private void add(Comptes autres) {
+            for (int i = 0; i < parCentieme.length; i++) {
+                parCentieme[i] += autres.parCentieme[i];
+            }
+            for (int g = 0; g < sommes.length; g++) {
+                sommes[g] += autres.sommes[g];
+                sommesCarres[g] += autres.sommesCarres[g];
+                valides[g] += autres.valides[g];
+                etudiants[g] += autres.etudiants[g];
+                admis[g] += autres.admis[g];
+            }
+        }
+
+        private Distribution distribution(int groupe) {
+            int base = groupe * NB_CENTIEMES;
+            long nbNotes = 0;
+            long[] histogramme = new long[Distribution.NB_CLASSES];
+            for (int c = 0; c < NB_CENTIEMES; c++) {
+                int nombre = parCentieme[base + c];
+                nbNotes += nombre;
+                histogramme[Math.min(Distribution.NB_CLASSES - 1, c / 100)] += nombre;
+            }
+            if (nbNotes == 0) {
+                return new Distribution(0, etudiants[groupe], 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, admis[groupe], histogramme);
+            }
+            double moyenne = sommes[groupe] / nbNotes;
+            double variance = Math.max(0.0, sommesCarres[groupe] / nbNotes - moyenne * moyenne);
+            return new Distribution(nbNotes, etudiants[groupe], moyenne, Math.sqrt(variance),
+                    centile(base, nbNotes, 10), centile(base, nbNotes, 25), centile(base, nbNotes, 50),
+                    centile(base, nbNotes, 75), centile(base, nbNotes, 90),
+                    valides[groupe] * 100.0 / nbNotes, admis[groupe], histogramme);
+        }
+
+        /**
+         * Centile par la méthode du rang le plus proche.
+         */
+        private double centile(int base, long nbNotes, double centile) {
+            long rang = Math.max(1, (long) Math.ceil(centile / 100.0 * nbNotes));
+            long vus = 0;
+            for (int c = 0; c < NB_CENTIEMES; c++) {
+                vus += parCentieme[base + c];
+                if (vus >= rang) {
+                    return c / 100.0;
+                }
+            }
+            return 20.0;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.gestionnotes.analytics;
+
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.dao.NoteScanHandler;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Toutes les notes rangées en colonnes de types primitifs, pour les analyses (NoteAnalytics).
+ * Une note occupe 24 octets : l'identifiant de l'étudiant (int), les notes de devoir et d'examen (double,
+ * comme dans la base : une moyenne égale au seuil doit être validée ici comme par les requêtes SQL)
+ * et les codes de la filière et de la matière (short), qui renvoient à deux dictionnaires de libellés.
+ * Aucun objet n'est créé par note, contrairement à NoteRepository.getAllNotes().
+ * Les notes d'un même étudiant sont contiguës. Immuable une fois chargé.
+ */
+public final class NoteColumns {
+
+    final int size;
+    final int[] etudiantIds;
+    final double[] notesDevoir;
+    final double[] notesExamen;
+    final short[] filieres;
+    final short[] matieres;
+    final String[] libellesFilieres;
+    final String[] libellesMatieres;
+
+    private NoteColumns(Builder builder) {
+        this.size = builder.size;
+        this.etudiantIds = Arrays.copyOf(builder.etudiantIds, size);
+        this.notesDevoir = Arrays.copyOf(builder.notesDevoir, size);
+        this.notesExamen = Arrays.copyOf(builder.notesExamen, size);
+        this.filieres = Arrays.copyOf(builder.filieres, size);
+        this.matieres = Arrays.copyOf(builder.matieres, size);
+        this.libellesFilieres = builder.libellesFilieres.toArray();
+        this.libellesMatieres = builder.libellesMatieres.toArray();
+    }
+
+    /**
+     * Charge toutes les notes en un seul parcours (NoteRepository.scanNotes).
+     * @throws IllegalStateException si les notes n'ont pas pu être lues.
+     */
+    public static NoteColumns load(NoteRepository noteDAO) {
+        Builder builder = new Builder();
+        if (noteDAO.scanNotes(builder) < 0) {
+            throw new IllegalStateException("Lecture des notes impossible.");
+        }
+        return new NoteColumns(builder);
+    }
+
+    /** @return Le nombre de notes. */
+    public int size() {
+        return size;
+    }
+
+    public int getNbFilieres() {
+        return libellesFilieres.length;
+    }
+
+    public int getNbMatieres() {
+        return libellesMatieres.length;
+    }
+
+    /**
+     * @return La mémoire occupée par les colonnes, en octets (hors en-têtes des tableaux et libellés).
+     */
+    public long getTailleOctets() {
+        return (long) size * (Integer.BYTES + 2 * Double.BYTES + 2 * Short.BYTES);
+    }
+
+    /**
+     * Remplit les colonnes au fil du parcours, en doublant leur capacité si nécessaire.
+     */
+    private static final class Builder implements NoteScanHandler {
+        private int size;
+        private int[] etudiantIds = new int[1024];
+        private double[] notesDevoir = new double[1024];
+        private double[] notesExamen = new double[1024];
+        private short[] filieres = new short[1024];
+        private short[] matieres = new short[1024];
+        private final Dictionnaire libellesFilieres = new Dictionnaire("filières");
+        private final Dictionnaire libellesMatieres = new Dictionnaire("matières");
+
+        @Override
+        public void onNote(int etudiantId, String filiere, String matiere, double noteDevoir, double noteExamen) {
+            if (size == etudiantIds.length) {
+                int capacite = size * 2;
+                etudiantIds = Arrays.copyOf(etudiantIds, capacite);
+                notesDevoir = Arrays.copyOf(notesDevoir, capacite);
+                notesExamen = Arrays.copyOf(notesExamen, capacite);
+                filieres = Arrays.copyOf(filieres, capacite);
+                matieres = Arrays.copyOf(matieres, capacite);
+            }
+            etudiantIds[size] = etudiantId;
+            notesDevoir[size] = noteDevoir;
+            notesExamen[size] = noteExamen;
+            filieres[size] = libellesFilieres.code(filiere);
+            matieres[size] = libellesMatieres.code(matiere);
+            size++;
+        }
+    }
+
+    /**
+     * Associe à chaque libellé distinct un code, dans l'ordre de première apparition.
+     */
+    private static final class Dictionnaire {
+        private final String nature;
+        private final Map<String, Short> codes = new HashMap<>();
+
+        private Dictionnaire(String nature) {
+            this.nature = nature;
+        }
+
+        private short code(String libelle) {
+            Short code = codes.get(libelle);
+            if (code == null) {
+                if (codes.size() > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Trop de " + nature + " distinctes pour l'analyse.");
+                }
+                code = (short) codes.size();
+                codes.put(libelle, code);
+            }
+            return code;
+        }
+
+        private String[] toArray() {
+            String[] libelles = new String[codes.size()];
+            for (Map.Entry<String, Short> entry : codes.entrySet()) {
+                libelles[entry.getValue()] = entry.getKey();
+            }
+            return libelles;
+        }
+    }
+}
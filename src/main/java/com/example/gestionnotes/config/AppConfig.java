@@ -0,0 +1,118 @@
+package com.example.gestionnotes.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Configuration de l'application.
+ * Les valeurs sont lues dans le fichier application.properties du classpath (encodé en UTF-8),
+ * et peuvent être surchargées au lancement par des propriétés système (-Ddb.url=...).
+ */
+public final class AppConfig {
+
+    private static final String RESOURCE = "/com/example/gestionnotes/application.properties";
+
+    private static final Properties PROPERTIES = load();
+
+    private AppConfig() {
+    }
+
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream in = AppConfig.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            System.err.println("Erreur: Impossible de lire " + RESOURCE + ", valeurs par défaut utilisées.");
+            e.printStackTrace();
+        }
+        return properties;
+    }
+
+    /**
+     * Retourne la valeur d'une clé de configuration.
+     * @param key La clé recherchée.
+     * @param defaultValue La valeur retournée si la clé est absente.
+     * @return La propriété système si elle est définie, sinon celle du fichier, sinon la valeur par défaut.
+     */
+    public static String get(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = PROPERTIES.getProperty(key);
+        }
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Configuration invalide pour " + key + " : " + value);
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Configuration invalide pour " + key + " : " + value);
+            return defaultValue;
+        }
+    }
+
+    public static double getDouble(String key, double defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Configuration invalide pour " + key + " : " + value);
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = get(key, null);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Retourne toutes les clés qui commencent par un préfixe, par exemple les règles de chaque matière.
+     * @param prefix Le préfixe, retiré des clés retournées.
+     * @return Les valeurs par clé (sans le préfixe), celles des propriétés système remplaçant celles du fichier.
+     */
+    public static Map<String, String> getByPrefix(String prefix) {
+        Map<String, String> values = new TreeMap<>();
+        for (String key : PROPERTIES.stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                values.put(key.substring(prefix.length()), PROPERTIES.getProperty(key).trim());
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(prefix)) {
+                values.put(key.substring(prefix.length()), System.getProperty(key).trim());
+            }
+        }
+        return values;
+    }
+}
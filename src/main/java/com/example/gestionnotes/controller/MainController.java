@@ -1,18 +1,42 @@
 package com.example.gestionnotes.controller;
 
-import com.example.gestionnotes.dao.EtudiantDAO;
-import com.example.gestionnotes.dao.NoteDAO;
+import com.example.gestionnotes.analytics.AnalyticsReport;
+import com.example.gestionnotes.analytics.Distribution;
+import com.example.gestionnotes.analytics.NoteAnalytics;
+import com.example.gestionnotes.analytics.NoteColumns;
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.dao.AsyncDao;
+import com.example.gestionnotes.dao.EtudiantRepository;
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.dao.NoteWriteBehind;
+import com.example.gestionnotes.dao.NoteWriteBehindListener;
+import com.example.gestionnotes.dao.Repositories;
+import com.example.gestionnotes.io.NoteCsvImporter;
+import com.example.gestionnotes.io.NotesCsvExporter;
 import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.GradingPolicy;
+import com.example.gestionnotes.model.ImportReport;
 import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.NotesEtudiant;
+import com.example.gestionnotes.model.Page;
+import com.example.gestionnotes.model.Statistiques;
+import com.example.gestionnotes.ranking.Rang;
+import com.example.gestionnotes.ranking.RankingIndex;
+import com.example.gestionnotes.search.StudentSearchIndex;
+import com.example.gestionnotes.task.TaskScheduler;
+import com.example.gestionnotes.view.ImportReportDialog;
+import com.example.gestionnotes.view.StudentCardGrid;
+import javafx.application.Platform;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.geometry.Pos;
-import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.layout.FlowPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.animation.Animation;
@@ -26,16 +50,18 @@ import de.jensd.fx.glyphs.fontawesome.FontAwesomeIcon;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIconView;
 
 import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import java.text.DecimalFormat; // Pour formater la moyenne
 import java.io.File;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import javafx.stage.FileChooser;
-import javafx.util.Pair;
 
 /**
  * Contrôleur principal de l'application de gestion des notes.
@@ -48,7 +74,7 @@ public class MainController {
     private ComboBox<String> filiereFilterComboBox;
     
     @FXML
-    private FlowPane studentCardsContainer; // Nouveau conteneur pour les cartes étudiants
+    private StudentCardGrid studentCardsContainer; // Grille virtualisée des cartes étudiants
     @FXML
     private Label studentCountLabel; // Nouveau label pour le nombre d'étudiants
     @FXML
@@ -60,6 +86,8 @@ public class MainController {
     @FXML
     private Label studentAverageLabel; // Label pour la moyenne générale de l'étudiant sélectionné
     @FXML
+    private Label studentRankLabel; // Rang de l'étudiant sélectionné dans sa filière
+    @FXML
     private TextField matiereTextField;
     @FXML
     private TextField noteDevoirTextField;
@@ -96,6 +124,14 @@ public class MainController {
     @FXML
     private Button exportNotesButton;
     @FXML
+    private Button importNotesButton;
+    @FXML
+    private Button analyseNotesButton;
+    @FXML
+    private CheckBox writeBehindCheckBox;
+    @FXML
+    private Label pendingNotesLabel;
+    @FXML
     private Label totalStudentsLabel; // Nouveau label pour les stats du footer
     @FXML
     private Label globalAverageLabel; // Nouveau label pour les stats du footer
@@ -121,8 +157,9 @@ public class MainController {
     private StudentController studentViewController;
 
     // --- Instances des DAOs ---
-    private NoteDAO noteDAO;
-    private EtudiantDAO etudiantDAO;
+    private NoteRepository noteDAO;
+    private EtudiantRepository etudiantDAO;
+    private AsyncDao asyncDao;
 
     // --- Liste observable pour le TableView des notes ---
     private ObservableList<Note> noteList;
@@ -132,6 +169,32 @@ public class MainController {
 
     private PauseTransition debounceTimer;
 
+    // --- Exécution des tâches d'arrière-plan ---
+    private TaskScheduler taskScheduler;
+
+    // --- Index de recherche des étudiants en mémoire ---
+    private StudentSearchIndex searchIndex;
+
+    // --- Classements par filière et par matière ; mise à jour en cours, ou null (thread JavaFX) ---
+    private RankingIndex rankingIndex;
+    private CompletableFuture<Boolean> rankingUpdate;
+
+    // --- Pagination de la liste des étudiants ---
+    private static final int STUDENT_PAGE_SIZE = 100;
+    private Page<Etudiant> lastStudentPage;
+    private int studentsGeneration;
+    private boolean loadingStudentPage;
+
+    // --- Filtre des filières : vrai pendant le remplacement de ses éléments ---
+    private static final String ALL_FILIERES = "Toutes les filières";
+    private boolean updatingFilieres;
+
+    // --- Préchargement des notes : nombre de cartes voisines de chaque côté de la carte sélectionnée ---
+    private static final int NOTES_PREFETCH_RADIUS = AppConfig.getInt("cache.notes.prefetchRadius", 3);
+
+    // --- Saisie rapide : notes écrites en arrière-plan ---
+    private NoteWriteBehind writeBehind;
+
     // Format pour la moyenne
     private static final DecimalFormat df = new DecimalFormat("#.##");
 
@@ -141,9 +204,21 @@ public class MainController {
      */
     @FXML
     public void initialize() {
-        noteDAO = new NoteDAO();
-        etudiantDAO = new EtudiantDAO();
+        noteDAO = Repositories.getNoteRepository();
+        etudiantDAO = Repositories.getEtudiantRepository();
+        asyncDao = AsyncDao.getInstance();
+
+        searchIndex = StudentSearchIndex.getInstance();
+        rankingIndex = RankingIndex.getInstance();
+        taskScheduler = TaskScheduler.getInstance();
+        // Rejoue les notes du journal de saisie rapide laissées par une exécution précédente.
+        // Sans base de données (stockage en mémoire), chaque note est enregistrée aussitôt : pas de saisie rapide.
+        if (!Repositories.isMemoryBackend()) {
+            writeBehind = NoteWriteBehind.getInstance();
+        }
+        setupWriteBehind();
 
+        // N'est plus utilisé que tant que l'index de recherche n'est pas construit
         debounceTimer = new PauseTransition(Duration.millis(400));
         debounceTimer.setOnFinished(event -> loadStudentsTask());
 
@@ -154,18 +229,25 @@ public class MainController {
         moyenneColumn.setCellValueFactory(new PropertyValueFactory<>("moyenne"));
         statutValidationColumn.setCellValueFactory(new PropertyValueFactory<>("statutValidation"));
 
-        // Charger les filières
-        loadFilieres();
+        // Les filières sont lues avec les autres données de démarrage (loadStartupData)
+        filiereFilterComboBox.setItems(FXCollections.observableArrayList(ALL_FILIERES));
+        filiereFilterComboBox.getSelectionModel().selectFirst();
 
         // Configurer l'écouteur pour le ComboBox des filières
-        filiereFilterComboBox.getSelectionModel().selectedItemProperty().addListener(
-                (observable, oldValue, newValue) -> loadStudentsTask());
+        filiereFilterComboBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
+            if (!updatingFilieres) {
+                refreshStudentList();
+            }
+        });
 
         
 
+        // Grille des cartes étudiants : sélection et chargement de la page suivante en bas de liste
+        setupStudentCardGrid();
+
         // Configurer l'écouteur pour le champ de recherche
         searchField.textProperty().addListener(
-                (observable, oldValue, newValue) -> debounceTimer.playFromStart());
+                (observable, oldValue, newValue) -> refreshStudentList());
 
         // Écouteur de sélection sur le TableView des notes pour la modification/suppression
         tableViewNotes.getSelectionModel().selectedItemProperty().addListener(
@@ -175,15 +257,18 @@ public class MainController {
         noteDevoirTextField.textProperty().addListener((obs, oldVal, newVal) -> handleCalculateButtonAction());
         noteExamenTextField.textProperty().addListener((obs, oldVal, newVal) -> handleCalculateButtonAction());
 
-        // Afficher tous les étudiants au démarrage
-        loadStudentsTask();
+        // Filières, première page d'étudiants et statistiques du footer, lues en parallèle
+        loadStartupData();
+
+        // Construire l'index de recherche en mémoire
+        buildSearchIndex();
+
+        // Charger les classements, lus ensuite en mémoire à chaque sélection d'étudiant
+        updateRankingIndex();
 
         // Désactiver les boutons de gestion des notes au démarrage
         setNoteButtonsDisabled(true);
 
-        // Calculer et afficher les statistiques du footer
-        updateFooterStatisticsTask();
-
         // Initialiser le contrôleur de la vue étudiant
         studentViewController.setMainController(this);
 
@@ -195,45 +280,160 @@ public class MainController {
     }
 
     /**
-     * Charge les filières distinctes depuis la base de données et remplit le ComboBox.
+     * Lance ensemble les lectures du démarrage : filières, première page d'étudiants et statistiques du footer.
+     * Elles s'exécutent en parallèle, après la mise à jour du schéma, et chacune s'affiche dès qu'elle aboutit ;
+     * la fenêtre est affichée sans les attendre.
+     */
+    private void loadStartupData() {
+        int generation = ++studentsGeneration;
+        SimpleBooleanProperty loading = new SimpleBooleanProperty(true);
+        bindStudentListControls(loading);
+
+        loadFilieres();
+
+        asyncDao.searchEtudiants(null, null, null, STUDENT_PAGE_SIZE).whenCompleteAsync((page, error) -> {
+            loading.set(false);
+            if (error != null) {
+                error.printStackTrace();
+                showStatusMessage("Erreur lors du chargement des étudiants.", "status-error", 5);
+            } else if (generation == studentsGeneration) {
+                lastStudentPage = page;
+                updateStudentCards(page.getItems(), page.getTotal(), page.isTotalMinimum());
+            }
+            // Un chargement plus récent a lié les contrôles à sa propre tâche
+            if (generation == studentsGeneration) {
+                unbindStudentListControls();
+            }
+        }, Platform::runLater);
+
+        asyncDao.getStatistiquesGlobales().whenCompleteAsync((global, error) -> {
+            if (error != null || global == null) {
+                if (error != null) {
+                    error.printStackTrace();
+                }
+                showStatusMessage("Erreur lors de la mise à jour des statistiques.", "status-error", 5);
+            } else {
+                showFooterStatistics(global);
+            }
+        }, Platform::runLater);
+    }
+
+    /**
+     * Charge les filières distinctes en arrière-plan et remplit le ComboBox.
+     * La filière sélectionnée est conservée si elle existe toujours ; sinon le filtre revient à toutes les filières.
      */
     private void loadFilieres() {
-        List<String> filieres = etudiantDAO.getAllFilieres();
-        ObservableList<String> observableFilieres = FXCollections.observableArrayList("Toutes les filières");
-        observableFilieres.addAll(filieres);
-        filiereFilterComboBox.setItems(observableFilieres);
-        filiereFilterComboBox.getSelectionModel().selectFirst(); // Sélectionne "Toutes les filières" par défaut
+        asyncDao.getAllFilieres().whenCompleteAsync((filieres, error) -> {
+            if (error != null) {
+                error.printStackTrace();
+                showStatusMessage("Erreur lors du chargement des filières.", "status-error", 5);
+                return;
+            }
+            String selectedFiliere = filiereFilterComboBox.getSelectionModel().getSelectedItem();
+            ObservableList<String> observableFilieres = FXCollections.observableArrayList(ALL_FILIERES);
+            observableFilieres.addAll(filieres);
+            boolean keepSelection = selectedFiliere != null && observableFilieres.contains(selectedFiliere);
+            updatingFilieres = true;
+            try {
+                filiereFilterComboBox.setItems(observableFilieres);
+                if (keepSelection) {
+                    filiereFilterComboBox.getSelectionModel().select(selectedFiliere);
+                } else {
+                    filiereFilterComboBox.getSelectionModel().selectFirst();
+                }
+            } finally {
+                updatingFilieres = false;
+            }
+            if (!keepSelection) {
+                refreshStudentList();
+            }
+        }, Platform::runLater);
     }
 
-    
+
+    /**
+     * @return La filière sélectionnée dans le filtre, ou null pour "Toutes les filières".
+     */
+    private String getSelectedFiliereFilter() {
+        String selectedFiliere = filiereFilterComboBox.getSelectionModel().getSelectedItem();
+        return (selectedFiliere == null || selectedFiliere.equals(ALL_FILIERES)) ? null : selectedFiliere;
+    }
+
+    /**
+     * Met à jour la liste des étudiants après un changement de filière ou de recherche.
+     * Une recherche textuelle est servie par l'index en mémoire dès qu'il est prêt, sans accès à la base ;
+     * sinon la liste est chargée depuis la base (après un délai de saisie tant que l'index se construit).
+     */
+    private void refreshStudentList() {
+        String searchText = searchField.getText();
+        boolean hasSearchText = searchText != null && !searchText.trim().isEmpty();
+        if (hasSearchText && searchIndex.isReady()) {
+            debounceTimer.stop();
+            showIndexedSearchResults(searchText);
+        } else if (hasSearchText) {
+            debounceTimer.playFromStart();
+        } else {
+            debounceTimer.stop();
+            loadStudentsTask();
+        }
+    }
+
+    /**
+     * Affiche les résultats de l'index de recherche en mémoire, classés par pertinence.
+     */
+    private void showIndexedSearchResults(String searchText) {
+        ++studentsGeneration; // Ignore les chargements depuis la base encore en cours
+        taskScheduler.cancel("students");
+        taskScheduler.cancel("students-page");
+        lastStudentPage = null;
+        List<Etudiant> results = searchIndex.search(searchText, getSelectedFiliereFilter(), Integer.MAX_VALUE);
+        updateStudentCards(results, results.size(), false);
+    }
+
+    /**
+     * Charge tous les étudiants en arrière-plan pour construire l'index de recherche.
+     * La lecture est partagée avec celle du tableau des étudiants (StudentController), lancée au même moment.
+     * L'index est ensuite tenu à jour par les écritures des DAOs.
+     */
+    private void buildSearchIndex() {
+        asyncDao.getAllEtudiants().thenAcceptAsync(searchIndex::rebuild, asyncDao.getExecutor())
+                .whenCompleteAsync((ignored, error) -> {
+                    if (error != null) {
+                        error.printStackTrace();
+                        return;
+                    }
+                    // Une recherche saisie pendant la construction est relancée sur l'index
+                    String searchText = searchField.getText();
+                    if (searchText != null && !searchText.trim().isEmpty()) {
+                        refreshStudentList();
+                    }
+                }, Platform::runLater);
+    }
 
     /**
      * Filtre et affiche les étudiants en fonction de la filière et du texte de recherche.
+     * Le filtrage est fait par la base ; seule la première page est chargée,
+     * les suivantes le sont au défilement (voir loadNextStudentsPage).
      */
     private void loadStudentsTask() {
-        Task<List<Etudiant>> task = new Task<>() {
+        String selectedFiliere = getSelectedFiliereFilter();
+        String searchText = searchField.getText();
+        int generation = ++studentsGeneration;
+        taskScheduler.cancel("students-page");
+
+        Task<Page<Etudiant>> task = new Task<>() {
             @Override
-            protected List<Etudiant> call() throws Exception {
-                String selectedFiliere = filiereFilterComboBox.getSelectionModel().getSelectedItem();
-                String searchText = searchField.getText().toLowerCase();
-
-                List<Etudiant> allStudents = etudiantDAO.getAllEtudiants();
-                return allStudents.stream()
-                        .filter(etudiant -> {
-                            boolean matchesFiliere = (selectedFiliere == null || selectedFiliere.equals("Toutes les filières") || etudiant.getFiliere().equals(selectedFiliere));
-                            boolean matchesSearch = (searchText.isEmpty() ||
-                                                     etudiant.getNom().toLowerCase().contains(searchText) ||
-                                                     etudiant.getPrenom().toLowerCase().contains(searchText) ||
-                                                     etudiant.getFiliere().toLowerCase().contains(searchText));
-                            return matchesFiliere && matchesSearch;
-                        })
-                        .collect(Collectors.toList());
+            protected Page<Etudiant> call() throws Exception {
+                return etudiantDAO.searchEtudiants(selectedFiliere, searchText, null, STUDENT_PAGE_SIZE);
             }
         };
 
         task.setOnSucceeded(event -> {
-            List<Etudiant> students = task.getValue();
-            updateStudentCards(students);
+            // Une recherche plus récente a pu être lancée entre-temps : son résultat prime
+            if (generation == studentsGeneration) {
+                lastStudentPage = task.getValue();
+                updateStudentCards(lastStudentPage.getItems(), lastStudentPage.getTotal(), lastStudentPage.isTotalMinimum());
+            }
             unbindStudentListControls();
         });
 
@@ -243,15 +443,58 @@ public class MainController {
             unbindStudentListControls();
         });
 
-        bindStudentListControlsToTask(task);
-        new Thread(task).start();
+        bindStudentListControls(task.runningProperty());
+        taskScheduler.submit("students", task);
     }
 
-    private void bindStudentListControlsToTask(Task<?> task) {
-        mainLoadingSpinner.visibleProperty().bind(task.runningProperty());
-        filiereFilterComboBox.disableProperty().bind(task.runningProperty());
-        searchField.disableProperty().bind(task.runningProperty());
-        studentCardsContainer.disableProperty().bind(task.runningProperty());
+    /**
+     * Charge la page d'étudiants suivante et l'ajoute aux cartes déjà affichées.
+     * Appelée lorsque la liste des cartes défile vers le bas.
+     */
+    private void loadNextStudentsPage() {
+        if (loadingStudentPage || lastStudentPage == null || !lastStudentPage.hasMore()) {
+            return;
+        }
+        loadingStudentPage = true;
+        String selectedFiliere = getSelectedFiliereFilter();
+        String searchText = searchField.getText();
+        Etudiant apres = lastStudentPage.getDernier();
+        int generation = studentsGeneration;
+
+        Task<Page<Etudiant>> task = new Task<>() {
+            @Override
+            protected Page<Etudiant> call() throws Exception {
+                return etudiantDAO.searchEtudiants(selectedFiliere, searchText, apres, STUDENT_PAGE_SIZE);
+            }
+        };
+
+        task.setOnSucceeded(event -> {
+            loadingStudentPage = false;
+            if (generation == studentsGeneration) {
+                lastStudentPage = task.getValue();
+                studentCardsContainer.appendStudents(lastStudentPage.getItems());
+            }
+        });
+
+        task.setOnFailed(event -> {
+            loadingStudentPage = false;
+            task.getException().printStackTrace();
+            showStatusMessage("Erreur lors du chargement des étudiants.", "status-error", 5);
+        });
+
+        task.setOnCancelled(event -> loadingStudentPage = false);
+
+        taskScheduler.submit("students-page", task);
+    }
+
+    /**
+     * @param running Vrai tant que la liste des étudiants se charge.
+     */
+    private void bindStudentListControls(ObservableValue<Boolean> running) {
+        mainLoadingSpinner.visibleProperty().bind(running);
+        filiereFilterComboBox.disableProperty().bind(running);
+        searchField.disableProperty().bind(running);
+        studentCardsContainer.disableProperty().bind(running);
     }
 
     private void unbindStudentListControls() {
@@ -261,60 +504,31 @@ public class MainController {
         studentCardsContainer.disableProperty().unbind();
     }
 
-    private void updateStudentCards(List<Etudiant> students) {
-        studentCardsContainer.getChildren().clear();
-        studentCountLabel.setText("(" + students.size() + ")");
-
-        if (students.isEmpty()) {
-            FontAwesomeIconView icon = new FontAwesomeIconView(FontAwesomeIcon.QUESTION_CIRCLE);
-            icon.setSize("3em");
-            icon.getStyleClass().add("glyph-icon");
-
-            Label placeholderLabel = new Label("Aucun étudiant trouvé.");
-            VBox placeholder = new VBox(10, icon, placeholderLabel);
-            placeholder.getStyleClass().add("empty-placeholder");
-            placeholder.setAlignment(Pos.CENTER);
-            studentCardsContainer.getChildren().add(placeholder);
-        } else {
-            for (Etudiant etudiant : students) {
-                VBox studentCard = createStudentCard(etudiant);
-                studentCardsContainer.getChildren().add(studentCard);
+    private void setupStudentCardGrid() {
+        FontAwesomeIconView icon = new FontAwesomeIconView(FontAwesomeIcon.QUESTION_CIRCLE);
+        icon.setSize("3em");
+        icon.getStyleClass().add("glyph-icon");
+
+        Label placeholderLabel = new Label("Aucun étudiant trouvé.");
+        VBox placeholder = new VBox(10, icon, placeholderLabel);
+        placeholder.getStyleClass().add("empty-placeholder");
+        placeholder.setAlignment(Pos.CENTER);
+        studentCardsContainer.setPlaceholder(placeholder);
+
+        studentCardsContainer.setOnNearEnd(this::loadNextStudentsPage);
+        studentCardsContainer.selectedStudentProperty().addListener((observable, oldValue, newValue) -> {
+            if (newValue != null) {
+                selectStudentForNotes(newValue);
             }
-        }
+        });
     }
 
     /**
-     * Crée une "carte" visuelle pour un étudiant.
-     * @param etudiant L'étudiant pour lequel créer la carte.
-     * @return Une VBox représentant la carte de l'étudiant.
+     * @param totalMinimum true si la base a cessé de compter : le total est affiché comme un minimum (« 1000+ »).
      */
-    private VBox createStudentCard(Etudiant etudiant) {
-        VBox card = new VBox(5);
-        card.getStyleClass().add("student-card");
-        card.setPrefSize(150, 80); // Taille fixe pour les cartes
-        card.setAlignment(Pos.CENTER);
-
-        Label nameLabel = new Label(etudiant.getPrenom() + " " + etudiant.getNom());
-        nameLabel.getStyleClass().add("student-card-name");
-        nameLabel.setWrapText(true);
-
-        Label filiereLabel = new Label(etudiant.getFiliere());
-        filiereLabel.getStyleClass().add("student-card-filiere");
-
-        card.getChildren().addAll(nameLabel, filiereLabel);
-
-        // Gérer la sélection de la carte
-        card.setOnMouseClicked(event -> {
-            // Désélectionner toutes les autres cartes
-            for (Node node : studentCardsContainer.getChildren()) {
-                node.getStyleClass().remove("student-card-selected");
-            }
-            // Sélectionner la carte actuelle
-            card.getStyleClass().add("student-card-selected");
-            selectStudentForNotes(etudiant);
-        });
-
-        return card;
+    private void updateStudentCards(List<Etudiant> students, int total, boolean totalMinimum) {
+        studentCountLabel.setText("(" + total + (totalMinimum ? "+" : "") + ")");
+        studentCardsContainer.setStudents(students);
     }
 
     /**
@@ -333,34 +547,29 @@ public class MainController {
 
     /**
      * Charge les notes de l'étudiant actuellement sélectionné dans le TableView.
+     * Si elles sont déjà en cache, elles sont affichées immédiatement, sans tâche d'arrière-plan.
      */
     private void loadNotesForStudentTask(Etudiant etudiant) {
-        Task<Pair<List<Note>, Double>> task = new Task<>() {
+        NotesEtudiant cached = noteDAO.getIfPresent(etudiant.getId());
+        if (cached != null) {
+            taskScheduler.cancel("notes");
+            showStudentNotes(cached);
+            prefetchNeighbourNotes(etudiant);
+            return;
+        }
+
+        Task<NotesEtudiant> task = new Task<>() {
             @Override
-            protected Pair<List<Note>, Double> call() throws Exception {
-                List<Note> notes = noteDAO.getAllNotes().stream()
-                        .filter(note -> note.getEtudiantId() == etudiant.getId())
-                        .collect(Collectors.toList());
-                double average = notes.stream()
-                        .mapToDouble(Note::getMoyenne)
-                        .average()
-                        .orElse(0.0);
-                return new Pair<>(notes, average);
+            protected NotesEtudiant call() throws Exception {
+                return noteDAO.getNotesEtudiant(etudiant.getId());
             }
         };
 
         task.setOnSucceeded(event -> {
-            Pair<List<Note>, Double> result = task.getValue();
-            noteList = FXCollections.observableArrayList(result.getKey());
-            tableViewNotes.setItems(noteList);
-            notesCountLabel.setText("(" + noteList.size() + " notes)");
-
-            double overallAverage = result.getValue();
-            studentAverageLabel.setText("Moyenne générale: " + df.format(overallAverage));
-            studentAverageLabel.getStyleClass().clear();
-            studentAverageLabel.getStyleClass().add(overallAverage >= 10 ? "status-valide" : "status-non-valide");
+            showStudentNotes(task.getValue());
             mainLoadingSpinner.visibleProperty().unbind();
             tableViewNotes.disableProperty().unbind();
+            prefetchNeighbourNotes(etudiant);
         });
 
         task.setOnFailed(event -> {
@@ -373,7 +582,223 @@ public class MainController {
         mainLoadingSpinner.visibleProperty().bind(task.runningProperty());
         tableViewNotes.disableProperty().bind(task.runningProperty());
 
-        new Thread(task).start();
+        taskScheduler.submit("notes", task);
+    }
+
+    private void showStudentNotes(NotesEtudiant notesEtudiant) {
+        noteList = FXCollections.observableArrayList(notesEtudiant.getNotes());
+        // Les notes de la saisie rapide pas encore écrites remplacent celles lues en base
+        if (writeBehind != null) {
+            for (Note pending : writeBehind.getPending(notesEtudiant.getEtudiantId())) {
+                showPendingNote(pending);
+            }
+        }
+        tableViewNotes.setItems(noteList);
+        updateStudentAverage();
+        showStudentRank(selectedEtudiantForNotes);
+    }
+
+    /**
+     * Affiche le rang de l'étudiant dans sa filière, lu dans les classements en mémoire.
+     * S'ils ne sont pas à jour (chargement initial, notes modifiées, import), leur mise à jour est lancée
+     * et le rang de l'étudiant alors sélectionné est affiché à sa fin.
+     */
+    private void showStudentRank(Etudiant etudiant) {
+        studentRankLabel.setText("");
+        if (etudiant == null) {
+            return;
+        }
+        if (!rankingIndex.isAJour()) {
+            updateRankingIndex();
+            return;
+        }
+        Rang rang = rankingIndex.getRang(RankingIndex.FILIERE, etudiant.getFiliere(), etudiant.getId());
+        if (rang != null) {
+            studentRankLabel.setText("Rang " + rang + " en " + etudiant.getFiliere());
+        }
+    }
+
+    /**
+     * Met à jour les classements en arrière-plan, une mise à jour à la fois. Elle passe par AsyncDao, après
+     * les migrations, et non par une tâche à clé : une sélection plus récente ne peut pas l'annuler.
+     * Un échec du chargement n'est pas retenté aussitôt, mais à la prochaine sélection.
+     */
+    private void updateRankingIndex() {
+        if (rankingUpdate != null) {
+            return;
+        }
+        rankingUpdate = asyncDao.supply("classements", rankingIndex::mettreAJour);
+        rankingUpdate.whenCompleteAsync((aJour, error) -> {
+            rankingUpdate = null;
+            if (error != null) {
+                error.printStackTrace();
+                return;
+            }
+            if (aJour) {
+                // Des notes modifiées pendant la mise à jour en relancent une autre
+                showStudentRank(selectedEtudiantForNotes);
+            }
+        }, Platform::runLater);
+    }
+
+    /**
+     * Affiche une note de la saisie rapide dans le tableau, à la place de la note de même matière s'il y en a une.
+     */
+    private void showPendingNote(Note pending) {
+        Note affichee = new Note(0, pending.getEtudiantId(), selectedEtudiantForNotes.getNom(), selectedEtudiantForNotes.getPrenom(),
+                pending.getMatiere(), pending.getNoteDevoir(), pending.getNoteExamen());
+        for (int i = 0; i < noteList.size(); i++) {
+            Note existante = noteList.get(i);
+            if (Note.memeMatiere(existante.getMatiere(), pending.getMatiere())) {
+                affichee.setId(existante.getId());
+                noteList.set(i, affichee);
+                return;
+            }
+        }
+        noteList.add(affichee);
+    }
+
+    private void updateStudentAverage() {
+        notesCountLabel.setText("(" + noteList.size() + " notes)");
+        NotesEtudiant notesEtudiant = new NotesEtudiant(0, noteList);
+        studentAverageLabel.setText("Moyenne générale: " + df.format(notesEtudiant.getMoyenne()));
+        studentAverageLabel.getStyleClass().clear();
+        studentAverageLabel.getStyleClass().add(notesEtudiant.isAdmis() ? "status-valide" : "status-non-valide");
+    }
+
+    /**
+     * Saisie rapide : met la note en file d'écriture et l'affiche aussitôt, sans attendre la base.
+     * Si le journal local est inutilisable, la note est écrite immédiatement par fallback.
+     */
+    private void enqueueNote(Note note, Supplier<Boolean> fallback) {
+        try {
+            writeBehind.enqueue(note);
+        } catch (IOException e) {
+            e.printStackTrace();
+            runNoteCUDTask(fallback, "Note enregistrée (saisie rapide indisponible).", "Échec de l'enregistrement de la note.");
+            return;
+        }
+        showPendingNote(note);
+        updateStudentAverage();
+        clearNoteFields();
+        tableViewNotes.getSelectionModel().clearSelection();
+    }
+
+    /**
+     * Met à jour une note après l'écriture des notes en attente. Une note encore en saisie rapide
+     * n'a pas d'ID connu : il est retrouvé par sa matière.
+     * À appeler hors du thread JavaFX.
+     */
+    private boolean updateNoteAfterFlush(Note note, String ancienneMatiere) {
+        int noteId = resolveNoteId(note, ancienneMatiere);
+        if (noteId <= 0) {
+            return false;
+        }
+        note.setId(noteId);
+        return noteDAO.updateNote(note);
+    }
+
+    /**
+     * @return L'ID en base de la note, retrouvé par sa matière si la note vient de la saisie rapide, ou 0.
+     */
+    private int resolveNoteId(Note note, String matiere) {
+        if (note.getId() > 0) {
+            return note.getId();
+        }
+        if (!flushPendingNotes()) {
+            return 0;
+        }
+        for (Note enBase : noteDAO.getNotesByEtudiant(note.getEtudiantId())) {
+            if (Note.memeMatiere(enBase.getMatiere(), matiere)) {
+                return enBase.getId();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Écrit les notes de la saisie rapide encore en attente. À appeler hors du thread JavaFX.
+     * @return true si plus aucune note n'est en attente.
+     */
+    private boolean flushPendingNotes() {
+        return writeBehind == null || writeBehind.flushNow();
+    }
+
+    /**
+     * Relie la saisie rapide à l'interface : compteur de notes en attente, rechargement après écriture, erreurs.
+     */
+    private void setupWriteBehind() {
+        if (writeBehind == null) {
+            writeBehindCheckBox.setSelected(false);
+            writeBehindCheckBox.setVisible(false);
+            writeBehindCheckBox.setManaged(false);
+            return;
+        }
+        writeBehindCheckBox.setSelected(AppConfig.getBoolean("writeBehind.enabled", false));
+        writeBehind.setListener(new NoteWriteBehindListener() {
+            @Override
+            public void onPendingChanged(int enAttente) {
+                Platform.runLater(() -> pendingNotesLabel.setText(enAttente == 0 ? "" : enAttente + " note(s) en attente"));
+            }
+
+            @Override
+            public void onFlushed(Set<Integer> etudiantIds) {
+                Platform.runLater(() -> {
+                    if (selectedEtudiantForNotes != null && etudiantIds.contains(selectedEtudiantForNotes.getId())) {
+                        loadNotesForStudentTask(selectedEtudiantForNotes);
+                    }
+                    updateFooterStatisticsTask();
+                });
+            }
+
+            @Override
+            public void onFlushFailed(SQLException e) {
+                Platform.runLater(() -> showStatusMessage("Base de données inaccessible : les notes saisies sont conservées "
+                        + "localement et seront enregistrées automatiquement.", "status-warning", 5));
+            }
+
+            @Override
+            public void onRejected(Note note, String message) {
+                Platform.runLater(() -> showStatusMessage("Note de " + note.getMatiere() + " refusée par la base : " + message,
+                        "status-error", 5));
+            }
+        });
+        pendingNotesLabel.setText(writeBehind.getPendingCount() == 0 ? "" : writeBehind.getPendingCount() + " note(s) en attente");
+    }
+
+    /**
+     * Précharge en arrière-plan les notes des étudiants affichés autour de la carte sélectionnée,
+     * pour que le passage à la carte voisine soit immédiat.
+     */
+    private void prefetchNeighbourNotes(Etudiant etudiant) {
+        List<Etudiant> students = studentCardsContainer.getStudents();
+        int index = -1;
+        for (int i = 0; i < students.size(); i++) {
+            if (students.get(i).getId() == etudiant.getId()) {
+                index = i;
+                break;
+            }
+        }
+        if (index < 0) {
+            return;
+        }
+        List<Integer> neighbourIds = new ArrayList<>();
+        for (int i = Math.max(0, index - NOTES_PREFETCH_RADIUS); i <= Math.min(students.size() - 1, index + NOTES_PREFETCH_RADIUS); i++) {
+            if (i != index) {
+                neighbourIds.add(students.get(i).getId());
+            }
+        }
+        if (neighbourIds.isEmpty()) {
+            return;
+        }
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                noteDAO.prefetch(neighbourIds);
+                return null;
+            }
+        };
+        taskScheduler.submit("notes-prefetch", task);
     }
 
     /**
@@ -387,11 +812,12 @@ public class MainController {
             noteExamenTextField.setText(String.valueOf(note.getNoteExamen()));
             
             // Calculer et afficher la moyenne et le statut pour la note sélectionnée
-            double currentMoyenne = (note.getNoteDevoir() * 0.40) + (note.getNoteExamen() * 0.60);
+            double currentMoyenne = note.getMoyenne();
+            boolean valide = GradingPolicy.getCurrent().estValide(note.getMatiere(), currentMoyenne);
             moyenneCalculatedLabel.setText(df.format(currentMoyenne));
-            statutValidationLabel.setText(currentMoyenne >= 10 ? "Validé" : "Non validé");
+            statutValidationLabel.setText(valide ? GradingPolicy.VALIDE : GradingPolicy.NON_VALIDE);
             statutValidationLabel.getStyleClass().clear();
-            statutValidationLabel.getStyleClass().add(currentMoyenne >= 10 ? "status-valide" : "status-non-valide");
+            statutValidationLabel.getStyleClass().add(valide ? "status-valide" : "status-non-valide");
 
 
             addButton.setDisable(true); // Désactive le bouton Ajouter en mode modification/suppression
@@ -436,12 +862,14 @@ public class MainController {
                 return;
             }
 
-            double moyenne = (noteDevoir * 0.40) + (noteExamen * 0.60);
+            // Barème de la matière saisie (règle par défaut si elle n'en a pas)
+            GradingPolicy.Regle regle = GradingPolicy.getCurrent().regle(matiereTextField.getText());
+            double moyenne = regle.moyenne(noteDevoir, noteExamen);
             moyenneCalculatedLabel.setText(df.format(moyenne));
-            String statut = (moyenne >= 10) ? "Validé" : "Non validé";
-            statutValidationLabel.setText(statut);
+            boolean valide = regle.estValide(moyenne);
+            statutValidationLabel.setText(valide ? GradingPolicy.VALIDE : GradingPolicy.NON_VALIDE);
             statutValidationLabel.getStyleClass().clear();
-            statutValidationLabel.getStyleClass().add(statut.equals("Validé") ? "status-valide" : "status-non-valide");
+            statutValidationLabel.getStyleClass().add(valide ? "status-valide" : "status-non-valide");
 
         } catch (NumberFormatException e) {
             moyenneCalculatedLabel.setText("N/A");
@@ -455,6 +883,10 @@ public class MainController {
         Task<Boolean> task = new Task<>() {
             @Override
             protected Boolean call() throws Exception {
+                // Les notes en saisie rapide sont écrites d'abord, pour respecter l'ordre des saisies
+                if (!flushPendingNotes()) {
+                    return false;
+                }
                 return action.get();
             }
         };
@@ -482,7 +914,7 @@ public class MainController {
         mainLoadingSpinner.visibleProperty().bind(task.runningProperty());
         tabPane.disableProperty().bind(task.runningProperty());
 
-        new Thread(task).start();
+        taskScheduler.submit(task);
     }
 
     /**
@@ -500,7 +932,11 @@ public class MainController {
                     selectedEtudiantForNotes.getNom(), selectedEtudiantForNotes.getPrenom(),
                     matiereTextField.getText(), Double.parseDouble(noteDevoirTextField.getText()), Double.parseDouble(noteExamenTextField.getText()));
 
-            runNoteCUDTask(() -> noteDAO.addNote(newNote), "Note ajoutée avec succès !", "Échec de l'ajout de la note.");
+            if (writeBehindCheckBox.isSelected()) {
+                enqueueNote(newNote, () -> noteDAO.addNote(newNote));
+            } else {
+                runNoteCUDTask(() -> noteDAO.addNote(newNote), "Note ajoutée avec succès !", "Échec de l'ajout de la note.");
+            }
         }
     }
 
@@ -513,11 +949,19 @@ public class MainController {
         Note selectedNote = tableViewNotes.getSelectionModel().getSelectedItem();
         if (selectedNote != null) {
             if (isNoteInputValid()) {
+                String ancienneMatiere = selectedNote.getMatiere();
                 selectedNote.setMatiere(matiereTextField.getText());
                 selectedNote.setNoteDevoir(Double.parseDouble(noteDevoirTextField.getText()));
                 selectedNote.setNoteExamen(Double.parseDouble(noteExamenTextField.getText()));
 
-                runNoteCUDTask(() -> noteDAO.updateNote(selectedNote), "Note modifiée avec succès !", "Échec de la modification de la note.");
+                // En saisie rapide, seule une modification qui garde la matière peut être différée
+                boolean memeMatiere = Note.memeMatiere(ancienneMatiere, selectedNote.getMatiere());
+                if (writeBehindCheckBox.isSelected() && memeMatiere) {
+                    enqueueNote(selectedNote, () -> updateNoteAfterFlush(selectedNote, ancienneMatiere));
+                } else {
+                    runNoteCUDTask(() -> updateNoteAfterFlush(selectedNote, ancienneMatiere),
+                            "Note modifiée avec succès !", "Échec de la modification de la note.");
+                }
             }
         } else {
             showStatusMessage("Veuillez sélectionner une note à modifier dans le tableau.", "status-warning", 3);
@@ -539,7 +983,10 @@ public class MainController {
 
             Optional<ButtonType> result = alert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                runNoteCUDTask(() -> noteDAO.deleteNote(selectedNote.getId()), "Note supprimée avec succès !", "Échec de la suppression de la note.");
+                runNoteCUDTask(() -> {
+                    int noteId = resolveNoteId(selectedNote, selectedNote.getMatiere());
+                    return noteId > 0 && noteDAO.deleteNote(noteId);
+                }, "Note supprimée avec succès !", "Échec de la suppression de la note.");
             }
         }
         else {
@@ -631,7 +1078,7 @@ public class MainController {
 
     public void refreshStudentView() {
         loadFilieres();
-        loadStudentsTask();
+        refreshStudentList();
     }
 
     private void initClock() {
@@ -650,54 +1097,45 @@ public class MainController {
         clearButton.setGraphic(new FontAwesomeIconView(FontAwesomeIcon.ERASER));
         calculateButton.setGraphic(new FontAwesomeIconView(FontAwesomeIcon.CALCULATOR));
         exportNotesButton.setGraphic(new FontAwesomeIconView(FontAwesomeIcon.DOWNLOAD));
+        importNotesButton.setGraphic(new FontAwesomeIconView(FontAwesomeIcon.UPLOAD));
+        analyseNotesButton.setGraphic(new FontAwesomeIconView(FontAwesomeIcon.BAR_CHART));
     }
 
     /**
      * Met à jour les statistiques affichées dans le pied de page.
      */
     private void updateFooterStatisticsTask() {
-        Task<Object[]> task = new Task<>() {
+        Task<Statistiques.Ligne> task = new Task<>() {
             @Override
-            protected Object[] call() throws Exception {
-                List<Etudiant> allEtudiants = etudiantDAO.getAllEtudiants();
-                List<Note> allNotes = noteDAO.getAllNotes();
-
-                double totalMoyenne = 0.0;
-                int validatedCount = 0;
-                if (!allNotes.isEmpty()) {
-                    for (Note note : allNotes) {
-                        totalMoyenne += note.getMoyenne();
-                        if (note.getMoyenne() >= 10) {
-                            validatedCount++;
-                        }
-                    }
+            protected Statistiques.Ligne call() throws Exception {
+                Statistiques.Ligne statistiques = noteDAO.getStatistiquesGlobales();
+                if (statistiques == null) {
+                    throw new IllegalStateException("Statistiques indisponibles.");
                 }
-                return new Object[]{allEtudiants.size(), totalMoyenne, validatedCount, allNotes.size()};
+                return statistiques;
             }
         };
 
-        task.setOnSucceeded(event -> {
-            Object[] results = task.getValue();
-            totalStudentsLabel.setText(String.valueOf(results[0]));
-            double totalMoyenne = (double) results[1];
-            int validatedCount = (int) results[2];
-            int allNotesSize = (int) results[3];
-
-            if (allNotesSize > 0) {
-                globalAverageLabel.setText(df.format(totalMoyenne / allNotesSize));
-                successRateLabel.setText(df.format((double) validatedCount / allNotesSize * 100) + "%");
-            } else {
-                globalAverageLabel.setText("0.00");
-                successRateLabel.setText("0%");
-            }
-        });
+        task.setOnSucceeded(event -> showFooterStatistics(task.getValue()));
 
         task.setOnFailed(event -> {
             task.getException().printStackTrace();
             showStatusMessage("Erreur lors de la mise à jour des statistiques.", "status-error", 5);
         });
 
-        new Thread(task).start();
+        taskScheduler.submit("footer-stats", task);
+    }
+
+    private void showFooterStatistics(Statistiques.Ligne global) {
+        totalStudentsLabel.setText(String.valueOf(global.getNbEtudiants()));
+
+        if (global.getNbNotes() > 0) {
+            globalAverageLabel.setText(df.format(global.getMoyenne()));
+            successRateLabel.setText(df.format(global.getTauxReussite()) + "%");
+        } else {
+            globalAverageLabel.setText("0.00");
+            successRateLabel.setText("0%");
+        }
     }
 
     @FXML
@@ -711,80 +1149,222 @@ public class MainController {
         File file = fileChooser.showSaveDialog(new Stage());
 
         if (file != null) {
-            Task<Void> exportTask = new Task<>() {
+            String filiereToExport = getSelectedFiliereFilter();
+            Task<Long> exportTask = new Task<>() {
                 @Override
-                protected Void call() throws Exception {
-                    List<Note> notesToExport;
-                    if (selectedFiliere == null || selectedFiliere.equals("Toutes les filières")) {
-                        notesToExport = noteDAO.getAllNotes();
-                    } else {
-                        List<Etudiant> studentsInFiliere = etudiantDAO.getAllEtudiants().stream()
-                                .filter(e -> e.getFiliere().equals(selectedFiliere))
-                                .collect(Collectors.toList());
-                        notesToExport = noteDAO.getAllNotes().stream()
-                                .filter(note -> studentsInFiliere.stream().anyMatch(s -> s.getId() == note.getEtudiantId()))
-                                .collect(Collectors.toList());
-                    }
-
-                    if (notesToExport.isEmpty()) {
-                        // This message will not be visible as it's on a background thread.
-                        // We should handle this in onSucceeded or onFailed.
-                        return null;
-                    }
-
-                    try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                        writer.write("Nom Etudiant,Prenom Etudiant,Filiere,Matiere,Note Devoir,Note Examen,Moyenne,Statut");
-                        writer.newLine();
-
-                        for (Note note : notesToExport) {
-                            Optional<Etudiant> student = etudiantDAO.getAllEtudiants().stream()
-                                    .filter(e -> e.getId() == note.getEtudiantId())
-                                    .findFirst();
-
-                            if (student.isPresent()) {
-                                writer.write(String.join(",",
-                                        student.get().getNom(),
-                                        student.get().getPrenom(),
-                                        student.get().getFiliere(),
-                                        note.getMatiere(),
-                                        String.valueOf(note.getNoteDevoir()),
-                                        String.valueOf(note.getNoteExamen()),
-                                        df.format(note.getMoyenne()),
-                                        note.getStatutValidation()));
-                                writer.newLine();
-                            }
-                        }
-                    }
-                    return null;
+                protected Long call() throws Exception {
+                    flushPendingNotes();
+                    return new NotesCsvExporter(noteDAO).export(filiereToExport, file);
                 }
             };
 
             exportTask.setOnSucceeded(event -> {
-                showStatusMessage("Exportation des notes terminée avec succès !", "status-success", 3);
-                unbindExportControls();
+                showStatusMessage("Exportation des notes terminée avec succès ! (" + exportTask.getValue() + " notes)", "status-success", 3);
+                unbindNotesFileControls();
             });
 
             exportTask.setOnFailed(event -> {
                 exportTask.getException().printStackTrace();
                 showStatusMessage("Erreur lors de l'exportation du fichier de notes.", "status-error", 5);
-                unbindExportControls();
+                unbindNotesFileControls();
             });
 
-            bindExportControlsToTask(exportTask);
-            new Thread(exportTask).start();
+            bindNotesFileControlsToTask(exportTask);
+            taskScheduler.submit(exportTask);
         } else {
             showStatusMessage("Exportation des notes annulée.", "status-warning", 3);
         }
     }
 
-    private void bindExportControlsToTask(Task<?> task) {
+    /**
+     * Gère l'action du bouton "Importer des notes".
+     * Enregistre les notes d'un fichier CSV, ou vérifie seulement le fichier sans rien enregistrer.
+     */
+    @FXML
+    private void handleImportNotes() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Importer un fichier CSV de notes");
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Fichiers CSV", "*.csv"));
+        File file = fileChooser.showOpenDialog(new Stage());
+        if (file == null) {
+            return;
+        }
+
+        ButtonType verifier = new ButtonType("Vérifier seulement");
+        ButtonType importer = new ButtonType("Importer");
+        Alert choix = new Alert(Alert.AlertType.CONFIRMATION, "", verifier, importer, ButtonType.CANCEL);
+        choix.setTitle("Importer des notes");
+        choix.setHeaderText("Importation de " + file.getName());
+        choix.setContentText("Les notes déjà saisies pour le même étudiant et la même matière seront remplacées.\n"
+                + "« Vérifier seulement » contrôle le fichier sans rien enregistrer.");
+        Optional<ButtonType> mode = choix.showAndWait();
+        if (mode.isEmpty() || mode.get() == ButtonType.CANCEL) {
+            return;
+        }
+        boolean simulation = mode.get() == verifier;
+
+        Task<ImportReport> importTask = new Task<>() {
+            @Override
+            protected ImportReport call() throws Exception {
+                if (!simulation && !flushPendingNotes()) {
+                    throw new IllegalStateException("Des notes de la saisie rapide n'ont pas pu être enregistrées.");
+                }
+                return new NoteCsvImporter(etudiantDAO, noteDAO).importer(file, simulation, this::updateProgress);
+            }
+        };
+
+        importTask.setOnSucceeded(event -> {
+            ImportReport report = importTask.getValue();
+            String rejets = report.hasErreurs() ? ", " + report.getRejetees() + " ligne(s) rejetée(s)" : "";
+            if (simulation) {
+                showStatusMessage("Vérification terminée : " + report.getImportees() + " note(s) valide(s)" + rejets + ".",
+                        report.hasErreurs() ? "status-warning" : "status-success", 5);
+            } else {
+                showStatusMessage(report.getImportees() + " note(s) importée(s)" + rejets + ".",
+                        report.hasErreurs() ? "status-warning" : "status-success", 5);
+                if (selectedEtudiantForNotes != null) {
+                    loadNotesForStudentTask(selectedEtudiantForNotes);
+                }
+                updateFooterStatisticsTask();
+            }
+            if (report.hasErreurs()) {
+                ImportReportDialog.show(report);
+            }
+            unbindNotesFileControls();
+        });
+
+        importTask.setOnFailed(event -> {
+            importTask.getException().printStackTrace();
+            showStatusMessage("Erreur lors de l'importation des notes : aucune note enregistrée.", "status-error", 5);
+            unbindNotesFileControls();
+        });
+
+        bindNotesFileControlsToTask(importTask);
+        taskScheduler.submit(importTask);
+    }
+
+    /**
+     * Gère l'action du bouton "Analyse détaillée".
+     * Charge toutes les notes en colonnes (NoteColumns) puis calcule leur distribution en parallèle,
+     * pour toute l'école, par filière et par matière.
+     */
+    @FXML
+    private void handleAnalyseNotes() {
+        Task<NoteColumns> analyseTask = new Task<>() {
+            @Override
+            protected NoteColumns call() throws Exception {
+                flushPendingNotes();
+                return NoteColumns.load(noteDAO);
+            }
+        };
+
+        analyseTask.setOnSucceeded(event -> {
+            showAnalyticsReport(analyseTask.getValue());
+            unbindNotesFileControls();
+        });
+
+        analyseTask.setOnFailed(event -> {
+            analyseTask.getException().printStackTrace();
+            showStatusMessage("Erreur lors de l'analyse des notes.", "status-error", 5);
+            unbindNotesFileControls();
+        });
+
+        bindNotesFileControlsToTask(analyseTask);
+        taskScheduler.submit("analyse", analyseTask);
+    }
+
+    /**
+     * Affiche le rapport d'analyse sous forme de tableaux texte : école, filières puis matières.
+     * Le champ "Seuil simulé" recalcule le rapport sur les notes déjà chargées avec une autre moyenne à atteindre
+     * (par exemple 9,5), sans modifier le barème de l'application ni relire la base.
+     */
+    private void showAnalyticsReport(NoteColumns colonnes) {
+        GradingPolicy bareme = GradingPolicy.getCurrent();
+        TextArea textArea = new TextArea();
+        textArea.setEditable(false);
+        textArea.setStyle("-fx-font-family: monospace;");
+        textArea.setPrefColumnCount(120);
+        textArea.setPrefRowCount(30);
+
+        Spinner<Double> seuilSpinner = new Spinner<>(0.0, 20.0, bareme.getSeuilGeneral(), 0.25);
+        seuilSpinner.setEditable(true);
+        seuilSpinner.setPrefWidth(90);
+        Label dureeLabel = new Label();
+        HBox simulation = new HBox(10, new Label("Seuil simulé :"), seuilSpinner, dureeLabel);
+        simulation.setAlignment(Pos.CENTER_LEFT);
+
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Analyse détaillée des notes");
+        alert.setHeaderText(colonnes.size() + " note(s) analysée(s) ; barème par défaut : " + bareme.getParDefaut()
+                + (bareme.getReglesParMatiere().isEmpty() ? "" : " ; " + bareme.getReglesParMatiere().size() + " matière(s) avec leur propre règle"));
+        alert.getDialogPane().setContent(new VBox(10, simulation, textArea));
+        alert.setResizable(true);
+        alert.setOnHidden(event -> taskScheduler.cancel("simulation"));
+
+        // Chaque changement de seuil annule la simulation précédente si elle n'est pas terminée
+        seuilSpinner.valueProperty().addListener((obs, ancien, seuil) -> {
+            if (seuil != null) {
+                simulateAnalytics(colonnes, seuil == bareme.getSeuilGeneral() ? bareme : bareme.avecSeuil(seuil),
+                        textArea, dureeLabel);
+            }
+        });
+        simulateAnalytics(colonnes, bareme, textArea, dureeLabel);
+        alert.show();
+    }
+
+    private void simulateAnalytics(NoteColumns colonnes, GradingPolicy bareme, TextArea textArea, Label dureeLabel) {
+        Task<AnalyticsReport> simulationTask = new Task<>() {
+            @Override
+            protected AnalyticsReport call() {
+                return NoteAnalytics.analyser(colonnes, bareme);
+            }
+        };
+        simulationTask.setOnSucceeded(event -> {
+            AnalyticsReport report = simulationTask.getValue();
+            StringBuilder texte = new StringBuilder();
+            appendDistributions(texte, "École", Map.of("Toutes les notes", report.getGlobal()));
+            appendDistributions(texte, "Par filière", report.getParFiliere());
+            appendDistributions(texte, "Par matière", report.getParMatiere());
+            textArea.setText(texte.toString());
+            dureeLabel.setText("calculé en " + df.format(report.getDureeMillis()) + " ms");
+        });
+        simulationTask.setOnFailed(event -> {
+            simulationTask.getException().printStackTrace();
+            dureeLabel.setText("Erreur lors du calcul.");
+        });
+        taskScheduler.submit("simulation", simulationTask);
+    }
+
+    private static void appendDistributions(StringBuilder texte, String titre, Map<String, Distribution> distributions) {
+        texte.append(titre).append('\n');
+        texte.append(String.format(Locale.FRANCE, "%-24s %8s %9s %7s %7s %7s %7s %7s %7s %7s %9s %9s%n",
+                "", "Notes", "Étudiants", "Moy.", "Éc.-t.", "D1", "Q1", "Méd.", "Q3", "D9", "Réussite", "Admis"));
+        for (Map.Entry<String, Distribution> entry : distributions.entrySet()) {
+            Distribution d = entry.getValue();
+            String libelle = entry.getKey().length() > 24 ? entry.getKey().substring(0, 23) + "…" : entry.getKey();
+            texte.append(String.format(Locale.FRANCE, "%-24s %8d %9d %7.2f %7.2f %7.2f %7.2f %7.2f %7.2f %7.2f %8.1f%% %8.1f%%%n",
+                    libelle, d.getNbNotes(), d.getNbEtudiants(), d.getMoyenne(), d.getEcartType(),
+                    d.getPremierDecile(), d.getPremierQuartile(), d.getMediane(), d.getTroisiemeQuartile(),
+                    d.getDernierDecile(), d.getTauxReussite(), d.getTauxAdmission()));
+        }
+        texte.append('\n');
+    }
+
+    private void bindNotesFileControlsToTask(Task<?> task) {
         mainLoadingSpinner.visibleProperty().bind(task.runningProperty());
+        mainLoadingSpinner.progressProperty().bind(task.progressProperty());
         exportNotesButton.disableProperty().bind(task.runningProperty());
+        importNotesButton.disableProperty().bind(task.runningProperty());
+        analyseNotesButton.disableProperty().bind(task.runningProperty());
     }
 
-    private void unbindExportControls() {
+    private void unbindNotesFileControls() {
         mainLoadingSpinner.visibleProperty().unbind();
+        mainLoadingSpinner.progressProperty().unbind();
+        mainLoadingSpinner.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
         exportNotesButton.disableProperty().unbind();
+        importNotesButton.disableProperty().unbind();
+        analyseNotesButton.disableProperty().unbind();
     }
 
     /**
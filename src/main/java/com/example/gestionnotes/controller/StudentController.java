@@ -1,8 +1,14 @@
 package com.example.gestionnotes.controller;
 
-import com.example.gestionnotes.dao.EtudiantDAO;
-import com.example.gestionnotes.dao.NoteDAO;
+import com.example.gestionnotes.dao.AsyncDao;
+import com.example.gestionnotes.dao.EtudiantRepository;
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.dao.Repositories;
+import com.example.gestionnotes.io.StudentCsvImporter;
 import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.ImportReport;
+import com.example.gestionnotes.task.TaskScheduler;
+import com.example.gestionnotes.view.ImportReportDialog;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIcon;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIconView;
 import javafx.animation.KeyFrame;
@@ -19,7 +25,6 @@ import javafx.stage.Stage;
 import javafx.util.Duration;
 
 import java.io.*;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
@@ -63,16 +68,20 @@ public class StudentController {
     @FXML
     private Label statusMessageLabel;
 
-    private EtudiantDAO etudiantDAO;
-    private NoteDAO noteDAO;
+    private EtudiantRepository etudiantDAO;
+    private NoteRepository noteDAO;
+    private AsyncDao asyncDao;
+    private TaskScheduler taskScheduler;
     private MainController mainController;
 
     private Etudiant selectedEtudiant;
 
     @FXML
     public void initialize() {
-        etudiantDAO = new EtudiantDAO();
-        noteDAO = new NoteDAO();
+        etudiantDAO = Repositories.getEtudiantRepository();
+        noteDAO = Repositories.getNoteRepository();
+        asyncDao = AsyncDao.getInstance();
+        taskScheduler = TaskScheduler.getInstance();
 
         setupTable();
         setupIcons();
@@ -116,11 +125,15 @@ public class StudentController {
         this.mainController = mainController;
     }
 
+    /**
+     * Charge tous les étudiants dans le tableau. La lecture est partagée avec celle de l'index de recherche
+     * (MainController) quand elles ont lieu en même temps, comme au démarrage.
+     */
     private void loadStudentsTask() {
         Task<List<Etudiant>> task = new Task<>() {
             @Override
             protected List<Etudiant> call() throws Exception {
-                return etudiantDAO.getAllEtudiants();
+                return asyncDao.getAllEtudiants().get();
             }
         };
 
@@ -136,7 +149,7 @@ public class StudentController {
         });
 
         bindControlsToTask(task);
-        new Thread(task).start();
+        taskScheduler.submit("student-table", task);
     }
 
     private void runCUDTask(Supplier<Boolean> action, String successMessage) {
@@ -168,11 +181,12 @@ public class StudentController {
         });
 
         bindControlsToTask(task);
-        new Thread(task).start();
+        taskScheduler.submit(task);
     }
 
     private void bindControlsToTask(Task<?> task) {
         loadingSpinner.visibleProperty().bind(task.runningProperty());
+        loadingSpinner.progressProperty().bind(task.progressProperty());
         studentTableView.disableProperty().bind(task.runningProperty());
         nomTextField.disableProperty().bind(task.runningProperty());
         prenomTextField.disableProperty().bind(task.runningProperty());
@@ -186,6 +200,8 @@ public class StudentController {
 
     private void unbindControls() {
         loadingSpinner.visibleProperty().unbind();
+        loadingSpinner.progressProperty().unbind();
+        loadingSpinner.setProgress(ProgressIndicator.INDETERMINATE_PROGRESS);
         studentTableView.disableProperty().unbind();
         nomTextField.disableProperty().unbind();
         prenomTextField.disableProperty().unbind();
@@ -208,10 +224,10 @@ public class StudentController {
     @FXML
     private void handleUpdateStudent() {
         if (selectedEtudiant != null && isInputValid()) {
-            selectedEtudiant.setNom(nomTextField.getText());
-            selectedEtudiant.setPrenom(prenomTextField.getText());
-            selectedEtudiant.setFiliere(filiereTextField.getText());
-            runCUDTask(() -> etudiantDAO.updateEtudiant(selectedEtudiant), "Etudiant mis à jour avec succès.");
+            // L'étudiant sélectionné est partagé avec le cache : la modification porte sur un nouvel objet
+            Etudiant modifie = new Etudiant(selectedEtudiant.getId(), nomTextField.getText(), prenomTextField.getText(),
+                    filiereTextField.getText());
+            runCUDTask(() -> etudiantDAO.updateEtudiant(modifie), "Etudiant mis à jour avec succès.");
         }
     }
 
@@ -281,47 +297,59 @@ public class StudentController {
         fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Fichiers CSV", "*.csv"));
         File file = fileChooser.showOpenDialog(new Stage());
 
-        if (file != null) {
-            Task<Integer> importTask = new Task<>() {
-                @Override
-                protected Integer call() throws Exception {
-                    List<Etudiant> etudiants = new ArrayList<>();
-                    try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-                        String line;
-                        br.readLine(); // Skip header
-                        while ((line = br.readLine()) != null) {
-                            String[] values = line.split(",");
-                            if (values.length >= 3) {
-                                etudiants.add(new Etudiant(0, values[0].trim(), values[1].trim(), values[2].trim()));
-                            }
-                        }
-                    }
-                    if (!etudiants.isEmpty()) {
-                        etudiantDAO.addEtudiants(etudiants);
-                    }
-                    return etudiants.size();
-                }
-            };
+        if (file == null) {
+            return;
+        }
+
+        ButtonType parLots = new ButtonType("Par lots");
+        ButtonType toutOuRien = new ButtonType("Tout ou rien");
+        Alert choix = new Alert(Alert.AlertType.CONFIRMATION, "", parLots, toutOuRien, ButtonType.CANCEL);
+        choix.setTitle("Importer des étudiants");
+        choix.setHeaderText("Mode d'importation de " + file.getName());
+        choix.setContentText("Par lots : les lignes valides sont enregistrées, les lignes en erreur sont écartées.\n"
+                + "Tout ou rien : aucun étudiant n'est enregistré si une seule ligne est en erreur.");
+        Optional<ButtonType> mode = choix.showAndWait();
+        if (mode.isEmpty() || mode.get() == ButtonType.CANCEL) {
+            return;
+        }
+        boolean allOrNothing = mode.get() == toutOuRien;
+
+        Task<ImportReport> importTask = new Task<>() {
+            @Override
+            protected ImportReport call() throws Exception {
+                return new StudentCsvImporter(etudiantDAO).importer(file, allOrNothing, this::updateProgress);
+            }
+        };
 
-            importTask.setOnSucceeded(event -> {
-                int count = importTask.getValue();
-                showStatusMessage(count + " étudiant(s) importé(s) avec succès.", "status-success", 3);
+        importTask.setOnSucceeded(event -> {
+            ImportReport report = importTask.getValue();
+            if (report.isAnnule()) {
+                showStatusMessage("Import annulé : " + report.getRejetees() + " ligne(s) en erreur, aucun étudiant enregistré.", "status-error", 5);
+            } else if (report.hasErreurs()) {
+                showStatusMessage(report.getImportees() + " étudiant(s) importé(s), " + report.getRejetees() + " ligne(s) rejetée(s).", "status-warning", 5);
+            } else {
+                showStatusMessage(report.getImportees() + " étudiant(s) importé(s) avec succès.", "status-success", 3);
+            }
+            if (report.hasErreurs()) {
+                ImportReportDialog.show(report);
+            }
+            if (report.getImportees() > 0) {
                 loadStudentsTask();
                 if (mainController != null) {
                     mainController.refreshStudentView();
                 }
-                unbindControls();
-            });
+            }
+            unbindControls();
+        });
 
-            importTask.setOnFailed(event -> {
-                importTask.getException().printStackTrace();
-                showStatusMessage("Erreur lors de l'importation du CSV.", "status-error", 5);
-                unbindControls();
-            });
+        importTask.setOnFailed(event -> {
+            importTask.getException().printStackTrace();
+            showStatusMessage("Erreur lors de l'importation du CSV.", "status-error", 5);
+            unbindControls();
+        });
 
-            bindControlsToTask(importTask);
-            new Thread(importTask).start();
-        }
+        bindControlsToTask(importTask);
+        taskScheduler.submit(importTask);
     }
 
     @FXML
@@ -360,7 +388,7 @@ public class StudentController {
             });
 
             bindControlsToTask(exportTask);
-            new Thread(exportTask).start();
+            taskScheduler.submit(exportTask);
         }
     }
 
@@ -0,0 +1,211 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.metrics.Metrics;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.NotesEtudiant;
+import com.example.gestionnotes.model.Page;
+import com.example.gestionnotes.model.Statistiques;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Accès asynchrone aux dépôts de l'application (Repositories) : chaque lecture s'exécute sur un pool de threads
+ * dédié aux entrées-sorties et retourne un CompletableFuture, que l'appelant compose (thenCombine, allOf…)
+ * sans bloquer le thread de l'interface. Plusieurs lectures lancées ensemble s'exécutent en parallèle,
+ * chacune sur sa propre connexion du pool.
+ * <p>
+ * Les lectures attendent la fin de la préparation de la base (prepare), par exemple les migrations :
+ * le démarrage peut ainsi afficher la fenêtre et lancer ses requêtes sans attendre le schéma.
+ * Les autres accès à la base attendent la même préparation (whenReady) : la saisie différée (NoteWriteBehind)
+ * et les tâches des contrôleurs (TaskScheduler.setPrerequisite).
+ * Contrairement à TaskScheduler, une lecture n'est pas annulable : elle convient aux chargements
+ * qui aboutissent toujours (démarrage, index), pas aux recherches remplacées à chaque frappe.
+ */
+public final class AsyncDao implements EtudiantChangeListener {
+
+    private static volatile AsyncDao instance;
+
+    private final EtudiantRepository etudiantDAO;
+    private final NoteRepository noteDAO;
+    private final ThreadPoolExecutor executor;
+    private volatile CompletableFuture<Void> pret = CompletableFuture.completedFuture(null);
+    // Lecture de tous les étudiants en cours, partagée par les demandes simultanées
+    private final AtomicReference<CompletableFuture<List<Etudiant>>> etudiantsEnCours = new AtomicReference<>();
+
+    /**
+     * @return L'accès asynchrone partagé par l'application, abonné aux modifications d'étudiants.
+     */
+    public static AsyncDao getInstance() {
+        AsyncDao current = instance;
+        if (current == null) {
+            synchronized (AsyncDao.class) {
+                current = instance;
+                if (current == null) {
+                    current = new AsyncDao(Repositories.getEtudiantRepository(), Repositories.getNoteRepository(),
+                            AppConfig.getInt("db.io.threads", 4));
+                    DaoEvents.addEtudiantListener(current);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Arrête l'instance partagée, si elle a été créée ; les lectures en attente ne sont pas exécutées.
+     */
+    public static void shutdownInstance() {
+        AsyncDao current;
+        synchronized (AsyncDao.class) {
+            current = instance;
+            instance = null;
+        }
+        if (current != null) {
+            DaoEvents.removeEtudiantListener(current);
+            current.executor.shutdownNow();
+        }
+    }
+
+    public AsyncDao(EtudiantRepository etudiantDAO, NoteRepository noteDAO, int threads) {
+        this.etudiantDAO = etudiantDAO;
+        this.noteDAO = noteDAO;
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "db-io-" + counter.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Lance la préparation de la base sur le pool ; les lectures demandées ensuite ne s'exécutent qu'après elle.
+     * Un échec de la préparation est signalé sans bloquer les lectures, qui portent alors sur le schéma existant.
+     * @return La préparation, terminée quand la base est prête.
+     */
+    public CompletableFuture<Void> prepare(Runnable preparation) {
+        CompletableFuture<Void> suivante = pret.thenRunAsync(preparation, executor)
+                .exceptionally(e -> {
+                    System.err.println("Erreur: préparation de la base impossible.");
+                    e.printStackTrace();
+                    return null;
+                });
+        pret = suivante;
+        return suivante;
+    }
+
+    /**
+     * @return La préparation de la base lancée jusqu'ici (prepare), terminée quand la base est prête ; déjà terminée
+     * s'il n'y en a pas. Les écritures d'arrière-plan (NoteWriteBehind, TaskScheduler) l'attendent elles aussi.
+     */
+    public CompletableFuture<Void> whenReady() {
+        return pret;
+    }
+
+    /**
+     * @return Le pool des lectures, pour y poursuivre un traitement lié à une lecture (thenApplyAsync…).
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Exécute une lecture sur le pool, une fois la base prête.
+     * Sa latence, attente comprise, est publiée en JMX (type=AsyncDao, name=nom).
+     * @param nom Le nom de la lecture, pour les mesures.
+     */
+    public <T> CompletableFuture<T> supply(String nom, Supplier<T> lecture) {
+        long submittedNanos = System.nanoTime();
+        return pret.thenApplyAsync(ignore -> {
+            String previousTask = Metrics.enterTask(nom);
+            try {
+                return lecture.get();
+            } finally {
+                Metrics.enterTask(previousTask);
+                Metrics.operation("AsyncDao", nom).record(System.nanoTime() - submittedNanos);
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<List<String>> getAllFilieres() {
+        return supply("filieres", etudiantDAO::getAllFilieres);
+    }
+
+    /**
+     * @see EtudiantRepository#searchEtudiants(String, String, Etudiant, int)
+     */
+    public CompletableFuture<Page<Etudiant>> searchEtudiants(String filiere, String terme, Etudiant apres, int taillePage) {
+        return supply("recherche", () -> etudiantDAO.searchEtudiants(filiere, terme, apres, taillePage));
+    }
+
+    /**
+     * Lit tous les étudiants. Une demande faite pendant une lecture en cours la partage au lieu d'en lancer
+     * une seconde ; une modification d'étudiant entre-temps fait lancer une nouvelle lecture.
+     * @return Une liste propre à l'appelant, qu'il peut modifier.
+     */
+    public CompletableFuture<List<Etudiant>> getAllEtudiants() {
+        CompletableFuture<List<Etudiant>> lecture;
+        while (true) {
+            CompletableFuture<List<Etudiant>> enCours = etudiantsEnCours.get();
+            if (enCours != null) {
+                lecture = enCours;
+                break;
+            }
+            CompletableFuture<List<Etudiant>> nouvelle = new CompletableFuture<>();
+            if (etudiantsEnCours.compareAndSet(null, nouvelle)) {
+                supply("etudiants", etudiantDAO::getAllEtudiants).whenComplete((etudiants, erreur) -> {
+                    etudiantsEnCours.compareAndSet(nouvelle, null);
+                    if (erreur != null) {
+                        nouvelle.completeExceptionally(erreur);
+                    } else {
+                        nouvelle.complete(etudiants);
+                    }
+                });
+                lecture = nouvelle;
+                break;
+            }
+        }
+        return lecture.thenApply(ArrayList::new);
+    }
+
+    public CompletableFuture<Statistiques.Ligne> getStatistiquesGlobales() {
+        return supply("statistiques-globales", noteDAO::getStatistiquesGlobales);
+    }
+
+    public CompletableFuture<NotesEtudiant> getNotesEtudiant(int etudiantId) {
+        return supply("notes-etudiant", () -> noteDAO.getNotesEtudiant(etudiantId));
+    }
+
+    // Une lecture en cours peut précéder la modification : les demandes suivantes ne doivent pas la partager
+
+    @Override
+    public void onEtudiantAdded(Etudiant etudiant) {
+        etudiantsEnCours.set(null);
+    }
+
+    @Override
+    public void onEtudiantUpdated(Etudiant etudiant) {
+        etudiantsEnCours.set(null);
+    }
+
+    @Override
+    public void onEtudiantDeleted(int etudiantId) {
+        etudiantsEnCours.set(null);
+    }
+
+    @Override
+    public void onEtudiantsAdded(List<Etudiant> etudiants) {
+        etudiantsEnCours.set(null);
+    }
+}
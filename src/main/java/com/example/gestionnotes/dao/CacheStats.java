@@ -0,0 +1,49 @@
+package com.example.gestionnotes.dao;
+
+/**
+ * Instantané des métriques d'un cache en mémoire.
+ */
+public class CacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final int size;
+
+    public CacheStats(long hits, long misses, long evictions, int size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    /** @return Le nombre de lectures servies par le cache, sans accès à la base. */
+    public long getHits() {
+        return hits;
+    }
+
+    /** @return Le nombre de lectures qui ont dû interroger la base. */
+    public long getMisses() {
+        return misses;
+    }
+
+    /** @return Le nombre d'entrées retirées pour respecter la taille maximale du cache. */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /** @return Le nombre d'éléments actuellement en cache. */
+    public int getSize() {
+        return size;
+    }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : hits * 100.0 / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheStats[succès=%d, échecs=%d (%.1f %% de succès), évictions=%d, taille=%d]",
+                hits, misses, getHitRate(), evictions, size);
+    }
+}
@@ -0,0 +1,329 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.model.Etudiant;
+
+import java.sql.SQLException;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache en lecture (read-through) devant EtudiantDAO, partagé par les contrôleurs.
+ * <ul>
+ *     <li>Mode complet : dès que getAllEtudiants() a été appelé et que la liste tient dans cache.etudiants.maxEntries,
+ *     tous les étudiants sont gardés en mémoire, indexés par id et par filière. Les listes, les filières
+ *     et les listes par filière sont alors servies sans accès à la base.</li>
+ *     <li>Mode partiel : sinon, seules les listes par filière déjà lues sont gardées, dans la limite de
+ *     cache.etudiants.maxEntries étudiants au total ; la filière la moins récemment lue est évincée en premier.</li>
+ * </ul>
+ * Les écritures (ajout, modification, suppression, import) sont répercutées sur place grâce aux événements
+ * des DAOs ; un import volumineux vide le cache, relu à la demande suivante.
+ * Les listes rendues sont des copies, mais les étudiants qu'elles contiennent sont ceux du cache :
+ * ils ne doivent pas être modifiés (une modification passe par updateEtudiant avec un nouvel Etudiant).
+ * Les listes sont triées selon le même ordre que celui des recherches du cache, et non selon la collation de la base.
+ */
+public class CachedEtudiantDAO extends EtudiantDAO implements EtudiantChangeListener {
+
+    // Au-delà, un ajout en masse vide le cache plutôt que d'insérer les étudiants un par un dans les listes triées
+    private static final int BULK_INVALIDATION_THRESHOLD = 1000;
+
+    private static volatile CachedEtudiantDAO instance;
+
+    private final int maxEntries;
+    // Ordre des listes en cache (nom, prenom, id), sans tenir compte des accents ni de la casse ;
+    // les listes lues sont triées avec lui, pour que les recherches dichotomiques des mises à jour restent exactes
+    private final Collator collator;
+    private final Comparator<Etudiant> ordre;
+
+    // Mode complet : tous les étudiants ; null si non chargés ou trop nombreux
+    private List<Etudiant> roster;
+    private Map<Integer, Etudiant> parId;
+    private TreeMap<String, List<Etudiant>> filieresCompletes;
+
+    // Mode partiel : étudiants par filière, dans l'ordre d'accès (LRU)
+    private final LinkedHashMap<String, List<Etudiant>> parFiliere = new LinkedHashMap<>(16, 0.75f, true);
+    private int parFiliereSize;
+    private List<String> filieres;
+
+    // Incrémenté à chaque écriture : une lecture faite pendant une écriture n'est pas mise en cache
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @return Le cache partagé par l'application, abonné aux modifications d'étudiants.
+     */
+    public static CachedEtudiantDAO getInstance() {
+        CachedEtudiantDAO current = instance;
+        if (current == null) {
+            synchronized (CachedEtudiantDAO.class) {
+                current = instance;
+                if (current == null) {
+                    current = new CachedEtudiantDAO(AppConfig.getInt("cache.etudiants.maxEntries", 200000));
+                    DaoEvents.addEtudiantListener(current);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public CachedEtudiantDAO(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.collator = Collator.getInstance(Locale.FRENCH);
+        this.collator.setStrength(Collator.PRIMARY);
+        this.ordre = Comparator.comparing(Etudiant::getNom, collator)
+                .thenComparing(Etudiant::getPrenom, collator)
+                .thenComparingInt(Etudiant::getId);
+    }
+
+    @Override
+    public List<Etudiant> getAllEtudiants() {
+        long debut;
+        synchronized (this) {
+            if (roster != null) {
+                hits.increment();
+                return new ArrayList<>(roster);
+            }
+            debut = generation;
+        }
+        misses.increment();
+        List<Etudiant> etudiants;
+        try {
+            etudiants = queryEtudiants(null);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+        etudiants.sort(ordre);
+        synchronized (this) {
+            if (generation == debut && etudiants.size() <= maxEntries) {
+                installRoster(etudiants);
+                return new ArrayList<>(etudiants);
+            }
+        }
+        return etudiants;
+    }
+
+    @Override
+    public List<Etudiant> getEtudiantsByFiliere(String filiere) {
+        long debut;
+        synchronized (this) {
+            List<Etudiant> cached = roster != null ? filieresCompletes.get(filiere) : parFiliere.get(filiere);
+            if (cached != null || roster != null) {
+                hits.increment();
+                return cached != null ? new ArrayList<>(cached) : new ArrayList<>();
+            }
+            debut = generation;
+        }
+        misses.increment();
+        List<Etudiant> etudiants;
+        try {
+            etudiants = queryEtudiants(filiere);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+        etudiants.sort(ordre);
+        synchronized (this) {
+            if (generation == debut && roster == null && etudiants.size() <= maxEntries) {
+                List<Etudiant> previous = parFiliere.put(filiere, new ArrayList<>(etudiants));
+                parFiliereSize += etudiants.size() - (previous != null ? previous.size() : 0);
+                evictFilieres();
+                return new ArrayList<>(etudiants);
+            }
+        }
+        return etudiants;
+    }
+
+    @Override
+    public List<String> getAllFilieres() {
+        long debut;
+        synchronized (this) {
+            if (roster != null) {
+                hits.increment();
+                return new ArrayList<>(filieresCompletes.keySet());
+            }
+            if (filieres != null) {
+                hits.increment();
+                return new ArrayList<>(filieres);
+            }
+            debut = generation;
+        }
+        misses.increment();
+        List<String> result;
+        try {
+            result = queryFilieres();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+        result.sort(collator);
+        synchronized (this) {
+            if (generation == debut) {
+                filieres = new ArrayList<>(result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Vide le cache : la prochaine lecture interrogera la base.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        roster = null;
+        parId = null;
+        filieresCompletes = null;
+        parFiliere.clear();
+        parFiliereSize = 0;
+        filieres = null;
+    }
+
+    /**
+     * @return Un instantané des compteurs du cache ; la taille est le nombre d'étudiants en mémoire.
+     */
+    public synchronized CacheStats getStats() {
+        int size = roster != null ? roster.size() : parFiliereSize;
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    private void installRoster(List<Etudiant> etudiants) {
+        roster = new ArrayList<>(etudiants);
+        parId = new HashMap<>(etudiants.size() * 2);
+        filieresCompletes = new TreeMap<>(collator);
+        for (Etudiant etudiant : etudiants) {
+            parId.put(etudiant.getId(), etudiant);
+            filieresCompletes.computeIfAbsent(etudiant.getFiliere(), k -> new ArrayList<>()).add(etudiant);
+        }
+        // Le mode complet remplace le mode partiel
+        parFiliere.clear();
+        parFiliereSize = 0;
+        filieres = null;
+    }
+
+    private void evictFilieres() {
+        Iterator<List<Etudiant>> it = parFiliere.values().iterator();
+        while (parFiliereSize > maxEntries && it.hasNext()) {
+            parFiliereSize -= it.next().size();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    // --- Mise à jour sur place, appelée après le commit de chaque écriture ---
+
+    @Override
+    public synchronized void onEtudiantAdded(Etudiant etudiant) {
+        generation++;
+        add(copyOf(etudiant));
+    }
+
+    @Override
+    public synchronized void onEtudiantsAdded(List<Etudiant> etudiants) {
+        if (etudiants.size() > BULK_INVALIDATION_THRESHOLD) {
+            invalidate();
+            return;
+        }
+        generation++;
+        for (Etudiant etudiant : etudiants) {
+            add(copyOf(etudiant));
+        }
+    }
+
+    @Override
+    public synchronized void onEtudiantUpdated(Etudiant etudiant) {
+        generation++;
+        remove(etudiant.getId());
+        add(copyOf(etudiant));
+    }
+
+    @Override
+    public synchronized void onEtudiantDeleted(int etudiantId) {
+        generation++;
+        remove(etudiantId);
+    }
+
+    private void add(Etudiant etudiant) {
+        if (roster != null) {
+            if (roster.size() >= maxEntries) {
+                evictions.increment();
+                invalidate();
+                return;
+            }
+            insertSorted(roster, etudiant);
+            parId.put(etudiant.getId(), etudiant);
+            insertSorted(filieresCompletes.computeIfAbsent(etudiant.getFiliere(), k -> new ArrayList<>()), etudiant);
+            return;
+        }
+        List<Etudiant> liste = parFiliere.get(etudiant.getFiliere());
+        if (liste != null) {
+            insertSorted(liste, etudiant);
+            parFiliereSize++;
+            evictFilieres();
+        }
+        if (filieres != null) {
+            int position = Collections.binarySearch(filieres, etudiant.getFiliere(), collator);
+            if (position < 0) {
+                filieres.add(-position - 1, etudiant.getFiliere());
+            }
+        }
+    }
+
+    private void remove(int etudiantId) {
+        if (roster != null) {
+            Etudiant ancien = parId.remove(etudiantId);
+            if (ancien != null) {
+                removeSorted(roster, ancien);
+                List<Etudiant> liste = filieresCompletes.get(ancien.getFiliere());
+                if (liste != null && removeSorted(liste, ancien) && liste.isEmpty()) {
+                    filieresCompletes.remove(ancien.getFiliere());
+                }
+            }
+            return;
+        }
+        // Mode partiel : l'ancienne filière n'est pas connue, chaque liste en cache est parcourue
+        for (List<Etudiant> liste : parFiliere.values()) {
+            if (liste.removeIf(e -> e.getId() == etudiantId)) {
+                parFiliereSize--;
+            }
+        }
+        // Une filière a pu devenir vide
+        filieres = null;
+    }
+
+    private void insertSorted(List<Etudiant> liste, Etudiant etudiant) {
+        int position = Collections.binarySearch(liste, etudiant, ordre);
+        liste.add(position < 0 ? -position - 1 : position, etudiant);
+    }
+
+    /**
+     * Retire un étudiant d'une liste triée selon ordre. L'étudiant est celui du cache, jamais modifié :
+     * la recherche dichotomique le retrouve à sa place.
+     */
+    private boolean removeSorted(List<Etudiant> liste, Etudiant etudiant) {
+        int position = Collections.binarySearch(liste, etudiant, ordre);
+        if (position < 0) {
+            return false;
+        }
+        liste.remove(position);
+        return true;
+    }
+
+    // Les étudiants reçus des écritures appartiennent à l'appelant : le cache en garde une copie
+    private static Etudiant copyOf(Etudiant etudiant) {
+        return new Etudiant(etudiant.getId(), etudiant.getNom(), etudiant.getPrenom(), etudiant.getFiliere());
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.NotesEtudiant;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache LRU des notes par étudiant devant NoteDAO, partagé par les contrôleurs.
+ * Au plus cache.notes.maxStudents étudiants sont gardés ; le moins récemment consulté est évincé en premier.
+ * L'entrée d'un étudiant est retirée dès qu'une de ses notes est écrite (ou qu'il est modifié ou supprimé),
+ * et tout le cache est vidé après un import de notes.
+ * prefetch() charge en une requête les notes de plusieurs étudiants, par exemple les voisins de la carte sélectionnée.
+ * Les notes rendues sont des copies : les modifier ne change pas le cache.
+ */
+public class CachedNoteDAO extends NoteDAO implements NoteChangeListener, EtudiantChangeListener {
+
+    private static volatile CachedNoteDAO instance;
+
+    private final LinkedHashMap<Integer, NotesEtudiant> parEtudiant;
+    // Incrémenté à chaque écriture : une lecture faite pendant une écriture n'est pas mise en cache
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @return Le cache partagé par l'application, abonné aux modifications de notes et d'étudiants.
+     */
+    public static CachedNoteDAO getInstance() {
+        CachedNoteDAO current = instance;
+        if (current == null) {
+            synchronized (CachedNoteDAO.class) {
+                current = instance;
+                if (current == null) {
+                    current = new CachedNoteDAO(AppConfig.getInt("cache.notes.maxStudents", 500));
+                    DaoEvents.addNoteListener(current);
+                    DaoEvents.addEtudiantListener(current);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public CachedNoteDAO(int maxStudents) {
+        this.parEtudiant = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, NotesEtudiant> eldest) {
+                if (size() > maxStudents) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Rend les notes et la moyenne d'un étudiant, depuis le cache ou la base.
+     * @return Les notes de l'étudiant ; une liste vide si la lecture a échoué.
+     */
+    @Override
+    public NotesEtudiant getNotesEtudiant(int etudiantId) {
+        NotesEtudiant cached = getIfPresent(etudiantId);
+        if (cached != null) {
+            return cached;
+        }
+        misses.increment();
+        long debut;
+        synchronized (this) {
+            debut = generation;
+        }
+        List<Note> notes;
+        try {
+            notes = queryNotesByEtudiants(Collections.singleton(etudiantId)).get(etudiantId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new NotesEtudiant(etudiantId, new ArrayList<>());
+        }
+        NotesEtudiant loaded = new NotesEtudiant(etudiantId, notes);
+        synchronized (this) {
+            if (generation == debut) {
+                parEtudiant.put(etudiantId, loaded);
+            }
+        }
+        return copyOf(loaded);
+    }
+
+    /**
+     * @return Les notes de l'étudiant si elles sont en cache, null sinon (sans accès à la base).
+     */
+    @Override
+    public NotesEtudiant getIfPresent(int etudiantId) {
+        NotesEtudiant cached;
+        synchronized (this) {
+            cached = parEtudiant.get(etudiantId);
+        }
+        if (cached == null) {
+            return null;
+        }
+        hits.increment();
+        return copyOf(cached);
+    }
+
+    /**
+     * Charge en une seule requête les notes des étudiants qui ne sont pas encore en cache.
+     * Les étudiants déjà en cache ne sont pas rafraîchis dans l'ordre LRU.
+     */
+    @Override
+    public void prefetch(Collection<Integer> etudiantIds) {
+        Set<Integer> manquants = new LinkedHashSet<>();
+        long debut;
+        synchronized (this) {
+            for (Integer etudiantId : etudiantIds) {
+                if (!parEtudiant.containsKey(etudiantId)) {
+                    manquants.add(etudiantId);
+                }
+            }
+            debut = generation;
+        }
+        if (manquants.isEmpty()) {
+            return;
+        }
+        Map<Integer, List<Note>> notes;
+        try {
+            notes = queryNotesByEtudiants(manquants);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return;
+        }
+        synchronized (this) {
+            if (generation == debut) {
+                for (Map.Entry<Integer, List<Note>> entry : notes.entrySet()) {
+                    parEtudiant.putIfAbsent(entry.getKey(), new NotesEtudiant(entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Note> getNotesByEtudiant(int etudiantId) {
+        return new ArrayList<>(getNotesEtudiant(etudiantId).getNotes());
+    }
+
+    @Override
+    public double getMoyenneEtudiant(int etudiantId) {
+        return getNotesEtudiant(etudiantId).getMoyenne();
+    }
+
+    /**
+     * Vide le cache : les prochaines lectures interrogeront la base.
+     */
+    public synchronized void invalidate() {
+        generation++;
+        parEtudiant.clear();
+    }
+
+    /**
+     * @return Un instantané des compteurs du cache ; la taille est le nombre d'étudiants en mémoire.
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), parEtudiant.size());
+    }
+
+    private synchronized void invalidate(int etudiantId) {
+        generation++;
+        parEtudiant.remove(etudiantId);
+    }
+
+    private static NotesEtudiant copyOf(NotesEtudiant notesEtudiant) {
+        List<Note> copies = new ArrayList<>(notesEtudiant.getNotes().size());
+        for (Note note : notesEtudiant.getNotes()) {
+            copies.add(new Note(note.getId(), note.getEtudiantId(), note.getNomEtudiant(), note.getPrenomEtudiant(),
+                    note.getMatiere(), note.getNoteDevoir(), note.getNoteExamen()));
+        }
+        return new NotesEtudiant(notesEtudiant.getEtudiantId(), copies);
+    }
+
+    // --- Invalidation, appelée après le commit de chaque écriture ---
+
+    @Override
+    public void onNotesChanged(int etudiantId) {
+        invalidate(etudiantId);
+    }
+
+    @Override
+    public void onAllNotesChanged() {
+        invalidate();
+    }
+
+    @Override
+    public void onEtudiantAdded(Etudiant etudiant) {
+        // Un nouvel étudiant n'a pas encore de notes
+    }
+
+    @Override
+    public void onEtudiantUpdated(Etudiant etudiant) {
+        // Le nom affiché avec chaque note a pu changer
+        invalidate(etudiant.getId());
+    }
+
+    @Override
+    public void onEtudiantDeleted(int etudiantId) {
+        invalidate(etudiantId);
+    }
+
+    @Override
+    public void onEtudiantsAdded(List<Etudiant> etudiants) {
+        // Les étudiants importés n'ont pas encore de notes
+    }
+}
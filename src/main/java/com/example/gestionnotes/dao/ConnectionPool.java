@@ -0,0 +1,366 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.metrics.LatencyHistogram;
+import com.example.gestionnotes.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de connexions JDBC thread-safe.
+ * Les connexions fournies sont des proxys : appeler close() rend la connexion physique au pool
+ * au lieu de la fermer, ce qui permet aux DAOs de conserver leurs blocs try-with-resources.
+ * Les requêtes créées sur ces connexions sont elles aussi des proxys, qui mesurent chaque exécution
+ * (MeasuredStatement), sauf si metrics.enabled=false.
+ */
+public class ConnectionPool implements ConnectionPoolMXBean {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+
+    // Connexions libres, la plus récemment rendue en tête (LIFO) pour laisser vieillir les autres
+    private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+    // Un permis par connexion empruntable : borne le nombre de connexions ouvertes à maxSize
+    private final Semaphore permits;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LatencyHistogram acquireTimes = new LatencyHistogram();
+
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Tailles de pool invalides : min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 2);
+        // Le premier passage remplit le pool jusqu'à minSize sans bloquer l'appelant
+        evictor.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Emprunte une connexion au pool, en attendant au plus borrowTimeoutMillis qu'une connexion se libère.
+     * La connexion est validée avant d'être rendue à l'appelant.
+     *
+     * @return Une connexion à fermer (close) après usage pour la rendre au pool.
+     * @throws SQLException si le pool est fermé, si le délai est dépassé ou si la connexion échoue.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Le pool de connexions est fermé.");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        waiting.incrementAndGet();
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Attente d'une connexion interrompue.", e);
+        } finally {
+            waiting.decrementAndGet();
+        }
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTimeoutException("Aucune connexion disponible après " + borrowTimeoutMillis + " ms ("
+                    + maxSize + " connexions actives).");
+        }
+
+        try {
+            Connection physical = takeValidIdleConnection();
+            if (physical == null) {
+                physical = openPhysicalConnection();
+            }
+            active.incrementAndGet();
+            recordWait(System.nanoTime() - start);
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection takeValidIdleConnection() {
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            if (isValid(candidate.connection)) {
+                return candidate.connection;
+            }
+            closeQuietly(candidate.connection);
+        }
+        return null;
+    }
+
+    private boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysicalConnection() throws SQLException {
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.increment();
+        totalWaitNanos.add(nanos);
+        maxWaitNanos.accumulateAndGet(nanos, Math::max);
+        acquireTimes.record(nanos);
+    }
+
+    /**
+     * Rend une connexion physique au pool, en annulant toute transaction laissée ouverte.
+     */
+    private void release(Connection physical, boolean broken) {
+        active.decrementAndGet();
+        try {
+            if (broken || closed || physical.isClosed()) {
+                closeQuietly(physical);
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            idle.offerFirst(new IdleConnection(physical, System.nanoTime()));
+        } catch (SQLException e) {
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Ferme les connexions restées inutilisées trop longtemps, puis complète le pool jusqu'à minSize.
+     */
+    private void maintain() {
+        if (closed) {
+            return;
+        }
+        long now = System.nanoTime();
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        Iterator<IdleConnection> it = idle.descendingIterator(); // les plus anciennes d'abord
+        while (it.hasNext() && active.get() + idle.size() > minSize) {
+            IdleConnection candidate = it.next();
+            if (now - candidate.lastUsedNanos > idleTimeoutNanos && idle.removeFirstOccurrence(candidate)) {
+                closeQuietly(candidate.connection);
+            }
+        }
+
+        while (!closed && active.get() + idle.size() < minSize && permits.tryAcquire()) {
+            try {
+                idle.offerLast(new IdleConnection(openPhysicalConnection(), System.nanoTime()));
+            } catch (SQLException e) {
+                System.err.println("Pool: impossible d'ouvrir une connexion de réserve (" + e.getMessage() + ").");
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * @return Un instantané des métriques du pool (connexions actives, libres, temps d'attente).
+     */
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        double averageWait = borrows == 0 ? 0.0 : totalWaitNanos.sum() / (double) borrows / 1_000_000.0;
+        return new PoolStats(active.get(), idle.size(), waiting.get(), maxSize, borrows, timeoutCount.sum(),
+                averageWait, maxWaitNanos.get() / 1_000_000.0);
+    }
+
+    @Override
+    public int getActive() {
+        return active.get();
+    }
+
+    @Override
+    public int getIdle() {
+        return idle.size();
+    }
+
+    @Override
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    @Override
+    public double getAcquireMeanMillis() {
+        return acquireTimes.meanNanos() / 1_000_000.0;
+    }
+
+    @Override
+    public double getAcquireP50Millis() {
+        return acquireTimes.percentileNanos(50) / 1_000_000.0;
+    }
+
+    @Override
+    public double getAcquireP99Millis() {
+        return acquireTimes.percentileNanos(99) / 1_000_000.0;
+    }
+
+    @Override
+    public double getAcquireMaxMillis() {
+        return acquireTimes.maxNanos() / 1_000_000.0;
+    }
+
+    /**
+     * Ferme le pool et toutes les connexions libres. Les connexions encore empruntées
+     * seront fermées lorsqu'elles seront rendues.
+     */
+    public void shutdown() {
+        closed = true;
+        evictor.shutdownNow();
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            closeQuietly(candidate.connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Pool: erreur lors de la fermeture d'une connexion (" + e.getMessage() + ").");
+        }
+    }
+
+    private Connection wrap(Connection physical) {
+        return (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledConnectionHandler(physical));
+    }
+
+    private static final class IdleConnection {
+        private final Connection connection;
+        private final long lastUsedNanos;
+
+        private IdleConnection(Connection connection, long lastUsedNanos) {
+            this.connection = connection;
+            this.lastUsedNanos = lastUsedNanos;
+        }
+    }
+
+    /**
+     * Intercepte close() pour rendre la connexion au pool. Une erreur de connexion
+     * (SQLState de classe 08) marque la connexion physique comme inutilisable.
+     * Les requêtes créées sont signalées à StatementTracker pour pouvoir être annulées,
+     * puis enveloppées dans MeasuredStatement pour être mesurées.
+     */
+    private final class PooledConnectionHandler implements InvocationHandler {
+        private final Connection physical;
+        private boolean returned;
+        private boolean broken;
+
+        private PooledConnectionHandler(Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        StatementTracker.unregister();
+                        release(physical, broken);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connexion déjà rendue au pool.");
+            }
+            try {
+                Object result = method.invoke(physical, args);
+                if (result instanceof Statement) {
+                    StatementTracker.register((Statement) result);
+                    if (Metrics.isEnabled()) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                        return MeasuredStatement.wrap((Statement) result, method.getReturnType(), sql);
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    if (state != null && state.startsWith("08")) {
+                        broken = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.gestionnotes.dao;
+
+/**
+ * Vue JMX du pool de connexions (com.example.gestionnotes:type=ConnectionPool).
+ * Le temps d'emprunt va de l'appel à getConnection() à l'obtention d'une connexion validée, en millisecondes.
+ */
+public interface ConnectionPoolMXBean {
+
+    int getActive();
+
+    int getIdle();
+
+    int getWaiting();
+
+    int getMaxSize();
+
+    long getBorrowCount();
+
+    long getTimeoutCount();
+
+    double getAcquireMeanMillis();
+
+    double getAcquireP50Millis();
+
+    double getAcquireP99Millis();
+
+    double getAcquireMaxMillis();
+}
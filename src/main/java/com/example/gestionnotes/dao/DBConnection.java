@@ -1,57 +1,93 @@
 package com.example.gestionnotes.dao;
 
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.metrics.Metrics;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Gère la connexion à la base de données MySQL.
- * Utilise le pattern Singleton pour garantir une seule instance de connexion.
+ * Gère l'accès à la base de données MySQL.
+ * Les connexions sont fournies par un pool unique (ConnectionPool) créé au premier appel.
+ * Chaque appelant doit fermer sa connexion (try-with-resources) pour la rendre au pool.
+ * Le pool est publié en JMX sous com.example.gestionnotes:type=ConnectionPool,name="db".
  */
 public class DBConnection {
 
-    // --- ATTENTION : Configurez ces informations pour votre base de données --- //
-    private static final String JDBC_URL = "jdbc:mysql://192.168.1.94:3306/Db_Tennis?useSSL=false&serverTimezone=UTC";
-    private static final String DB_USER = "ace3i"; // Votre nom d'utilisateur
-    private static final String DB_PASSWORD = "africa@2025"; // Votre mot de passe
-    // ------------------------------------------------------------------------- //
+    // Les paramètres de connexion sont dans application.properties (clés db.*)
+    private static final String JDBC_URL = AppConfig.get("db.url",
+            "jdbc:mysql://192.168.1.94:3306/Db_Tennis?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true");
+    private static final String DB_USER = AppConfig.get("db.user", "ace3i");
+    private static final String DB_PASSWORD = AppConfig.get("db.password", "africa@2025");
+    private static final String DB_DRIVER = AppConfig.get("db.driver", "com.mysql.cj.jdbc.Driver");
 
-    private static Connection connection = null;
+    private static volatile ConnectionPool pool = null;
 
     /**
-     * Fournit un point d'accès global à l'instance de connexion.
-     * Si la connexion n'existe pas, elle est créée.
+     * Emprunte une connexion au pool.
+     * Le pool est créé lors du premier appel.
      *
-     * @return L'instance de la connexion à la base de données.
-     * @throws SQLException si la connexion échoue.
+     * @return Une connexion à la base de données, à fermer après usage.
+     * @throws SQLException si aucune connexion n'a pu être obtenue.
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                // Chargement du driver JDBC pour MySQL
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                // Établissement de la connexion
-                connection = DriverManager.getConnection(JDBC_URL, DB_USER, DB_PASSWORD);
-            } catch (ClassNotFoundException e) {
-                System.err.println("Erreur: Driver MySQL non trouvé.");
-                e.printStackTrace();
-                throw new SQLException("Driver non trouvé", e);
+        return getPool().getConnection();
+    }
+
+    private static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBConnection.class) {
+                current = pool;
+                if (current == null) {
+                    try {
+                        // Chargement du driver JDBC
+                        Class.forName(DB_DRIVER);
+                    } catch (ClassNotFoundException e) {
+                        System.err.println("Erreur: Driver JDBC non trouvé (" + DB_DRIVER + ").");
+                        e.printStackTrace();
+                        throw new SQLException("Driver non trouvé", e);
+                    }
+                    current = new ConnectionPool(JDBC_URL, DB_USER, DB_PASSWORD,
+                            AppConfig.getInt("db.pool.minSize", 2),
+                            AppConfig.getInt("db.pool.maxSize", 10),
+                            AppConfig.getLong("db.pool.borrowTimeoutMs", 5000),
+                            AppConfig.getLong("db.pool.idleTimeoutMs", 300000),
+                            AppConfig.getInt("db.pool.validationTimeoutSec", 2));
+                    Metrics.register("ConnectionPool", "db", current);
+                    pool = current;
+                }
             }
         }
-        return connection;
+        return current;
+    }
+
+    /**
+     * Taille de lot à passer à Statement.setFetchSize() pour parcourir un grand résultat en flux.
+     * Le pilote MySQL ne lit les lignes au fil de l'eau qu'avec la valeur Integer.MIN_VALUE ;
+     * les autres pilotes attendent un nombre de lignes positif.
+     */
+    public static int streamingFetchSize() {
+        return JDBC_URL.startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : 1000;
+    }
+
+    /**
+     * @return Les métriques du pool, ou null si aucune connexion n'a encore été demandée.
+     */
+    public static PoolStats getPoolStats() {
+        ConnectionPool current = pool;
+        return current != null ? current.getStats() : null;
     }
 
     /**
-     * Méthode utilitaire pour fermer la connexion.
+     * Ferme le pool et toutes ses connexions. Un appel ultérieur à getConnection() recrée un pool.
      */
     public static void closeConnection() {
-        if (connection != null) {
-            try {
-                connection.close();
-                connection = null;
-            } catch (SQLException e) {
-                System.err.println("Erreur lors de la fermeture de la connexion.");
-                e.printStackTrace();
+        synchronized (DBConnection.class) {
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+                Metrics.unregister("ConnectionPool", "db");
             }
         }
     }
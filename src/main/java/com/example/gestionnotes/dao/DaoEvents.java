@@ -0,0 +1,96 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Etudiant;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Diffusion des modifications faites par les DAOs aux écouteurs enregistrés.
+ * Les écouteurs sont appelés sur le thread qui a fait l'écriture, après le commit ;
+ * une exception levée par un écouteur n'annule pas l'écriture.
+ */
+public final class DaoEvents {
+
+    private static final List<EtudiantChangeListener> etudiantListeners = new CopyOnWriteArrayList<>();
+    private static final List<NoteChangeListener> noteListeners = new CopyOnWriteArrayList<>();
+
+    private DaoEvents() {
+    }
+
+    public static void addEtudiantListener(EtudiantChangeListener listener) {
+        etudiantListeners.add(listener);
+    }
+
+    public static void removeEtudiantListener(EtudiantChangeListener listener) {
+        etudiantListeners.remove(listener);
+    }
+
+    public static void addNoteListener(NoteChangeListener listener) {
+        noteListeners.add(listener);
+    }
+
+    public static void removeNoteListener(NoteChangeListener listener) {
+        noteListeners.remove(listener);
+    }
+
+    static void fireEtudiantAdded(Etudiant etudiant) {
+        for (EtudiantChangeListener listener : etudiantListeners) {
+            try {
+                listener.onEtudiantAdded(etudiant);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    static void fireEtudiantUpdated(Etudiant etudiant) {
+        for (EtudiantChangeListener listener : etudiantListeners) {
+            try {
+                listener.onEtudiantUpdated(etudiant);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    static void fireEtudiantDeleted(int etudiantId) {
+        for (EtudiantChangeListener listener : etudiantListeners) {
+            try {
+                listener.onEtudiantDeleted(etudiantId);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    static void fireEtudiantsAdded(List<Etudiant> etudiants) {
+        for (EtudiantChangeListener listener : etudiantListeners) {
+            try {
+                listener.onEtudiantsAdded(etudiants);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    static void fireNotesChanged(int etudiantId) {
+        for (NoteChangeListener listener : noteListeners) {
+            try {
+                listener.onNotesChanged(etudiantId);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    static void fireAllNotesChanged() {
+        for (NoteChangeListener listener : noteListeners) {
+            try {
+                listener.onAllNotesChanged();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
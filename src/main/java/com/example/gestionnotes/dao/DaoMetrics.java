@@ -0,0 +1,126 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.metrics.Metrics;
+import com.example.gestionnotes.metrics.OperationMetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mesure les appels aux DAOs : durée, requêtes SQL exécutées, lignes lues ou modifiées et erreurs,
+ * par méthode (MBeans com.example.gestionnotes:type=Dao).
+ * Les DAOs interceptent eux-mêmes leurs SQLException : une requête en échec pendant un appel
+ * le compte donc comme une erreur même si la méthode renvoie normalement false ou une liste vide.
+ */
+final class DaoMetrics {
+
+    private static final OperationMetrics SQL = Metrics.operation("Sql", "requetes");
+
+    // Appel de DAO en cours sur le thread courant, auquel sont rattachées les requêtes SQL
+    private static final ThreadLocal<Appel> current = new ThreadLocal<>();
+
+    private DaoMetrics() {
+    }
+
+    /**
+     * Enveloppe un DAO dans un proxy qui mesure chacun de ses appels.
+     * @param type L'interface exposée (EtudiantRepository, NoteRepository).
+     * @param dao Le DAO à mesurer.
+     * @return Le proxy, ou le DAO lui-même si les mesures sont désactivées (metrics.enabled=false).
+     */
+    static <T> T instrument(Class<T> type, T dao) {
+        if (!Metrics.isEnabled()) {
+            return dao;
+        }
+        return type.cast(Proxy.newProxyInstance(DaoMetrics.class.getClassLoader(),
+                new Class<?>[]{type}, new MeasuredDaoHandler(dao)));
+    }
+
+    /**
+     * @return Le nom de l'appel de DAO en cours sur ce thread, null en dehors de tout appel.
+     */
+    static String currentOperation() {
+        Appel appel = current.get();
+        return appel != null ? appel.metrics.getName() : null;
+    }
+
+    /**
+     * Enregistre une requête SQL terminée : dans les mesures globales, dans l'appel de DAO en cours
+     * et, si elle dépasse le seuil, dans le journal des requêtes lentes.
+     */
+    static void recordStatement(String sql, Object[] parameters, int batchSize, long nanos, long rows,
+                                boolean error) {
+        SQL.record(nanos, rows, 1, error);
+        Appel appel = current.get();
+        if (appel != null) {
+            appel.statements++;
+            appel.rows += rows;
+            appel.error |= error;
+        }
+        SlowQueryLog.getInstance().record(sql, parameters, batchSize, nanos, rows, error);
+    }
+
+    /**
+     * Compteurs d'un appel de DAO, propres au thread qui l'exécute.
+     */
+    private static final class Appel {
+        private final OperationMetrics metrics;
+        private int statements;
+        private long rows;
+        private boolean error;
+
+        private Appel(OperationMetrics metrics) {
+            this.metrics = metrics;
+        }
+    }
+
+    private static final class MeasuredDaoHandler implements InvocationHandler {
+        private final Object dao;
+        private final String prefix;
+        private final Map<Method, OperationMetrics> metricsByMethod = new ConcurrentHashMap<>();
+
+        private MeasuredDaoHandler(Object dao) {
+            this.dao = dao;
+            this.prefix = dao.getClass().getSimpleName() + ".";
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "Measured[" + dao + "]";
+                }
+            }
+            OperationMetrics metrics = metricsByMethod.computeIfAbsent(method,
+                    m -> Metrics.operation("Dao", prefix + m.getName()));
+            Appel previous = current.get();
+            Appel appel = new Appel(metrics);
+            current.set(appel);
+            long start = System.nanoTime();
+            boolean thrown = true;
+            try {
+                Object result = method.invoke(dao, args);
+                thrown = false;
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                metrics.record(System.nanoTime() - start, appel.rows, appel.statements, thrown || appel.error);
+                if (previous != null) {
+                    current.set(previous);
+                } else {
+                    current.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.ImportReport;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Session d'insertion d'étudiants par lots, obtenue par EtudiantRepository.openBulkInsert().
+ * <ul>
+ *     <li>Mode par lots : chaque lot est validé séparément ; seules les lignes fautives sont écartées.</li>
+ *     <li>Mode tout ou rien : tout est validé ensemble par commit() ;
+ *     la première erreur annule l'ensemble.</li>
+ * </ul>
+ * La session doit être fermée (try-with-resources) ; ce qui n'a pas été validé est alors annulé.
+ */
+public interface EtudiantBulkInsert extends AutoCloseable {
+
+    /**
+     * Insère un lot d'étudiants.
+     * @param lot Les étudiants à insérer ; leur id est renseigné après insertion.
+     * @param lignes Le numéro de ligne du fichier de chaque étudiant, pour le compte rendu.
+     * @param report Reçoit le nombre d'étudiants insérés et les lignes rejetées.
+     * @throws SQLException en mode tout ou rien, si le lot échoue (la session doit alors être abandonnée).
+     */
+    void insertLot(List<Etudiant> lot, List<Integer> lignes, ImportReport report) throws SQLException;
+
+    /**
+     * Valide l'ensemble en mode tout ou rien. Sans effet en mode par lots, chaque lot étant déjà validé.
+     */
+    void commit() throws SQLException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,27 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Etudiant;
+
+import java.util.List;
+
+/**
+ * Écouteur des modifications d'étudiants, prévenu après la validation (commit) de chaque écriture.
+ * Permet aux index et caches en mémoire de rester à jour sans relire la base.
+ */
+public interface EtudiantChangeListener {
+
+    void onEtudiantAdded(Etudiant etudiant);
+
+    void onEtudiantUpdated(Etudiant etudiant);
+
+    void onEtudiantDeleted(int etudiantId);
+
+    /**
+     * Appelé après un ajout en masse (import CSV). Par défaut, équivaut à un appel par étudiant.
+     */
+    default void onEtudiantsAdded(List<Etudiant> etudiants) {
+        for (Etudiant etudiant : etudiants) {
+            onEtudiantAdded(etudiant);
+        }
+    }
+}
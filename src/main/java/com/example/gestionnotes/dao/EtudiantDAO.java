@@ -1,39 +1,37 @@
 package com.example.gestionnotes.dao;
 
 import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.Page;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO pour les opérations CRUD sur l'entité Etudiant.
  */
-public class EtudiantDAO {
+public class EtudiantDAO implements EtudiantRepository {
+
+    // Requêtes partagées avec QueryPlanCheckTest, qui vérifie par EXPLAIN qu'elles utilisent un index
+    static final String FILIERES_SQL = "SELECT DISTINCT filiere FROM etudiant ORDER BY filiere";
+    static final String UPDATE_SQL = "UPDATE etudiant SET nom = ?, prenom = ?, filiere = ? WHERE id = ?";
+    static final String DELETE_SQL = "DELETE FROM etudiant WHERE id = ?";
+    static final String LOCK_FILIERE_SQL = "SELECT filiere FROM etudiant WHERE id = ? FOR UPDATE";
 
     /**
      * Récupère tous les étudiants de la base de données.
      * @return Une liste d'objets Etudiant.
      */
+    @Override
     public List<Etudiant> getAllEtudiants() {
-        List<Etudiant> etudiants = new ArrayList<>();
-        String sql = "SELECT * FROM etudiant ORDER BY nom, prenom";
-
-        try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                String nom = rs.getString("nom");
-                String prenom = rs.getString("prenom");
-                String filiere = rs.getString("filiere");
-                etudiants.add(new Etudiant(id, nom, prenom, filiere));
-            }
+        try {
+            return queryEtudiants(null);
         } catch (SQLException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
-        return etudiants;
     }
 
     /**
@@ -41,14 +39,29 @@ public class EtudiantDAO {
      * @param filiere La filière à filtrer.
      * @return Une liste d'objets Etudiant appartenant à la filière spécifiée.
      */
+    @Override
     public List<Etudiant> getEtudiantsByFiliere(String filiere) {
-        List<Etudiant> etudiants = new ArrayList<>();
-        String sql = "SELECT * FROM etudiant WHERE filiere = ? ORDER BY nom, prenom";
+        try {
+            return queryEtudiants(filiere);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
 
+    /**
+     * Lit les étudiants triés par (nom, prenom, id), en propageant les erreurs
+     * pour qu'un cache ne retienne pas une liste vide due à une panne.
+     * @param filiere La filière à filtrer, ou null pour tous les étudiants.
+     */
+    List<Etudiant> queryEtudiants(String filiere) throws SQLException {
+        List<Etudiant> etudiants = new ArrayList<>();
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(etudiantsSql(filiere != null))) {
 
-            pstmt.setString(1, filiere);
+            if (filiere != null) {
+                pstmt.setString(1, filiere);
+            }
             try (ResultSet rs = pstmt.executeQuery()) {
                 while (rs.next()) {
                     int id = rs.getInt("id");
@@ -58,58 +71,200 @@ public class EtudiantDAO {
                     etudiants.add(new Etudiant(id, nom, prenom, etudiantFiliere));
                 }
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return etudiants;
     }
 
+    static String etudiantsSql(boolean parFiliere) {
+        return "SELECT id, nom, prenom, filiere FROM etudiant" +
+               (parFiliere ? " WHERE filiere = ?" : "") +
+               " ORDER BY nom, prenom, id";
+    }
+
+    /**
+     * Recherche paginée des étudiants, entièrement faite par la base.
+     * Les résultats sont triés par (nom, prenom, id) et paginés par clé (keyset) :
+     * la page suivante commence juste après le dernier étudiant de la page précédente,
+     * ce qui évite le coût croissant d'un OFFSET.
+     * Le terme est cherché au début du nom, du prénom ou de la filière (LIKE 'terme%'), ce qui permet
+     * à MySQL de lire les index de ces colonnes au lieu de parcourir la table ; le total est compté
+     * sur au plus TOTAL_MAX + 1 lignes.
+     * @param filiere La filière à filtrer, ou null pour toutes les filières.
+     * @param terme Le début du nom, du prénom ou de la filière recherchés, ou null/vide pour tout afficher.
+     * @param apres Le dernier étudiant de la page précédente, ou null pour la première page.
+     * @param taillePage Le nombre maximal d'étudiants de la page.
+     * @return La page d'étudiants. Le total n'est calculé que pour la première page (-1 sinon).
+     * @throws IllegalStateException Si la lecture a échoué, pour que l'appelant affiche l'erreur.
+     */
+    @Override
+    public Page<Etudiant> searchEtudiants(String filiere, String terme, Etudiant apres, int taillePage) {
+        boolean avecTerme = terme != null && !terme.trim().isEmpty();
+        String where = searchWhere(filiere != null, avecTerme);
+        List<Object> params = new ArrayList<>();
+        if (filiere != null) {
+            params.add(filiere);
+        }
+        if (avecTerme) {
+            String like = escapeLike(terme.trim()) + "%";
+            params.add(like);
+            params.add(like);
+            params.add(like);
+        }
+
+        String sql = searchPageSql(where, apres != null);
+        List<Object> pageParams = new ArrayList<>(params);
+        if (apres != null) {
+            pageParams.add(apres.getNom());
+            pageParams.add(apres.getNom());
+            pageParams.add(apres.getPrenom());
+            pageParams.add(apres.getPrenom());
+            pageParams.add(apres.getId());
+        }
+        // Une ligne de plus que demandé pour savoir s'il reste une page
+        pageParams.add(taillePage + 1);
+
+        List<Etudiant> etudiants = new ArrayList<>();
+        int total = -1;
+        boolean totalMinimum = false;
+        try (Connection conn = DBConnection.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                bindParams(pstmt, pageParams);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        etudiants.add(new Etudiant(rs.getInt("id"), rs.getString("nom"), rs.getString("prenom"), rs.getString("filiere")));
+                    }
+                }
+            }
+            if (apres == null) {
+                List<Object> countParams = new ArrayList<>(params);
+                countParams.add(TOTAL_MAX + 1);
+                try (PreparedStatement pstmt = conn.prepareStatement(searchCountSql(where))) {
+                    bindParams(pstmt, countParams);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        total = rs.next() ? rs.getInt(1) : 0;
+                    }
+                }
+                if (total > TOTAL_MAX) {
+                    total = TOTAL_MAX;
+                    totalMinimum = true;
+                }
+            }
+        } catch (SQLException e) {
+            // Une page vide afficherait « aucun étudiant » au lieu de l'erreur
+            throw new IllegalStateException("Recherche des étudiants impossible : " + e.getMessage(), e);
+        }
+
+        boolean hasMore = etudiants.size() > taillePage;
+        if (hasMore) {
+            etudiants.remove(etudiants.size() - 1);
+        }
+        return new Page<>(etudiants, total, totalMinimum, hasMore);
+    }
+
+    /**
+     * Clause WHERE de la recherche : filière exacte, puis début du nom, du prénom ou de la filière.
+     * Chaque LIKE 'terme%' est une plage d'un index (nom, prenom), (prenom) ou (filiere, nom, prenom) :
+     * MySQL peut les fusionner (index_merge) au lieu de parcourir la table.
+     */
+    static String searchWhere(boolean parFiliere, boolean avecTerme) {
+        return " WHERE 1 = 1" +
+               (parFiliere ? " AND filiere = ?" : "") +
+               (avecTerme ? " AND (nom LIKE ? OR prenom LIKE ? OR filiere LIKE ?)" : "");
+    }
+
+    static String searchPageSql(String where, boolean apres) {
+        return "SELECT id, nom, prenom, filiere FROM etudiant" + where +
+               (apres ? " AND (nom > ? OR (nom = ? AND (prenom > ? OR (prenom = ? AND id > ?))))" : "") +
+               " ORDER BY nom, prenom, id LIMIT ?";
+    }
+
+    /**
+     * Total borné : la sous-requête s'arrête à la limite donnée en dernier paramètre.
+     */
+    static String searchCountSql(String where) {
+        return "SELECT COUNT(*) FROM (SELECT 1 FROM etudiant" + where + " LIMIT ?) t";
+    }
+
+    private static void bindParams(PreparedStatement pstmt, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            pstmt.setObject(i + 1, params.get(i));
+        }
+    }
+
+    /**
+     * Échappe les caractères spéciaux de LIKE (%, _ et \) pour une recherche littérale.
+     */
+    private static String escapeLike(String terme) {
+        return terme.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
     /**
      * Récupère toutes les filières distinctes de la base de données.
      * @return Une liste de chaînes de caractères représentant les filières.
      */
+    @Override
     public List<String> getAllFilieres() {
+        try {
+            return queryFilieres();
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    List<String> queryFilieres() throws SQLException {
         List<String> filieres = new ArrayList<>();
-        String sql = "SELECT DISTINCT filiere FROM etudiant ORDER BY filiere";
 
         try (Connection conn = DBConnection.getConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(FILIERES_SQL)) {
 
             while (rs.next()) {
                 filieres.add(rs.getString("filiere"));
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
         }
         return filieres;
     }
 
     /**
      * Ajoute un nouvel étudiant dans la base de données.
+     * Le compteur d'étudiants de la table de synthèse est mis à jour dans la même transaction.
      * @param etudiant L'objet Etudiant à ajouter.
      * @return true si l'ajout a réussi, false sinon.
      */
+    @Override
     public boolean addEtudiant(Etudiant etudiant) {
         String sql = "INSERT INTO etudiant (nom, prenom, filiere) VALUES (?, ?, ?)";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setString(1, etudiant.getNom());
-            pstmt.setString(2, etudiant.getPrenom());
-            pstmt.setString(3, etudiant.getFiliere());
+                    pstmt.setString(1, etudiant.getNom());
+                    pstmt.setString(2, etudiant.getPrenom());
+                    pstmt.setString(3, etudiant.getFiliere());
 
-            int affectedRows = pstmt.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        etudiant.setId(generatedKeys.getInt(1));
+                    int affectedRows = pstmt.executeUpdate();
+                    if (affectedRows > 0) {
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                etudiant.setId(generatedKeys.getInt(1));
+                            }
+                        }
+                        NoteStatsSummary.applyEtudiant(conn, etudiant.getFiliere(), 1);
+                        conn.commit();
+                        DaoEvents.fireEtudiantAdded(etudiant);
+                        return true;
                     }
+                    conn.rollback();
+                    return false;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
                 }
-                return true;
             }
-            return false;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -118,22 +273,40 @@ public class EtudiantDAO {
 
     /**
      * Met à jour un étudiant existant dans la base de données.
+     * Si la filière change, l'étudiant et ses notes sont déplacés dans la table de synthèse.
      * @param etudiant L'objet Etudiant contenant les nouvelles informations.
      * @return true si la mise à jour a réussi, false sinon.
      */
+    @Override
     public boolean updateEtudiant(Etudiant etudiant) {
-        String sql = "UPDATE etudiant SET nom = ?, prenom = ?, filiere = ? WHERE id = ?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, etudiant.getNom());
-            pstmt.setString(2, etudiant.getPrenom());
-            pstmt.setString(3, etudiant.getFiliere());
-            pstmt.setInt(4, etudiant.getId());
-
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    String ancienneFiliere = lockFiliere(conn, etudiant.getId());
+                    if (ancienneFiliere == null) {
+                        conn.rollback();
+                        return false;
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                        pstmt.setString(1, etudiant.getNom());
+                        pstmt.setString(2, etudiant.getPrenom());
+                        pstmt.setString(3, etudiant.getFiliere());
+                        pstmt.setInt(4, etudiant.getId());
+                        pstmt.executeUpdate();
+                    }
+                    if (!ancienneFiliere.equals(etudiant.getFiliere())) {
+                        NoteStatsSummary.moveEtudiant(conn, etudiant.getId(), ancienneFiliere, etudiant.getFiliere());
+                    }
+                    conn.commit();
+                    DaoEvents.fireEtudiantUpdated(etudiant);
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -142,47 +315,110 @@ public class EtudiantDAO {
 
     /**
      * Supprime un étudiant de la base de données.
+     * L'étudiant ne doit plus avoir de notes (voir NoteDAO.getNoteCountForStudent).
      * @param etudiantId L'ID de l'étudiant à supprimer.
      * @return true si la suppression a réussi, false sinon.
      */
+    @Override
     public boolean deleteEtudiant(int etudiantId) {
-        String sql = "DELETE FROM etudiant WHERE id = ?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, etudiantId);
-
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    String filiere = lockFiliere(conn, etudiantId);
+                    if (filiere == null) {
+                        conn.rollback();
+                        return false;
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+                        pstmt.setInt(1, etudiantId);
+                        pstmt.executeUpdate();
+                    }
+                    NoteStatsSummary.applyEtudiant(conn, filiere, -1);
+                    conn.commit();
+                    DaoEvents.fireEtudiantDeleted(etudiantId);
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    @Override
     public boolean addEtudiants(List<Etudiant> etudiants) {
         String sql = "INSERT INTO etudiant (nom, prenom, filiere) VALUES (?, ?, ?)";
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            conn.setAutoCommit(false); // Start transaction
+                conn.setAutoCommit(false); // Start transaction
+                try {
+                    Map<String, Integer> parFiliere = new HashMap<>();
+                    for (Etudiant etudiant : etudiants) {
+                        pstmt.setString(1, etudiant.getNom());
+                        pstmt.setString(2, etudiant.getPrenom());
+                        pstmt.setString(3, etudiant.getFiliere());
+                        pstmt.addBatch();
+                        parFiliere.merge(etudiant.getFiliere(), 1, Integer::sum);
+                    }
 
-            for (Etudiant etudiant : etudiants) {
-                pstmt.setString(1, etudiant.getNom());
-                pstmt.setString(2, etudiant.getPrenom());
-                pstmt.setString(3, etudiant.getFiliere());
-                pstmt.addBatch();
+                    pstmt.executeBatch();
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        for (int i = 0; i < etudiants.size() && generatedKeys.next(); i++) {
+                            etudiants.get(i).setId(generatedKeys.getInt(1));
+                        }
+                    }
+                    NoteStatsSummary.applyEtudiants(conn, parFiliere);
+                    conn.commit(); // Commit transaction
+                    DaoEvents.fireEtudiantsAdded(etudiants);
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
             }
-
-            pstmt.executeBatch();
-            conn.commit(); // Commit transaction
-            return true;
-
         } catch (SQLException e) {
             e.printStackTrace();
-            // Consider rolling back in a real app
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Ouvre une session d'insertion par lots, pour les imports volumineux.
+     * La session doit être fermée (try-with-resources) pour rendre sa connexion au pool.
+     * @param toutOuRien true pour tout insérer dans une seule transaction, validée par commit() ;
+     *                   false pour valider chaque lot séparément.
+     * @throws SQLException si aucune connexion n'a pu être obtenue.
+     */
+    @Override
+    public EtudiantBulkInsert openBulkInsert(boolean toutOuRien) throws SQLException {
+        NoteStatsSummary.ensureReady();
+        Connection conn = DBConnection.getConnection();
+        try {
+            return new JdbcEtudiantBulkInsert(conn, toutOuRien);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lit et verrouille (FOR UPDATE) la filière actuelle d'un étudiant.
+     * @return La filière, ou null si l'étudiant n'existe pas.
+     */
+    private String lockFiliere(Connection conn, int etudiantId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(LOCK_FILIERE_SQL)) {
+            pstmt.setInt(1, etudiantId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.Page;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Accès aux étudiants, indépendant du stockage.
+ * Implémentations : EtudiantDAO (MySQL, via JDBC) et MemoryEtudiantDAO (en mémoire) ;
+ * Repositories choisit celle de l'application selon la clé storage.backend.
+ * Les écritures réussies sont signalées par DaoEvents, quelle que soit l'implémentation.
+ */
+public interface EtudiantRepository {
+
+    /**
+     * @return Tous les étudiants, triés par (nom, prenom, id).
+     */
+    List<Etudiant> getAllEtudiants();
+
+    /**
+     * @return Les étudiants de la filière, triés par (nom, prenom, id).
+     */
+    List<Etudiant> getEtudiantsByFiliere(String filiere);
+
+    /**
+     * Nombre de résultats au-delà duquel une recherche cesse de compter : le total affiché est alors un minimum.
+     */
+    int TOTAL_MAX = 1000;
+
+    /**
+     * Recherche paginée par clé (keyset), triée par (nom, prenom, id).
+     * @param filiere La filière à filtrer, ou null pour toutes les filières.
+     * @param terme Le début du nom, du prénom ou de la filière recherchés, ou null/vide pour tout afficher.
+     * @param apres Le dernier étudiant de la page précédente, ou null pour la première page.
+     * @param taillePage Le nombre maximal d'étudiants de la page.
+     * @return La page d'étudiants. Le total n'est calculé que pour la première page (-1 sinon),
+     * et jusqu'à TOTAL_MAX seulement (voir Page.isTotalMinimum).
+     * @throws IllegalStateException Si la lecture a échoué ; la cause est l'erreur de la base.
+     */
+    Page<Etudiant> searchEtudiants(String filiere, String terme, Etudiant apres, int taillePage);
+
+    /**
+     * @return Les filières distinctes, triées.
+     */
+    List<String> getAllFilieres();
+
+    /**
+     * @param etudiant L'étudiant à ajouter ; son id est renseigné en cas de succès.
+     * @return true si l'ajout a réussi, false sinon.
+     */
+    boolean addEtudiant(Etudiant etudiant);
+
+    boolean updateEtudiant(Etudiant etudiant);
+
+    /**
+     * L'étudiant ne doit plus avoir de notes (voir NoteRepository.getNoteCountForStudent).
+     * @return true si la suppression a réussi, false sinon.
+     */
+    boolean deleteEtudiant(int etudiantId);
+
+    /**
+     * Ajoute plusieurs étudiants d'un coup : tous ou aucun.
+     * @return true si l'ajout a réussi, false sinon.
+     */
+    boolean addEtudiants(List<Etudiant> etudiants);
+
+    /**
+     * Ouvre une session d'insertion par lots, pour les imports volumineux.
+     * @param toutOuRien true pour tout valider ensemble par commit(), false pour valider chaque lot séparément.
+     * @throws SQLException si la session n'a pas pu être ouverte.
+     */
+    EtudiantBulkInsert openBulkInsert(boolean toutOuRien) throws SQLException;
+}
@@ -0,0 +1,160 @@
+package com.example.gestionnotes.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Table de hachage à clés int, sans objet Integer par entrée : les clés sont rangées dans un int[]
+ * et les valeurs dans un Object[] parallèle (adressage ouvert, sondage linéaire).
+ * Une case est libre quand sa valeur est null ; les valeurs null sont donc interdites.
+ * Non thread-safe : MemoryStore protège ses tables par un verrou.
+ */
+final class IntObjectMap<V> {
+
+    private static final float CHARGE_MAX = 0.6f;
+
+    private int[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int seuil;
+
+    IntObjectMap() {
+        this(16);
+    }
+
+    IntObjectMap(int capaciteInitiale) {
+        int capacite = Integer.highestOneBit(Math.max(4, (int) (capaciteInitiale / CHARGE_MAX)) - 1) << 1;
+        allouer(capacite);
+    }
+
+    private void allouer(int capacite) {
+        keys = new int[capacite];
+        values = new Object[capacite];
+        mask = capacite - 1;
+        seuil = (int) (capacite * CHARGE_MAX);
+    }
+
+    private int indexOf(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(int key) {
+        for (int i = indexOf(key); values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+
+    boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return L'ancienne valeur associée à la clé, ou null.
+     */
+    @SuppressWarnings("unchecked")
+    V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Valeur null interdite");
+        }
+        int i = indexOf(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V ancienne = (V) values[i];
+                values[i] = value;
+                return ancienne;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > seuil) {
+            agrandir();
+        }
+        return null;
+    }
+
+    /**
+     * @return La valeur retirée, ou null si la clé était absente.
+     */
+    @SuppressWarnings("unchecked")
+    V remove(int key) {
+        int i = indexOf(key);
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V ancienne = (V) values[i];
+                decaler(i);
+                size--;
+                return ancienne;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Comble la case libérée en y ramenant les entrées suivantes de la même séquence de sondage,
+     * pour qu'aucune recherche ne s'arrête trop tôt sur une case vide.
+     */
+    private void decaler(int libre) {
+        int i = libre;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break;
+            }
+            int ideal = indexOf(keys[i]);
+            // L'entrée peut remonter si sa case idéale n'est pas dans l'intervalle ]libre, i]
+            if (((i - ideal) & mask) >= ((i - libre) & mask)) {
+                keys[libre] = keys[i];
+                values[libre] = values[i];
+                libre = i;
+            }
+        }
+        values[libre] = null;
+    }
+
+    private void agrandir() {
+        int[] anciennesCles = keys;
+        Object[] anciennesValeurs = values;
+        allouer(keys.length << 1);
+        for (int j = 0; j < anciennesCles.length; j++) {
+            if (anciennesValeurs[j] != null) {
+                int i = indexOf(anciennesCles[j]);
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = anciennesCles[j];
+                values[i] = anciennesValeurs[j];
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        allouer(16);
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> action) {
+        for (Object value : values) {
+            if (value != null) {
+                action.accept((V) value);
+            }
+        }
+    }
+
+    List<V> values() {
+        List<V> liste = new ArrayList<>(size);
+        forEachValue(liste::add);
+        return liste;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.ImportReport;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Insertion d'étudiants par lots sur une seule connexion, obtenue par EtudiantDAO.openBulkInsert().
+ * Chaque lot est envoyé en un seul batch JDBC ; en mode par lots, un lot en échec est annulé
+ * puis rejoué ligne par ligne pour n'écarter que les lignes fautives.
+ * Le tableau note_stats est mis à jour dans la même transaction que les insertions.
+ */
+final class JdbcEtudiantBulkInsert implements EtudiantBulkInsert {
+
+    private static final String INSERT_SQL = "INSERT INTO etudiant (nom, prenom, filiere) VALUES (?, ?, ?)";
+
+    private final Connection conn;
+    private final PreparedStatement pstmt;
+    private final boolean toutOuRien;
+    // Mode tout ou rien : étudiants insérés mais pas encore validés, signalés aux écouteurs après le commit
+    private final List<Etudiant> enAttente = new ArrayList<>();
+    private boolean termine;
+
+    JdbcEtudiantBulkInsert(Connection conn, boolean toutOuRien) throws SQLException {
+        this.conn = conn;
+        this.toutOuRien = toutOuRien;
+        conn.setAutoCommit(false);
+        this.pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS);
+    }
+
+    @Override
+    public void insertLot(List<Etudiant> lot, List<Integer> lignes, ImportReport report) throws SQLException {
+        if (lot.isEmpty()) {
+            return;
+        }
+        try {
+            for (Etudiant etudiant : lot) {
+                bind(etudiant);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            readGeneratedKeys(lot);
+            NoteStatsSummary.applyEtudiants(conn, countParFiliere(lot));
+        } catch (SQLException e) {
+            pstmt.clearBatch();
+            conn.rollback();
+            if (toutOuRien) {
+                throw e;
+            }
+            insertLigneParLigne(lot, lignes, report);
+            return;
+        }
+
+        if (toutOuRien) {
+            enAttente.addAll(lot);
+            report.addImportees(lot.size());
+        } else {
+            conn.commit();
+            report.addImportees(lot.size());
+            // Copie : l'appelant réutilise sa liste pour le lot suivant
+            DaoEvents.fireEtudiantsAdded(new ArrayList<>(lot));
+        }
+    }
+
+    /**
+     * Rejoue un lot en échec ligne par ligne : les lignes valides sont insérées et validées, les autres rejetées.
+     */
+    private void insertLigneParLigne(List<Etudiant> lot, List<Integer> lignes, ImportReport report) throws SQLException {
+        List<Etudiant> inserees = new ArrayList<>();
+        for (int i = 0; i < lot.size(); i++) {
+            Etudiant etudiant = lot.get(i);
+            try {
+                bind(etudiant);
+                pstmt.executeUpdate();
+                readGeneratedKeys(etudiant);
+                inserees.add(etudiant);
+            } catch (SQLException e) {
+                report.reject(lignes.get(i), e.getMessage());
+            }
+        }
+        NoteStatsSummary.applyEtudiants(conn, countParFiliere(inserees));
+        conn.commit();
+        report.addImportees(inserees.size());
+        if (!inserees.isEmpty()) {
+            DaoEvents.fireEtudiantsAdded(inserees);
+        }
+    }
+
+    private void bind(Etudiant etudiant) throws SQLException {
+        pstmt.setString(1, etudiant.getNom());
+        pstmt.setString(2, etudiant.getPrenom());
+        pstmt.setString(3, etudiant.getFiliere());
+    }
+
+    private void readGeneratedKeys(List<Etudiant> lot) throws SQLException {
+        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+            for (int i = 0; i < lot.size() && generatedKeys.next(); i++) {
+                lot.get(i).setId(generatedKeys.getInt(1));
+            }
+        }
+    }
+
+    private void readGeneratedKeys(Etudiant etudiant) throws SQLException {
+        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+            if (generatedKeys.next()) {
+                etudiant.setId(generatedKeys.getInt(1));
+            }
+        }
+    }
+
+    private static Map<String, Integer> countParFiliere(List<Etudiant> etudiants) {
+        Map<String, Integer> parFiliere = new HashMap<>();
+        for (Etudiant etudiant : etudiants) {
+            parFiliere.merge(etudiant.getFiliere(), 1, Integer::sum);
+        }
+        return parFiliere;
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        if (toutOuRien && !termine) {
+            conn.commit();
+            termine = true;
+            if (!enAttente.isEmpty()) {
+                DaoEvents.fireEtudiantsAdded(new ArrayList<>(enAttente));
+                enAttente.clear();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!termine) {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        try {
+            pstmt.close();
+            conn.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.NoteRecord;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Enregistrement de notes par lots sur une seule connexion, obtenu par NoteDAO.openBulkUpsert().
+ * Chaque lot est envoyé en un seul batch INSERT ... ON DUPLICATE KEY UPDATE sur l'index unique (etudiant_id, matiere).
+ * Tous les lots forment une seule transaction : la table note_stats est recalculée puis validée par commit().
+ */
+final class JdbcNoteBulkUpsert implements NoteBulkUpsert {
+
+    private final Connection conn;
+    private final PreparedStatement pstmt;
+    private int enregistrees;
+    private boolean termine;
+
+    JdbcNoteBulkUpsert(Connection conn) throws SQLException {
+        this.conn = conn;
+        conn.setAutoCommit(false);
+        this.pstmt = conn.prepareStatement(NoteDAO.NOTE_UPSERT_SQL);
+    }
+
+    @Override
+    public void upsertLot(Iterable<NoteRecord> lot) throws SQLException {
+        int taille = 0;
+        for (NoteRecord note : lot) {
+            pstmt.setInt(1, note.getEtudiantId());
+            pstmt.setString(2, note.getMatiere());
+            pstmt.setDouble(3, note.getNoteDevoir());
+            pstmt.setDouble(4, note.getNoteExamen());
+            pstmt.addBatch();
+            taille++;
+        }
+        if (taille > 0) {
+            pstmt.executeBatch();
+            enregistrees += taille;
+        }
+    }
+
+    /**
+     * Recalcule la table de synthèse et valide l'ensemble des lots.
+     * Le recalcul complet coûte une requête d'agrégation, moins qu'une mise à jour par note remplacée.
+     */
+    @Override
+    public void commit() throws SQLException {
+        if (termine) {
+            return;
+        }
+        if (enregistrees > 0) {
+            NoteStatsSummary.rebuild(conn);
+        }
+        conn.commit();
+        termine = true;
+        if (enregistrees > 0) {
+            DaoEvents.fireAllNotesChanged();
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (!termine) {
+                conn.rollback();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        try {
+            pstmt.close();
+            conn.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.gestionnotes.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * Proxy d'une requête (Statement, PreparedStatement) créée sur une connexion du pool : mémorise
+ * les paramètres liés, mesure chaque exécution et compte les lignes lues ou modifiées, puis transmet
+ * la mesure à DaoMetrics.
+ * Une lecture est terminée à la fermeture de son ResultSet (ou de la requête) : sa durée comprend
+ * le parcours des lignes, y compris quand elles sont lues en flux.
+ */
+final class MeasuredStatement implements InvocationHandler {
+
+    private final Statement physical;
+    private String sql;
+    private Object[] parameters;
+    private int batchSize;
+
+    // Exécution en cours : lecture dont le résultat n'est pas encore fermé
+    private long startNanos;
+    private long rows;
+    private boolean pending;
+
+    private MeasuredStatement(Statement physical, String sql) {
+        this.physical = physical;
+        this.sql = sql;
+    }
+
+    /**
+     * @param type L'interface renvoyée par la méthode de Connection (Statement, PreparedStatement, CallableStatement).
+     * @param sql Le texte SQL passé à prepareStatement(), null pour createStatement().
+     */
+    static Statement wrap(Statement physical, Class<?> type, String sql) {
+        Class<?> proxied = type.isInterface() && Statement.class.isAssignableFrom(type) ? type : Statement.class;
+        return (Statement) Proxy.newProxyInstance(MeasuredStatement.class.getClassLoader(),
+                new Class<?>[]{proxied}, new MeasuredStatement(physical, sql));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer
+                && method.getDeclaringClass() != Statement.class) {
+            bind((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            return invokePhysical(method, args);
+        }
+        switch (name) {
+            case "clearParameters":
+                parameters = null;
+                return invokePhysical(method, args);
+            case "addBatch":
+                batchSize++;
+                if (args != null && args.length == 1) {
+                    sql = (String) args[0];
+                }
+                return invokePhysical(method, args);
+            case "clearBatch":
+                batchSize = 0;
+                return invokePhysical(method, args);
+            case "executeQuery":
+            case "execute":
+            case "executeUpdate":
+            case "executeLargeUpdate":
+            case "executeBatch":
+            case "executeLargeBatch":
+                return execute(method, args);
+            case "getResultSet": {
+                Object result = invokePhysical(method, args);
+                return pending && result != null ? wrapResultSet((ResultSet) result) : result;
+            }
+            case "close":
+                finish(false);
+                return invokePhysical(method, args);
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "MeasuredStatement[" + physical + "]";
+            default:
+                return invokePhysical(method, args);
+        }
+    }
+
+    private void bind(int index, Object value) {
+        if (index < 1) {
+            return;
+        }
+        if (parameters == null) {
+            parameters = new Object[Math.max(index + 1, 8)];
+        } else if (index >= parameters.length) {
+            parameters = Arrays.copyOf(parameters, Math.max(index + 1, parameters.length * 2));
+        }
+        parameters[index] = value;
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        finish(false);
+        String name = method.getName();
+        if (args != null && args.length > 0 && args[0] instanceof String) {
+            sql = (String) args[0];
+        }
+        startNanos = System.nanoTime();
+        rows = 0;
+        pending = true;
+        Object result;
+        try {
+            result = method.invoke(physical, args);
+        } catch (InvocationTargetException e) {
+            finish(true);
+            throw e.getCause();
+        }
+        switch (name) {
+            case "executeQuery":
+                return wrapResultSet((ResultSet) result);
+            case "execute":
+                if (!(Boolean) result) {
+                    rows = Math.max(0, physical.getUpdateCount());
+                    finish(false);
+                }
+                return result;
+            case "executeUpdate":
+            case "executeLargeUpdate":
+                rows = ((Number) result).longValue();
+                finish(false);
+                return result;
+            default:
+                rows = countBatch(result);
+                finish(false);
+                return result;
+        }
+    }
+
+    private static long countBatch(Object counts) {
+        long total = 0;
+        if (counts instanceof int[]) {
+            for (int count : (int[]) counts) {
+                // SUCCESS_NO_INFO (-2) : ligne écrite, nombre inconnu
+                total += count > 0 ? count : count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+            }
+        } else if (counts instanceof long[]) {
+            for (long count : (long[]) counts) {
+                total += count > 0 ? count : count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Termine l'exécution en cours, s'il y en a une, et la transmet à DaoMetrics.
+     */
+    private void finish(boolean error) {
+        if (!pending) {
+            return;
+        }
+        pending = false;
+        int batch = batchSize;
+        batchSize = 0;
+        DaoMetrics.recordStatement(sql, parameters, batch, System.nanoTime() - startNanos, rows, error);
+    }
+
+    private Object invokePhysical(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(physical, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ResultSet wrapResultSet(ResultSet resultSet) {
+        return (ResultSet) Proxy.newProxyInstance(MeasuredStatement.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new CountingResultSetHandler(resultSet));
+    }
+
+    /**
+     * Compte les lignes parcourues ; la fermeture du résultat termine la mesure de la requête.
+     */
+    private final class CountingResultSetHandler implements InvocationHandler {
+        private final ResultSet physicalResultSet;
+
+        private CountingResultSetHandler(ResultSet physicalResultSet) {
+            this.physicalResultSet = physicalResultSet;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next": {
+                    Object result = invokeResultSet(method, args);
+                    if ((Boolean) result) {
+                        rows++;
+                    }
+                    return result;
+                }
+                case "close":
+                    try {
+                        return invokeResultSet(method, args);
+                    } finally {
+                        finish(false);
+                    }
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return invokeResultSet(method, args);
+            }
+        }
+
+        private Object invokeResultSet(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(physicalResultSet, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (method.getName().equals("next")) {
+                    finish(true);
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.dao.MemoryStore.EtudiantRow;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.ImportReport;
+import com.example.gestionnotes.model.Page;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Étudiants stockés en mémoire (voir MemoryStore). Obtenu par MemoryStore.getEtudiantDAO().
+ * Les listes sont lues dans les index déjà triés par (nom, prenom, id) : aucune liste n'est triée à la lecture,
+ * et une page de recherche par filière ne parcourt que les étudiants de la page.
+ */
+public final class MemoryEtudiantDAO implements EtudiantRepository {
+
+    private final MemoryStore store;
+
+    MemoryEtudiantDAO(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<Etudiant> getAllEtudiants() {
+        store.lock.readLock().lock();
+        try {
+            return toEtudiants(store.parNom);
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Etudiant> getEtudiantsByFiliere(String filiere) {
+        store.lock.readLock().lock();
+        try {
+            TreeSet<EtudiantRow> rows = store.parFiliere.get(filiere);
+            return rows != null ? toEtudiants(rows) : new ArrayList<>();
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Page<Etudiant> searchEtudiants(String filiere, String terme, Etudiant apres, int taillePage) {
+        String recherche = terme != null && !terme.trim().isEmpty() ? MemoryStore.normalize(terme.trim()) : null;
+        store.lock.readLock().lock();
+        try {
+            NavigableSet<EtudiantRow> rows = filiere != null ? store.parFiliere.get(filiere) : store.parNom;
+            if (rows == null) {
+                return new Page<>(new ArrayList<>(), apres == null ? 0 : -1, false);
+            }
+            NavigableSet<EtudiantRow> suite = apres == null ? rows
+                    : rows.tailSet(store.newEtudiantRow(apres.getId(), apres.getNom(), apres.getPrenom(), ""), false);
+
+            List<Etudiant> etudiants = new ArrayList<>();
+            boolean hasMore = false;
+            for (EtudiantRow row : suite) {
+                if (recherche == null || commencePar(row, recherche)) {
+                    if (etudiants.size() == taillePage) {
+                        hasMore = true;
+                        break;
+                    }
+                    etudiants.add(row.toEtudiant());
+                }
+            }
+
+            int total = -1;
+            if (apres == null) {
+                if (recherche == null) {
+                    total = rows.size();
+                } else {
+                    // Comptage arrêté comme celui de la base (EtudiantDAO.searchCountSql)
+                    total = 0;
+                    for (EtudiantRow row : rows) {
+                        if (commencePar(row, recherche) && ++total > TOTAL_MAX) {
+                            break;
+                        }
+                    }
+                }
+            }
+            boolean totalMinimum = total > TOTAL_MAX;
+            return new Page<>(etudiants, totalMinimum ? TOTAL_MAX : total, totalMinimum, hasMore);
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return true si le nom, le prénom ou la filière de l'étudiant commence par le terme normalisé,
+     * comme LIKE 'terme%' dans EtudiantDAO.
+     */
+    private static boolean commencePar(EtudiantRow row, String recherche) {
+        return row.texte.startsWith(recherche) || row.texte.contains('\u0000' + recherche);
+    }
+
+    @Override
+    public List<String> getAllFilieres() {
+        store.lock.readLock().lock();
+        try {
+            return new ArrayList<>(store.parFiliere.keySet());
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addEtudiant(Etudiant etudiant) {
+        if (!isValide(etudiant)) {
+            return false;
+        }
+        store.lock.writeLock().lock();
+        try {
+            etudiant.setId(insert(etudiant));
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+        DaoEvents.fireEtudiantAdded(etudiant);
+        return true;
+    }
+
+    @Override
+    public boolean updateEtudiant(Etudiant etudiant) {
+        if (!isValide(etudiant)) {
+            return false;
+        }
+        store.lock.writeLock().lock();
+        try {
+            EtudiantRow ancien = store.etudiants.get(etudiant.getId());
+            if (ancien == null) {
+                return false;
+            }
+            store.replaceEtudiant(ancien, store.newEtudiantRow(ancien.id, etudiant.getNom(), etudiant.getPrenom(),
+                    etudiant.getFiliere()));
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+        DaoEvents.fireEtudiantUpdated(etudiant);
+        return true;
+    }
+
+    /**
+     * Refuse, comme la clé étrangère de la base, la suppression d'un étudiant qui a encore des notes.
+     */
+    @Override
+    public boolean deleteEtudiant(int etudiantId) {
+        store.lock.writeLock().lock();
+        try {
+            EtudiantRow row = store.etudiants.get(etudiantId);
+            if (row == null || store.notesParEtudiant.containsKey(etudiantId)) {
+                return false;
+            }
+            store.removeEtudiant(row);
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+        DaoEvents.fireEtudiantDeleted(etudiantId);
+        return true;
+    }
+
+    @Override
+    public boolean addEtudiants(List<Etudiant> etudiants) {
+        for (Etudiant etudiant : etudiants) {
+            if (!isValide(etudiant)) {
+                return false;
+            }
+        }
+        insertAll(etudiants);
+        DaoEvents.fireEtudiantsAdded(etudiants);
+        return true;
+    }
+
+    @Override
+    public EtudiantBulkInsert openBulkInsert(boolean toutOuRien) {
+        return new BulkInsert(toutOuRien);
+    }
+
+    private void insertAll(Collection<Etudiant> etudiants) {
+        store.lock.writeLock().lock();
+        try {
+            for (Etudiant etudiant : etudiants) {
+                etudiant.setId(insert(etudiant));
+            }
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * À appeler avec le verrou d'écriture.
+     * @return L'id attribué.
+     */
+    private int insert(Etudiant etudiant) {
+        int id = store.nextEtudiantId();
+        store.insertEtudiant(store.newEtudiantRow(id, etudiant.getNom(), etudiant.getPrenom(), etudiant.getFiliere()));
+        return id;
+    }
+
+    /**
+     * Les colonnes nom, prenom et filiere sont obligatoires dans la base.
+     */
+    private static boolean isValide(Etudiant etudiant) {
+        return etudiant.getNom() != null && etudiant.getPrenom() != null && etudiant.getFiliere() != null;
+    }
+
+    private static List<Etudiant> toEtudiants(Collection<EtudiantRow> rows) {
+        List<Etudiant> etudiants = new ArrayList<>(rows.size());
+        for (EtudiantRow row : rows) {
+            etudiants.add(row.toEtudiant());
+        }
+        return etudiants;
+    }
+
+    /**
+     * Insertion par lots en mémoire : en mode par lots chaque lot est visible aussitôt,
+     * en mode tout ou rien les lots sont gardés jusqu'à commit().
+     */
+    private final class BulkInsert implements EtudiantBulkInsert {
+        private final boolean toutOuRien;
+        private final List<Etudiant> enAttente = new ArrayList<>();
+
+        private BulkInsert(boolean toutOuRien) {
+            this.toutOuRien = toutOuRien;
+        }
+
+        @Override
+        public void insertLot(List<Etudiant> lot, List<Integer> lignes, ImportReport report) throws SQLException {
+            List<Etudiant> valides = new ArrayList<>(lot.size());
+            for (int i = 0; i < lot.size(); i++) {
+                if (isValide(lot.get(i))) {
+                    valides.add(lot.get(i));
+                } else if (toutOuRien) {
+                    throw new SQLException("Ligne " + lignes.get(i) + " : nom, prénom et filière sont obligatoires.");
+                } else {
+                    report.reject(lignes.get(i), "Nom, prénom et filière sont obligatoires.");
+                }
+            }
+            report.addImportees(valides.size());
+            if (toutOuRien) {
+                enAttente.addAll(valides);
+            } else if (!valides.isEmpty()) {
+                insertAll(valides);
+                DaoEvents.fireEtudiantsAdded(valides);
+            }
+        }
+
+        @Override
+        public void commit() {
+            if (!enAttente.isEmpty()) {
+                insertAll(enAttente);
+                DaoEvents.fireEtudiantsAdded(new ArrayList<>(enAttente));
+                enAttente.clear();
+            }
+        }
+
+        @Override
+        public void close() {
+            enAttente.clear();
+        }
+    }
+}
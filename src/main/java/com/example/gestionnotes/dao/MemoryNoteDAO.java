@@ -0,0 +1,496 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.dao.MemoryStore.EtudiantRow;
+import com.example.gestionnotes.dao.MemoryStore.NoteRow;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.GradingPolicy;
+import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.NoteRecord;
+import com.example.gestionnotes.model.NotesEtudiant;
+import com.example.gestionnotes.model.Statistiques;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Notes stockées en mémoire (voir MemoryStore). Obtenu par MemoryStore.getNoteDAO().
+ * Les notes d'un étudiant sont lues dans l'index par étudiant, et les statistiques sont tenues à jour
+ * à chaque écriture : aucune lecture ne parcourt toutes les notes, sauf getAllNotes() et l'export.
+ */
+public final class MemoryNoteDAO implements NoteRepository {
+
+    // Nombre d'étudiants lus à chaque prise du verrou pendant un export
+    private static final int LOT_EXPORT = 1000;
+
+    private final MemoryStore store;
+
+    MemoryNoteDAO(MemoryStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public List<NoteRecord> getAllNotes() {
+        List<NoteRecord> notes = new ArrayList<>();
+        store.lock.readLock().lock();
+        try {
+            // Ordre de la requête JDBC : nom de l'étudiant puis matière
+            for (EtudiantRow etudiant : store.parNom) {
+                List<NoteRow> sesNotes = store.notesParEtudiant.get(etudiant.id);
+                if (sesNotes != null && !sesNotes.isEmpty()) {
+                    Etudiant partage = etudiant.toEtudiant();
+                    for (NoteRow note : sesNotes) {
+                        notes.add(new NoteRecord(note.id, partage, note.matiere, note.noteDevoir, note.noteExamen));
+                    }
+                }
+            }
+        } finally {
+            store.lock.readLock().unlock();
+        }
+        return notes;
+    }
+
+    @Override
+    public List<Note> getNotesByEtudiant(int etudiantId) {
+        List<Note> notes = new ArrayList<>();
+        store.lock.readLock().lock();
+        try {
+            EtudiantRow etudiant = store.etudiants.get(etudiantId);
+            List<NoteRow> sesNotes = store.notesParEtudiant.get(etudiantId);
+            if (etudiant != null && sesNotes != null) {
+                for (NoteRow note : sesNotes) {
+                    notes.add(note.toNote(etudiant));
+                }
+            }
+        } finally {
+            store.lock.readLock().unlock();
+        }
+        return notes;
+    }
+
+    @Override
+    public double getMoyenneEtudiant(int etudiantId) {
+        store.lock.readLock().lock();
+        try {
+            List<NoteRow> sesNotes = store.notesParEtudiant.get(etudiantId);
+            if (sesNotes == null) {
+                return 0.0;
+            }
+            GradingPolicy bareme = GradingPolicy.getCurrent();
+            double somme = 0.0;
+            double coefficients = 0.0;
+            for (NoteRow note : sesNotes) {
+                GradingPolicy.Regle regle = bareme.regle(note.matiere);
+                somme += regle.moyenne(note.noteDevoir, note.noteExamen) * regle.getCoefficient();
+                coefficients += regle.getCoefficient();
+            }
+            return sesNotes.isEmpty() ? 0.0 : somme / coefficients;
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Les notes en mémoire sont toujours disponibles sans attente.
+     */
+    @Override
+    public NotesEtudiant getIfPresent(int etudiantId) {
+        return getNotesEtudiant(etudiantId);
+    }
+
+    @Override
+    public boolean addNote(Note note) {
+        if (note.getMatiere() == null) {
+            return false;
+        }
+        store.lock.writeLock().lock();
+        try {
+            EtudiantRow etudiant = store.etudiants.get(note.getEtudiantId());
+            if (etudiant == null || store.findNote(etudiant.id, note.getMatiere()) != null) {
+                return false;
+            }
+            NoteRow row = new NoteRow(store.nextNoteId(), etudiant.id, note.getMatiere(),
+                    note.getNoteDevoir(), note.getNoteExamen());
+            store.insertNote(row, etudiant.filiere);
+            note.setId(row.id);
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+        DaoEvents.fireNotesChanged(note.getEtudiantId());
+        return true;
+    }
+
+    @Override
+    public boolean updateNote(Note note) {
+        if (note.getMatiere() == null) {
+            return false;
+        }
+        int etudiantId;
+        store.lock.writeLock().lock();
+        try {
+            NoteRow ancienne = store.notes.get(note.getId());
+            if (ancienne == null) {
+                return false;
+            }
+            NoteRow homonyme = store.findNote(ancienne.etudiantId, note.getMatiere());
+            if (homonyme != null && homonyme.id != ancienne.id) {
+                return false;
+            }
+            String filiere = store.etudiants.get(ancienne.etudiantId).filiere;
+            store.removeNote(ancienne, filiere);
+            store.insertNote(new NoteRow(ancienne.id, ancienne.etudiantId, note.getMatiere(),
+                    note.getNoteDevoir(), note.getNoteExamen()), filiere);
+            etudiantId = ancienne.etudiantId;
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+        DaoEvents.fireNotesChanged(etudiantId);
+        return true;
+    }
+
+    @Override
+    public boolean deleteNote(int noteId) {
+        int etudiantId;
+        store.lock.writeLock().lock();
+        try {
+            NoteRow note = store.notes.get(noteId);
+            if (note == null) {
+                return false;
+            }
+            store.removeNote(note, store.etudiants.get(note.etudiantId).filiere);
+            etudiantId = note.etudiantId;
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+        DaoEvents.fireNotesChanged(etudiantId);
+        return true;
+    }
+
+    @Override
+    public int getNoteCountForStudent(int etudiantId) {
+        store.lock.readLock().lock();
+        try {
+            List<NoteRow> sesNotes = store.notesParEtudiant.get(etudiantId);
+            return sesNotes != null ? sesNotes.size() : 0;
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Parcourt les notes de la filière (ou toutes) sous le verrou de lecture, en ne gardant que les
+     * meilleures candidates dans un tas borné par la limite, comme la base avec son index et son LIMIT.
+     */
+    @Override
+    public List<NoteRecord> findNotesParMoyenne(String filiere, Boolean valide, double min, double max, boolean croissant, int limite) {
+        List<NoteRecord> notes = new ArrayList<>();
+        if (limite <= 0) {
+            return notes;
+        }
+        Comparator<Trouvee> ordre = Comparator.<Trouvee>comparingDouble(t -> t.moyenne).thenComparingInt(t -> t.note.id);
+        if (!croissant) {
+            ordre = ordre.reversed();
+        }
+        // Tête du tas : la moins bonne des candidates gardées, remplacée dès qu'une meilleure est trouvée
+        PriorityQueue<Trouvee> gardees = new PriorityQueue<>(ordre.reversed());
+        GradingPolicy bareme = GradingPolicy.getCurrent();
+        store.lock.readLock().lock();
+        try {
+            Consumer<EtudiantRow> parEtudiant = etudiant -> {
+                List<NoteRow> sesNotes = store.notesParEtudiant.get(etudiant.id);
+                if (sesNotes == null) {
+                    return;
+                }
+                for (NoteRow note : sesNotes) {
+                    GradingPolicy.Regle regle = bareme.regle(note.matiere);
+                    double moyenne = regle.moyenne(note.noteDevoir, note.noteExamen);
+                    if (moyenne >= min && moyenne <= max && (valide == null || regle.estValide(moyenne) == valide)) {
+                        gardees.add(new Trouvee(note, etudiant, moyenne));
+                        if (gardees.size() > limite) {
+                            gardees.poll();
+                        }
+                    }
+                }
+            };
+            if (filiere == null) {
+                store.etudiants.forEachValue(parEtudiant);
+            } else {
+                NavigableSet<EtudiantRow> rows = store.parFiliere.get(filiere);
+                if (rows != null) {
+                    rows.forEach(parEtudiant);
+                }
+            }
+        } finally {
+            store.lock.readLock().unlock();
+        }
+        List<Trouvee> triees = new ArrayList<>(gardees);
+        triees.sort(ordre);
+        IntObjectMap<Etudiant> etudiants = new IntObjectMap<>();
+        for (Trouvee trouvee : triees) {
+            Etudiant etudiant = etudiants.get(trouvee.etudiant.id);
+            if (etudiant == null) {
+                etudiant = trouvee.etudiant.toEtudiant();
+                etudiants.put(etudiant.getId(), etudiant);
+            }
+            notes.add(new NoteRecord(trouvee.note.id, etudiant, trouvee.note.matiere,
+                    trouvee.note.noteDevoir, trouvee.note.noteExamen));
+        }
+        return notes;
+    }
+
+    /**
+     * Calcule les moyennes sous le verrou de lecture, puis trie chaque classement et transmet les rangs
+     * une fois le verrou rendu. Les filières et les matières sont regroupées comme dans MemoryStore,
+     * sans tenir compte de la casse ni des accents.
+     */
+    @Override
+    public long scanRangs(RangHandler handler) {
+        TreeMap<String, List<Classee>> parFiliere = new TreeMap<>(store.collator::compare);
+        TreeMap<String, List<Classee>> parMatiere = new TreeMap<>(store.collator::compare);
+        GradingPolicy bareme = GradingPolicy.getCurrent();
+        store.lock.readLock().lock();
+        try {
+            store.notesParEtudiant.forEachValue(sesNotes -> {
+                if (sesNotes.isEmpty()) {
+                    return;
+                }
+                int etudiantId = sesNotes.get(0).etudiantId;
+                double somme = 0.0;
+                double coefficients = 0.0;
+                for (NoteRow note : sesNotes) {
+                    GradingPolicy.Regle regle = bareme.regle(note.matiere);
+                    double moyenne = regle.moyenne(note.noteDevoir, note.noteExamen);
+                    somme += moyenne * regle.getCoefficient();
+                    coefficients += regle.getCoefficient();
+                    parMatiere.computeIfAbsent(note.matiere, m -> new ArrayList<>()).add(new Classee(etudiantId, moyenne));
+                }
+                parFiliere.computeIfAbsent(store.etudiants.get(etudiantId).filiere, f -> new ArrayList<>())
+                        .add(new Classee(etudiantId, somme / coefficients));
+            });
+        } finally {
+            store.lock.readLock().unlock();
+        }
+        return classer(RangHandler.FILIERE, parFiliere, handler) + classer(RangHandler.MATIERE, parMatiere, handler);
+    }
+
+    private static long classer(String portee, Map<String, List<Classee>> classements, RangHandler handler) {
+        long count = 0;
+        for (Map.Entry<String, List<Classee>> entry : classements.entrySet()) {
+            List<Classee> classees = entry.getValue();
+            classees.sort(Comparator.comparingLong((Classee c) -> -c.points).thenComparingInt(c -> c.etudiantId));
+            int rang = 0;
+            for (int i = 0; i < classees.size(); i++) {
+                Classee classee = classees.get(i);
+                if (i == 0 || classee.points != classees.get(i - 1).points) {
+                    rang = i + 1;
+                }
+                handler.onRang(portee, entry.getKey(), classee.etudiantId, classee.moyenne, rang);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Étudiant d'un classement calculé par scanRangs. */
+    private static final class Classee {
+        final int etudiantId;
+        final double moyenne;
+        final long points;
+
+        Classee(int etudiantId, double moyenne) {
+            this.etudiantId = etudiantId;
+            this.moyenne = moyenne;
+            this.points = RangHandler.points(moyenne);
+        }
+    }
+
+    /** Note retenue par findNotesParMoyenne, avec sa moyenne calculée une seule fois. */
+    private static final class Trouvee {
+        final NoteRow note;
+        final EtudiantRow etudiant;
+        final double moyenne;
+
+        Trouvee(NoteRow note, EtudiantRow etudiant, double moyenne) {
+            this.note = note;
+            this.etudiant = etudiant;
+            this.moyenne = moyenne;
+        }
+    }
+
+    @Override
+    public NoteBulkUpsert openBulkUpsert() {
+        return new BulkUpsert();
+    }
+
+    /**
+     * Le verrou de lecture est tenu pendant tout le parcours : le handler doit être rapide (pas d'entrée-sortie).
+     */
+    @Override
+    public long scanNotes(NoteScanHandler handler) {
+        long[] count = new long[1];
+        store.lock.readLock().lock();
+        try {
+            store.notesParEtudiant.forEachValue(sesNotes -> {
+                if (sesNotes.isEmpty()) {
+                    return;
+                }
+                String filiere = store.etudiants.get(sesNotes.get(0).etudiantId).filiere;
+                for (NoteRow note : sesNotes) {
+                    handler.onNote(note.etudiantId, filiere, note.matiere, note.noteDevoir, note.noteExamen);
+                }
+                count[0] += sesNotes.size();
+            });
+        } finally {
+            store.lock.readLock().unlock();
+        }
+        return count[0];
+    }
+
+    /**
+     * Parcourt les étudiants par lots de LOT_EXPORT : le verrou de lecture n'est tenu que le temps de copier
+     * un lot de lignes (immuables), jamais pendant l'écriture du fichier.
+     */
+    @Override
+    public long exportNotes(String filiere, NoteExportHandler handler) throws IOException {
+        long count = 0;
+        EtudiantRow dernier = null;
+        while (true) {
+            List<EtudiantRow> etudiants = new ArrayList<>(LOT_EXPORT);
+            List<List<NoteRow>> notes = new ArrayList<>(LOT_EXPORT);
+            store.lock.readLock().lock();
+            try {
+                NavigableSet<EtudiantRow> rows = filiere != null ? store.parFiliere.get(filiere) : store.parNom;
+                if (rows == null) {
+                    return count;
+                }
+                for (EtudiantRow etudiant : dernier == null ? rows : rows.tailSet(dernier, false)) {
+                    if (etudiants.size() == LOT_EXPORT) {
+                        break;
+                    }
+                    etudiants.add(etudiant);
+                    List<NoteRow> sesNotes = store.notesParEtudiant.get(etudiant.id);
+                    notes.add(sesNotes != null ? new ArrayList<>(sesNotes) : new ArrayList<>());
+                }
+            } finally {
+                store.lock.readLock().unlock();
+            }
+            if (etudiants.isEmpty()) {
+                return count;
+            }
+            for (int i = 0; i < etudiants.size(); i++) {
+                EtudiantRow etudiant = etudiants.get(i);
+                for (NoteRow note : notes.get(i)) {
+                    handler.onRow(etudiant.nom, etudiant.prenom, etudiant.filiere, note.matiere,
+                            note.noteDevoir, note.noteExamen);
+                    count++;
+                }
+            }
+            dernier = etudiants.get(etudiants.size() - 1);
+        }
+    }
+
+    @Override
+    public Statistiques.Ligne getStatistiquesGlobales() {
+        store.lock.readLock().lock();
+        try {
+            return store.readGlobal();
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Statistiques getStatistiques() {
+        store.lock.readLock().lock();
+        try {
+            return store.readStatistiques();
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean rebuildStatistiques() {
+        store.lock.writeLock().lock();
+        try {
+            store.rebuildStatistiques();
+            return true;
+        } finally {
+            store.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recalcule les statistiques en un seul parcours des notes, sans utiliser celles tenues à jour.
+     */
+    @Override
+    public Statistiques calculerStatistiques() {
+        store.lock.readLock().lock();
+        try {
+            return store.computeStatistiques().toStatistiques();
+        } finally {
+            store.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Enregistrement par lots en mémoire : les notes sont gardées jusqu'à commit(),
+     * puis appliquées en une seule prise du verrou d'écriture.
+     */
+    private final class BulkUpsert implements NoteBulkUpsert {
+        private final List<NoteRecord> enAttente = new ArrayList<>();
+
+        @Override
+        public void upsertLot(Iterable<NoteRecord> lot) throws SQLException {
+            for (NoteRecord note : lot) {
+                if (note.getMatiere() == null) {
+                    throw new SQLException("Matière obligatoire (étudiant " + note.getEtudiantId() + ").");
+                }
+                enAttente.add(note);
+            }
+        }
+
+        @Override
+        public void commit() throws SQLException {
+            if (enAttente.isEmpty()) {
+                return;
+            }
+            store.lock.writeLock().lock();
+            try {
+                for (NoteRecord note : enAttente) {
+                    if (!store.etudiants.containsKey(note.getEtudiantId())) {
+                        throw new SQLException("Étudiant inexistant : " + note.getEtudiantId());
+                    }
+                }
+                for (NoteRecord note : enAttente) {
+                    String filiere = store.etudiants.get(note.getEtudiantId()).filiere;
+                    NoteRow ancienne = store.findNote(note.getEtudiantId(), note.getMatiere());
+                    if (ancienne != null) {
+                        store.removeNote(ancienne, filiere);
+                    }
+                    // Comme ON DUPLICATE KEY UPDATE : la note remplacée garde son id et sa matière
+                    store.insertNote(ancienne != null
+                            ? new NoteRow(ancienne.id, ancienne.etudiantId, ancienne.matiere, note.getNoteDevoir(), note.getNoteExamen())
+                            : new NoteRow(store.nextNoteId(), note.getEtudiantId(), note.getMatiere(),
+                                    note.getNoteDevoir(), note.getNoteExamen()), filiere);
+                }
+            } finally {
+                store.lock.writeLock().unlock();
+            }
+            enAttente.clear();
+            DaoEvents.fireAllNotesChanged();
+        }
+
+        @Override
+        public void close() {
+            enAttente.clear();
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.GradingPolicy;
+import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.Statistiques;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.CollationKey;
+import java.text.Collator;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Stockage en mémoire des étudiants et des notes, partagé par MemoryEtudiantDAO et MemoryNoteDAO.
+ * Reproduit les règles du schéma MySQL : ids auto-incrémentés, une note par étudiant et par matière,
+ * pas de note sans étudiant, comparaisons insensibles à la casse et aux accents.
+ * <ul>
+ *     <li>Tables principales : étudiants et notes par id, dans des IntObjectMap (clés int sans objet Integer).</li>
+ *     <li>Index secondaires : étudiants triés par (nom, prenom, id), globalement et par filière ;
+ *     notes de chaque étudiant triées par matière.</li>
+ *     <li>Statistiques globales, par filière et par matière tenues à jour à chaque écriture,
+ *     comme la table note_stats.</li>
+ * </ul>
+ * Les lectures partagent un verrou de lecture, les écritures prennent le verrou d'écriture.
+ * Les lignes stockées sont immuables : une modification remplace la ligne, ce qui permet de les lire
+ * après avoir rendu le verrou.
+ * <p>
+ * Le contenu peut être conservé d'une exécution à l'autre dans un instantané (load, save) : un fichier texte
+ * d'une ligne par étudiant et par note, réécrit en entier à chaque sauvegarde.
+ */
+public final class MemoryStore {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Ordre et égalité des textes : ni la casse ni les accents ne comptent, comme la collation de la base
+    final Collator collator;
+    final Comparator<EtudiantRow> ordreEtudiants = Comparator.<EtudiantRow, CollationKey>comparing(r -> r.cleNom)
+            .thenComparing(r -> r.clePrenom)
+            .thenComparingInt(r -> r.id);
+
+    final IntObjectMap<EtudiantRow> etudiants = new IntObjectMap<>();
+    final TreeSet<EtudiantRow> parNom = new TreeSet<>(ordreEtudiants);
+    final TreeMap<String, TreeSet<EtudiantRow>> parFiliere;
+
+    final IntObjectMap<NoteRow> notes = new IntObjectMap<>();
+    final IntObjectMap<List<NoteRow>> notesParEtudiant = new IntObjectMap<>();
+
+    private Stats stats;
+
+    private int dernierEtudiantId;
+    private int derniereNoteId;
+
+    private final MemoryEtudiantDAO etudiantDAO;
+    private final MemoryNoteDAO noteDAO;
+
+    public MemoryStore() {
+        collator = Collator.getInstance(Locale.FRENCH);
+        collator.setStrength(Collator.PRIMARY);
+        parFiliere = new TreeMap<>(collator::compare);
+        stats = new Stats();
+        etudiantDAO = new MemoryEtudiantDAO(this);
+        noteDAO = new MemoryNoteDAO(this);
+    }
+
+    public MemoryEtudiantDAO getEtudiantDAO() {
+        return etudiantDAO;
+    }
+
+    public MemoryNoteDAO getNoteDAO() {
+        return noteDAO;
+    }
+
+    // --- Instantané ---
+
+    /**
+     * Charge un instantané écrit par save. À appeler sur un stockage vide, avant de le partager.
+     * Un fichier absent laisse le stockage vide.
+     * @throws IOException si le fichier ne peut pas être lu ou n'est pas un instantané valide.
+     */
+    public void load(Path fichier) throws IOException {
+        if (!Files.exists(fichier)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try (BufferedReader reader = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            String line;
+            int numero = 0;
+            while ((line = reader.readLine()) != null) {
+                numero++;
+                String[] champs = line.split("\t", -1);
+                try {
+                    if (champs.length == 3 && champs[0].equals("S")) {
+                        dernierEtudiantId = Math.max(dernierEtudiantId, Integer.parseInt(champs[1]));
+                        derniereNoteId = Math.max(derniereNoteId, Integer.parseInt(champs[2]));
+                    } else if (champs.length == 5 && champs[0].equals("E")) {
+                        int id = Integer.parseInt(champs[1]);
+                        insertEtudiant(newEtudiantRow(id, decode(champs[2]), decode(champs[3]), decode(champs[4])));
+                        dernierEtudiantId = Math.max(dernierEtudiantId, id);
+                    } else if (champs.length == 6 && champs[0].equals("N")) {
+                        NoteRow note = new NoteRow(Integer.parseInt(champs[1]), Integer.parseInt(champs[2]), decode(champs[3]),
+                                Double.parseDouble(champs[4]), Double.parseDouble(champs[5]));
+                        EtudiantRow etudiant = etudiants.get(note.etudiantId);
+                        if (etudiant == null) {
+                            throw new IOException("Instantané " + fichier + ", ligne " + numero + " : étudiant "
+                                    + note.etudiantId + " inconnu.");
+                        }
+                        insertNote(note, etudiant.filiere);
+                        derniereNoteId = Math.max(derniereNoteId, note.id);
+                    } else if (!line.isEmpty()) {
+                        throw new IOException("Instantané " + fichier + ", ligne " + numero + " illisible.");
+                    }
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Instantané " + fichier + ", ligne " + numero + " illisible.", e);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Écrit le contenu du stockage dans un fichier temporaire, puis remplace l'instantané :
+     * un arrêt pendant l'écriture laisse l'instantané précédent intact.
+     */
+    public void save(Path fichier) throws IOException {
+        StringBuilder contenu = new StringBuilder();
+        lock.readLock().lock();
+        try {
+            contenu.append("S\t").append(dernierEtudiantId).append('\t').append(derniereNoteId).append('\n');
+            for (EtudiantRow row : parNom) {
+                contenu.append("E\t").append(row.id).append('\t').append(encode(row.nom)).append('\t')
+                        .append(encode(row.prenom)).append('\t').append(encode(row.filiere)).append('\n');
+            }
+            notes.forEachValue(note -> contenu.append("N\t").append(note.id).append('\t').append(note.etudiantId)
+                    .append('\t').append(encode(note.matiere)).append('\t').append(note.noteDevoir)
+                    .append('\t').append(note.noteExamen).append('\n'));
+        } finally {
+            lock.readLock().unlock();
+        }
+        Path parent = fichier.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".tmp");
+        Files.write(temporaire, contenu.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String encode(String texte) {
+        return URLEncoder.encode(texte != null ? texte : "", StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String texte) {
+        return URLDecoder.decode(texte, StandardCharsets.UTF_8);
+    }
+
+    // --- Étudiants (à appeler avec le verrou d'écriture) ---
+
+    EtudiantRow newEtudiantRow(int id, String nom, String prenom, String filiere) {
+        return new EtudiantRow(id, nom, prenom, filiere, collator.getCollationKey(nom), collator.getCollationKey(prenom),
+                normalize(nom) + '\u0000' + normalize(prenom) + '\u0000' + normalize(filiere));
+    }
+
+    int nextEtudiantId() {
+        return ++dernierEtudiantId;
+    }
+
+    void insertEtudiant(EtudiantRow row) {
+        etudiants.put(row.id, row);
+        parNom.add(row);
+        parFiliere.computeIfAbsent(row.filiere, k -> new TreeSet<>(ordreEtudiants)).add(row);
+        stats.addEtudiant(row.filiere, 1);
+    }
+
+    /**
+     * Retire un étudiant des index. Ses notes doivent avoir été retirées avant, ou être réinsérées ensuite.
+     */
+    void removeEtudiant(EtudiantRow row) {
+        etudiants.remove(row.id);
+        parNom.remove(row);
+        TreeSet<EtudiantRow> filiere = parFiliere.get(row.filiere);
+        if (filiere != null) {
+            filiere.remove(row);
+            if (filiere.isEmpty()) {
+                parFiliere.remove(row.filiere);
+            }
+        }
+        stats.addEtudiant(row.filiere, -1);
+    }
+
+    /**
+     * Remplace un étudiant par sa nouvelle version ; ses notes changent de filière avec lui.
+     */
+    void replaceEtudiant(EtudiantRow ancien, EtudiantRow nouveau) {
+        List<NoteRow> sesNotes = notesParEtudiant.get(ancien.id);
+        if (sesNotes != null) {
+            for (NoteRow note : sesNotes) {
+                stats.addNote(ancien.filiere, note, -1);
+            }
+        }
+        removeEtudiant(ancien);
+        insertEtudiant(nouveau);
+        if (sesNotes != null) {
+            for (NoteRow note : sesNotes) {
+                stats.addNote(nouveau.filiere, note, 1);
+            }
+        }
+    }
+
+    // --- Notes (à appeler avec le verrou d'écriture) ---
+
+    int nextNoteId() {
+        return ++derniereNoteId;
+    }
+
+    /**
+     * @return La note de l'étudiant dans cette matière (casse et accents ignorés, espaces compris,
+     * comme l'index unique de la base : voir Note.cleMatiere), ou null.
+     */
+    NoteRow findNote(int etudiantId, String matiere) {
+        List<NoteRow> sesNotes = notesParEtudiant.get(etudiantId);
+        if (sesNotes != null) {
+            for (NoteRow note : sesNotes) {
+                if (Note.memeMatiere(note.matiere, matiere)) {
+                    return note;
+                }
+            }
+        }
+        return null;
+    }
+
+    void insertNote(NoteRow note, String filiere) {
+        notes.put(note.id, note);
+        List<NoteRow> sesNotes = notesParEtudiant.get(note.etudiantId);
+        if (sesNotes == null) {
+            sesNotes = new ArrayList<>(4);
+            notesParEtudiant.put(note.etudiantId, sesNotes);
+        }
+        int i = 0;
+        while (i < sesNotes.size() && collator.compare(sesNotes.get(i).matiere, note.matiere) <= 0) {
+            i++;
+        }
+        sesNotes.add(i, note);
+        stats.addNote(filiere, note, 1);
+    }
+
+    void removeNote(NoteRow note, String filiere) {
+        notes.remove(note.id);
+        List<NoteRow> sesNotes = notesParEtudiant.get(note.etudiantId);
+        if (sesNotes != null) {
+            sesNotes.remove(note);
+            if (sesNotes.isEmpty()) {
+                notesParEtudiant.remove(note.etudiantId);
+            }
+        }
+        stats.addNote(filiere, note, -1);
+    }
+
+    // --- Statistiques ---
+
+    /**
+     * Recalcule les statistiques en un parcours des tables. À appeler avec le verrou de lecture.
+     */
+    Stats computeStatistiques() {
+        Stats calcul = new Stats();
+        etudiants.forEachValue(row -> calcul.addEtudiant(row.filiere, 1));
+        notes.forEachValue(note -> calcul.addNote(etudiants.get(note.etudiantId).filiere, note, 1));
+        return calcul;
+    }
+
+    /**
+     * Remplace les statistiques tenues à jour par un recalcul complet, pour corriger une éventuelle dérive des sommes.
+     * À appeler avec le verrou d'écriture.
+     */
+    void rebuildStatistiques() {
+        stats = computeStatistiques();
+    }
+
+    /**
+     * À appeler avec le verrou de lecture.
+     */
+    Statistiques.Ligne readGlobal() {
+        return stats.global.toLigne();
+    }
+
+    /**
+     * À appeler avec le verrou de lecture.
+     */
+    Statistiques readStatistiques() {
+        return stats.toStatistiques();
+    }
+
+    /**
+     * Texte sans accents ni majuscules, pour la recherche par sous-chaîne (équivalent de LIKE sous une collation _ai_ci).
+     */
+    static String normalize(String texte) {
+        if (texte == null) {
+            return "";
+        }
+        String sansAccents = DIACRITICS.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+        return sansAccents.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Un étudiant stocké. Immuable : une modification crée une nouvelle ligne.
+     */
+    static final class EtudiantRow {
+        final int id;
+        final String nom;
+        final String prenom;
+        final String filiere;
+        final CollationKey cleNom;
+        final CollationKey clePrenom;
+        // Nom, prénom et filière normalisés, séparés par \u0000 pour qu'un terme ne chevauche pas deux champs
+        final String texte;
+
+        private EtudiantRow(int id, String nom, String prenom, String filiere, CollationKey cleNom, CollationKey clePrenom,
+                            String texte) {
+            this.id = id;
+            this.nom = nom;
+            this.prenom = prenom;
+            this.filiere = filiere;
+            this.cleNom = cleNom;
+            this.clePrenom = clePrenom;
+            this.texte = texte;
+        }
+
+        Etudiant toEtudiant() {
+            return new Etudiant(id, nom, prenom, filiere);
+        }
+    }
+
+    /**
+     * Une note stockée. Immuable : une modification crée une nouvelle ligne.
+     */
+    static final class NoteRow {
+        final int id;
+        final int etudiantId;
+        final String matiere;
+        final double noteDevoir;
+        final double noteExamen;
+
+        NoteRow(int id, int etudiantId, String matiere, double noteDevoir, double noteExamen) {
+            this.id = id;
+            this.etudiantId = etudiantId;
+            this.matiere = matiere;
+            this.noteDevoir = noteDevoir;
+            this.noteExamen = noteExamen;
+        }
+
+        Note toNote(EtudiantRow etudiant) {
+            return new Note(id, etudiantId, etudiant.nom, etudiant.prenom, matiere, noteDevoir, noteExamen);
+        }
+    }
+
+    /**
+     * Statistiques globales, par filière et par matière : l'équivalent de la table note_stats.
+     */
+    final class Stats {
+        private final Cumul global = new Cumul();
+        private final TreeMap<String, Cumul> parFiliere = new TreeMap<>(collator::compare);
+        private final TreeMap<String, Cumul> parMatiere = new TreeMap<>(collator::compare);
+
+        private void addEtudiant(String filiere, int signe) {
+            global.add(signe, 0, 0.0, 0);
+            add(parFiliere, filiere, signe, 0, 0.0, 0);
+        }
+
+        private void addNote(String filiere, NoteRow note, int signe) {
+            double moyenne = NoteStatsSummary.moyenne(note.matiere, note.noteDevoir, note.noteExamen);
+            int valide = GradingPolicy.getCurrent().estValide(note.matiere, moyenne) ? signe : 0;
+            global.add(0, signe, signe * moyenne, valide);
+            add(parFiliere, filiere, 0, signe, signe * moyenne, valide);
+            // Une note par étudiant et par matière : chaque note compte un étudiant de la matière
+            add(parMatiere, note.matiere, signe, signe, signe * moyenne, valide);
+        }
+
+        private void add(Map<String, Cumul> cumuls, String cle, int nbEtudiants, int nbNotes, double somme, int nbValides) {
+            Cumul cumul = cumuls.computeIfAbsent(cle, k -> new Cumul());
+            cumul.add(nbEtudiants, nbNotes, somme, nbValides);
+            if (cumul.nbEtudiants == 0 && cumul.nbNotes == 0) {
+                cumuls.remove(cle);
+            }
+        }
+
+        Statistiques toStatistiques() {
+            return new Statistiques(global.toLigne(), toLignes(parFiliere), toLignes(parMatiere));
+        }
+
+        private Map<String, Statistiques.Ligne> toLignes(Map<String, Cumul> cumuls) {
+            Map<String, Statistiques.Ligne> lignes = new TreeMap<>();
+            for (Map.Entry<String, Cumul> entry : cumuls.entrySet()) {
+                lignes.put(entry.getKey(), entry.getValue().toLigne());
+            }
+            return lignes;
+        }
+    }
+
+    /**
+     * Compteurs d'une ligne de statistiques, l'équivalent d'une ligne de note_stats.
+     */
+    private static final class Cumul {
+        private int nbEtudiants;
+        private int nbNotes;
+        private double sommeMoyennes;
+        private int nbValides;
+
+        private void add(int etudiants, int nbNotes, double somme, int valides) {
+            this.nbEtudiants += etudiants;
+            this.nbNotes += nbNotes;
+            this.sommeMoyennes += somme;
+            this.nbValides += valides;
+        }
+
+        private Statistiques.Ligne toLigne() {
+            return new Statistiques.Ligne(nbEtudiants, nbNotes, sommeMoyennes, nbValides);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.gestionnotes.dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Met le schéma de la base à jour au démarrage.
+ * Les scripts SQL (dossier migration/ à côté de cette classe) sont numérotés et appliqués dans l'ordre ;
+ * la table schema_version retient ceux déjà appliqués pour ne jamais les rejouer.
+ * Sous MySQL, chaque ordre DDL valide implicitement la transaction : un script interrompu est donc
+ * rejoué en entier, et les erreurs « existe déjà » sont ignorées pour qu'il reste rejouable.
+ * Les colonnes calculées de la table note, qui dépendent du barème configuré, sont ensuite mises en accord
+ * avec lui (NoteGradeColumns), sous le même verrou.
+ */
+public class MigrationRunner {
+
+    /**
+     * Liste des migrations, dans l'ordre. Une migration publiée ne doit plus être modifiée :
+     * toute évolution du schéma passe par un nouveau script.
+     */
+    private static final List<Migration> MIGRATIONS = Arrays.asList(
+            new Migration(1, "Tables etudiant et note", "V1__tables.sql"),
+            new Migration(2, "Index de tri et de filtre des étudiants", "V2__index_etudiant.sql"),
+            new Migration(3, "Unicité (etudiant_id, matiere) et clé étrangère des notes", "V3__contraintes_note.sql"),
+            new Migration(4, "Empreinte du barème des colonnes calculées des notes", "V4__bareme_colonnes.sql"),
+            new Migration(5, "Table de synthèse des statistiques", "V5__note_stats.sql"),
+            new Migration(6, "Index de recherche des étudiants par prénom", "V6__index_etudiant_prenom.sql"));
+
+    // Codes d'erreur MySQL signifiant que l'objet existe déjà (table, colonne, index, clé étrangère)
+    private static final Set<Integer> DEJA_PRESENT = new HashSet<>(Arrays.asList(1050, 1060, 1061, 1022, 1826));
+
+    // Verrou nommé empêchant deux instances de l'application de migrer en même temps
+    private static final String LOCK_NAME = "gestion_notes_migration";
+    private static final int LOCK_TIMEOUT_SEC = 30;
+
+    /**
+     * Applique les migrations manquantes, puis redéfinit les colonnes calculées des notes si le barème a changé.
+     * @return Le nombre de migrations appliquées (0 si le schéma était à jour).
+     * @throws SQLException si une migration échoue ; les migrations suivantes ne sont pas appliquées.
+     */
+    public int migrate() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            boolean verrou = isMySql(conn);
+            if (verrou) {
+                acquireLock(conn);
+            }
+            try {
+                createVersionTable(conn);
+                int courante = readVersion(conn);
+                int appliquees = 0;
+                for (Migration migration : MIGRATIONS) {
+                    if (migration.version <= courante) {
+                        continue;
+                    }
+                    long debut = System.nanoTime();
+                    for (String ordre : loadScript(migration.script)) {
+                        execute(conn, ordre);
+                    }
+                    recordVersion(conn, migration);
+                    appliquees++;
+                    System.out.printf("Migration V%d appliquée (%s) en %d ms.%n", migration.version,
+                            migration.description, (System.nanoTime() - debut) / 1_000_000);
+                }
+                long debut = System.nanoTime();
+                if (NoteGradeColumns.synchronize(conn)) {
+                    System.out.printf("Colonnes moyenne et valide des notes définies selon le barème en %d ms.%n",
+                            (System.nanoTime() - debut) / 1_000_000);
+                }
+                return appliquees;
+            } finally {
+                if (verrou) {
+                    releaseLock(conn);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return La version actuelle du schéma, ou 0 si aucune migration n'a été appliquée.
+     */
+    public int getSchemaVersion() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            createVersionTable(conn);
+            return readVersion(conn);
+        }
+    }
+
+    /**
+     * @return La version atteinte une fois toutes les migrations appliquées.
+     */
+    public static int getLatestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+    }
+
+    private static void createVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INT NOT NULL, description VARCHAR(200) NOT NULL, script VARCHAR(100) NOT NULL, " +
+                    "installed_on TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, PRIMARY KEY (version))");
+        }
+    }
+
+    private static int readVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void recordVersion(Connection conn, Migration migration) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO schema_version (version, description, script) VALUES (?, ?, ?)")) {
+            pstmt.setInt(1, migration.version);
+            pstmt.setString(2, migration.description);
+            pstmt.setString(3, migration.script);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static void execute(Connection conn, String ordre) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(ordre);
+        } catch (SQLException e) {
+            if (!DEJA_PRESENT.contains(e.getErrorCode())) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * GET_LOCK n'existe que sous MySQL et MariaDB. Les autres bases (H2 des mesures de performance)
+     * sont migrées sans verrou : une seule instance y accède.
+     * @return true si la base est MySQL ou MariaDB.
+     */
+    static boolean isMySql(Connection conn) throws SQLException {
+        String produit = conn.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+        return produit.contains("mysql") || produit.contains("mariadb");
+    }
+
+    private static void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SEC);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Une autre instance met déjà le schéma à jour (verrou " + LOCK_NAME + ").");
+                }
+            }
+        }
+    }
+
+    private static void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Migration: impossible de libérer le verrou (" + e.getMessage() + ").");
+        }
+    }
+
+    /**
+     * Lit un script et le découpe en ordres SQL : un ordre se termine par un point-virgule en fin de ligne,
+     * les lignes commençant par -- sont des commentaires.
+     */
+    static List<String> loadScript(String script) throws SQLException {
+        List<String> ordres = new ArrayList<>();
+        try (InputStream in = MigrationRunner.class.getResourceAsStream("migration/" + script)) {
+            if (in == null) {
+                throw new SQLException("Script de migration introuvable : " + script);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            StringBuilder ordre = new StringBuilder();
+            String ligne;
+            while ((ligne = reader.readLine()) != null) {
+                String texte = ligne.trim();
+                if (texte.isEmpty() || texte.startsWith("--")) {
+                    continue;
+                }
+                ordre.append(ordre.length() > 0 ? " " : "").append(texte);
+                if (texte.endsWith(";")) {
+                    ordre.setLength(ordre.length() - 1);
+                    ordres.add(ordre.toString());
+                    ordre.setLength(0);
+                }
+            }
+            if (ordre.length() > 0) {
+                ordres.add(ordre.toString());
+            }
+        } catch (IOException e) {
+            throw new SQLException("Lecture du script de migration impossible : " + script, e);
+        }
+        return ordres;
+    }
+
+    private static final class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+
+        private Migration(int version, String description, String script) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+        }
+    }
+}
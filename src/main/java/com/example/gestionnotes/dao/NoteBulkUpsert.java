@@ -0,0 +1,27 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.NoteRecord;
+
+import java.sql.SQLException;
+
+/**
+ * Session d'enregistrement de notes par lots, obtenue par NoteRepository.openBulkUpsert().
+ * Chaque note est insérée, ou remplace la note existante du même étudiant dans la même matière.
+ * Rien n'est visible avant commit() ; fermer la session sans commit() abandonne tous les lots.
+ */
+public interface NoteBulkUpsert extends AutoCloseable {
+
+    /**
+     * Ajoute un lot de notes à la session.
+     * @throws SQLException si le lot est refusé ; la session doit alors être abandonnée.
+     */
+    void upsertLot(Iterable<NoteRecord> lot) throws SQLException;
+
+    /**
+     * Valide l'ensemble des lots et met les statistiques à jour.
+     */
+    void commit() throws SQLException;
+
+    @Override
+    void close();
+}
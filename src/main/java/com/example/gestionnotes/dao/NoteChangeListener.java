@@ -0,0 +1,17 @@
+package com.example.gestionnotes.dao;
+
+/**
+ * Écouteur des modifications de notes, prévenu après la validation (commit) de chaque écriture.
+ */
+public interface NoteChangeListener {
+
+    /**
+     * Appelé après l'ajout, la modification ou la suppression d'une note de l'étudiant.
+     */
+    void onNotesChanged(int etudiantId);
+
+    /**
+     * Appelé après une écriture en masse (import CSV) pouvant toucher les notes de n'importe quel étudiant.
+     */
+    void onAllNotesChanged();
+}
@@ -1,39 +1,174 @@
 package com.example.gestionnotes.dao;
 
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.GradingPolicy;
 import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.NoteRecord;
+import com.example.gestionnotes.model.Statistiques;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 
 /**
  * DAO pour les opérations CRUD (Create, Read, Update, Delete) sur l'entité Note.
  */
-public class NoteDAO {
+public class NoteDAO implements NoteRepository {
+
+    // Moyenne pondérée d'une note, validation et coefficient selon le barème de sa matière, identiques aux calculs de GradingPolicy
+    static final String MOYENNE_SQL = moyenneSql(GradingPolicy.getCurrent(), "n.");
+    static final String VALIDE_SQL = valideSql(GradingPolicy.getCurrent(), "n.");
+    private static final String COEFFICIENT_SQL =
+            parMatiereSql(GradingPolicy.getCurrent(), "n.", regle -> nombreSql(regle.getCoefficient()));
+
+    // Insère une note ou remplace celle du même étudiant dans la même matière (index unique (etudiant_id, matiere))
+    static final String NOTE_UPSERT_SQL = "INSERT INTO note (etudiant_id, matiere, note_devoir, note_examen) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE note_devoir = VALUES(note_devoir), note_examen = VALUES(note_examen)";
+
+    // Requêtes partagées avec QueryPlanCheckTest, qui vérifie par EXPLAIN qu'elles utilisent un index
+    private static final String NOTE_SELECT = "SELECT n.id, n.etudiant_id, e.nom, e.prenom, n.matiere, n.note_devoir, n.note_examen " +
+            "FROM note n JOIN etudiant e ON n.etudiant_id = e.id";
+    static final String ALL_NOTES_SQL = "SELECT n.id, n.etudiant_id, e.nom, e.prenom, e.filiere, n.matiere, n.note_devoir, n.note_examen " +
+            "FROM note n JOIN etudiant e ON n.etudiant_id = e.id ORDER BY e.nom, n.matiere";
+    static final String NOTES_BY_ETUDIANT_SQL = NOTE_SELECT + " WHERE n.etudiant_id = ? ORDER BY n.matiere";
+    // Moyenne générale des notes d'un groupe (étudiant), pondérée par les coefficients s'il y en a
+    private static final String MOYENNE_GENERALE_SQL = GradingPolicy.getCurrent().hasCoefficients()
+            ? "SUM(" + MOYENNE_SQL + " * " + COEFFICIENT_SQL + ") / SUM(" + COEFFICIENT_SQL + ")"
+            : "AVG" + MOYENNE_SQL;
+    static final String MOYENNE_ETUDIANT_SQL = "SELECT " + MOYENNE_GENERALE_SQL + " FROM note n WHERE n.etudiant_id = ?";
+    static final String UPDATE_SQL = "UPDATE note SET matiere = ?, note_devoir = ?, note_examen = ? WHERE id = ?";
+    static final String DELETE_SQL = "DELETE FROM note WHERE id = ?";
+    static final String LOCK_NOTE_SQL = "SELECT n.etudiant_id, n.matiere, n.note_devoir, n.note_examen, e.filiere " +
+            "FROM note n JOIN etudiant e ON n.etudiant_id = e.id WHERE n.id = ? FOR UPDATE";
+    static final String FIND_FILIERE_SQL = "SELECT filiere FROM etudiant WHERE id = ?";
+    static final String NOTE_COUNT_SQL = "SELECT COUNT(*) FROM note WHERE etudiant_id = ?";
+    static final String SCAN_SQL = "SELECT n.etudiant_id, e.filiere, n.matiere, n.note_devoir, n.note_examen " +
+            "FROM note n JOIN etudiant e ON n.etudiant_id = e.id ORDER BY n.etudiant_id";
+
+    // Statistiques globales, par filière et par matière en un seul aller-retour (voir calculerStatistiques)
+    static final String STATISTIQUES_SQL = "SELECT 'G' AS niveau, NULL AS cle, COUNT(DISTINCT e.id) AS nb_etudiants, COUNT(n.id) AS nb_notes, " +
+            "SUM" + MOYENNE_SQL + " AS somme, SUM(" + VALIDE_SQL + ") AS nb_valides " +
+            "FROM etudiant e LEFT JOIN note n ON n.etudiant_id = e.id " +
+            "UNION ALL " +
+            "SELECT 'F', e.filiere, COUNT(DISTINCT e.id), COUNT(n.id), SUM" + MOYENNE_SQL + ", SUM(" + VALIDE_SQL + ") " +
+            "FROM etudiant e LEFT JOIN note n ON n.etudiant_id = e.id GROUP BY e.filiere " +
+            "UNION ALL " +
+            "SELECT 'M', n.matiere, COUNT(DISTINCT n.etudiant_id), COUNT(n.id), SUM" + MOYENNE_SQL + ", SUM(" + VALIDE_SQL + ") " +
+            "FROM note n GROUP BY n.matiere";
+    // Rangs par filière (moyenne générale) et par matière, au millionième près comme RangHandler.points
+    static final String RANGS_SQL = "SELECT 'F', e.filiere, m.etudiant_id, m.moyenne, " +
+            "RANK() OVER (PARTITION BY e.filiere ORDER BY ROUND(m.moyenne * 1000000) DESC) " +
+            "FROM (SELECT n.etudiant_id, " + MOYENNE_GENERALE_SQL + " AS moyenne FROM note n GROUP BY n.etudiant_id) m " +
+            "JOIN etudiant e ON m.etudiant_id = e.id " +
+            "UNION ALL " +
+            "SELECT 'M', n.matiere, n.etudiant_id, n.moyenne, " +
+            "RANK() OVER (PARTITION BY n.matiere ORDER BY ROUND(n.moyenne * 1000000) DESC) FROM note n";
+
+    /**
+     * Traduit le calcul de la moyenne d'une note en expression SQL sur la table note.
+     * @param prefixe "n." dans les requêtes, "" dans la définition des colonnes calculées (NoteGradeColumns).
+     */
+    static String moyenneSql(GradingPolicy bareme, String prefixe) {
+        return "(" + parMatiereSql(bareme, prefixe, regle -> prefixe + "note_devoir * " + nombreSql(regle.getPoidsDevoir()) +
+                " + " + prefixe + "note_examen * " + nombreSql(regle.getPoidsExamen())) + ")";
+    }
+
+    /**
+     * @return L'expression SQL qui vaut 1 si la note est validée selon le barème, 0 sinon.
+     */
+    static String valideSql(GradingPolicy bareme, String prefixe) {
+        return "CASE WHEN " + moyenneSql(bareme, prefixe) + " >= " +
+                parMatiereSql(bareme, prefixe, regle -> nombreSql(regle.getSeuil() - GradingPolicy.TOLERANCE)) +
+                " THEN 1 ELSE 0 END";
+    }
+
+    /**
+     * Expression SQL qui choisit une valeur du barème selon la matière de la note : une branche WHEN par matière
+     * dont la valeur diffère de celle de la règle par défaut, aucune si toutes les matières ont la même.
+     * Les matières sont comparées en minuscules, comme GradingPolicy les compare sans tenir compte de la casse.
+     */
+    private static String parMatiereSql(GradingPolicy bareme, String prefixe, Function<GradingPolicy.Regle, String> valeur) {
+        String parDefaut = valeur.apply(bareme.getParDefaut());
+        StringBuilder sql = new StringBuilder("CASE LOWER(TRIM(" + prefixe + "matiere))");
+        boolean branches = false;
+        for (Map.Entry<String, GradingPolicy.Regle> entry : bareme.getReglesParMatiere().entrySet()) {
+            String valeurMatiere = valeur.apply(entry.getValue());
+            if (!valeurMatiere.equals(parDefaut)) {
+                sql.append(" WHEN '").append(entry.getKey().toLowerCase(Locale.ROOT).replace("'", "''"))
+                        .append("' THEN ").append(valeurMatiere);
+                branches = true;
+            }
+        }
+        return branches ? sql.append(" ELSE ").append(parDefaut).append(" END").toString() : parDefaut;
+    }
+
+    private static String nombreSql(double valeur) {
+        return BigDecimal.valueOf(valeur).toPlainString();
+    }
 
     /**
      * Récupère toutes les notes de la base de données avec les informations de l'étudiant.
      * Utilise une jointure SQL pour combiner les tables 'note' et 'etudiant'.
-     * @return Une liste d'objets Note.
+     * Les lignes sont lues en flux, sans copie complète du résultat par le pilote ; chaque étudiant
+     * et chaque matière ne sont créés qu'une fois, puis partagés par toutes les notes concernées.
+     * @return Une liste de NoteRecord.
      */
-    public List<Note> getAllNotes() {
-        List<Note> notes = new ArrayList<>();
+    @Override
+    public List<NoteRecord> getAllNotes() {
+        List<NoteRecord> notes = new ArrayList<>();
+        IntObjectMap<Etudiant> etudiants = new IntObjectMap<>();
+        Map<String, String> matieres = new HashMap<>();
         // La requête SQL joint les tables note et etudiant pour récupérer le nom et prénom
-        String sql = "SELECT n.id, n.etudiant_id, e.nom, e.prenom, n.matiere, n.note_devoir, n.note_examen " +
-                     "FROM note n JOIN etudiant e ON n.etudiant_id = e.id ORDER BY e.nom, n.matiere";
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(DBConnection.streamingFetchSize());
+            try (ResultSet rs = stmt.executeQuery(ALL_NOTES_SQL)) {
+                while (rs.next()) {
+                    int etudiantId = rs.getInt(2);
+                    Etudiant etudiant = etudiants.get(etudiantId);
+                    if (etudiant == null) {
+                        etudiant = new Etudiant(etudiantId, rs.getString(3), rs.getString(4), rs.getString(5));
+                        etudiants.put(etudiantId, etudiant);
+                    }
+                    String matiere = matieres.computeIfAbsent(rs.getString(6), m -> m);
+                    notes.add(new NoteRecord(rs.getInt(1), etudiant, matiere, rs.getDouble(7), rs.getDouble(8)));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return notes;
+    }
 
+    /**
+     * Récupère les notes d'un seul étudiant.
+     * Le filtre sur etudiant_id est fait par la base (index sur note.etudiant_id),
+     * seules les lignes de l'étudiant transitent sur le réseau.
+     * @param etudiantId L'ID de l'étudiant.
+     * @return La liste des notes de l'étudiant, triée par matière.
+     */
+    @Override
+    public List<Note> getNotesByEtudiant(int etudiantId) {
+        List<Note> notes = new ArrayList<>();
         try (Connection conn = DBConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(NOTES_BY_ETUDIANT_SQL)) {
 
-            while (rs.next()) {
-                int id = rs.getInt("id");
-                int etudiantId = rs.getInt("etudiant_id");
-                String nomEtudiant = rs.getString("nom");
-                String prenomEtudiant = rs.getString("prenom");
-                String matiere = rs.getString("matiere");
-                double noteDevoir = rs.getDouble("note_devoir"); // Nouveau champ
-                double noteExamen = rs.getDouble("note_examen"); // Nouveau champ
-                notes.add(new Note(id, etudiantId, nomEtudiant, prenomEtudiant, matiere, noteDevoir, noteExamen));
+            pstmt.setInt(1, etudiantId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    notes.add(mapNote(rs, notes.isEmpty() ? null : notes.get(0)));
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -41,24 +176,342 @@ public class NoteDAO {
         return notes;
     }
 
+    /**
+     * Lit en une seule requête les notes de plusieurs étudiants, triées par matière.
+     * Les erreurs sont propagées pour qu'un cache ne retienne pas des listes vides dues à une panne.
+     * @param etudiantIds Les IDs des étudiants.
+     * @return Les notes de chaque étudiant ; un étudiant sans note a une liste vide.
+     */
+    Map<Integer, List<Note>> queryNotesByEtudiants(Collection<Integer> etudiantIds) throws SQLException {
+        Map<Integer, List<Note>> notesParEtudiant = new HashMap<>();
+        for (Integer etudiantId : etudiantIds) {
+            notesParEtudiant.put(etudiantId, new ArrayList<>());
+        }
+        if (etudiantIds.isEmpty()) {
+            return notesParEtudiant;
+        }
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(notesByEtudiantsSql(notesParEtudiant.size()))) {
+
+            int index = 1;
+            for (Integer etudiantId : notesParEtudiant.keySet()) {
+                pstmt.setInt(index++, etudiantId);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    List<Note> sesNotes = notesParEtudiant.get(rs.getInt("etudiant_id"));
+                    sesNotes.add(mapNote(rs, sesNotes.isEmpty() ? null : sesNotes.get(0)));
+                }
+            }
+        }
+        return notesParEtudiant;
+    }
+
+    static String notesByEtudiantsSql(int nbEtudiants) {
+        return NOTE_SELECT + " WHERE n.etudiant_id IN (" + placeholders(nbEtudiants) + ") ORDER BY n.matiere";
+    }
+
+    private static String placeholders(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+
+    /**
+     * Calcule côté serveur la moyenne générale d'un étudiant, c'est-à-dire la moyenne des moyennes pondérées
+     * de ses notes, chacune comptant pour le coefficient de sa matière (voir GradingPolicy).
+     * @param etudiantId L'ID de l'étudiant.
+     * @return La moyenne générale, ou 0.0 si l'étudiant n'a aucune note.
+     */
+    @Override
+    public double getMoyenneEtudiant(int etudiantId) {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(MOYENNE_ETUDIANT_SQL)) {
+
+            pstmt.setInt(1, etudiantId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble(1); // AVG vaut NULL sans note : getDouble retourne alors 0.0
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0.0;
+    }
+
+    /**
+     * Ouvre une session d'enregistrement de notes par lots, pour les imports volumineux.
+     * Le remplacement des notes existantes s'appuie sur l'index unique (etudiant_id, matiere) créé par la migration V3.
+     * La session doit être fermée (try-with-resources) pour rendre sa connexion au pool.
+     * @throws SQLException si la connexion échoue.
+     */
+    @Override
+    public NoteBulkUpsert openBulkUpsert() throws SQLException {
+        NoteStatsSummary.ensureReady();
+        Connection conn = DBConnection.getConnection();
+        try {
+            return new JdbcNoteBulkUpsert(conn);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Enregistre un petit lot de notes en une transaction : chaque note est insérée, ou remplace
+     * la note du même étudiant dans la même matière. Contrairement à openBulkUpsert(), la table
+     * de synthèse est mise à jour par différence (ancienne note retirée, nouvelle ajoutée), ce qui
+     * convient aux lots fréquents de la saisie différée (NoteWriteBehind).
+     * Les erreurs sont propagées pour que l'appelant puisse conserver le lot et réessayer.
+     * @param notes Les notes à enregistrer (etudiantId, matiere, noteDevoir, noteExamen).
+     * @return Les notes ignorées parce que leur étudiant n'existe plus.
+     */
+    List<Note> upsertNotes(Collection<Note> notes) throws SQLException {
+        List<Note> ignorees = new ArrayList<>();
+        if (notes.isEmpty()) {
+            return ignorees;
+        }
+        NoteStatsSummary.ensureReady();
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Set<Integer> etudiantIds = new HashSet<>();
+                for (Note note : notes) {
+                    etudiantIds.add(note.getEtudiantId());
+                }
+                Map<Integer, String> filieres = new HashMap<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(filieresByIdsSql(etudiantIds.size()))) {
+                    bindIds(pstmt, etudiantIds);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            filieres.put(rs.getInt(1), rs.getString(2));
+                        }
+                    }
+                }
+
+                // Notes actuelles des étudiants concernés, verrouillées jusqu'au commit.
+                // La matière est comparée comme le fait l'index unique : sans casse ni accents (Note.cleMatiere).
+                Map<String, NoteExistante> existantes = new HashMap<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(lockNotesSql(etudiantIds.size()))) {
+                    bindIds(pstmt, etudiantIds);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            int etudiantId = rs.getInt(1);
+                            existantes.put(cleNote(etudiantId, rs.getString(2)), new NoteExistante(etudiantId,
+                                    filieres.get(etudiantId), rs.getString(2),
+                                    NoteStatsSummary.moyenne(rs.getString(2), rs.getDouble(3), rs.getDouble(4))));
+                        }
+                    }
+                }
+
+                Set<Integer> modifies = new HashSet<>();
+                try (PreparedStatement pstmt = conn.prepareStatement(NOTE_UPSERT_SQL)) {
+                    for (Note note : notes) {
+                        String filiere = filieres.get(note.getEtudiantId());
+                        if (filiere == null) {
+                            ignorees.add(note);
+                            continue;
+                        }
+                        pstmt.setInt(1, note.getEtudiantId());
+                        pstmt.setString(2, note.getMatiere());
+                        pstmt.setDouble(3, note.getNoteDevoir());
+                        pstmt.setDouble(4, note.getNoteExamen());
+                        pstmt.addBatch();
+
+                        NoteExistante ancienne = existantes.remove(cleNote(note.getEtudiantId(), note.getMatiere()));
+                        if (ancienne != null) {
+                            NoteStatsSummary.applyNote(conn, filiere, ancienne.matiere, ancienne.moyenne, -1);
+                        }
+                        NoteStatsSummary.applyNote(conn, filiere, note.getMatiere(),
+                                NoteStatsSummary.moyenne(note.getMatiere(), note.getNoteDevoir(), note.getNoteExamen()), 1);
+                        // La nouvelle valeur devient l'ancienne si la même note figure deux fois dans le lot
+                        existantes.put(cleNote(note.getEtudiantId(), note.getMatiere()), new NoteExistante(note.getEtudiantId(),
+                                filiere, note.getMatiere(), NoteStatsSummary.moyenne(note.getMatiere(), note.getNoteDevoir(), note.getNoteExamen())));
+                        modifies.add(note.getEtudiantId());
+                    }
+                    pstmt.executeBatch();
+                }
+                conn.commit();
+                for (Integer etudiantId : modifies) {
+                    DaoEvents.fireNotesChanged(etudiantId);
+                }
+                return ignorees;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    static String filieresByIdsSql(int nbEtudiants) {
+        return "SELECT id, filiere FROM etudiant WHERE id IN (" + placeholders(nbEtudiants) + ")";
+    }
+
+    static String lockNotesSql(int nbEtudiants) {
+        return "SELECT etudiant_id, matiere, note_devoir, note_examen FROM note WHERE etudiant_id IN ("
+                + placeholders(nbEtudiants) + ") FOR UPDATE";
+    }
+
+    private static void bindIds(PreparedStatement pstmt, Collection<Integer> ids) throws SQLException {
+        int index = 1;
+        for (Integer id : ids) {
+            pstmt.setInt(index++, id);
+        }
+    }
+
+    private static String cleNote(int etudiantId, String matiere) {
+        return etudiantId + "\u0000" + Note.cleMatiere(matiere);
+    }
+
+    /**
+     * Parcourt en flux les notes à exporter avec le nom, le prénom et la filière de l'étudiant,
+     * en une seule requête de jointure filtrée par la base.
+     * Le ResultSet est lu vers l'avant, par lots (voir DBConnection.streamingFetchSize),
+     * et chaque ligne est passée au handler sans être conservée en mémoire.
+     * @param filiere La filière à exporter, ou null pour toutes les filières.
+     * @param handler Reçoit chaque ligne lue.
+     * @return Le nombre de lignes exportées, ou -1 si la lecture a échoué.
+     * @throws IOException si le handler échoue.
+     */
+    @Override
+    public long exportNotes(String filiere, NoteExportHandler handler) throws IOException {
+        long count = 0;
+
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(exportSql(filiere != null), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setFetchSize(DBConnection.streamingFetchSize());
+            if (filiere != null) {
+                pstmt.setString(1, filiere);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.onRow(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                            rs.getDouble(5), rs.getDouble(6));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * Lit les notes en flux, triées par étudiant ; seules les colonnes utiles aux analyses sont transférées.
+     */
+    @Override
+    public long scanNotes(NoteScanHandler handler) {
+        long count = 0;
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(DBConnection.streamingFetchSize());
+            try (ResultSet rs = stmt.executeQuery(SCAN_SQL)) {
+                while (rs.next()) {
+                    handler.onNote(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getDouble(4), rs.getDouble(5));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+
+    /**
+     * Calcule tous les rangs en une requête, par les fonctions de fenêtrage de la base (MySQL 8, MariaDB 10.2),
+     * et les lit en flux. Sert au chargement initial des classements (RankingIndex).
+     */
+    @Override
+    public long scanRangs(RangHandler handler) {
+        long count = 0;
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            stmt.setFetchSize(DBConnection.streamingFetchSize());
+            try (ResultSet rs = stmt.executeQuery(RANGS_SQL)) {
+                while (rs.next()) {
+                    handler.onRang(rs.getString(1), rs.getString(2), rs.getInt(3), rs.getDouble(4), rs.getInt(5));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            if (!StatementTracker.isCancelled()) {
+                e.printStackTrace();
+            }
+            return -1;
+        }
+        return count;
+    }
+
+    static String exportSql(boolean parFiliere) {
+        return "SELECT e.nom, e.prenom, e.filiere, n.matiere, n.note_devoir, n.note_examen " +
+               "FROM note n JOIN etudiant e ON n.etudiant_id = e.id" +
+               (parFiliere ? " WHERE e.filiere = ?" : "") +
+               " ORDER BY e.nom, e.prenom, n.matiere";
+    }
+
+    /**
+     * Construit une Note à partir de la ligne courante d'un ResultSet
+     * contenant les colonnes id, etudiant_id, nom, prenom, matiere, note_devoir et note_examen.
+     * @param autreNote Une note déjà lue du même étudiant, dont les nom et prénom sont repris
+     *                  au lieu d'être recopiés pour chaque ligne ; null pour sa première note.
+     */
+    private Note mapNote(ResultSet rs, Note autreNote) throws SQLException {
+        int id = rs.getInt("id");
+        int etudiantId = rs.getInt("etudiant_id");
+        String nomEtudiant = autreNote != null ? autreNote.getNomEtudiant() : rs.getString("nom");
+        String prenomEtudiant = autreNote != null ? autreNote.getPrenomEtudiant() : rs.getString("prenom");
+        String matiere = rs.getString("matiere");
+        double noteDevoir = rs.getDouble("note_devoir");
+        double noteExamen = rs.getDouble("note_examen");
+        return new Note(id, etudiantId, nomEtudiant, prenomEtudiant, matiere, noteDevoir, noteExamen);
+    }
+
     /**
      * Ajoute une nouvelle note dans la base de données.
+     * La table de synthèse des statistiques est mise à jour dans la même transaction.
      * @param note L'objet Note à ajouter (seuls etudiant_id, matiere, noteDevoir et noteExamen sont utilisés).
      * @return true si l'ajout a réussi, false sinon.
      */
+    @Override
     public boolean addNote(Note note) {
         String sql = "INSERT INTO note (etudiant_id, matiere, note_devoir, note_examen) VALUES (?, ?, ?, ?)";
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, note.getEtudiantId());
-            pstmt.setString(2, note.getMatiere());
-            pstmt.setDouble(3, note.getNoteDevoir()); // Nouveau champ
-            pstmt.setDouble(4, note.getNoteExamen()); // Nouveau champ
-
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    String filiere = findFiliere(conn, note.getEtudiantId());
+                    if (filiere == null) {
+                        conn.rollback();
+                        return false;
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                        pstmt.setInt(1, note.getEtudiantId());
+                        pstmt.setString(2, note.getMatiere());
+                        pstmt.setDouble(3, note.getNoteDevoir());
+                        pstmt.setDouble(4, note.getNoteExamen());
+                        pstmt.executeUpdate();
+                        try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                note.setId(generatedKeys.getInt(1));
+                            }
+                        }
+                    }
+                    NoteStatsSummary.applyNote(conn, filiere, note.getMatiere(),
+                            NoteStatsSummary.moyenne(note.getMatiere(), note.getNoteDevoir(), note.getNoteExamen()), 1);
+                    conn.commit();
+                    DaoEvents.fireNotesChanged(note.getEtudiantId());
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -67,22 +520,41 @@ public class NoteDAO {
 
     /**
      * Met à jour une note existante.
+     * L'ancienne contribution de la note est retirée de la table de synthèse et la nouvelle ajoutée,
+     * dans la même transaction que la mise à jour.
      * @param note L'objet Note contenant les nouvelles informations.
      * @return true si la mise à jour a réussi, false sinon.
      */
+    @Override
     public boolean updateNote(Note note) {
-        String sql = "UPDATE note SET matiere = ?, note_devoir = ?, note_examen = ? WHERE id = ?";
-
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, note.getMatiere());
-            pstmt.setDouble(2, note.getNoteDevoir()); // Nouveau champ
-            pstmt.setDouble(3, note.getNoteExamen()); // Nouveau champ
-            pstmt.setInt(4, note.getId());
-
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    NoteExistante ancienne = lockNote(conn, note.getId());
+                    if (ancienne == null) {
+                        conn.rollback();
+                        return false;
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(UPDATE_SQL)) {
+                        pstmt.setString(1, note.getMatiere());
+                        pstmt.setDouble(2, note.getNoteDevoir());
+                        pstmt.setDouble(3, note.getNoteExamen());
+                        pstmt.setInt(4, note.getId());
+                        pstmt.executeUpdate();
+                    }
+                    NoteStatsSummary.applyNote(conn, ancienne.filiere, ancienne.matiere, ancienne.moyenne, -1);
+                    NoteStatsSummary.applyNote(conn, ancienne.filiere, note.getMatiere(),
+                            NoteStatsSummary.moyenne(note.getMatiere(), note.getNoteDevoir(), note.getNoteExamen()), 1);
+                    conn.commit();
+                    DaoEvents.fireNotesChanged(ancienne.etudiantId);
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -90,30 +562,88 @@ public class NoteDAO {
     }
 
     /**
-     * Supprime une note de la base de données.
+     * Supprime une note de la base de données et retire sa contribution de la table de synthèse.
      * @param noteId L'ID de la note à supprimer.
      * @return true si la suppression a réussi, false sinon.
      */
+    @Override
     public boolean deleteNote(int noteId) {
-        String sql = "DELETE FROM note WHERE id = ?";
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    NoteExistante ancienne = lockNote(conn, noteId);
+                    if (ancienne == null) {
+                        conn.rollback();
+                        return false;
+                    }
+                    try (PreparedStatement pstmt = conn.prepareStatement(DELETE_SQL)) {
+                        pstmt.setInt(1, noteId);
+                        pstmt.executeUpdate();
+                    }
+                    NoteStatsSummary.applyNote(conn, ancienne.filiere, ancienne.matiere, ancienne.moyenne, -1);
+                    conn.commit();
+                    DaoEvents.fireNotesChanged(ancienne.etudiantId);
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
 
-        try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * Valeurs actuelles d'une note, lues avant sa modification ou sa suppression.
+     */
+    private static final class NoteExistante {
+        private final int etudiantId;
+        private final String filiere;
+        private final String matiere;
+        private final double moyenne;
 
+        private NoteExistante(int etudiantId, String filiere, String matiere, double moyenne) {
+            this.etudiantId = etudiantId;
+            this.filiere = filiere;
+            this.matiere = matiere;
+            this.moyenne = moyenne;
+        }
+    }
+
+    /**
+     * Lit et verrouille (FOR UPDATE) une note et la filière de son étudiant.
+     * @return Les valeurs actuelles de la note, ou null si elle n'existe pas.
+     */
+    private NoteExistante lockNote(Connection conn, int noteId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(LOCK_NOTE_SQL)) {
             pstmt.setInt(1, noteId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new NoteExistante(rs.getInt("etudiant_id"), rs.getString("filiere"), rs.getString("matiere"),
+                            NoteStatsSummary.moyenne(rs.getString("matiere"), rs.getDouble("note_devoir"), rs.getDouble("note_examen")));
+                }
+            }
+        }
+        return null;
+    }
 
-            int affectedRows = pstmt.executeUpdate();
-            return affectedRows > 0;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return false;
+    private String findFiliere(Connection conn, int etudiantId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(FIND_FILIERE_SQL)) {
+            pstmt.setInt(1, etudiantId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
         }
     }
 
+    @Override
     public int getNoteCountForStudent(int etudiantId) {
-        String sql = "SELECT COUNT(*) FROM note WHERE etudiant_id = ?";
         try (Connection conn = DBConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(NOTE_COUNT_SQL)) {
             pstmt.setInt(1, etudiantId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -125,4 +655,152 @@ public class NoteDAO {
         }
         return 0;
     }
-}
\ No newline at end of file
+
+    /**
+     * Filtre et trie les notes sur les colonnes calculées moyenne et valide (voir NoteGradeColumns) :
+     * la base parcourt l'index (valide, moyenne) ou (moyenne) dans l'ordre voulu et s'arrête à la limite.
+     */
+    @Override
+    public List<NoteRecord> findNotesParMoyenne(String filiere, Boolean valide, double min, double max, boolean croissant, int limite) {
+        List<NoteRecord> notes = new ArrayList<>();
+        if (limite <= 0) {
+            return notes;
+        }
+        IntObjectMap<Etudiant> etudiants = new IntObjectMap<>();
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(notesParMoyenneSql(filiere != null, valide, croissant))) {
+
+            int index = 1;
+            pstmt.setDouble(index++, min);
+            pstmt.setDouble(index++, max);
+            if (valide != null) {
+                pstmt.setInt(index++, valide ? 1 : 0);
+            }
+            if (filiere != null) {
+                pstmt.setString(index++, filiere);
+            }
+            pstmt.setInt(index, limite);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    int etudiantId = rs.getInt(2);
+                    Etudiant etudiant = etudiants.get(etudiantId);
+                    if (etudiant == null) {
+                        etudiant = new Etudiant(etudiantId, rs.getString(3), rs.getString(4), rs.getString(5));
+                        etudiants.put(etudiantId, etudiant);
+                    }
+                    notes.add(new NoteRecord(rs.getInt(1), etudiant, rs.getString(6), rs.getDouble(7), rs.getDouble(8)));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return notes;
+    }
+
+    static String notesParMoyenneSql(boolean parFiliere, Boolean valide, boolean croissant) {
+        String ordre = croissant ? "" : " DESC";
+        return "SELECT n.id, n.etudiant_id, e.nom, e.prenom, e.filiere, n.matiere, n.note_devoir, n.note_examen " +
+               "FROM note n JOIN etudiant e ON n.etudiant_id = e.id WHERE n.moyenne BETWEEN ? AND ?" +
+               (valide != null ? " AND n.valide = ?" : "") +
+               (parFiliere ? " AND e.filiere = ?" : "") +
+               " ORDER BY n.moyenne" + ordre + ", n.id" + ordre + " LIMIT ?";
+    }
+
+    /**
+     * Lit les statistiques globales dans la table de synthèse (une seule ligne).
+     * @return Les statistiques de toute l'école, ou null si la lecture a échoué.
+     */
+    @Override
+    public Statistiques.Ligne getStatistiquesGlobales() {
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection()) {
+                return NoteStatsSummary.readGlobal(conn);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Lit les statistiques globales, par filière et par matière dans la table de synthèse.
+     * @return Les statistiques, ou null si la lecture a échoué.
+     */
+    @Override
+    public Statistiques getStatistiques() {
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection()) {
+                return NoteStatsSummary.readAll(conn);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Recalcule la table de synthèse à partir des tables note et etudiant, par exemple
+     * après une modification faite hors de l'application.
+     * @return true si le recalcul a réussi, false sinon.
+     */
+    @Override
+    public boolean rebuildStatistiques() {
+        try {
+            NoteStatsSummary.ensureReady();
+            try (Connection conn = DBConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    NoteStatsSummary.rebuild(conn);
+                    conn.commit();
+                    return true;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Calcule les statistiques des notes directement sur les tables (COUNT, AVG, SUM(CASE ...)),
+     * sans passer par la table de synthèse.
+     * Les trois niveaux (global, par filière, par matière) sont obtenus en une seule requête UNION ALL,
+     * donc en un seul aller-retour.
+     * @return Les statistiques, ou null si la requête a échoué.
+     */
+    @Override
+    public Statistiques calculerStatistiques() {
+        try (Connection conn = DBConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(STATISTIQUES_SQL)) {
+
+            Statistiques.Ligne global = new Statistiques.Ligne(0, 0, 0.0, 0);
+            Map<String, Statistiques.Ligne> parFiliere = new TreeMap<>();
+            Map<String, Statistiques.Ligne> parMatiere = new TreeMap<>();
+            while (rs.next()) {
+                Statistiques.Ligne ligne = new Statistiques.Ligne(rs.getInt("nb_etudiants"), rs.getInt("nb_notes"),
+                        rs.getDouble("somme"), rs.getInt("nb_valides"));
+                switch (rs.getString("niveau")) {
+                    case "G":
+                        global = ligne;
+                        break;
+                    case "F":
+                        parFiliere.put(rs.getString("cle"), ligne);
+                        break;
+                    default:
+                        parMatiere.put(rs.getString("cle"), ligne);
+                        break;
+                }
+            }
+            return new Statistiques(global, parFiliere, parMatiere);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.gestionnotes.dao;
+
+import java.io.IOException;
+
+/**
+ * Reçoit une à une les lignes d'un export de notes, au fil de la lecture du ResultSet.
+ */
+@FunctionalInterface
+public interface NoteExportHandler {
+
+    void onRow(String nom, String prenom, String filiere, String matiere,
+               double noteDevoir, double noteExamen) throws IOException;
+}
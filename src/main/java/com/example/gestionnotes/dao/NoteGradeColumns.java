@@ -0,0 +1,113 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.GradingPolicy;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Colonnes calculées note.moyenne et note.valide, indexées pour trier et filtrer les notes par moyenne
+ * directement en base (notes non validées, meilleures notes, tranches de moyenne).
+ * <p>
+ * Leurs expressions sont celles de NoteDAO (moyenneSql, valideSql) et dépendent donc du barème configuré :
+ * elles ne peuvent pas figurer dans un script de migration figé. MigrationRunner appelle synchronize après
+ * les migrations ; la table note_bareme (V4) garde l'empreinte de l'ordre qui a défini les colonnes, et elles
+ * ne sont redéfinies, index compris, que si cette empreinte ne correspond plus au barème actuel.
+ * Sous MySQL, chaque ordre DDL est validé séparément : l'empreinte est effacée avant la redéfinition et écrite
+ * en dernier, et chaque index ou colonne n'est supprimé que s'il existe, si bien qu'une redéfinition
+ * interrompue est simplement reprise au démarrage suivant.
+ * Sous MySQL les colonnes sont STORED (calculées à l'écriture, indexables sans recalcul à la lecture) ;
+ * H2, utilisé pour les mesures de performance, ne connaît pas ce mot-clé et les stocke de toute façon.
+ */
+final class NoteGradeColumns {
+
+    static final String INDEX_MOYENNE = "idx_note_moyenne";
+    static final String INDEX_VALIDE_MOYENNE = "idx_note_valide_moyenne";
+
+    private NoteGradeColumns() {
+    }
+
+    /**
+     * Crée ou redéfinit les colonnes calculées si elles n'existent pas ou si le barème a changé.
+     * @param conn Une connexion en auto-commit, sous le verrou des migrations.
+     * @return true si les colonnes ont été (re)définies, false si elles étaient à jour.
+     */
+    static boolean synchronize(Connection conn) throws SQLException {
+        String ajout = ajoutSql(GradingPolicy.getCurrent(), MigrationRunner.isMySql(conn));
+        String empreinte = NoteStatsSummary.empreinte(ajout);
+        boolean presentes = hasColumn(conn, "moyenne");
+        if (presentes && isDefinedWith(conn, empreinte)) {
+            return false;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            // Une redéfinition interrompue ne doit pas laisser une empreinte qui la ferait croire terminée
+            stmt.executeUpdate("DELETE FROM note_bareme");
+            // Une colonne calculée ne peut pas être modifiée tant qu'un index l'utilise
+            if (hasIndex(conn, INDEX_VALIDE_MOYENNE)) {
+                stmt.executeUpdate("DROP INDEX " + INDEX_VALIDE_MOYENNE + " ON note");
+            }
+            if (hasIndex(conn, INDEX_MOYENNE)) {
+                stmt.executeUpdate("DROP INDEX " + INDEX_MOYENNE + " ON note");
+            }
+            if (hasColumn(conn, "valide")) {
+                stmt.executeUpdate("ALTER TABLE note DROP COLUMN valide");
+            }
+            if (presentes) {
+                stmt.executeUpdate("ALTER TABLE note DROP COLUMN moyenne");
+            }
+            stmt.executeUpdate(ajout);
+            // Notes d'une tranche de moyenne et meilleures notes : ORDER BY moyenne
+            stmt.executeUpdate("CREATE INDEX " + INDEX_MOYENNE + " ON note (moyenne)");
+            // Notes validées ou non, triées par moyenne : WHERE valide = ? ORDER BY moyenne
+            stmt.executeUpdate("CREATE INDEX " + INDEX_VALIDE_MOYENNE + " ON note (valide, moyenne)");
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO note_bareme (empreinte) VALUES (?)")) {
+            pstmt.setString(1, empreinte);
+            pstmt.executeUpdate();
+        }
+        return true;
+    }
+
+    /**
+     * Chaque colonne porte l'expression complète : ni MySQL ni H2 ne permettent à valide de lire moyenne
+     * de la même façon, et H2 interdit qu'une colonne calculée en utilise une autre.
+     */
+    static String ajoutSql(GradingPolicy bareme, boolean stored) {
+        String stockage = stored ? " STORED" : "";
+        return "ALTER TABLE note ADD COLUMN (" +
+                "moyenne DOUBLE GENERATED ALWAYS AS " + NoteDAO.moyenneSql(bareme, "") + stockage + ", " +
+                "valide TINYINT GENERATED ALWAYS AS (" + NoteDAO.valideSql(bareme, "") + ")" + stockage + ")";
+    }
+
+    private static boolean hasColumn(Connection conn, String colonne) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getColumns(conn.getCatalog(), null, "note", colonne)) {
+            return rs.next();
+        }
+    }
+
+    private static boolean hasIndex(Connection conn, String index) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getIndexInfo(conn.getCatalog(), null, "note", false, true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDefinedWith(Connection conn, String empreinte) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM note_bareme WHERE empreinte = ?")) {
+            pstmt.setString(1, empreinte);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+}
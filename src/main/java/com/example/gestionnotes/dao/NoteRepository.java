@@ -0,0 +1,148 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.NoteRecord;
+import com.example.gestionnotes.model.NotesEtudiant;
+import com.example.gestionnotes.model.Statistiques;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Accès aux notes, indépendant du stockage.
+ * Implémentations : NoteDAO (MySQL, via JDBC), CachedNoteDAO (NoteDAO avec cache)
+ * et MemoryNoteDAO (en mémoire) ; Repositories choisit celle de l'application selon la clé storage.backend.
+ * Chaque étudiant a au plus une note par matière, et une note appartient toujours à un étudiant existant.
+ */
+public interface NoteRepository {
+
+    /**
+     * Lit toutes les notes, pour les traitements sans affichage : ce sont des NoteRecord compacts,
+     * et les notes d'un même étudiant partagent le même objet Etudiant.
+     * @return Toutes les notes, triées par nom de l'étudiant puis matière.
+     */
+    List<NoteRecord> getAllNotes();
+
+    /**
+     * @return Les notes de l'étudiant, triées par matière.
+     */
+    List<Note> getNotesByEtudiant(int etudiantId);
+
+    /**
+     * @return La moyenne générale de l'étudiant (moyenne des moyennes pondérées de ses notes), ou 0.0 sans note.
+     */
+    double getMoyenneEtudiant(int etudiantId);
+
+    /**
+     * @return Les notes et la moyenne générale de l'étudiant.
+     */
+    default NotesEtudiant getNotesEtudiant(int etudiantId) {
+        return new NotesEtudiant(etudiantId, getNotesByEtudiant(etudiantId));
+    }
+
+    /**
+     * @return Les notes de l'étudiant si elles sont disponibles sans accès lent (cache, mémoire), null sinon.
+     */
+    default NotesEtudiant getIfPresent(int etudiantId) {
+        return null;
+    }
+
+    /**
+     * Prépare en arrière-plan les notes de ces étudiants, pour un affichage immédiat ensuite.
+     * Sans effet par défaut.
+     */
+    default void prefetch(Collection<Integer> etudiantIds) {
+    }
+
+    /**
+     * @param note La note à ajouter ; son id est renseigné en cas de succès.
+     * @return true si l'ajout a réussi, false sinon (étudiant inexistant, matière déjà notée).
+     */
+    boolean addNote(Note note);
+
+    boolean updateNote(Note note);
+
+    boolean deleteNote(int noteId);
+
+    int getNoteCountForStudent(int etudiantId);
+
+    /**
+     * Recherche les notes par moyenne, triées par moyenne puis id, sans lire les autres notes :
+     * sous MySQL, la moyenne et la validation sont des colonnes calculées et indexées (voir NoteGradeColumns).
+     * @param filiere La filière des étudiants, ou null pour toutes les filières.
+     * @param valide true pour les seules notes validées, false pour les seules notes non validées, null pour toutes.
+     * @param min La plus petite moyenne retenue (incluse).
+     * @param max La plus grande moyenne retenue (incluse).
+     * @param croissant true pour commencer par la plus petite moyenne, false par la plus grande.
+     * @param limite Le nombre maximal de notes retournées.
+     * @return Les notes trouvées, avec leur étudiant ; une liste vide si la lecture a échoué.
+     */
+    List<NoteRecord> findNotesParMoyenne(String filiere, Boolean valide, double min, double max, boolean croissant, int limite);
+
+    /**
+     * @return Les notes non validées, de la plus faible moyenne à la plus forte.
+     */
+    default List<NoteRecord> getNotesNonValidees(String filiere, int limite) {
+        return findNotesParMoyenne(filiere, false, 0.0, 20.0, true, limite);
+    }
+
+    /**
+     * @return Les meilleures notes, de la plus forte moyenne à la plus faible.
+     */
+    default List<NoteRecord> getMeilleuresNotes(String filiere, int limite) {
+        return findNotesParMoyenne(filiere, null, 0.0, 20.0, false, limite);
+    }
+
+    /**
+     * Ouvre une session d'enregistrement de notes par lots, pour les imports volumineux.
+     * @throws SQLException si la session n'a pas pu être ouverte.
+     */
+    NoteBulkUpsert openBulkUpsert() throws SQLException;
+
+    /**
+     * Parcourt les notes à exporter, triées par nom, prénom et matière, sans les garder en mémoire.
+     * @param filiere La filière à exporter, ou null pour toutes les filières.
+     * @return Le nombre de lignes exportées, ou -1 si la lecture a échoué.
+     * @throws IOException si le handler échoue.
+     */
+    long exportNotes(String filiere, NoteExportHandler handler) throws IOException;
+
+    /**
+     * Parcourt toutes les notes avec la filière de leur étudiant, pour les analyses (NoteColumns).
+     * Les notes d'un même étudiant sont transmises à la suite les unes des autres.
+     * @return Le nombre de notes parcourues, ou -1 si la lecture a échoué.
+     */
+    long scanNotes(NoteScanHandler handler);
+
+    /**
+     * Parcourt les rangs de chaque étudiant dans sa filière et dans chaque matière où il a une note,
+     * calculés en une fois : c'est le chargement initial des classements, tenus à jour ensuite par RankingIndex.
+     * Les étudiants sans note ne sont pas classés.
+     * @return Le nombre de rangs parcourus, ou -1 si la lecture a échoué.
+     */
+    long scanRangs(RangHandler handler);
+
+    /**
+     * @return Les statistiques de toute l'école, ou null si la lecture a échoué.
+     */
+    Statistiques.Ligne getStatistiquesGlobales();
+
+    /**
+     * @return Les statistiques globales, par filière et par matière, ou null si la lecture a échoué.
+     */
+    Statistiques getStatistiques();
+
+    /**
+     * Recalcule les statistiques tenues à jour par les écritures.
+     * @return true si le recalcul a réussi, false sinon.
+     */
+    boolean rebuildStatistiques();
+
+    /**
+     * Calcule les statistiques directement à partir des notes, sans passer par celles tenues à jour.
+     * @return Les statistiques, ou null si le calcul a échoué.
+     */
+    Statistiques calculerStatistiques();
+}
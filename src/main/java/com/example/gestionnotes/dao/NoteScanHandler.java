@@ -0,0 +1,10 @@
+package com.example.gestionnotes.dao;
+
+/**
+ * Reçoit une à une les notes parcourues par NoteRepository.scanNotes(), sans objet intermédiaire par note.
+ */
+@FunctionalInterface
+public interface NoteScanHandler {
+
+    void onNote(int etudiantId, String filiere, String matiere, double noteDevoir, double noteExamen);
+}
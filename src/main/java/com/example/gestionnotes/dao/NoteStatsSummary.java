@@ -0,0 +1,269 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.GradingPolicy;
+import com.example.gestionnotes.model.Statistiques;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Table de synthèse note_stats : compteurs courants (nombre d'étudiants, nombre de notes,
+ * somme des moyennes, nombre de notes validées) pour toute l'école ('G'), par filière ('F')
+ * et par matière ('M').
+ * Les DAOs la mettent à jour dans la même transaction que la ligne modifiée,
+ * si bien que la lecture des statistiques ne demande plus aucun parcours des tables.
+ * <p>
+ * Les sommes et les notes validées dépendent du barème (GradingPolicy) : la table garde une ligne 'B' avec
+ * l'empreinte du barème qui l'a remplie, et elle est recalculée au démarrage si le barème a changé depuis.
+ * La table elle-même est créée par la migration V5 (MigrationRunner).
+ */
+class NoteStatsSummary {
+
+    static final String GLOBAL = "G";
+    static final String FILIERE = "F";
+    static final String MATIERE = "M";
+    static final String BAREME = "B";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO note_stats (portee, cle, nb_etudiants, nb_notes, somme_moyennes, nb_valides) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE nb_etudiants = nb_etudiants + VALUES(nb_etudiants), nb_notes = nb_notes + VALUES(nb_notes), " +
+            "somme_moyennes = somme_moyennes + VALUES(somme_moyennes), nb_valides = nb_valides + VALUES(nb_valides)";
+
+    // Requêtes partagées avec QueryPlanCheckTest
+    static final String MOVE_ETUDIANT_SQL = "SELECT COUNT(*), COALESCE(SUM" + NoteDAO.MOYENNE_SQL + ", 0), " +
+            "COALESCE(SUM(" + NoteDAO.VALIDE_SQL + "), 0) " +
+            "FROM note n WHERE n.etudiant_id = ?";
+    static final String READ_GLOBAL_SQL =
+            "SELECT nb_etudiants, nb_notes, somme_moyennes, nb_valides FROM note_stats WHERE portee = ? AND cle = ''";
+    static final String BAREME_SQL = "SELECT COUNT(*) FROM note_stats WHERE portee = 'B' AND cle = ?";
+    static final String READ_ALL_SQL = "SELECT portee, cle, nb_etudiants, nb_notes, somme_moyennes, nb_valides FROM note_stats " +
+            "WHERE nb_etudiants <> 0 OR nb_notes <> 0 OR portee = 'G'";
+
+    private static volatile boolean ready = false;
+
+    private NoteStatsSummary() {
+    }
+
+    /**
+     * Remplit la table de synthèse à partir des tables note et etudiant lorsqu'elle est vide
+     * ou qu'elle a été remplie avec un autre barème. N'interroge la base qu'au premier appel.
+     */
+    static void ensureReady() throws SQLException {
+        if (ready) {
+            return;
+        }
+        synchronized (NoteStatsSummary.class) {
+            if (ready) {
+                return;
+            }
+            try (Connection conn = DBConnection.getConnection()) {
+                // Une table vide n'a pas de ligne 'B' : elle est remplie comme une table d'un autre barème
+                boolean aJour;
+                try (PreparedStatement pstmt = conn.prepareStatement(BAREME_SQL)) {
+                    pstmt.setString(1, empreinteBareme());
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        aJour = rs.next() && rs.getInt(1) > 0;
+                    }
+                }
+                if (!aJour) {
+                    conn.setAutoCommit(false);
+                    try {
+                        rebuild(conn);
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    }
+                }
+            }
+            ready = true;
+        }
+    }
+
+    /**
+     * Recalcule entièrement la table de synthèse. Doit être appelé dans une transaction.
+     */
+    static void rebuild(Connection conn) throws SQLException {
+        String moyenne = NoteDAO.MOYENNE_SQL;
+        String valide = NoteDAO.VALIDE_SQL;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM note_stats");
+            stmt.executeUpdate("INSERT INTO note_stats (portee, cle, nb_etudiants, nb_notes, somme_moyennes, nb_valides) " +
+                    "SELECT 'G', '', COUNT(DISTINCT e.id), COUNT(n.id), COALESCE(SUM" + moyenne + ", 0), COALESCE(SUM(" + valide + "), 0) " +
+                    "FROM etudiant e LEFT JOIN note n ON n.etudiant_id = e.id");
+            stmt.executeUpdate("INSERT INTO note_stats (portee, cle, nb_etudiants, nb_notes, somme_moyennes, nb_valides) " +
+                    "SELECT 'F', e.filiere, COUNT(DISTINCT e.id), COUNT(n.id), COALESCE(SUM" + moyenne + ", 0), COALESCE(SUM(" + valide + "), 0) " +
+                    "FROM etudiant e LEFT JOIN note n ON n.etudiant_id = e.id GROUP BY e.filiere");
+            stmt.executeUpdate("INSERT INTO note_stats (portee, cle, nb_etudiants, nb_notes, somme_moyennes, nb_valides) " +
+                    "SELECT 'M', n.matiere, COUNT(DISTINCT n.etudiant_id), COUNT(n.id), SUM" + moyenne + ", SUM(" + valide + ") " +
+                    "FROM note n GROUP BY n.matiere");
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO note_stats (portee, cle) VALUES (?, ?)")) {
+            pstmt.setString(1, BAREME);
+            pstmt.setString(2, empreinteBareme());
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Empreinte (SHA-256, 64 caractères) des expressions SQL de la moyenne et de la validation d'une note :
+     * elle change avec les poids et les seuils du barème, pas avec les coefficients, que la table n'utilise pas.
+     */
+    private static String empreinteBareme() {
+        return empreinte(NoteDAO.MOYENNE_SQL + "\n" + NoteDAO.VALIDE_SQL);
+    }
+
+    /**
+     * @return L'empreinte SHA-256 d'un texte, en 64 caractères hexadécimaux.
+     */
+    static String empreinte(String texte) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(texte.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // SHA-256 est fourni par toutes les JVM
+        }
+    }
+
+    /**
+     * Ajoute (signe = 1) ou retire (signe = -1) la contribution d'une note aux compteurs
+     * global, de sa filière et de sa matière.
+     */
+    static void applyNote(Connection conn, String filiere, String matiere, double moyenne, int signe) throws SQLException {
+        int valide = GradingPolicy.getCurrent().estValide(matiere, moyenne) ? signe : 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+            addDelta(pstmt, GLOBAL, "", 0, signe, signe * moyenne, valide);
+            addDelta(pstmt, FILIERE, filiere, 0, signe, signe * moyenne, valide);
+            // Une note par étudiant et par matière : chaque note compte un étudiant de la matière
+            addDelta(pstmt, MATIERE, matiere, signe, signe, signe * moyenne, valide);
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Ajoute (signe = 1) ou retire (signe = -1) un étudiant des compteurs global et de sa filière.
+     */
+    static void applyEtudiant(Connection conn, String filiere, int signe) throws SQLException {
+        Map<String, Integer> delta = new TreeMap<>();
+        delta.put(filiere, signe);
+        applyEtudiants(conn, delta);
+    }
+
+    /**
+     * Ajoute aux compteurs global et de chaque filière le nombre d'étudiants indiqué (négatif pour retirer).
+     */
+    static void applyEtudiants(Connection conn, Map<String, Integer> deltaParFiliere) throws SQLException {
+        int total = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+            for (Map.Entry<String, Integer> entry : deltaParFiliere.entrySet()) {
+                addDelta(pstmt, FILIERE, entry.getKey(), entry.getValue(), 0, 0.0, 0);
+                total += entry.getValue();
+            }
+            addDelta(pstmt, GLOBAL, "", total, 0, 0.0, 0);
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Déplace un étudiant et la contribution de toutes ses notes d'une filière à une autre.
+     */
+    static void moveEtudiant(Connection conn, int etudiantId, String ancienneFiliere, String nouvelleFiliere) throws SQLException {
+        int nbNotes = 0;
+        double somme = 0.0;
+        int nbValides = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(MOVE_ETUDIANT_SQL)) {
+            pstmt.setInt(1, etudiantId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    nbNotes = rs.getInt(1);
+                    somme = rs.getDouble(2);
+                    nbValides = rs.getInt(3);
+                }
+            }
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+            addDelta(pstmt, FILIERE, ancienneFiliere, -1, -nbNotes, -somme, -nbValides);
+            addDelta(pstmt, FILIERE, nouvelleFiliere, 1, nbNotes, somme, nbValides);
+            pstmt.executeBatch();
+        }
+    }
+
+    private static void addDelta(PreparedStatement pstmt, String portee, String cle, int nbEtudiants, int nbNotes,
+                                 double sommeMoyennes, int nbValides) throws SQLException {
+        pstmt.setString(1, portee);
+        pstmt.setString(2, cle);
+        pstmt.setInt(3, nbEtudiants);
+        pstmt.setInt(4, nbNotes);
+        pstmt.setDouble(5, sommeMoyennes);
+        pstmt.setInt(6, nbValides);
+        pstmt.addBatch();
+    }
+
+    /**
+     * Lit la seule ligne globale de la table de synthèse.
+     */
+    static Statistiques.Ligne readGlobal(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(READ_GLOBAL_SQL)) {
+            pstmt.setString(1, GLOBAL);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapLigne(rs);
+                }
+            }
+        }
+        return new Statistiques.Ligne(0, 0, 0.0, 0);
+    }
+
+    /**
+     * Lit toute la table de synthèse (quelques lignes par filière et par matière).
+     */
+    static Statistiques readAll(Connection conn) throws SQLException {
+        Statistiques.Ligne global = new Statistiques.Ligne(0, 0, 0.0, 0);
+        Map<String, Statistiques.Ligne> parFiliere = new TreeMap<>();
+        Map<String, Statistiques.Ligne> parMatiere = new TreeMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(READ_ALL_SQL)) {
+            while (rs.next()) {
+                Statistiques.Ligne ligne = mapLigne(rs);
+                switch (rs.getString("portee")) {
+                    case GLOBAL:
+                        global = ligne;
+                        break;
+                    case FILIERE:
+                        parFiliere.put(rs.getString("cle"), ligne);
+                        break;
+                    case MATIERE:
+                        parMatiere.put(rs.getString("cle"), ligne);
+                        break;
+                    default:
+                        break; // Empreinte du barème
+                }
+            }
+        }
+        return new Statistiques(global, parFiliere, parMatiere);
+    }
+
+    private static Statistiques.Ligne mapLigne(ResultSet rs) throws SQLException {
+        return new Statistiques.Ligne(rs.getInt("nb_etudiants"), rs.getInt("nb_notes"),
+                rs.getDouble("somme_moyennes"), rs.getInt("nb_valides"));
+    }
+
+    /**
+     * Moyenne pondérée d'une note selon le barème de sa matière, identique à NoteDAO.MOYENNE_SQL.
+     */
+    static double moyenne(String matiere, double noteDevoir, double noteExamen) {
+        return GradingPolicy.getCurrent().moyenne(matiere, noteDevoir, noteExamen);
+    }
+}
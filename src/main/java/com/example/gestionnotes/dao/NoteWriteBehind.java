@@ -0,0 +1,475 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.model.Note;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saisie différée des notes (write-behind).
+ * Les ajouts et modifications sont mis en file au lieu d'être écrits immédiatement ; plusieurs saisies
+ * de la même note (même étudiant, même matière au sens de Note.cleMatiere) sont fusionnées, seule la dernière est écrite.
+ * Un thread d'arrière-plan vide la file par lots transactionnels (NoteDAO.upsertNotes) toutes les
+ * writeBehind.flushIntervalMs ms, ou dès que writeBehind.batchSize notes sont en attente.
+ * <p>
+ * Chaque saisie est d'abord ajoutée à un journal local (writeBehind.journal), forcé sur disque.
+ * Une ligne "F" y marque ensuite chaque lot écrit. Au démarrage, les saisies du journal postérieures
+ * au dernier lot écrit sont remises en file : rien n'est perdu si l'application s'arrête brutalement
+ * ou si MySQL est momentanément inaccessible.
+ * <p>
+ * Aucun lot n'est écrit avant que la base soit prête (migrations terminées, voir AsyncDao.whenReady) :
+ * les saisies rejouées au démarrage attendent en file, et dans le journal.
+ */
+public class NoteWriteBehind {
+
+    private static final long MAX_RETRY_DELAY_MILLIS = 60_000;
+
+    private static volatile NoteWriteBehind instance;
+
+    private final NoteDAO noteDAO;
+    private final Path journalPath;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final ScheduledExecutorService flusher;
+    private final CompletableFuture<?> baseReady;
+
+    private final Object lock = new Object();
+    // Saisies en attente par note, dans l'ordre croissant de leur numéro de séquence
+    private final LinkedHashMap<String, Ecriture> enAttente = new LinkedHashMap<>();
+    private long sequence;
+    private FileChannel journal;
+
+    // Utilisés seulement par le thread d'écriture
+    private long retryDelayMillis;
+    private long nextAttemptNanos;
+
+    private volatile NoteWriteBehindListener listener;
+
+    /**
+     * @return L'instance partagée ; sa création rejoue le journal laissé par une exécution précédente.
+     */
+    public static NoteWriteBehind getInstance() {
+        NoteWriteBehind current = instance;
+        if (current == null) {
+            synchronized (NoteWriteBehind.class) {
+                current = instance;
+                if (current == null) {
+                    Path defaultJournal = Paths.get(System.getProperty("user.home"), ".gestion-notes", "notes-journal.log");
+                    current = new NoteWriteBehind(new NoteDAO(),
+                            Paths.get(AppConfig.get("writeBehind.journal", defaultJournal.toString())),
+                            AppConfig.getInt("writeBehind.batchSize", 200),
+                            AppConfig.getLong("writeBehind.flushIntervalMs", 2000),
+                            AsyncDao.getInstance().whenReady());
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Écrit les notes en attente et arrête l'instance partagée, si elle a été créée.
+     * Les notes qui n'ont pas pu être écrites restent dans le journal.
+     */
+    public static void shutdownInstance() {
+        NoteWriteBehind current;
+        synchronized (NoteWriteBehind.class) {
+            current = instance;
+            instance = null;
+        }
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+
+    /**
+     * @param baseReady Terminé quand la base peut être écrite ; les lots ne sont écrits qu'ensuite.
+     */
+    public NoteWriteBehind(NoteDAO noteDAO, Path journalPath, int batchSize, long flushIntervalMillis,
+                           CompletableFuture<?> baseReady) {
+        this.noteDAO = noteDAO;
+        this.baseReady = baseReady;
+        this.journalPath = journalPath;
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = flushIntervalMillis;
+        try {
+            replayJournal();
+        } catch (IOException e) {
+            System.err.println("Saisie différée: journal " + journalPath + " inutilisable (" + e.getMessage() + ").");
+            e.printStackTrace();
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "note-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::scheduledFlush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void setListener(NoteWriteBehindListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Met une note en file d'attente. Une note déjà en attente pour le même étudiant et la même matière est remplacée.
+     * @param note La note à enregistrer (etudiantId, matiere, noteDevoir, noteExamen).
+     * @throws IOException si la note n'a pas pu être écrite dans le journal ; elle n'est alors pas mise en file.
+     */
+    public void enqueue(Note note) throws IOException {
+        Note copie = new Note(0, note.getEtudiantId(), note.getNomEtudiant(), note.getPrenomEtudiant(),
+                note.getMatiere(), note.getNoteDevoir(), note.getNoteExamen());
+        int taille;
+        synchronized (lock) {
+            if (journal == null) {
+                throw new IOException("Journal de saisie différée indisponible : " + journalPath);
+            }
+            long seq = sequence + 1;
+            appendJournal(entryLine(seq, copie));
+            sequence = seq;
+            String cle = cle(copie);
+            // Retirer puis remettre place la note en fin de file : l'ordre reste celui des numéros de séquence
+            enAttente.remove(cle);
+            enAttente.put(cle, new Ecriture(seq, copie));
+            taille = enAttente.size();
+        }
+        notifyPending(taille);
+        if (taille >= batchSize) {
+            flusher.execute(this::flushAll);
+        }
+    }
+
+    /**
+     * @return Les notes en attente d'écriture pour un étudiant (copies).
+     */
+    public List<Note> getPending(int etudiantId) {
+        List<Note> notes = new ArrayList<>();
+        synchronized (lock) {
+            for (Ecriture ecriture : enAttente.values()) {
+                Note note = ecriture.note;
+                if (note.getEtudiantId() == etudiantId) {
+                    notes.add(new Note(0, etudiantId, note.getNomEtudiant(), note.getPrenomEtudiant(),
+                            note.getMatiere(), note.getNoteDevoir(), note.getNoteExamen()));
+                }
+            }
+        }
+        return notes;
+    }
+
+    public int getPendingCount() {
+        synchronized (lock) {
+            return enAttente.size();
+        }
+    }
+
+    /**
+     * Écrit immédiatement toutes les notes en attente, en attendant la fin de l'écriture.
+     * À appeler hors du thread JavaFX, par exemple avant une suppression qui doit voir les notes saisies.
+     * @return true si plus aucune note n'est en attente.
+     */
+    public boolean flushNow() {
+        try {
+            baseReady.get();
+            flusher.submit(this::flushAll).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        }
+        return getPendingCount() == 0;
+    }
+
+    private void scheduledFlush() {
+        if (System.nanoTime() - nextAttemptNanos < 0) {
+            return; // Attente avant de réessayer après une panne
+        }
+        flushAll();
+    }
+
+    /**
+     * Vide la file lot par lot. Exécuté uniquement sur le thread d'écriture.
+     */
+    private void flushAll() {
+        if (!baseReady.isDone()) {
+            return; // Migrations en cours : les notes restent en file et dans le journal
+        }
+        try {
+            while (flushBatch()) {
+                // Lot suivant
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Écrit le prochain lot de la file.
+     * @return true si un lot a été écrit et qu'il peut en rester d'autres.
+     */
+    private boolean flushBatch() {
+        List<Ecriture> lot = new ArrayList<>();
+        synchronized (lock) {
+            for (Ecriture ecriture : enAttente.values()) {
+                if (lot.size() == batchSize) {
+                    break;
+                }
+                lot.add(ecriture);
+            }
+        }
+        if (lot.isEmpty()) {
+            return false;
+        }
+
+        List<Note> notes = new ArrayList<>(lot.size());
+        for (Ecriture ecriture : lot) {
+            notes.add(ecriture.note);
+        }
+        List<Note> rejetees = new ArrayList<>();
+        try {
+            for (Note ignoree : noteDAO.upsertNotes(notes)) {
+                rejetees.add(ignoree);
+                notifyRejected(ignoree, "Étudiant introuvable.");
+            }
+        } catch (SQLException e) {
+            if (isTransient(e)) {
+                retryLater(e);
+                return false;
+            }
+            // Erreur propre à une note : chaque note est réessayée seule pour n'écarter que les fautives
+            for (Note note : notes) {
+                try {
+                    for (Note ignoree : noteDAO.upsertNotes(Collections.singletonList(note))) {
+                        rejetees.add(ignoree);
+                        notifyRejected(ignoree, "Étudiant introuvable.");
+                    }
+                } catch (SQLException erreurNote) {
+                    if (isTransient(erreurNote)) {
+                        retryLater(erreurNote);
+                        return false;
+                    }
+                    rejetees.add(note);
+                    notifyRejected(note, erreurNote.getMessage());
+                }
+            }
+        }
+        retryDelayMillis = 0;
+        nextAttemptNanos = System.nanoTime();
+
+        Set<Integer> etudiantIds = new HashSet<>();
+        int taille;
+        synchronized (lock) {
+            // Les notes ressaisies pendant l'écriture ont un numéro plus récent et restent en file
+            for (Ecriture ecriture : lot) {
+                String cle = cle(ecriture.note);
+                Ecriture actuelle = enAttente.get(cle);
+                if (actuelle != null && actuelle.sequence == ecriture.sequence) {
+                    enAttente.remove(cle);
+                }
+                etudiantIds.add(ecriture.note.getEtudiantId());
+            }
+            markFlushed(lot.get(lot.size() - 1).sequence);
+            taille = enAttente.size();
+        }
+        for (Note rejetee : rejetees) {
+            etudiantIds.remove(rejetee.getEtudiantId());
+        }
+        notifyPending(taille);
+        NoteWriteBehindListener current = listener;
+        if (current != null && !etudiantIds.isEmpty()) {
+            current.onFlushed(etudiantIds);
+        }
+        return taille > 0;
+    }
+
+    private static boolean isTransient(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLTransientException || e instanceof SQLRecoverableException
+                || (state != null && state.startsWith("08"));
+    }
+
+    private void retryLater(SQLException e) {
+        retryDelayMillis = retryDelayMillis == 0 ? flushIntervalMillis : Math.min(retryDelayMillis * 2, MAX_RETRY_DELAY_MILLIS);
+        nextAttemptNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryDelayMillis);
+        NoteWriteBehindListener current = listener;
+        if (current != null) {
+            current.onFlushFailed(e);
+        }
+    }
+
+    private void notifyPending(int taille) {
+        NoteWriteBehindListener current = listener;
+        if (current != null) {
+            current.onPendingChanged(taille);
+        }
+    }
+
+    private void notifyRejected(Note note, String message) {
+        System.err.println("Saisie différée: note abandonnée (étudiant " + note.getEtudiantId() + ", "
+                + note.getMatiere() + ") : " + message);
+        NoteWriteBehindListener current = listener;
+        if (current != null) {
+            current.onRejected(note, message);
+        }
+    }
+
+    /**
+     * Écrit les notes en attente (au plus quelques secondes) puis arrête le thread d'écriture et ferme le journal.
+     */
+    public void shutdown() {
+        flusher.execute(this::flushAll);
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher.shutdownNow();
+        synchronized (lock) {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                journal = null;
+            }
+        }
+    }
+
+    // --- Journal ---
+
+    /**
+     * Relit le journal, remet en file les saisies non écrites, puis réécrit le journal avec ces seules saisies.
+     */
+    private void replayJournal() throws IOException {
+        Files.createDirectories(journalPath.toAbsolutePath().getParent());
+        LinkedHashMap<String, Ecriture> restantes = new LinkedHashMap<>();
+        if (Files.exists(journalPath)) {
+            long ecritJusqua = 0;
+            List<Ecriture> ecritures = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String[] champs = line.split("\t");
+                    try {
+                        if (champs.length == 2 && champs[0].equals("F")) {
+                            ecritJusqua = Math.max(ecritJusqua, Long.parseLong(champs[1]));
+                        } else if (champs.length == 6 && champs[0].equals("P")) {
+                            long seq = Long.parseLong(champs[1]);
+                            Note note = new Note(0, Integer.parseInt(champs[2]), null, null,
+                                    URLDecoder.decode(champs[3], StandardCharsets.UTF_8),
+                                    Double.parseDouble(champs[4]), Double.parseDouble(champs[5]));
+                            ecritures.add(new Ecriture(seq, note));
+                        }
+                    } catch (IllegalArgumentException e) {
+                        // Dernière ligne tronquée par un arrêt brutal : ignorée
+                    }
+                }
+            }
+            for (Ecriture ecriture : ecritures) {
+                if (ecriture.sequence > ecritJusqua) {
+                    String cle = cle(ecriture.note);
+                    restantes.remove(cle);
+                    restantes.put(cle, ecriture);
+                }
+            }
+        }
+
+        // Réécriture compacte dans un fichier temporaire, puis remplacement du journal
+        Path temporaire = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        StringBuilder contenu = new StringBuilder();
+        long seq = 0;
+        for (Map.Entry<String, Ecriture> entry : restantes.entrySet()) {
+            Ecriture renumerotee = new Ecriture(++seq, entry.getValue().note);
+            entry.setValue(renumerotee);
+            contenu.append(entryLine(renumerotee.sequence, renumerotee.note));
+        }
+        Files.write(temporaire, contenu.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.move(temporaire, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaire, journalPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        synchronized (lock) {
+            enAttente.putAll(restantes);
+            sequence = seq;
+            journal = FileChannel.open(journalPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        if (!restantes.isEmpty()) {
+            System.out.println("Saisie différée: " + restantes.size() + " note(s) du journal remise(s) en file.");
+        }
+    }
+
+    /** Doit être appelé sous le verrou. */
+    private void markFlushed(long jusqua) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            if (enAttente.isEmpty()) {
+                journal.truncate(0);
+            } else {
+                appendJournal("F\t" + jusqua + "\n");
+            }
+        } catch (IOException e) {
+            // Sans la marque, le lot sera réécrit au prochain démarrage : l'écriture est idempotente
+            e.printStackTrace();
+        }
+    }
+
+    /** Doit être appelé sous le verrou. */
+    private void appendJournal(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            journal.write(buffer);
+        }
+        journal.force(false);
+    }
+
+    private static String entryLine(long seq, Note note) {
+        return "P\t" + seq + "\t" + note.getEtudiantId() + "\t" + URLEncoder.encode(note.getMatiere(), StandardCharsets.UTF_8)
+                + "\t" + note.getNoteDevoir() + "\t" + note.getNoteExamen() + "\n";
+    }
+
+    private static String cle(Note note) {
+        // Même clé que la base : deux saisies fusionnées ici sont une seule ligne de la table note
+        return note.getEtudiantId() + "\u0000" + Note.cleMatiere(note.getMatiere());
+    }
+
+    private static final class Ecriture {
+        private final long sequence;
+        private final Note note;
+
+        private Ecriture(long sequence, Note note) {
+            this.sequence = sequence;
+            this.note = note;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Note;
+
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Écouteur de la saisie différée des notes. Les méthodes sont appelées sur le thread d'écriture,
+ * pas sur le thread JavaFX.
+ */
+public interface NoteWriteBehindListener {
+
+    /**
+     * Appelé quand le nombre de notes en attente d'écriture change.
+     */
+    void onPendingChanged(int enAttente);
+
+    /**
+     * Appelé après l'écriture d'un lot, avec les étudiants dont les notes ont été enregistrées.
+     */
+    void onFlushed(Set<Integer> etudiantIds);
+
+    /**
+     * Appelé quand la base est momentanément inaccessible : les notes restent en attente et seront réessayées.
+     */
+    void onFlushFailed(SQLException e);
+
+    /**
+     * Appelé pour une note refusée par la base (étudiant supprimé, valeur invalide) : elle est abandonnée.
+     */
+    void onRejected(Note note, String message);
+}
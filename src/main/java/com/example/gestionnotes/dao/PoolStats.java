@@ -0,0 +1,68 @@
+package com.example.gestionnotes.dao;
+
+/**
+ * Instantané des métriques du pool de connexions.
+ */
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int waiting;
+    private final int maxSize;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final double averageWaitMillis;
+    private final double maxWaitMillis;
+
+    public PoolStats(int active, int idle, int waiting, int maxSize, long borrowCount, long timeoutCount,
+                     double averageWaitMillis, double maxWaitMillis) {
+        this.active = active;
+        this.idle = idle;
+        this.waiting = waiting;
+        this.maxSize = maxSize;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.averageWaitMillis = averageWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    /** @return Le nombre de connexions actuellement empruntées. */
+    public int getActive() {
+        return active;
+    }
+
+    /** @return Le nombre de connexions ouvertes et disponibles. */
+    public int getIdle() {
+        return idle;
+    }
+
+    /** @return Le nombre de threads en attente d'une connexion. */
+    public int getWaiting() {
+        return waiting;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public double getAverageWaitMillis() {
+        return averageWaitMillis;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("PoolStats[actives=%d, libres=%d, en attente=%d, max=%d, emprunts=%d, timeouts=%d, attente moy=%.2f ms, attente max=%.2f ms]",
+                active, idle, waiting, maxSize, borrowCount, timeoutCount, averageWaitMillis, maxWaitMillis);
+    }
+}
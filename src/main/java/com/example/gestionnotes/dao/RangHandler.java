@@ -0,0 +1,29 @@
+package com.example.gestionnotes.dao;
+
+/**
+ * Reçoit un à un les rangs parcourus par NoteRepository.scanRangs() : le rang de chaque étudiant dans sa filière
+ * (sur sa moyenne générale) et dans chaque matière où il a une note (sur la moyenne de cette note).
+ */
+@FunctionalInterface
+public interface RangHandler {
+
+    /** Classement d'une filière, sur la moyenne générale des étudiants. */
+    String FILIERE = "F";
+    /** Classement d'une matière, sur la moyenne de la note des étudiants. */
+    String MATIERE = "M";
+
+    /**
+     * @param portee FILIERE ou MATIERE.
+     * @param cle La filière ou la matière.
+     * @param rang 1 + le nombre d'étudiants du classement ayant une moyenne strictement supérieure (RANK() en SQL).
+     */
+    void onRang(String portee, String cle, int etudiantId, double moyenne, int rang);
+
+    /**
+     * Moyenne arrondie au millionième, sur laquelle les rangs sont calculés : les calculs de la base et de Java,
+     * qui peuvent différer au dernier bit près, donnent ainsi les mêmes ex æquo.
+     */
+    static long points(double moyenne) {
+        return Math.round(moyenne * 1_000_000);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.config.AppConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Fournit les accès aux étudiants et aux notes selon le stockage choisi par la clé storage.backend :
+ * <ul>
+ *     <li>jdbc (par défaut) : base MySQL, derrière les caches CachedEtudiantDAO et CachedNoteDAO ;</li>
+ *     <li>memory : MemoryStore, sans base de données (hors ligne, démonstration, mesures de performance).
+ *     Si la clé storage.memory.snapshot désigne un fichier, les données y sont relues au démarrage et
+ *     enregistrées à la fermeture (saveMemoryStore) ; sinon, elles sont perdues à la fermeture.</li>
+ * </ul>
+ * Chaque appel est mesuré (DaoMetrics) : durée, requêtes SQL, lignes et erreurs par méthode, publiées en JMX.
+ */
+public final class Repositories {
+
+    public static final String JDBC = "jdbc";
+    public static final String MEMORY = "memory";
+
+    private static final String BACKEND = AppConfig.get("storage.backend", JDBC).trim().toLowerCase();
+
+    private static volatile MemoryStore memoryStore;
+    // Instantané du stockage en mémoire ; null s'il n'y en a pas ou s'il n'a pas pu être relu
+    private static Path snapshot;
+
+    private Repositories() {
+    }
+
+    /**
+     * @return true si l'application travaille en mémoire, sans base de données.
+     */
+    public static boolean isMemoryBackend() {
+        return MEMORY.equals(BACKEND);
+    }
+
+    public static EtudiantRepository getEtudiantRepository() {
+        EtudiantRepository repository = isMemoryBackend() ? getMemoryStore().getEtudiantDAO() : CachedEtudiantDAO.getInstance();
+        return DaoMetrics.instrument(EtudiantRepository.class, repository);
+    }
+
+    public static NoteRepository getNoteRepository() {
+        NoteRepository repository = isMemoryBackend() ? getMemoryStore().getNoteDAO() : CachedNoteDAO.getInstance();
+        return DaoMetrics.instrument(NoteRepository.class, repository);
+    }
+
+    private static MemoryStore getMemoryStore() {
+        MemoryStore current = memoryStore;
+        if (current == null) {
+            synchronized (Repositories.class) {
+                current = memoryStore;
+                if (current == null) {
+                    current = openMemoryStore();
+                    memoryStore = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static MemoryStore openMemoryStore() {
+        String fichier = AppConfig.get("storage.memory.snapshot", "");
+        if (fichier.isEmpty()) {
+            return new MemoryStore();
+        }
+        MemoryStore store = new MemoryStore();
+        try {
+            store.load(Paths.get(fichier));
+            snapshot = Paths.get(fichier);
+            return store;
+        } catch (IOException e) {
+            // L'instantané n'est pas écrasé à la fermeture : il peut encore être réparé ou relu
+            System.err.println("Erreur: instantané " + fichier + " illisible, stockage en mémoire vide et non enregistré.");
+            e.printStackTrace();
+            return new MemoryStore();
+        }
+    }
+
+    /**
+     * Enregistre le stockage en mémoire dans son instantané (storage.memory.snapshot), s'il a été ouvert avec un.
+     * Sans effet avec la base MySQL.
+     */
+    public static void saveMemoryStore() {
+        MemoryStore current;
+        Path fichier;
+        synchronized (Repositories.class) {
+            current = memoryStore;
+            fichier = snapshot;
+        }
+        if (current == null || fichier == null) {
+            return;
+        }
+        try {
+            current.save(fichier);
+        } catch (IOException e) {
+            System.err.println("Erreur: enregistrement de l'instantané " + fichier + " impossible.");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.metrics.Metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Journal des requêtes lentes : une ligne par requête SQL plus longue que metrics.slowQuery.thresholdMs,
+ * avec sa durée, le nombre de lignes lues ou modifiées, le thread, la tâche d'arrière-plan et l'appel de DAO
+ * à l'origine de la requête, le texte SQL et ses paramètres.
+ * Pour une requête de lecture, la durée va de son exécution à la fermeture de son résultat,
+ * c'est-à-dire jusqu'à la lecture de la dernière ligne.
+ * <p>
+ * Le journal est écrit dans metrics.slowQuery.file (par défaut ~/.gestion-notes/slow-queries.log).
+ * Un seuil négatif le désactive ; un seuil de 0 enregistre toutes les requêtes.
+ */
+final class SlowQueryLog {
+
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static final SlowQueryLog instance = create();
+
+    private final long thresholdNanos;
+    private final Path path;
+    private BufferedWriter writer;
+    private boolean failed;
+
+    private SlowQueryLog(long thresholdMillis, Path path) {
+        this.thresholdNanos = thresholdMillis < 0 ? -1 : thresholdMillis * 1_000_000L;
+        this.path = path;
+    }
+
+    private static SlowQueryLog create() {
+        Path defaultFile = Paths.get(System.getProperty("user.home"), ".gestion-notes", "slow-queries.log");
+        return new SlowQueryLog(AppConfig.getLong("metrics.slowQuery.thresholdMs", 500),
+                Paths.get(AppConfig.get("metrics.slowQuery.file", defaultFile.toString())));
+    }
+
+    static SlowQueryLog getInstance() {
+        return instance;
+    }
+
+    /**
+     * Enregistre la requête si elle dépasse le seuil.
+     * @param parameters Les paramètres liés (indice 1 à n), ou null.
+     * @param batchSize Le nombre de lignes du lot pour executeBatch(), 0 sinon ; les paramètres ne sont alors pas écrits.
+     */
+    void record(String sql, Object[] parameters, int batchSize, long nanos, long rows, boolean error) {
+        if (thresholdNanos < 0 || nanos < thresholdNanos) {
+            return;
+        }
+        StringBuilder line = new StringBuilder(256);
+        line.append(LocalDateTime.now().format(TIMESTAMP))
+                .append(" | ").append(String.format(Locale.ROOT, "%.1f ms", nanos / 1_000_000.0))
+                .append(" | ").append(rows).append(rows > 1 ? " lignes" : " ligne")
+                .append(" | ").append(Thread.currentThread().getName())
+                .append(" | tâche ").append(orDash(Metrics.currentTask()))
+                .append(" | ").append(orDash(DaoMetrics.currentOperation()));
+        if (error) {
+            line.append(" | ERREUR");
+        }
+        line.append(" | ").append(sql == null ? "-" : sql.replaceAll("\\s+", " ").trim());
+        if (batchSize > 0) {
+            line.append(" | lot de ").append(batchSize);
+        } else {
+            appendParameters(line, parameters);
+        }
+        write(line.toString());
+    }
+
+    private static String orDash(String value) {
+        return value != null ? value : "-";
+    }
+
+    private static void appendParameters(StringBuilder line, Object[] parameters) {
+        line.append(" | [");
+        if (parameters != null) {
+            for (int i = 1; i < parameters.length; i++) {
+                if (i > 1) {
+                    line.append(", ");
+                }
+                Object value = parameters[i];
+                if (value instanceof String) {
+                    String text = (String) value;
+                    if (text.length() > MAX_PARAMETER_LENGTH) {
+                        text = text.substring(0, MAX_PARAMETER_LENGTH) + "…";
+                    }
+                    line.append('\'').append(text).append('\'');
+                } else {
+                    line.append(value);
+                }
+            }
+        }
+        line.append(']');
+    }
+
+    private synchronized void write(String line) {
+        if (failed) {
+            return;
+        }
+        try {
+            if (writer == null) {
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(line);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            // Le journal est abandonné plutôt que de ralentir chaque requête lente par une nouvelle tentative
+            failed = true;
+            System.err.println("Requêtes lentes: journal " + path + " inutilisable (" + e.getMessage() + ").");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.gestionnotes.dao;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Mémorise la dernière requête préparée sur une connexion du pool par une unité de travail annulable
+ * (une tâche de TaskScheduler), afin de pouvoir l'annuler (Statement.cancel()) depuis un autre thread.
+ * L'annulation vise la portée (Scope) de cette unité de travail et non son thread : une fois la portée
+ * quittée, le thread peut exécuter une autre tâche, par exemple une écriture, sans risque d'être annulé.
+ * Les requêtes exécutées hors d'une portée ne sont pas suivies.
+ */
+public final class StatementTracker {
+
+    private static final ThreadLocal<Scope> current = new ThreadLocal<>();
+
+    private StatementTracker() {
+    }
+
+    /**
+     * Associe la portée au thread courant, jusqu'à l'appel de exit.
+     */
+    public static void enter(Scope scope) {
+        current.set(scope);
+    }
+
+    /**
+     * Dissocie la portée du thread courant ; elle ne peut plus rien annuler ensuite.
+     */
+    public static void exit(Scope scope) {
+        current.remove();
+        scope.close();
+    }
+
+    /**
+     * @return true si la portée du thread courant a été annulée : une SQLException levée par sa requête
+     * vient alors de l'annulation et n'est pas une erreur à signaler.
+     */
+    public static boolean isCancelled() {
+        Scope scope = current.get();
+        return scope != null && scope.isCancelled();
+    }
+
+    static void register(Statement statement) {
+        Scope scope = current.get();
+        if (scope != null) {
+            scope.register(statement);
+        }
+    }
+
+    static void unregister() {
+        Scope scope = current.get();
+        if (scope != null) {
+            scope.unregister();
+        }
+    }
+
+    /**
+     * Portée d'une unité de travail annulable. La requête suivie est posée, retirée et annulée
+     * sous le verrou de la portée : une connexion ne peut pas être rendue au pool pendant son annulation.
+     */
+    public static final class Scope {
+        private Statement statement;
+        private boolean cancelled;
+        private boolean closed;
+
+        /**
+         * Annule côté serveur la requête en cours, s'il y en a une ; une requête préparée ensuite
+         * dans cette portée est annulée aussitôt.
+         * @return true si une requête a été annulée.
+         */
+        public synchronized boolean cancel() {
+            cancelled = true;
+            if (closed || statement == null) {
+                return false;
+            }
+            return cancel(statement);
+        }
+
+        public synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        private synchronized void register(Statement statement) {
+            if (closed) {
+                return;
+            }
+            this.statement = statement;
+            if (cancelled) {
+                cancel(statement);
+            }
+        }
+
+        private synchronized void unregister() {
+            statement = null;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            statement = null;
+        }
+
+        private static boolean cancel(Statement statement) {
+            try {
+                statement.cancel();
+                return true;
+            } catch (SQLException e) {
+                // La requête est peut-être déjà terminée ou fermée
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.gestionnotes.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture en flux d'un fichier CSV (RFC 4180), enregistrement par enregistrement.
+ * Les champs entre guillemets peuvent contenir des virgules, des sauts de ligne et des guillemets doublés ("").
+ * Les fins de ligne CRLF et LF sont acceptées, et une marque d'ordre des octets (BOM) initiale est ignorée.
+ */
+public class CsvReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long charsRead;
+    private int lineNumber = 1;
+    private int recordLineNumber;
+    private boolean started;
+
+    private final StringBuilder field = new StringBuilder();
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Lit l'enregistrement suivant.
+     * @return Les champs de l'enregistrement, ou null à la fin du fichier.
+     * @throws IOException si la lecture échoue ou si un champ entre guillemets n'est pas refermé.
+     */
+    public List<String> readRecord() throws IOException {
+        int c = read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = read();
+            }
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLineNumber = lineNumber;
+        List<String> fields = new ArrayList<>();
+        field.setLength(0);
+
+        while (true) {
+            if (c == '"' && field.length() == 0) {
+                readQuoted();
+                c = read();
+                // Après le guillemet fermant, seuls un séparateur ou une fin de ligne sont attendus ;
+                // un texte parasite est conservé tel quel plutôt que de rejeter tout le fichier.
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (c != -1) {
+                    lineNumber++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private void readQuoted() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw new IOException("Ligne " + recordLineNumber + " : guillemet non refermé.");
+            }
+            if (c == '"') {
+                if (peek() != '"') {
+                    return;
+                }
+                read();
+            } else if (c == '\n' || (c == '\r' && peek() != '\n')) {
+                lineNumber++;
+            }
+            field.append((char) c);
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        charsRead++;
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int n = reader.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = n;
+        return true;
+    }
+
+    /** @return Le numéro de la ligne (à partir de 1) où commence le dernier enregistrement lu. */
+    public int getRecordLineNumber() {
+        return recordLineNumber;
+    }
+
+    /** @return Le nombre de caractères lus depuis le début, pour estimer la progression. */
+    public long getCharsRead() {
+        return charsRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.gestionnotes.io;
+
+/**
+ * Reçoit l'avancement d'un import, par exemple pour le relayer à Task.updateProgress().
+ */
+@FunctionalInterface
+public interface ImportProgress {
+
+    void update(long fait, long total);
+}
@@ -0,0 +1,197 @@
+package com.example.gestionnotes.io;
+
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.dao.EtudiantRepository;
+import com.example.gestionnotes.dao.NoteBulkUpsert;
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.ImportReport;
+import com.example.gestionnotes.model.NoteRecord;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Import en flux d'un fichier CSV de notes, avec une ligne d'en-tête. Deux formats sont acceptés :
+ * <ul>
+ *     <li>Id,Matiere,Note Devoir,Note Examen</li>
+ *     <li>Nom,Prenom,Filiere,Matiere,Note Devoir,Note Examen (le format de l'export des notes ;
+ *     les colonnes suivantes sont ignorées)</li>
+ * </ul>
+ * Les étudiants sont chargés une seule fois et retrouvés dans une table de hachage, sans requête par ligne.
+ * Une note déjà saisie pour le même étudiant et la même matière est remplacée.
+ * L'enregistrement est tout ou rien : si la base refuse un lot, aucune note n'est enregistrée.
+ */
+public class NoteCsvImporter {
+
+    // Clé d'un étudiant homonyme d'un autre : la ligne ne peut pas être rattachée
+    private static final int HOMONYME = -1;
+
+    private final EtudiantRepository etudiantDAO;
+    private final NoteRepository noteDAO;
+    private final int tailleLot;
+
+    public NoteCsvImporter(EtudiantRepository etudiantDAO, NoteRepository noteDAO) {
+        this(etudiantDAO, noteDAO, AppConfig.getInt("import.chunkSize", 5000));
+    }
+
+    public NoteCsvImporter(EtudiantRepository etudiantDAO, NoteRepository noteDAO, int tailleLot) {
+        if (tailleLot < 1) {
+            throw new IllegalArgumentException("Taille de lot invalide : " + tailleLot);
+        }
+        this.etudiantDAO = etudiantDAO;
+        this.noteDAO = noteDAO;
+        this.tailleLot = tailleLot;
+    }
+
+    /**
+     * Importe un fichier CSV de notes encodé en UTF-8.
+     * @param file Le fichier à importer.
+     * @param simulation true pour seulement valider le fichier, sans rien enregistrer.
+     * @param progress Reçoit l'avancement de la lecture du fichier.
+     * @return Le compte rendu : en simulation, le nombre de notes qui seraient enregistrées.
+     * @throws IOException si le fichier ne peut pas être lu.
+     * @throws SQLException si la base de données est inaccessible ou refuse les notes.
+     */
+    public ImportReport importer(File file, boolean simulation, ImportProgress progress) throws IOException, SQLException {
+        ImportReport report = new ImportReport();
+        long total = Math.max(1, file.length());
+
+        List<Etudiant> etudiants = etudiantDAO.getAllEtudiants();
+        Set<Integer> ids = new HashSet<>(etudiants.size() * 2);
+        Map<String, Integer> idParNom = new HashMap<>(etudiants.size() * 2);
+        for (Etudiant etudiant : etudiants) {
+            ids.add(etudiant.getId());
+            idParNom.merge(cle(etudiant.getNom(), etudiant.getPrenom(), etudiant.getFiliere()), etudiant.getId(),
+                    (a, b) -> HOMONYME);
+        }
+        etudiants = null; // Seules les tables de recherche sont gardées pendant l'import
+
+        List<NoteRecord> lot = new ArrayList<>(tailleLot);
+        try (CsvReader csv = new CsvReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+             NoteBulkUpsert upsert = simulation ? null : noteDAO.openBulkUpsert()) {
+
+            csv.readRecord(); // En-tête
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                int ligne = csv.getRecordLineNumber();
+                if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                    continue; // Ligne vide
+                }
+                try {
+                    lot.add(parse(record, ids, idParNom));
+                } catch (IllegalArgumentException e) {
+                    report.reject(ligne, e.getMessage());
+                    continue;
+                }
+                if (lot.size() == tailleLot) {
+                    flush(upsert, lot, report);
+                    progress.update(Math.min(csv.getCharsRead(), total), total);
+                }
+            }
+            flush(upsert, lot, report);
+            if (upsert != null) {
+                upsert.commit();
+            }
+            progress.update(total, total);
+        }
+        return report;
+    }
+
+    private static void flush(NoteBulkUpsert upsert, List<NoteRecord> lot, ImportReport report) throws SQLException {
+        if (upsert != null) {
+            upsert.upsertLot(lot);
+        }
+        report.addImportees(lot.size());
+        lot.clear();
+    }
+
+    /**
+     * Convertit une ligne du fichier en NoteRecord.
+     * @throws IllegalArgumentException avec le motif du rejet si la ligne est invalide.
+     */
+    private static NoteRecord parse(List<String> record, Set<Integer> ids, Map<String, Integer> idParNom) {
+        int etudiantId;
+        int colonne;
+        Integer id = record.size() >= 4 ? parseId(record.get(0)) : null;
+        if (id != null) {
+            if (!ids.contains(id)) {
+                throw new IllegalArgumentException("Aucun étudiant avec l'identifiant " + id + ".");
+            }
+            etudiantId = id;
+            colonne = 1;
+        } else if (record.size() >= 6) {
+            String nom = record.get(0).trim();
+            String prenom = record.get(1).trim();
+            String filiere = record.get(2).trim();
+            Integer trouve = idParNom.get(cle(nom, prenom, filiere));
+            if (trouve == null) {
+                throw new IllegalArgumentException("Étudiant inconnu : " + prenom + " " + nom + " (" + filiere + ").");
+            }
+            if (trouve == HOMONYME) {
+                throw new IllegalArgumentException("Plusieurs étudiants " + prenom + " " + nom + " en " + filiere
+                        + " : utilisez leur identifiant.");
+            }
+            etudiantId = trouve;
+            colonne = 3;
+        } else {
+            throw new IllegalArgumentException("Format non reconnu : Id,Matiere,Devoir,Examen ou "
+                    + "Nom,Prenom,Filiere,Matiere,Devoir,Examen attendu.");
+        }
+
+        String matiere = record.get(colonne).trim();
+        if (matiere.isEmpty()) {
+            throw new IllegalArgumentException("Matière manquante.");
+        }
+        if (matiere.length() > StudentCsvImporter.LONGUEUR_MAX) {
+            throw new IllegalArgumentException("Matière trop longue (" + matiere.length() + " caractères, "
+                    + StudentCsvImporter.LONGUEUR_MAX + " au plus).");
+        }
+        double noteDevoir = parseNote(record.get(colonne + 1), "de devoir");
+        double noteExamen = parseNote(record.get(colonne + 2), "d'examen");
+        return new NoteRecord(0, etudiantId, matiere, noteDevoir, noteExamen);
+    }
+
+    private static Integer parseId(String valeur) {
+        try {
+            return Integer.valueOf(valeur.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lit une note entre 0 et 20 ; la virgule est acceptée comme séparateur décimal.
+     */
+    private static double parseNote(String valeur, String libelle) {
+        String texte = valeur.trim().replace(',', '.');
+        if (texte.isEmpty()) {
+            throw new IllegalArgumentException("Note " + libelle + " manquante.");
+        }
+        double note;
+        try {
+            note = Double.parseDouble(texte);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Note " + libelle + " invalide : " + valeur.trim() + ".");
+        }
+        if (note < 0 || note > 20 || Double.isNaN(note)) {
+            throw new IllegalArgumentException("La note " + libelle + " doit être comprise entre 0 et 20 : " + valeur.trim() + ".");
+        }
+        return note;
+    }
+
+    private static String cle(String nom, String prenom, String filiere) {
+        return (nom.trim() + '\u0000' + prenom.trim() + '\u0000' + filiere.trim()).toLowerCase(Locale.ROOT);
+    }
+}
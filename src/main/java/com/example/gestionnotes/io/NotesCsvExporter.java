@@ -0,0 +1,55 @@
+package com.example.gestionnotes.io;
+
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.model.GradingPolicy;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormat;
+
+/**
+ * Export CSV des notes en flux : chaque ligne lue dans la base est écrite aussitôt dans le fichier,
+ * la mémoire utilisée ne dépend donc pas du nombre de notes exportées.
+ */
+public class NotesCsvExporter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final NoteRepository noteDAO;
+
+    public NotesCsvExporter(NoteRepository noteDAO) {
+        this.noteDAO = noteDAO;
+    }
+
+    /**
+     * Exporte les notes d'une filière (ou de toutes) dans un fichier CSV encodé en UTF-8.
+     * @param filiere La filière à exporter, ou null pour toutes les filières.
+     * @param file Le fichier de destination.
+     * @return Le nombre de notes exportées.
+     * @throws IOException si l'écriture ou la lecture des notes échoue.
+     */
+    public long export(String filiere, File file) throws IOException {
+        DecimalFormat df = new DecimalFormat("#.##");
+        GradingPolicy bareme = GradingPolicy.getCurrent();
+        try (CsvWriter csv = new CsvWriter(new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE))) {
+            csv.writeRow("Nom Etudiant", "Prenom Etudiant", "Filiere", "Matiere", "Note Devoir", "Note Examen", "Moyenne", "Statut");
+
+            long count = noteDAO.exportNotes(filiere, (nom, prenom, noteFiliere, matiere, noteDevoir, noteExamen) -> {
+                GradingPolicy.Regle regle = bareme.regle(matiere);
+                double moyenne = regle.moyenne(noteDevoir, noteExamen);
+                csv.writeRow(nom, prenom, noteFiliere, matiere,
+                        String.valueOf(noteDevoir), String.valueOf(noteExamen),
+                        df.format(moyenne), regle.estValide(moyenne) ? GradingPolicy.VALIDE : GradingPolicy.NON_VALIDE);
+            });
+            if (count < 0) {
+                throw new IOException("Erreur lors de la lecture des notes à exporter.");
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.gestionnotes.io;
+
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.dao.EtudiantBulkInsert;
+import com.example.gestionnotes.dao.EtudiantRepository;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.ImportReport;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Import en flux d'un fichier CSV d'étudiants (Nom,Prenom,Filiere, avec une ligne d'en-tête).
+ * Le fichier est lu enregistrement par enregistrement et inséré par lots de import.chunkSize lignes :
+ * seul le lot courant est gardé en mémoire, quelle que soit la taille du fichier.
+ */
+public class StudentCsvImporter {
+
+    // Longueur maximale d'un champ, celle de la colonne filiere dans note_stats
+    static final int LONGUEUR_MAX = 100;
+
+    private final EtudiantRepository etudiantDAO;
+    private final int tailleLot;
+
+    public StudentCsvImporter(EtudiantRepository etudiantDAO) {
+        this(etudiantDAO, AppConfig.getInt("import.chunkSize", 5000));
+    }
+
+    public StudentCsvImporter(EtudiantRepository etudiantDAO, int tailleLot) {
+        if (tailleLot < 1) {
+            throw new IllegalArgumentException("Taille de lot invalide : " + tailleLot);
+        }
+        this.etudiantDAO = etudiantDAO;
+        this.tailleLot = tailleLot;
+    }
+
+    /**
+     * Importe un fichier CSV encodé en UTF-8.
+     * @param file Le fichier à importer.
+     * @param toutOuRien true pour n'enregistrer aucun étudiant si une seule ligne est rejetée ;
+     *                   false pour valider chaque lot et écarter seulement les lignes fautives.
+     * @param progress Reçoit l'avancement de la lecture du fichier.
+     * @return Le compte rendu de l'import.
+     * @throws IOException si le fichier ne peut pas être lu.
+     * @throws SQLException si la base de données est inaccessible.
+     */
+    public ImportReport importer(File file, boolean toutOuRien, ImportProgress progress) throws IOException, SQLException {
+        ImportReport report = new ImportReport();
+        long total = Math.max(1, file.length());
+        List<Etudiant> lot = new ArrayList<>(tailleLot);
+        List<Integer> lignes = new ArrayList<>(tailleLot);
+
+        try (CsvReader csv = new CsvReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+             EtudiantBulkInsert insert = etudiantDAO.openBulkInsert(toutOuRien)) {
+
+            csv.readRecord(); // En-tête
+            List<String> record;
+            while ((record = csv.readRecord()) != null) {
+                int ligne = csv.getRecordLineNumber();
+                if (record.size() == 1 && record.get(0).trim().isEmpty()) {
+                    continue; // Ligne vide
+                }
+                String erreur = valider(record);
+                if (erreur != null) {
+                    report.reject(ligne, erreur);
+                    continue;
+                }
+                // En mode tout ou rien, il est inutile d'insérer après un rejet : la transaction sera annulée
+                if (toutOuRien && report.hasErreurs()) {
+                    continue;
+                }
+                lot.add(new Etudiant(0, record.get(0).trim(), record.get(1).trim(), record.get(2).trim()));
+                lignes.add(ligne);
+                if (lot.size() == tailleLot) {
+                    flush(insert, lot, lignes, report, toutOuRien);
+                    progress.update(Math.min(csv.getCharsRead(), total), total);
+                }
+            }
+            flush(insert, lot, lignes, report, toutOuRien);
+
+            if (toutOuRien && report.hasErreurs()) {
+                report.annuler();
+            } else {
+                insert.commit();
+            }
+            progress.update(total, total);
+        }
+        return report;
+    }
+
+    private void flush(EtudiantBulkInsert insert, List<Etudiant> lot, List<Integer> lignes,
+                       ImportReport report, boolean toutOuRien) throws SQLException {
+        if (lot.isEmpty() || (toutOuRien && report.hasErreurs())) {
+            lot.clear();
+            lignes.clear();
+            return;
+        }
+        try {
+            insert.insertLot(lot, lignes, report);
+        } catch (SQLException e) {
+            // Mode tout ou rien : le lot est rejeté en bloc, la transaction sera annulée
+            report.reject(lignes.get(0), "Lot de " + lot.size() + " lignes refusé par la base : " + e.getMessage());
+        }
+        lot.clear();
+        lignes.clear();
+    }
+
+    private static String valider(List<String> record) {
+        if (record.size() < 3) {
+            return "3 colonnes attendues (Nom,Prenom,Filiere), " + record.size() + " trouvée(s).";
+        }
+        String[] noms = {"Nom", "Prénom", "Filière"};
+        for (int i = 0; i < 3; i++) {
+            String valeur = record.get(i).trim();
+            if (valeur.isEmpty()) {
+                return noms[i] + " manquant.";
+            }
+            if (valeur.length() > LONGUEUR_MAX) {
+                return noms[i] + " trop long (" + valeur.length() + " caractères, " + LONGUEUR_MAX + " au plus).";
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.gestionnotes.metrics;
+
+import com.example.gestionnotes.config.AppConfig;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre des mesures de l'application, publiées comme MBeans JMX sous le domaine
+ * com.example.gestionnotes (consultables avec jconsole ou VisualVM) :
+ * <ul>
+ *     <li>type=Dao : une MBean par méthode de DAO appelée (durée, lignes, requêtes SQL, erreurs) ;</li>
+ *     <li>type=Sql : l'ensemble des requêtes SQL ;</li>
+ *     <li>type=ConnectionPool : le pool de connexions et le temps d'emprunt d'une connexion ;</li>
+ *     <li>type=TaskScheduler et type=Task : les tâches d'arrière-plan, globalement et par clé.</li>
+ * </ul>
+ * La mesure des appels de DAO et des requêtes SQL peut être désactivée par metrics.enabled=false.
+ */
+public final class Metrics {
+
+    public static final String DOMAIN = "com.example.gestionnotes";
+
+    private static final boolean ENABLED = AppConfig.getBoolean("metrics.enabled", true);
+
+    private static final Map<String, OperationMetrics> operations = new ConcurrentHashMap<>();
+
+    // Clé de la tâche d'arrière-plan exécutée par le thread courant, reprise dans le journal des requêtes lentes
+    private static final ThreadLocal<String> currentTask = new ThreadLocal<>();
+
+    private Metrics() {
+    }
+
+    /**
+     * @return true si les appels de DAO et les requêtes SQL doivent être mesurés.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Retourne les mesures d'une opération, créées et publiées au premier appel.
+     * @param type Le type de l'opération dans le nom JMX, par exemple "Dao".
+     * @param name Son nom, par exemple "CachedNoteDAO.getAllNotes".
+     */
+    public static OperationMetrics operation(String type, String name) {
+        String key = type + '/' + name;
+        OperationMetrics metrics = operations.get(key);
+        if (metrics == null) {
+            metrics = operations.computeIfAbsent(key, k -> {
+                OperationMetrics created = new OperationMetrics(name);
+                register(type, name, created);
+                return created;
+            });
+        }
+        return metrics;
+    }
+
+    /**
+     * Publie une MBean, en remplaçant celle de même nom s'il y en a une.
+     * Un échec est signalé sans interrompre l'application : seules les mesures sont perdues.
+     */
+    public static void register(String type, String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(type, name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+        } catch (JMException | RuntimeException e) {
+            System.err.println("Mesures: impossible de publier " + type + "/" + name + " (" + e.getMessage() + ").");
+        }
+    }
+
+    public static void unregister(String type, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = objectName(type, name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException | RuntimeException e) {
+            System.err.println("Mesures: impossible de retirer " + type + "/" + name + " (" + e.getMessage() + ").");
+        }
+    }
+
+    private static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    /**
+     * Indique la tâche d'arrière-plan exécutée par le thread courant.
+     * @param key La clé de la tâche, ou null.
+     * @return La clé précédente, à rétablir par le même appel à la fin de la tâche.
+     */
+    public static String enterTask(String key) {
+        String previous = currentTask.get();
+        if (key == null) {
+            currentTask.remove();
+        } else {
+            currentTask.set(key);
+        }
+        return previous;
+    }
+
+    /**
+     * @return La clé de la tâche d'arrière-plan exécutée par le thread courant, null s'il n'y en a pas.
+     */
+    public static String currentTask() {
+        return currentTask.get();
+    }
+}
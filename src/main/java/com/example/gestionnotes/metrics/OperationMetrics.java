@@ -0,0 +1,110 @@
+package com.example.gestionnotes.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mesures d'une opération : histogramme des durées, erreurs, lignes et requêtes SQL.
+ * Obtenue par Metrics.operation(), qui la publie aussi comme MBean.
+ */
+public final class OperationMetrics implements OperationMetricsMXBean {
+
+    private final String name;
+    private final LatencyHistogram durations = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Enregistre un appel.
+     * @param nanos Sa durée.
+     * @param rowCount Les lignes lues ou modifiées en base.
+     * @param statementCount Les requêtes SQL exécutées.
+     * @param error true si l'appel a échoué.
+     */
+    public void record(long nanos, long rowCount, int statementCount, boolean error) {
+        durations.record(nanos);
+        if (rowCount > 0) {
+            rows.add(rowCount);
+        }
+        if (statementCount > 0) {
+            statements.add(statementCount);
+        }
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    public void record(long nanos) {
+        durations.record(nanos);
+    }
+
+    public LatencyHistogram getDurations() {
+        return durations;
+    }
+
+    @Override
+    public long getCount() {
+        return durations.count();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    @Override
+    public double getTotalMillis() {
+        return durations.totalNanos() / 1_000_000.0;
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return durations.meanNanos() / 1_000_000.0;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return durations.percentileNanos(50) / 1_000_000.0;
+    }
+
+    @Override
+    public double getP95Millis() {
+        return durations.percentileNanos(95) / 1_000_000.0;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return durations.percentileNanos(99) / 1_000_000.0;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return durations.maxNanos() / 1_000_000.0;
+    }
+
+    @Override
+    public void reset() {
+        durations.reset();
+        errors.reset();
+        rows.reset();
+        statements.reset();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.gestionnotes.metrics;
+
+/**
+ * Vue JMX des mesures d'une opération (appel de DAO, requête SQL, tâche d'arrière-plan).
+ * Les durées sont en millisecondes.
+ */
+public interface OperationMetricsMXBean {
+
+    /** @return Le nombre d'appels mesurés. */
+    long getCount();
+
+    /** @return Le nombre d'appels terminés par une erreur. */
+    long getErrors();
+
+    /** @return Le nombre de lignes lues ou modifiées en base par l'ensemble des appels. */
+    long getRows();
+
+    /** @return Le nombre de requêtes SQL exécutées par l'ensemble des appels. */
+    long getStatements();
+
+    double getTotalMillis();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP95Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    /** Remet les mesures à zéro. */
+    void reset();
+}
@@ -0,0 +1,301 @@
+package com.example.gestionnotes.model;
+
+import com.example.gestionnotes.config.AppConfig;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Barème de notation : poids du devoir et de l'examen dans la moyenne d'une note, coefficient de chaque matière
+ * dans la moyenne générale, moyenne à atteindre pour valider une note et pour être admis.
+ * Une règle par défaut s'applique à toutes les matières, sauf à celles qui ont leur propre règle.
+ * <p>
+ * Le barème de l'application est lu une fois dans la configuration (clés grading.*) et tous les calculs de moyenne
+ * et de statut passent par lui : modèle, DAOs, export et analyse. Un barème est immuable ; une simulation
+ * (avecSeuil) en crée un autre sans changer celui de l'application.
+ */
+public final class GradingPolicy {
+
+    public static final String VALIDE = "Validé";
+    public static final String NON_VALIDE = "Non validé";
+
+    /**
+     * Écart toléré sous un seuil : 11,3 × 0,3 + 12,3 × 0,7 vaut 11,999999999999998 en double mais 12 en décimal
+     * (comme dans certaines bases) ; une moyenne égale au seuil à l'arrondi près est validée partout.
+     */
+    public static final double TOLERANCE = 1e-9;
+
+    private static final String PREFIX = "grading.";
+    private static final String PREFIX_MATIERE = PREFIX + "matiere.";
+
+    private static volatile GradingPolicy current;
+
+    private final Regle parDefaut;
+    private final double seuilGeneral;
+    private final Map<String, Regle> parMatiere;
+
+    /**
+     * @param parDefaut La règle des matières sans règle propre.
+     * @param seuilGeneral La moyenne générale à atteindre pour être admis.
+     * @param parMatiere Les règles propres à certaines matières ; les noms sont comparés sans tenir compte de la casse.
+     */
+    public GradingPolicy(Regle parDefaut, double seuilGeneral, Map<String, Regle> parMatiere) {
+        verifierSeuil(seuilGeneral);
+        this.parDefaut = parDefaut;
+        this.seuilGeneral = seuilGeneral;
+        Map<String, Regle> regles = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, Regle> entry : parMatiere.entrySet()) {
+            // Les noms sont recopiés dans des littéraux SQL (NoteDAO), où l'antislash n'a pas le même sens selon la base
+            if (entry.getKey().indexOf('\\') >= 0) {
+                throw new IllegalArgumentException("nom de matière invalide \"" + entry.getKey() + "\"");
+            }
+            regles.put(entry.getKey(), entry.getValue());
+        }
+        this.parMatiere = Collections.unmodifiableMap(regles);
+    }
+
+    /**
+     * @return Le barème de l'application, lu dans la configuration au premier appel.
+     */
+    public static GradingPolicy getCurrent() {
+        GradingPolicy policy = current;
+        if (policy == null) {
+            synchronized (GradingPolicy.class) {
+                policy = current;
+                if (policy == null) {
+                    policy = load();
+                    current = policy;
+                }
+            }
+        }
+        return policy;
+    }
+
+    /**
+     * Lit le barème dans la configuration. Une valeur invalide est signalée et remplacée par la valeur par défaut
+     * (devoir 40 %, examen 60 %, seuils à 10) ; une règle de matière invalide est ignorée.
+     */
+    static GradingPolicy load() {
+        Regle parDefaut;
+        try {
+            parDefaut = new Regle(AppConfig.getDouble(PREFIX + "poidsDevoir", 0.40),
+                    AppConfig.getDouble(PREFIX + "poidsExamen", 0.60), 1.0, AppConfig.getDouble(PREFIX + "seuil", 10.0));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Configuration invalide pour le barème par défaut : " + e.getMessage());
+            parDefaut = new Regle(0.40, 0.60, 1.0, 10.0);
+        }
+        double seuilGeneral = AppConfig.getDouble(PREFIX + "seuilGeneral", 10.0);
+        if (seuilGeneral < 0 || seuilGeneral > 20) {
+            System.err.println("Configuration invalide pour " + PREFIX + "seuilGeneral : " + seuilGeneral);
+            seuilGeneral = 10.0;
+        }
+        Map<String, Regle> parMatiere = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, String> entry : AppConfig.getByPrefix(PREFIX_MATIERE).entrySet()) {
+            if (entry.getKey().indexOf('\\') >= 0) {
+                System.err.println("Configuration invalide pour " + PREFIX_MATIERE + entry.getKey() + " : nom de matière invalide");
+                continue;
+            }
+            try {
+                parMatiere.put(entry.getKey().trim(), parseRegle(entry.getValue(), parDefaut));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Configuration invalide pour " + PREFIX_MATIERE + entry.getKey() + " : " + e.getMessage());
+            }
+        }
+        return new GradingPolicy(parDefaut, seuilGeneral, parMatiere);
+    }
+
+    /**
+     * Lit une règle de la forme "devoir=0.30, examen=0.70, coefficient=3, seuil=10" ;
+     * les valeurs omises sont celles de la règle par défaut.
+     */
+    private static Regle parseRegle(String texte, Regle parDefaut) {
+        double poidsDevoir = parDefaut.poidsDevoir;
+        double poidsExamen = parDefaut.poidsExamen;
+        double coefficient = parDefaut.coefficient;
+        double seuil = parDefaut.seuil;
+        for (String partie : texte.split(",")) {
+            String[] cleValeur = partie.split("=", 2);
+            if (cleValeur.length != 2) {
+                throw new IllegalArgumentException("\"" + partie.trim() + "\" n'est pas de la forme cle=valeur");
+            }
+            double valeur;
+            try {
+                valeur = Double.parseDouble(cleValeur[1].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("\"" + cleValeur[1].trim() + "\" n'est pas un nombre");
+            }
+            switch (cleValeur[0].trim()) {
+                case "devoir":
+                    poidsDevoir = valeur;
+                    break;
+                case "examen":
+                    poidsExamen = valeur;
+                    break;
+                case "coefficient":
+                    coefficient = valeur;
+                    break;
+                case "seuil":
+                    seuil = valeur;
+                    break;
+                default:
+                    throw new IllegalArgumentException("clé inconnue \"" + cleValeur[0].trim() + "\"");
+            }
+        }
+        return new Regle(poidsDevoir, poidsExamen, coefficient, seuil);
+    }
+
+    private static void verifierSeuil(double seuil) {
+        if (!(seuil >= 0 && seuil <= 20)) {
+            throw new IllegalArgumentException("le seuil doit être compris entre 0 et 20 (" + seuil + ")");
+        }
+    }
+
+    /**
+     * @return La règle de la matière, ou la règle par défaut si la matière n'a pas la sienne.
+     */
+    public Regle regle(String matiere) {
+        if (parMatiere.isEmpty() || matiere == null) {
+            return parDefaut;
+        }
+        Regle regle = parMatiere.get(matiere.trim());
+        return regle != null ? regle : parDefaut;
+    }
+
+    /**
+     * Moyenne pondérée d'une note selon la règle de sa matière.
+     */
+    public double moyenne(String matiere, double noteDevoir, double noteExamen) {
+        return regle(matiere).moyenne(noteDevoir, noteExamen);
+    }
+
+    public boolean estValide(String matiere, double moyenne) {
+        return regle(matiere).estValide(moyenne);
+    }
+
+    /**
+     * @return "Validé" si la moyenne atteint le seuil de la matière, "Non validé" sinon.
+     */
+    public String statut(String matiere, double moyenne) {
+        return estValide(matiere, moyenne) ? VALIDE : NON_VALIDE;
+    }
+
+    /**
+     * @return Vrai si la moyenne générale d'un étudiant atteint le seuil d'admission.
+     */
+    public boolean estAdmis(double moyenneGenerale) {
+        return moyenneGenerale >= seuilGeneral - TOLERANCE;
+    }
+
+    public Regle getParDefaut() {
+        return parDefaut;
+    }
+
+    public double getSeuilGeneral() {
+        return seuilGeneral;
+    }
+
+    /** @return Les règles propres à certaines matières, triées par nom (sans tenir compte de la casse). */
+    public Map<String, Regle> getReglesParMatiere() {
+        return parMatiere;
+    }
+
+    /**
+     * @return Vrai si une matière au moins a un coefficient différent de 1.
+     */
+    public boolean hasCoefficients() {
+        for (Regle regle : parMatiere.values()) {
+            if (regle.coefficient != 1.0) {
+                return true;
+            }
+        }
+        return parDefaut.coefficient != 1.0;
+    }
+
+    /**
+     * Barème de simulation : le même, avec une même moyenne à atteindre pour valider chaque note
+     * et pour être admis (par exemple 9,5 au lieu de 10).
+     */
+    public GradingPolicy avecSeuil(double seuil) {
+        Map<String, Regle> regles = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, Regle> entry : parMatiere.entrySet()) {
+            regles.put(entry.getKey(), entry.getValue().avecSeuil(seuil));
+        }
+        return new GradingPolicy(parDefaut.avecSeuil(seuil), seuil, regles);
+    }
+
+    /**
+     * @return Une description complète du barème, qui change dès qu'une de ses valeurs change.
+     */
+    @Override
+    public String toString() {
+        StringBuilder texte = new StringBuilder("défaut: ").append(parDefaut)
+                .append("; seuilGeneral=").append(seuilGeneral);
+        for (Map.Entry<String, Regle> entry : parMatiere.entrySet()) {
+            texte.append("; ").append(entry.getKey()).append(": ").append(entry.getValue());
+        }
+        return texte.toString();
+    }
+
+    /**
+     * Règle d'une matière : poids du devoir et de l'examen (leur somme vaut 1), coefficient dans la moyenne
+     * générale, et moyenne à atteindre pour valider la note.
+     */
+    public static final class Regle {
+        private final double poidsDevoir;
+        private final double poidsExamen;
+        private final double coefficient;
+        private final double seuil;
+
+        public Regle(double poidsDevoir, double poidsExamen, double coefficient, double seuil) {
+            if (!(poidsDevoir >= 0 && poidsExamen >= 0) || Math.abs(poidsDevoir + poidsExamen - 1.0) > 1e-9) {
+                throw new IllegalArgumentException("les poids du devoir et de l'examen doivent être positifs et de somme 1 ("
+                        + poidsDevoir + " + " + poidsExamen + ")");
+            }
+            if (!(coefficient > 0)) {
+                throw new IllegalArgumentException("le coefficient doit être positif (" + coefficient + ")");
+            }
+            verifierSeuil(seuil);
+            this.poidsDevoir = poidsDevoir;
+            this.poidsExamen = poidsExamen;
+            this.coefficient = coefficient;
+            this.seuil = seuil;
+        }
+
+        public double moyenne(double noteDevoir, double noteExamen) {
+            return (noteDevoir * poidsDevoir) + (noteExamen * poidsExamen);
+        }
+
+        public boolean estValide(double moyenne) {
+            return moyenne >= seuil - TOLERANCE;
+        }
+
+        public double getPoidsDevoir() {
+            return poidsDevoir;
+        }
+
+        public double getPoidsExamen() {
+            return poidsExamen;
+        }
+
+        public double getCoefficient() {
+            return coefficient;
+        }
+
+        public double getSeuil() {
+            return seuil;
+        }
+
+        private Regle avecSeuil(double nouveauSeuil) {
+            return new Regle(poidsDevoir, poidsExamen, coefficient, nouveauSeuil);
+        }
+
+        /**
+         * @return La règle dans le format de la configuration.
+         */
+        @Override
+        public String toString() {
+            return "devoir=" + poidsDevoir + ", examen=" + poidsExamen + ", coefficient=" + coefficient + ", seuil=" + seuil;
+        }
+    }
+}
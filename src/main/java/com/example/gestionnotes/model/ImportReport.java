@@ -0,0 +1,84 @@
+package com.example.gestionnotes.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compte rendu d'un import : lignes importées, lignes rejetées et motif de chaque rejet.
+ * Seules les MAX_ERREURS premières erreurs sont conservées, le nombre de rejets reste exact.
+ */
+public class ImportReport {
+
+    public static final int MAX_ERREURS = 1000;
+
+    private int importees;
+    private int rejetees;
+    private boolean annule;
+    private final List<Erreur> erreurs = new ArrayList<>();
+
+    /**
+     * Une ligne rejetée du fichier importé.
+     */
+    public static class Erreur {
+        private final int ligne;
+        private final String message;
+
+        public Erreur(int ligne, String message) {
+            this.ligne = ligne;
+            this.message = message;
+        }
+
+        public int getLigne() {
+            return ligne;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Ligne " + ligne + " : " + message;
+        }
+    }
+
+    public void addImportees(int nombre) {
+        importees += nombre;
+    }
+
+    public void reject(int ligne, String message) {
+        rejetees++;
+        if (erreurs.size() < MAX_ERREURS) {
+            erreurs.add(new Erreur(ligne, message));
+        }
+    }
+
+    /**
+     * Marque l'import comme annulé : rien n'a été enregistré (mode tout ou rien).
+     */
+    public void annuler() {
+        annule = true;
+        importees = 0;
+    }
+
+    public int getImportees() {
+        return importees;
+    }
+
+    public int getRejetees() {
+        return rejetees;
+    }
+
+    public boolean isAnnule() {
+        return annule;
+    }
+
+    public boolean hasErreurs() {
+        return rejetees > 0;
+    }
+
+    public List<Erreur> getErreurs() {
+        return Collections.unmodifiableList(erreurs);
+    }
+}
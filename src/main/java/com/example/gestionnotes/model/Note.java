@@ -1,137 +1,215 @@
 package com.example.gestionnotes.model;
 
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.beans.property.SimpleDoubleProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
 /**
  * Représente une note, incluant la note de devoir, la note d'examen, la moyenne calculée et le statut de validation.
  * Utilise les JavaFX Properties pour la mise à jour automatique de l'interface.
+ * <p>
+ * Les valeurs sont gardées dans des champs simples ; chaque propriété JavaFX n'est créée qu'au premier appel
+ * de sa méthode xxxProperty(), c'est-à-dire quand une cellule de TableView s'y lie. Une note lue mais jamais
+ * affichée ne coûte donc aucune propriété. La moyenne et le statut ne sont pas stockés : ils sont calculés
+ * à partir des deux notes selon le barème de la matière (GradingPolicy) ; voir aussi NoteRecord pour les
+ * traitements sans affichage.
  */
 public class Note {
-    private final SimpleIntegerProperty id;
-    private final SimpleIntegerProperty etudiantId;
-    private final SimpleStringProperty nomEtudiant;
-    private final SimpleStringProperty prenomEtudiant;
-    private final SimpleStringProperty matiere;
-    private final SimpleDoubleProperty noteDevoir;
-    private final SimpleDoubleProperty noteExamen;
-    private final SimpleDoubleProperty moyenne; // Propriété calculée
-    private final SimpleStringProperty statutValidation; // Propriété calculée
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private int id;
+    private int etudiantId;
+    private final String nomEtudiant;
+    private final String prenomEtudiant;
+    private String matiere;
+    private double noteDevoir;
+    private double noteExamen;
+
+    // Propriétés JavaFX, créées à la demande ; une fois créée, la propriété porte la valeur
+    private SimpleIntegerProperty idProperty;
+    private SimpleStringProperty nomEtudiantProperty;
+    private SimpleStringProperty prenomEtudiantProperty;
+    private SimpleStringProperty matiereProperty;
+    private SimpleDoubleProperty noteDevoirProperty;
+    private SimpleDoubleProperty noteExamenProperty;
+    private ReadOnlyDoubleWrapper moyenneProperty; // Propriété calculée
+    private ReadOnlyStringWrapper statutValidationProperty; // Propriété calculée
 
     public Note(int id, int etudiantId, String nomEtudiant, String prenomEtudiant, String matiere, double noteDevoir, double noteExamen) {
-        this.id = new SimpleIntegerProperty(id);
-        this.etudiantId = new SimpleIntegerProperty(etudiantId);
-        this.nomEtudiant = new SimpleStringProperty(nomEtudiant);
-        this.prenomEtudiant = new SimpleStringProperty(prenomEtudiant);
-        this.matiere = new SimpleStringProperty(matiere);
-        this.noteDevoir = new SimpleDoubleProperty(noteDevoir);
-        this.noteExamen = new SimpleDoubleProperty(noteExamen);
-
-        // Calcul de la moyenne et du statut de validation
-        double calculatedMoyenne = (noteDevoir * 0.40) + (noteExamen * 0.60);
-        this.moyenne = new SimpleDoubleProperty(calculatedMoyenne);
-        this.statutValidation = new SimpleStringProperty(calculatedMoyenne >= 10 ? "Validé" : "Non validé");
+        this.id = id;
+        this.etudiantId = etudiantId;
+        this.nomEtudiant = nomEtudiant;
+        this.prenomEtudiant = prenomEtudiant;
+        this.matiere = matiere;
+        this.noteDevoir = noteDevoir;
+        this.noteExamen = noteExamen;
     }
 
-    // --- Getters pour les propriétés JavaFX ---
+    // --- Getters pour les propriétés JavaFX (créées au premier appel) ---
     public SimpleIntegerProperty idProperty() {
-        return id;
+        if (idProperty == null) {
+            idProperty = new SimpleIntegerProperty(this, "id", id);
+        }
+        return idProperty;
     }
 
     public SimpleStringProperty nomEtudiantProperty() {
-        return nomEtudiant;
+        if (nomEtudiantProperty == null) {
+            nomEtudiantProperty = new SimpleStringProperty(this, "nomEtudiant", nomEtudiant);
+        }
+        return nomEtudiantProperty;
     }
 
     public SimpleStringProperty prenomEtudiantProperty() {
-        return prenomEtudiant;
+        if (prenomEtudiantProperty == null) {
+            prenomEtudiantProperty = new SimpleStringProperty(this, "prenomEtudiant", prenomEtudiant);
+        }
+        return prenomEtudiantProperty;
     }
 
     public SimpleStringProperty matiereProperty() {
-        return matiere;
+        if (matiereProperty == null) {
+            matiereProperty = new SimpleStringProperty(this, "matiere", matiere);
+        }
+        return matiereProperty;
     }
 
     public SimpleDoubleProperty noteDevoirProperty() {
-        return noteDevoir;
+        if (noteDevoirProperty == null) {
+            noteDevoirProperty = new SimpleDoubleProperty(this, "noteDevoir", noteDevoir);
+        }
+        return noteDevoirProperty;
     }
 
     public SimpleDoubleProperty noteExamenProperty() {
-        return noteExamen;
+        if (noteExamenProperty == null) {
+            noteExamenProperty = new SimpleDoubleProperty(this, "noteExamen", noteExamen);
+        }
+        return noteExamenProperty;
     }
 
-    public SimpleDoubleProperty moyenneProperty() {
-        return moyenne;
+    /**
+     * @return La moyenne, recalculée automatiquement quand la matière (et donc son barème),
+     * la note de devoir ou la note d'examen change.
+     */
+    public ReadOnlyDoubleProperty moyenneProperty() {
+        if (moyenneProperty == null) {
+            moyenneProperty = new ReadOnlyDoubleWrapper(this, "moyenne");
+            moyenneProperty.bind(Bindings.createDoubleBinding(this::getMoyenne,
+                    matiereProperty(), noteDevoirProperty(), noteExamenProperty()));
+        }
+        return moyenneProperty.getReadOnlyProperty();
     }
 
-    public SimpleStringProperty statutValidationProperty() {
-        return statutValidation;
+    public ReadOnlyStringProperty statutValidationProperty() {
+        if (statutValidationProperty == null) {
+            statutValidationProperty = new ReadOnlyStringWrapper(this, "statutValidation");
+            statutValidationProperty.bind(Bindings.createStringBinding(this::getStatutValidation,
+                    matiereProperty(), noteDevoirProperty(), noteExamenProperty()));
+        }
+        return statutValidationProperty.getReadOnlyProperty();
     }
 
     // --- Getters et Setters pour les valeurs brutes ---
     public int getId() {
-        return id.get();
+        return idProperty != null ? idProperty.get() : id;
     }
 
     public void setId(int id) {
-        this.id.set(id);
+        if (idProperty != null) {
+            idProperty.set(id);
+        } else {
+            this.id = id;
+        }
     }
 
     public int getEtudiantId() {
-        return etudiantId.get();
+        return etudiantId;
     }
 
     public void setEtudiantId(int etudiantId) {
-        this.etudiantId.set(etudiantId);
+        this.etudiantId = etudiantId;
     }
 
     public String getMatiere() {
-        return matiere.get();
+        return matiereProperty != null ? matiereProperty.get() : matiere;
     }
 
     public void setMatiere(String matiere) {
-        this.matiere.set(matiere);
+        if (matiereProperty != null) {
+            matiereProperty.set(matiere);
+        } else {
+            this.matiere = matiere;
+        }
     }
 
     public double getNoteDevoir() {
-        return noteDevoir.get();
+        return noteDevoirProperty != null ? noteDevoirProperty.get() : noteDevoir;
     }
 
     public void setNoteDevoir(double noteDevoir) {
-        this.noteDevoir.set(noteDevoir);
-        updateCalculatedProperties();
+        if (noteDevoirProperty != null) {
+            noteDevoirProperty.set(noteDevoir);
+        } else {
+            this.noteDevoir = noteDevoir;
+        }
     }
 
     public double getNoteExamen() {
-        return noteExamen.get();
+        return noteExamenProperty != null ? noteExamenProperty.get() : noteExamen;
     }
 
     public void setNoteExamen(double noteExamen) {
-        this.noteExamen.set(noteExamen);
-        updateCalculatedProperties();
+        if (noteExamenProperty != null) {
+            noteExamenProperty.set(noteExamen);
+        } else {
+            this.noteExamen = noteExamen;
+        }
     }
 
     public String getNomEtudiant() {
-        return nomEtudiant.get();
+        return nomEtudiantProperty != null ? nomEtudiantProperty.get() : nomEtudiant;
     }
 
     public String getPrenomEtudiant() {
-        return prenomEtudiant.get();
+        return prenomEtudiantProperty != null ? prenomEtudiantProperty.get() : prenomEtudiant;
     }
 
     public double getMoyenne() {
-        return moyenne.get();
+        return GradingPolicy.getCurrent().moyenne(getMatiere(), getNoteDevoir(), getNoteExamen());
     }
 
     public String getStatutValidation() {
-        return statutValidation.get();
+        return GradingPolicy.getCurrent().statut(getMatiere(), getMoyenne());
+    }
+
+    /**
+     * Clé d'une matière telle que l'index unique (etudiant_id, matiere) la compare, sous la collation
+     * utf8mb4_0900_ai_ci de la table note : sans casse ni accents, mais espaces compris (pas de trim).
+     * Deux notes d'un même étudiant dont les matières ont la même clé sont une seule ligne en base.
+     */
+    public static String cleMatiere(String matiere) {
+        if (matiere == null) {
+            return "";
+        }
+        String sansAccents = DIACRITICS.matcher(Normalizer.normalize(matiere, Normalizer.Form.NFD)).replaceAll("");
+        // Ligatures que la collation développe en deux lettres
+        return sansAccents.toLowerCase(Locale.ROOT).replace("œ", "oe").replace("æ", "ae").replace("ß", "ss");
     }
 
     /**
-     * Met à jour la moyenne et le statut de validation après modification des notes.
+     * @return true si les deux matières désignent la même note d'un étudiant (voir cleMatiere).
      */
-    private void updateCalculatedProperties() {
-        double calculatedMoyenne = (noteDevoir.get() * 0.40) + (noteExamen.get() * 0.60);
-        moyenne.set(calculatedMoyenne);
-        statutValidation.set(calculatedMoyenne >= 10 ? "Validé" : "Non validé");
+    public static boolean memeMatiere(String matiere, String autre) {
+        return cleMatiere(matiere).equals(cleMatiere(autre));
     }
-}
\ No newline at end of file
+}
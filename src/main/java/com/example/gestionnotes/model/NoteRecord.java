@@ -0,0 +1,80 @@
+package com.example.gestionnotes.model;
+
+/**
+ * Note immuable et compacte, pour les traitements sans affichage (lecture de toutes les notes, import, agrégation).
+ * Contrairement à Note, elle ne crée aucune propriété JavaFX : les valeurs sont des champs primitifs,
+ * et toutes les notes d'un même étudiant partagent le même objet Etudiant au lieu de recopier ses nom et prénom.
+ * La moyenne et le statut sont calculés à la demande, selon le barème de la matière (GradingPolicy).
+ */
+public final class NoteRecord {
+    private final int id;
+    private final int etudiantId;
+    private final Etudiant etudiant;
+    private final String matiere;
+    private final double noteDevoir;
+    private final double noteExamen;
+
+    /**
+     * @param etudiant L'étudiant, partagé par toutes ses notes.
+     */
+    public NoteRecord(int id, Etudiant etudiant, String matiere, double noteDevoir, double noteExamen) {
+        this(id, etudiant.getId(), etudiant, matiere, noteDevoir, noteExamen);
+    }
+
+    /**
+     * Note dont seul l'identifiant de l'étudiant est connu (import, écriture).
+     */
+    public NoteRecord(int id, int etudiantId, String matiere, double noteDevoir, double noteExamen) {
+        this(id, etudiantId, null, matiere, noteDevoir, noteExamen);
+    }
+
+    private NoteRecord(int id, int etudiantId, Etudiant etudiant, String matiere, double noteDevoir, double noteExamen) {
+        this.id = id;
+        this.etudiantId = etudiantId;
+        this.etudiant = etudiant;
+        this.matiere = matiere;
+        this.noteDevoir = noteDevoir;
+        this.noteExamen = noteExamen;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getEtudiantId() {
+        return etudiantId;
+    }
+
+    /** @return L'étudiant, ou null si seul son identifiant est connu. */
+    public Etudiant getEtudiant() {
+        return etudiant;
+    }
+
+    public String getMatiere() {
+        return matiere;
+    }
+
+    public double getNoteDevoir() {
+        return noteDevoir;
+    }
+
+    public double getNoteExamen() {
+        return noteExamen;
+    }
+
+    public double getMoyenne() {
+        return GradingPolicy.getCurrent().moyenne(matiere, noteDevoir, noteExamen);
+    }
+
+    public String getStatutValidation() {
+        return GradingPolicy.getCurrent().statut(matiere, getMoyenne());
+    }
+
+    /**
+     * @return Une Note affichable, qui partage les nom et prénom de l'étudiant.
+     */
+    public Note toNote() {
+        return new Note(id, etudiantId, etudiant != null ? etudiant.getNom() : null,
+                etudiant != null ? etudiant.getPrenom() : null, matiere, noteDevoir, noteExamen);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.gestionnotes.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Les notes d'un étudiant et sa moyenne générale : moyenne des moyennes pondérées de ses notes,
+ * chacune comptant pour le coefficient de sa matière (GradingPolicy).
+ */
+public class NotesEtudiant {
+    private final int etudiantId;
+    private final List<Note> notes;
+    private final double moyenne;
+
+    public NotesEtudiant(int etudiantId, List<Note> notes) {
+        this.etudiantId = etudiantId;
+        this.notes = Collections.unmodifiableList(notes);
+        GradingPolicy bareme = GradingPolicy.getCurrent();
+        double somme = 0.0;
+        double coefficients = 0.0;
+        for (Note note : notes) {
+            GradingPolicy.Regle regle = bareme.regle(note.getMatiere());
+            somme += regle.moyenne(note.getNoteDevoir(), note.getNoteExamen()) * regle.getCoefficient();
+            coefficients += regle.getCoefficient();
+        }
+        this.moyenne = notes.isEmpty() ? 0.0 : somme / coefficients;
+    }
+
+    public int getEtudiantId() {
+        return etudiantId;
+    }
+
+    public List<Note> getNotes() {
+        return notes;
+    }
+
+    /** @return La moyenne générale, ou 0.0 si l'étudiant n'a aucune note. */
+    public double getMoyenne() {
+        return moyenne;
+    }
+
+    /** @return Vrai si la moyenne générale atteint le seuil d'admission du barème. */
+    public boolean isAdmis() {
+        return !notes.isEmpty() && GradingPolicy.getCurrent().estAdmis(moyenne);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.gestionnotes.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Une page de résultats d'une recherche paginée.
+ * @param <T> Le type des éléments de la page.
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final int total;
+    private final boolean totalMinimum;
+    private final boolean hasMore;
+
+    /**
+     * @param items Les éléments de la page.
+     * @param total Le nombre total de résultats de la recherche, ou -1 s'il n'a pas été calculé.
+     * @param hasMore true s'il reste des résultats après cette page.
+     */
+    public Page(List<T> items, int total, boolean hasMore) {
+        this(items, total, false, hasMore);
+    }
+
+    /**
+     * @param totalMinimum true si le comptage a été arrêté : la recherche a au moins total résultats.
+     */
+    public Page(List<T> items, int total, boolean totalMinimum, boolean hasMore) {
+        this.items = Collections.unmodifiableList(items);
+        this.total = total;
+        this.totalMinimum = totalMinimum;
+        this.hasMore = hasMore;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /** @return Le nombre total de résultats, ou -1 s'il n'a pas été calculé pour cette page. */
+    public int getTotal() {
+        return total;
+    }
+
+    /** @return true si le total n'est qu'un minimum, le comptage ayant été arrêté (voir EtudiantRepository.TOTAL_MAX). */
+    public boolean isTotalMinimum() {
+        return totalMinimum;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    /** @return Le dernier élément de la page, à passer comme curseur pour obtenir la page suivante. */
+    public T getDernier() {
+        return items.isEmpty() ? null : items.get(items.size() - 1);
+    }
+}
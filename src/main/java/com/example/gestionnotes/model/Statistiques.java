@@ -0,0 +1,78 @@
+package com.example.gestionnotes.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Statistiques agrégées des notes : globales, par filière et par matière.
+ * Les valeurs sont calculées par la base de données, aucun objet Note n'est chargé.
+ */
+public class Statistiques {
+
+    /**
+     * Agrégats d'un groupe de notes (toute l'école, une filière ou une matière).
+     */
+    public static class Ligne {
+        private final int nbEtudiants;
+        private final int nbNotes;
+        private final double sommeMoyennes;
+        private final int nbValides;
+
+        public Ligne(int nbEtudiants, int nbNotes, double sommeMoyennes, int nbValides) {
+            this.nbEtudiants = nbEtudiants;
+            this.nbNotes = nbNotes;
+            this.sommeMoyennes = sommeMoyennes;
+            this.nbValides = nbValides;
+        }
+
+        public int getNbEtudiants() {
+            return nbEtudiants;
+        }
+
+        public int getNbNotes() {
+            return nbNotes;
+        }
+
+        public double getSommeMoyennes() {
+            return sommeMoyennes;
+        }
+
+        public int getNbValides() {
+            return nbValides;
+        }
+
+        /** @return La moyenne des moyennes du groupe, 0.0 s'il n'a aucune note. */
+        public double getMoyenne() {
+            return nbNotes > 0 ? sommeMoyennes / nbNotes : 0.0;
+        }
+
+        /** @return Le pourcentage de notes validées, 0.0 s'il n'y a aucune note. */
+        public double getTauxReussite() {
+            return nbNotes > 0 ? (double) nbValides / nbNotes * 100 : 0.0;
+        }
+    }
+
+    private final Ligne global;
+    private final Map<String, Ligne> parFiliere;
+    private final Map<String, Ligne> parMatiere;
+
+    public Statistiques(Ligne global, Map<String, Ligne> parFiliere, Map<String, Ligne> parMatiere) {
+        this.global = global;
+        this.parFiliere = Collections.unmodifiableMap(parFiliere);
+        this.parMatiere = Collections.unmodifiableMap(parMatiere);
+    }
+
+    public Ligne getGlobal() {
+        return global;
+    }
+
+    /** @return Les statistiques par filière, triées par nom de filière. */
+    public Map<String, Ligne> getParFiliere() {
+        return parFiliere;
+    }
+
+    /** @return Les statistiques par matière, triées par nom de matière. */
+    public Map<String, Ligne> getParMatiere() {
+        return parMatiere;
+    }
+}
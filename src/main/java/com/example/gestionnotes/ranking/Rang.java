@@ -0,0 +1,42 @@
+package com.example.gestionnotes.ranking;
+
+/**
+ * Place d'un étudiant dans un classement (filière ou matière). Les ex æquo ont le même rang,
+ * et le suivant prend le rang correspondant à sa position (1, 2, 2, 4…), comme RANK() en SQL.
+ */
+public final class Rang {
+    private final int etudiantId;
+    private final double moyenne;
+    private final int rang;
+    private final int effectif;
+
+    Rang(int etudiantId, double moyenne, int rang, int effectif) {
+        this.etudiantId = etudiantId;
+        this.moyenne = moyenne;
+        this.rang = rang;
+        this.effectif = effectif;
+    }
+
+    public int getEtudiantId() {
+        return etudiantId;
+    }
+
+    /** @return La moyenne classée, arrondie au millionième. */
+    public double getMoyenne() {
+        return moyenne;
+    }
+
+    public int getRang() {
+        return rang;
+    }
+
+    /** @return Le nombre d'étudiants du classement. */
+    public int getEffectif() {
+        return effectif;
+    }
+
+    @Override
+    public String toString() {
+        return rang + "/" + effectif;
+    }
+}
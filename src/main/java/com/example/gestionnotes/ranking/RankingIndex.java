@@ -0,0 +1,407 @@
+package com.example.gestionnotes.ranking;
+
+import com.example.gestionnotes.dao.DaoEvents;
+import com.example.gestionnotes.dao.EtudiantChangeListener;
+import com.example.gestionnotes.dao.EtudiantRepository;
+import com.example.gestionnotes.dao.NoteChangeListener;
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.dao.RangHandler;
+import com.example.gestionnotes.dao.Repositories;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.NotesEtudiant;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Classements en mémoire des étudiants : dans chaque filière sur leur moyenne générale, et dans chaque matière
+ * sur la moyenne de leur note. Chaque classement est un arbre de rangs (RankingTree) : rang d'un étudiant,
+ * premiers du classement et étudiants d'une tranche de moyennes s'obtiennent en temps logarithmique,
+ * sans relire les notes.
+ * <p>
+ * Le premier appel de mettreAJour charge tous les rangs en une requête (NoteRepository.scanRangs, par RANK()
+ * sous MySQL) et vérifie que les arbres donnent les mêmes. Ensuite, les index sont tenus à jour par les événements
+ * des DAOs (DaoEvents) : un étudiant dont les notes changent est reclassé au prochain appel de mettreAJour,
+ * à partir de ses seules notes ; après un import, tout est rechargé. Les filières et les matières sont comparées
+ * sans tenir compte de la casse ni des accents, comme dans la base.
+ * <p>
+ * Les lectures (getRang, getPremiers…) ne lisent que la mémoire : elles ne chargent rien et portent sur l'état
+ * de la dernière mise à jour (vide avant la première). Le chargement, qui lit toutes les notes, se fait donc
+ * par mettreAJour sur un thread qui ne sera pas annulé, et non dans une tâche remplacée à chaque sélection.
+ */
+public final class RankingIndex implements NoteChangeListener, EtudiantChangeListener {
+
+    public static final String FILIERE = RangHandler.FILIERE;
+    public static final String MATIERE = RangHandler.MATIERE;
+
+    private static volatile RankingIndex instance;
+
+    private final NoteRepository noteRepository;
+    private final EtudiantRepository etudiantRepository;
+    private final Collator collator;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private TreeMap<String, Classement> parFiliere;
+    private TreeMap<String, Classement> parMatiere;
+    // Classements où figure chaque étudiant classé, pour l'en retirer
+    private Map<Integer, Place> places = new HashMap<>();
+
+    // Filière de chaque étudiant connu, y compris ceux qui n'ont pas encore de note
+    private final Map<Integer, String> filieres = new ConcurrentHashMap<>();
+    private volatile boolean filieresCompletes;
+    // Étudiants à reclasser avant la prochaine lecture
+    private final Set<Integer> enAttente = ConcurrentHashMap.newKeySet();
+    private volatile boolean perime = true;
+    private final Object chargement = new Object();
+
+    /**
+     * @return Les classements partagés par l'application, abonnés aux modifications de notes et d'étudiants.
+     */
+    public static RankingIndex getInstance() {
+        RankingIndex current = instance;
+        if (current == null) {
+            synchronized (RankingIndex.class) {
+                current = instance;
+                if (current == null) {
+                    current = new RankingIndex(Repositories.getNoteRepository(), Repositories.getEtudiantRepository());
+                    DaoEvents.addNoteListener(current);
+                    DaoEvents.addEtudiantListener(current);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public RankingIndex(NoteRepository noteRepository, EtudiantRepository etudiantRepository) {
+        this.noteRepository = noteRepository;
+        this.etudiantRepository = etudiantRepository;
+        this.collator = Collator.getInstance(Locale.FRENCH);
+        this.collator.setStrength(Collator.PRIMARY);
+        this.parFiliere = new TreeMap<>(collator::compare);
+        this.parMatiere = new TreeMap<>(collator::compare);
+    }
+
+    /**
+     * @return true si les classements sont chargés et qu'aucun étudiant n'attend d'être reclassé.
+     */
+    public boolean isAJour() {
+        return !perime && enAttente.isEmpty();
+    }
+
+    /**
+     * Charge les classements s'ils sont périmés (premier appel, import), puis reclasse les étudiants modifiés
+     * depuis la dernière mise à jour. Lit la base : à appeler hors du thread JavaFX, sur un thread qui ne sera pas
+     * annulé. Les lectures en base se font hors du verrou : les lectures des classements ne sont bloquées que
+     * le temps des mises à jour.
+     * @return true si les classements sont à jour ; false si le chargement a échoué (il sera retenté au prochain appel).
+     */
+    public boolean mettreAJour() {
+        if (isAJour()) {
+            return true;
+        }
+        synchronized (chargement) {
+            if (perime && !charger()) {
+                return false;
+            }
+            Iterator<Integer> ids = enAttente.iterator();
+            while (ids.hasNext()) {
+                int etudiantId = ids.next();
+                ids.remove();
+                reclasser(etudiantId);
+            }
+        }
+        return !perime;
+    }
+
+    /**
+     * @param portee FILIERE ou MATIERE.
+     * @param cle La filière ou la matière.
+     * @return Le rang de l'étudiant dans ce classement, ou null s'il n'y figure pas (aucune note),
+     * ou si les classements n'ont pas encore été chargés.
+     */
+    public Rang getRang(String portee, String cle, int etudiantId) {
+        lock.readLock().lock();
+        try {
+            Classement classement = classements(portee).get(cle);
+            return classement != null ? classement.rang(etudiantId) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Les k premiers du classement, dans l'ordre ; les ex æquo sont départagés par id.
+     */
+    public List<Rang> getPremiers(String portee, String cle, int k) {
+        return lister(portee, cle, Long.MAX_VALUE, Long.MIN_VALUE, k);
+    }
+
+    /**
+     * @return Les étudiants du classement dont la moyenne est comprise entre min et max (inclus), dans l'ordre.
+     */
+    public List<Rang> getDansTranche(String portee, String cle, double min, double max) {
+        return lister(portee, cle, RangHandler.points(max), RangHandler.points(min), Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return Le nombre d'étudiants du classement.
+     */
+    public int getEffectif(String portee, String cle) {
+        lock.readLock().lock();
+        try {
+            Classement classement = classements(portee).get(cle);
+            return classement != null ? classement.arbre.taille() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Fait recharger tous les classements à la prochaine mise à jour.
+     */
+    public void invalidate() {
+        perime = true;
+    }
+
+    private List<Rang> lister(String portee, String cle, long max, long min, int limite) {
+        lock.readLock().lock();
+        try {
+            Classement classement = classements(portee).get(cle);
+            return classement != null ? classement.lister(max, min, limite) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private TreeMap<String, Classement> classements(String portee) {
+        if (FILIERE.equals(portee)) {
+            return parFiliere;
+        }
+        if (MATIERE.equals(portee)) {
+            return parMatiere;
+        }
+        throw new IllegalArgumentException("portée de classement inconnue \"" + portee + "\"");
+    }
+
+    /**
+     * @return false si la lecture des rangs a échoué ; les classements restent alors périmés.
+     */
+    private boolean charger() {
+        // Une modification faite pendant la lecture sera prise en compte : elle remet l'étudiant en attente
+        // ou les classements en péremption
+        perime = false;
+        enAttente.clear();
+        TreeMap<String, Classement> filieresLues = new TreeMap<>(collator::compare);
+        TreeMap<String, Classement> matieresLues = new TreeMap<>(collator::compare);
+        Map<Integer, Place> placesLues = new HashMap<>();
+        long nbRangs = noteRepository.scanRangs((portee, cle, etudiantId, moyenne, rang) -> {
+            if (cle == null) {
+                return;
+            }
+            Place place = placesLues.computeIfAbsent(etudiantId, id -> new Place());
+            Classement classement;
+            if (FILIERE.equals(portee)) {
+                place.filiere = cle;
+                filieres.put(etudiantId, cle);
+                classement = filieresLues.computeIfAbsent(cle, c -> new Classement());
+            } else {
+                place.matieres.add(cle);
+                classement = matieresLues.computeIfAbsent(cle, c -> new Classement());
+            }
+            classement.mettre(etudiantId, moyenne);
+            classement.rangsLus.put(etudiantId, rang);
+        });
+        if (nbRangs < 0) {
+            perime = true;
+            return false;
+        }
+        int differents = verifier(filieresLues) + verifier(matieresLues);
+        if (differents > 0) {
+            System.err.println("Classements : " + differents + " rang(s) diffèrent de ceux calculés par la base.");
+        }
+        lock.writeLock().lock();
+        try {
+            parFiliere = filieresLues;
+            parMatiere = matieresLues;
+            places = placesLues;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    /**
+     * @return Le nombre d'étudiants dont le rang dans l'arbre n'est pas celui lu dans la base.
+     */
+    private static int verifier(Map<String, Classement> classements) {
+        int differents = 0;
+        for (Classement classement : classements.values()) {
+            for (Map.Entry<Integer, Integer> entry : classement.rangsLus.entrySet()) {
+                if (classement.rang(entry.getKey()).getRang() != entry.getValue()) {
+                    differents++;
+                }
+            }
+            classement.rangsLus = null;
+        }
+        return differents;
+    }
+
+    /**
+     * Relit les notes d'un étudiant et le replace dans ses classements ; un étudiant sans note en est retiré.
+     */
+    private void reclasser(int etudiantId) {
+        NotesEtudiant notesEtudiant = noteRepository.getNotesEtudiant(etudiantId);
+        String filiere = filieres.get(etudiantId);
+        if (filiere == null && !notesEtudiant.getNotes().isEmpty() && !filieresCompletes) {
+            // Étudiant sans note au chargement et inchangé depuis : sa filière n'est connue que de la liste complète
+            for (Etudiant etudiant : etudiantRepository.getAllEtudiants()) {
+                filieres.putIfAbsent(etudiant.getId(), etudiant.getFiliere());
+            }
+            filieresCompletes = true;
+            filiere = filieres.get(etudiantId);
+        }
+        lock.writeLock().lock();
+        try {
+            retirer(etudiantId);
+            if (notesEtudiant.getNotes().isEmpty()) {
+                return;
+            }
+            Place place = new Place();
+            if (filiere != null) {
+                place.filiere = filiere;
+                parFiliere.computeIfAbsent(filiere, c -> new Classement()).mettre(etudiantId, notesEtudiant.getMoyenne());
+            }
+            for (Note note : notesEtudiant.getNotes()) {
+                place.matieres.add(note.getMatiere());
+                parMatiere.computeIfAbsent(note.getMatiere(), c -> new Classement()).mettre(etudiantId, note.getMoyenne());
+            }
+            places.put(etudiantId, place);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Appelé sous le verrou d'écriture
+    private void retirer(int etudiantId) {
+        Place place = places.remove(etudiantId);
+        if (place == null) {
+            return;
+        }
+        if (place.filiere != null) {
+            retirer(parFiliere, place.filiere, etudiantId);
+        }
+        for (String matiere : place.matieres) {
+            retirer(parMatiere, matiere, etudiantId);
+        }
+    }
+
+    private static void retirer(Map<String, Classement> classements, String cle, int etudiantId) {
+        Classement classement = classements.get(cle);
+        if (classement != null) {
+            classement.retirer(etudiantId);
+            if (classement.arbre.taille() == 0) {
+                classements.remove(cle);
+            }
+        }
+    }
+
+    @Override
+    public void onNotesChanged(int etudiantId) {
+        enAttente.add(etudiantId);
+    }
+
+    @Override
+    public void onAllNotesChanged() {
+        perime = true;
+    }
+
+    @Override
+    public void onEtudiantAdded(Etudiant etudiant) {
+        filieres.put(etudiant.getId(), etudiant.getFiliere());
+    }
+
+    @Override
+    public void onEtudiantUpdated(Etudiant etudiant) {
+        filieres.put(etudiant.getId(), etudiant.getFiliere());
+        enAttente.add(etudiant.getId()); // la filière a pu changer
+    }
+
+    @Override
+    public void onEtudiantDeleted(int etudiantId) {
+        filieres.remove(etudiantId);
+        enAttente.add(etudiantId);
+    }
+
+    /** Un classement : l'arbre de rangs et les points de chaque étudiant, pour l'y retrouver. */
+    private static final class Classement {
+        private final RankingTree arbre = new RankingTree();
+        private final Map<Integer, Long> points = new HashMap<>();
+        // Rangs lus dans la base au chargement, comparés à ceux de l'arbre puis oubliés
+        private Map<Integer, Integer> rangsLus = new HashMap<>();
+
+        void mettre(int etudiantId, double moyenne) {
+            long nouveaux = RangHandler.points(moyenne);
+            Long anciens = points.put(etudiantId, nouveaux);
+            if (anciens != null) {
+                if (anciens == nouveaux) {
+                    return;
+                }
+                arbre.retirer(etudiantId, anciens);
+            }
+            arbre.ajouter(etudiantId, nouveaux);
+        }
+
+        void retirer(int etudiantId) {
+            Long anciens = points.remove(etudiantId);
+            if (anciens != null) {
+                arbre.retirer(etudiantId, anciens);
+            }
+        }
+
+        Rang rang(int etudiantId) {
+            Long sesPoints = points.get(etudiantId);
+            if (sesPoints == null) {
+                return null;
+            }
+            return new Rang(etudiantId, sesPoints / 1_000_000.0, arbre.nombreAuDessus(sesPoints) + 1, arbre.taille());
+        }
+
+        List<Rang> lister(long max, long min, int limite) {
+            List<RankingTree.Noeud> noeuds = new ArrayList<>();
+            arbre.collecter(max, min, limite, noeuds);
+            List<Rang> rangs = new ArrayList<>(noeuds.size());
+            if (noeuds.isEmpty()) {
+                return rangs;
+            }
+            // Le premier nœud est le premier de ses ex æquo : sa position suit tous ceux qui ont plus de points
+            int position = arbre.nombreAuDessus(noeuds.get(0).points);
+            int rang = 0;
+            for (int i = 0; i < noeuds.size(); i++) {
+                RankingTree.Noeud noeud = noeuds.get(i);
+                if (i == 0 || noeud.points != noeuds.get(i - 1).points) {
+                    rang = position + i + 1;
+                }
+                rangs.add(new Rang(noeud.etudiantId, noeud.points / 1_000_000.0, rang, arbre.taille()));
+            }
+            return rangs;
+        }
+    }
+
+    /** Classements où figure un étudiant. */
+    private static final class Place {
+        private String filiere;
+        private final List<String> matieres = new ArrayList<>();
+    }
+}
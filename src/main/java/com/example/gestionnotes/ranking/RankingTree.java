@@ -0,0 +1,183 @@
+package com.example.gestionnotes.ranking;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Arbre de rangs : treap (arbre binaire de recherche équilibré par des priorités aléatoires) dont chaque nœud
+ * connaît la taille de son sous-arbre. Les étudiants y sont rangés par points décroissants, puis par id croissant.
+ * Ajout, retrait et calcul d'un rang coûtent O(log n) en moyenne ; lister k étudiants coûte O(log n + k).
+ * Non thread-safe : RankingIndex le protège par son verrou.
+ */
+final class RankingTree {
+
+    static final class Noeud {
+        final int etudiantId;
+        final long points;
+        private final int priorite;
+        private int taille = 1;
+        private Noeud gauche;
+        private Noeud droite;
+
+        private Noeud(int etudiantId, long points, int priorite) {
+            this.etudiantId = etudiantId;
+            this.points = points;
+            this.priorite = priorite;
+        }
+    }
+
+    private final SplittableRandom aleatoire = new SplittableRandom();
+    private Noeud racine;
+
+    int taille() {
+        return taille(racine);
+    }
+
+    void ajouter(int etudiantId, long points) {
+        racine = inserer(racine, new Noeud(etudiantId, points, aleatoire.nextInt()));
+    }
+
+    /**
+     * @param points Les points avec lesquels l'étudiant a été ajouté.
+     */
+    void retirer(int etudiantId, long points) {
+        racine = supprimer(racine, etudiantId, points);
+    }
+
+    /**
+     * @return Le nombre d'étudiants ayant strictement plus de points ; le rang est ce nombre plus un.
+     */
+    int nombreAuDessus(long points) {
+        int nombre = 0;
+        Noeud noeud = racine;
+        while (noeud != null) {
+            if (noeud.points > points) {
+                nombre += taille(noeud.gauche) + 1;
+                noeud = noeud.droite;
+            } else {
+                noeud = noeud.gauche;
+            }
+        }
+        return nombre;
+    }
+
+    /**
+     * Ajoute à resultat, dans l'ordre du classement, les étudiants dont les points sont compris entre min et max
+     * (inclus), au plus limite ; les sous-arbres hors de l'intervalle ne sont pas parcourus.
+     */
+    void collecter(long max, long min, int limite, List<Noeud> resultat) {
+        collecter(racine, max, min, limite, resultat);
+    }
+
+    private static void collecter(Noeud noeud, long max, long min, int limite, List<Noeud> resultat) {
+        if (noeud == null || resultat.size() >= limite) {
+            return;
+        }
+        // À gauche, les points sont plus élevés ; à droite, plus faibles
+        if (noeud.points <= max) {
+            collecter(noeud.gauche, max, min, limite, resultat);
+            if (noeud.points >= min && resultat.size() < limite) {
+                resultat.add(noeud);
+            }
+        }
+        if (noeud.points >= min) {
+            collecter(noeud.droite, max, min, limite, resultat);
+        }
+    }
+
+    private static int taille(Noeud noeud) {
+        return noeud == null ? 0 : noeud.taille;
+    }
+
+    private static void recalculer(Noeud noeud) {
+        noeud.taille = taille(noeud.gauche) + taille(noeud.droite) + 1;
+    }
+
+    /**
+     * @return Négatif si (points, etudiantId) se classe avant le nœud, positif s'il se classe après.
+     */
+    private static int comparer(long points, int etudiantId, Noeud noeud) {
+        if (points != noeud.points) {
+            return points > noeud.points ? -1 : 1;
+        }
+        return Integer.compare(etudiantId, noeud.etudiantId);
+    }
+
+    private static Noeud inserer(Noeud noeud, Noeud nouveau) {
+        if (noeud == null) {
+            return nouveau;
+        }
+        if (nouveau.priorite > noeud.priorite) {
+            Noeud[] parties = separer(noeud, nouveau.points, nouveau.etudiantId);
+            nouveau.gauche = parties[0];
+            nouveau.droite = parties[1];
+            recalculer(nouveau);
+            return nouveau;
+        }
+        if (comparer(nouveau.points, nouveau.etudiantId, noeud) < 0) {
+            noeud.gauche = inserer(noeud.gauche, nouveau);
+        } else {
+            noeud.droite = inserer(noeud.droite, nouveau);
+        }
+        recalculer(noeud);
+        return noeud;
+    }
+
+    /**
+     * Sépare un sous-arbre en deux : les nœuds classés avant (points, etudiantId), puis les autres.
+     */
+    private static Noeud[] separer(Noeud noeud, long points, int etudiantId) {
+        if (noeud == null) {
+            return new Noeud[2];
+        }
+        if (comparer(points, etudiantId, noeud) > 0) {
+            Noeud[] parties = separer(noeud.droite, points, etudiantId);
+            noeud.droite = parties[0];
+            recalculer(noeud);
+            parties[0] = noeud;
+            return parties;
+        }
+        Noeud[] parties = separer(noeud.gauche, points, etudiantId);
+        noeud.gauche = parties[1];
+        recalculer(noeud);
+        parties[1] = noeud;
+        return parties;
+    }
+
+    private static Noeud supprimer(Noeud noeud, int etudiantId, long points) {
+        if (noeud == null) {
+            return null;
+        }
+        int comparaison = comparer(points, etudiantId, noeud);
+        if (comparaison == 0) {
+            return fusionner(noeud.gauche, noeud.droite);
+        }
+        if (comparaison < 0) {
+            noeud.gauche = supprimer(noeud.gauche, etudiantId, points);
+        } else {
+            noeud.droite = supprimer(noeud.droite, etudiantId, points);
+        }
+        recalculer(noeud);
+        return noeud;
+    }
+
+    /**
+     * Fusionne deux sous-arbres dont tous les nœuds du premier se classent avant ceux du second.
+     */
+    private static Noeud fusionner(Noeud avant, Noeud apres) {
+        if (avant == null) {
+            return apres;
+        }
+        if (apres == null) {
+            return avant;
+        }
+        if (avant.priorite > apres.priorite) {
+            avant.droite = fusionner(avant.droite, apres);
+            recalculer(avant);
+            return avant;
+        }
+        apres.gauche = fusionner(avant, apres.gauche);
+        recalculer(apres);
+        return apres;
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.gestionnotes.search;
+
+import com.example.gestionnotes.dao.DaoEvents;
+import com.example.gestionnotes.dao.EtudiantChangeListener;
+import com.example.gestionnotes.model.Etudiant;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index de recherche en mémoire des étudiants (nom, prénom, filière).
+ * Les textes sont normalisés : minuscules, sans accents (é → e) ni ponctuation.
+ * Les termes d'au moins trois caractères sont cherchés par trigrammes, les plus courts
+ * par préfixe de mot. L'index est tenu à jour par les événements des DAOs (DaoEvents).
+ */
+public class StudentSearchIndex implements EtudiantChangeListener {
+
+    private static final int NGRAM = 3;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+
+    private static volatile StudentSearchIndex instance;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    // trigramme -> identifiants des étudiants dont le texte contient ce trigramme
+    private final Map<String, IntList> trigrams = new HashMap<>();
+    // mot -> identifiants des étudiants ayant ce mot (recherche par préfixe)
+    private final TreeMap<String, IntList> words = new TreeMap<>();
+    private volatile boolean ready;
+
+    /**
+     * @return L'index partagé par l'application, abonné aux modifications d'étudiants.
+     */
+    public static StudentSearchIndex getInstance() {
+        StudentSearchIndex current = instance;
+        if (current == null) {
+            synchronized (StudentSearchIndex.class) {
+                current = instance;
+                if (current == null) {
+                    current = new StudentSearchIndex();
+                    DaoEvents.addEtudiantListener(current);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Normalise un texte pour la recherche : minuscules, accents retirés,
+     * tout caractère non alphanumérique remplacé par un espace.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String withoutAccents = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_ALNUM.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Remplace tout le contenu de l'index par la liste d'étudiants donnée.
+     */
+    public void rebuild(List<Etudiant> etudiants) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            trigrams.clear();
+            words.clear();
+            for (Etudiant etudiant : etudiants) {
+                addEntry(etudiant);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true une fois l'index construit par rebuild().
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche les étudiants dont le nom, le prénom ou la filière contient chacun des mots de la requête.
+     * Les résultats sont classés par pertinence : mot identique, puis début de mot, puis sous-chaîne ;
+     * à pertinence égale, par nom, prénom et identifiant.
+     * @param query Le texte saisi.
+     * @param filiere La filière à filtrer, ou null pour toutes.
+     * @param limit Le nombre maximal de résultats.
+     * @return Les étudiants trouvés, les plus pertinents en premier.
+     */
+    public List<Etudiant> search(String query, String filiere, int limit) {
+        String[] terms = splitWords(normalize(query));
+        lock.readLock().lock();
+        try {
+            if (terms.length == 0) {
+                return new ArrayList<>();
+            }
+            // Le terme le plus long a la liste de candidats la plus courte ; les autres termes
+            // sont vérifiés directement sur les mots de chaque candidat
+            Arrays.sort(terms, Comparator.comparingInt(String::length).reversed());
+            IntList candidates = candidatesFor(terms[0]);
+
+            List<Scored> scored = new ArrayList<>();
+            for (int i = 0; i < candidates.size; i++) {
+                Entry entry = entries.get(candidates.values[i]);
+                if (filiere != null && !filiere.equals(entry.etudiant.getFiliere())) {
+                    continue;
+                }
+                int score = 0;
+                for (String term : terms) {
+                    int termScore = entry.score(term);
+                    if (termScore == 0) {
+                        score = 0; // faux positif des trigrammes, ou autre terme absent
+                        break;
+                    }
+                    score += termScore;
+                }
+                if (score > 0) {
+                    scored.add(new Scored(entry, score));
+                }
+            }
+            scored.sort(Comparator.comparingInt((Scored sc) -> -sc.score)
+                    .thenComparing(sc -> sc.entry.sortKey)
+                    .thenComparingInt(sc -> sc.entry.etudiant.getId()));
+
+            List<Etudiant> result = new ArrayList<>(Math.min(limit, scored.size()));
+            for (int i = 0; i < scored.size() && i < limit; i++) {
+                result.add(scored.get(i).entry.etudiant);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private IntList candidatesFor(String term) {
+        if (term.length() < NGRAM) {
+            IntList result = new IntList();
+            for (IntList ids : words.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < ids.size; i++) {
+                    result.add(ids.values[i]);
+                }
+            }
+            // Un étudiant dont plusieurs mots commencent par le terme (Marie Martin pour « ma ») y figure plusieurs fois
+            result.sortDistinct();
+            return result;
+        }
+        // La liste du trigramme le plus rare suffit : les candidats sont ensuite vérifiés mot par mot
+        IntList rarest = null;
+        for (String gram : ngrams(term)) {
+            IntList ids = trigrams.get(gram);
+            if (ids == null) {
+                return new IntList();
+            }
+            if (rarest == null || ids.size() < rarest.size()) {
+                rarest = ids;
+            }
+        }
+        return rarest;
+    }
+
+    @Override
+    public void onEtudiantAdded(Etudiant etudiant) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(etudiant.getId());
+            addEntry(etudiant);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEtudiantUpdated(Etudiant etudiant) {
+        onEtudiantAdded(etudiant);
+    }
+
+    @Override
+    public void onEtudiantDeleted(int etudiantId) {
+        lock.writeLock().lock();
+        try {
+            removeEntry(etudiantId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEtudiantsAdded(List<Etudiant> etudiants) {
+        lock.writeLock().lock();
+        try {
+            for (Etudiant etudiant : etudiants) {
+                removeEntry(etudiant.getId());
+                addEntry(etudiant);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addEntry(Etudiant etudiant) {
+        // Copie : l'objet Etudiant peut être modifié par l'interface avant l'écriture en base
+        Etudiant copy = new Etudiant(etudiant.getId(), etudiant.getNom(), etudiant.getPrenom(), etudiant.getFiliere());
+        Entry entry = new Entry(copy);
+        entries.put(copy.getId(), entry);
+        for (String word : entry.words) {
+            words.computeIfAbsent(word, k -> new IntList()).add(copy.getId());
+        }
+        for (String gram : entry.trigrams()) {
+            trigrams.computeIfAbsent(gram, k -> new IntList()).add(copy.getId());
+        }
+    }
+
+    private void removeEntry(int id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String word : entry.words) {
+            removePosting(words, word, id);
+        }
+        for (String gram : entry.trigrams()) {
+            removePosting(trigrams, gram, id);
+        }
+    }
+
+    private static void removePosting(Map<String, IntList> postings, String key, int id) {
+        IntList ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.size() == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static String[] splitWords(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static Set<String> ngrams(String word) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + NGRAM <= word.length(); i++) {
+            grams.add(word.substring(i, i + NGRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Un étudiant indexé et les mots normalisés de son nom, prénom et filière.
+     */
+    private static final class Entry {
+        private final Etudiant etudiant;
+        private final String[] words;
+        // Clé de tri à pertinence égale : nom puis prénom normalisés
+        private final String sortKey;
+
+        private Entry(Etudiant etudiant) {
+            this.etudiant = etudiant;
+            this.sortKey = normalize(etudiant.getNom()) + '\u0000' + normalize(etudiant.getPrenom());
+            Set<String> distinct = new HashSet<>();
+            distinct.addAll(Arrays.asList(splitWords(normalize(etudiant.getNom()))));
+            distinct.addAll(Arrays.asList(splitWords(normalize(etudiant.getPrenom()))));
+            distinct.addAll(Arrays.asList(splitWords(normalize(etudiant.getFiliere()))));
+            this.words = distinct.toArray(new String[0]);
+        }
+
+        private Set<String> trigrams() {
+            Set<String> grams = new HashSet<>();
+            for (String word : words) {
+                grams.addAll(ngrams(word));
+            }
+            return grams;
+        }
+
+        /**
+         * @return 3 si un mot est identique au terme, 2 s'il commence par le terme,
+         * 1 s'il le contient, 0 sinon.
+         */
+        private int score(String term) {
+            int best = 0;
+            for (String word : words) {
+                if (word.equals(term)) {
+                    return 3;
+                } else if (word.startsWith(term)) {
+                    best = 2;
+                } else if (best == 0 && word.contains(term)) {
+                    best = 1;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class Scored {
+        private final Entry entry;
+        private final int score;
+
+        private Scored(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Liste d'entiers sans boxing, utilisée pour les listes d'identifiants de l'index.
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+
+        private void sortDistinct() {
+            Arrays.sort(values, 0, size);
+            int distinct = 0;
+            for (int i = 0; i < size; i++) {
+                if (distinct == 0 || values[i] != values[distinct - 1]) {
+                    values[distinct++] = values[i];
+                }
+            }
+            size = distinct;
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.example.gestionnotes.task;
+
+import com.example.gestionnotes.config.AppConfig;
+import com.example.gestionnotes.dao.StatementTracker;
+import com.example.gestionnotes.metrics.LatencyHistogram;
+import com.example.gestionnotes.metrics.Metrics;
+import javafx.concurrent.Task;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exécute les tâches d'arrière-plan des contrôleurs sur un pool de threads borné.
+ * Une tâche soumise avec une clé (par exemple "notes") annule la tâche précédente de même clé :
+ * seule la demande la plus récente aboutit, et la requête SQL de l'ancienne est annulée côté serveur.
+ * Les écritures (ajout, modification, suppression) doivent être soumises sans clé pour ne jamais être annulées.
+ * Les temps d'attente et d'exécution sont publiés en JMX (type=TaskScheduler), ainsi que la latence
+ * de bout en bout par clé (type=Task, "sans-cle" pour les tâches soumises sans clé).
+ * Les tâches soumises avant la fin d'un prérequis (setPrerequisite), par exemple les migrations du démarrage,
+ * ne s'exécutent qu'ensuite.
+ */
+public class TaskScheduler implements TaskSchedulerMXBean {
+
+    private static final String NO_KEY = "sans-cle";
+
+    private static volatile TaskScheduler instance;
+
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Submission> latestByKey = new ConcurrentHashMap<>();
+    private volatile CompletableFuture<?> prerequisite = CompletableFuture.completedFuture(null);
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder totalQueueNanos = new LongAdder();
+    private final LongAdder totalRunNanos = new LongAdder();
+    private final AtomicLong maxRunNanos = new AtomicLong();
+    private final LatencyHistogram queueTimes = new LatencyHistogram();
+    private final LatencyHistogram runTimes = new LatencyHistogram();
+
+    /**
+     * @return Le planificateur partagé par les contrôleurs.
+     */
+    public static TaskScheduler getInstance() {
+        TaskScheduler current = instance;
+        if (current == null) {
+            synchronized (TaskScheduler.class) {
+                current = instance;
+                if (current == null) {
+                    current = new TaskScheduler(AppConfig.getInt("tasks.poolSize", 4),
+                            AppConfig.getBoolean("tasks.virtualThreads", true));
+                    Metrics.register("TaskScheduler", "ui", current);
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public TaskScheduler(int poolSize, boolean useVirtualThreads) {
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), createThreadFactory(useVirtualThreads));
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Crée des threads virtuels si la JVM les propose (Java 21+), des threads démons classiques sinon.
+     * Les threads virtuels sont obtenus par réflexion, le projet étant compilé pour Java 11.
+     */
+    private static ThreadFactory createThreadFactory(boolean useVirtualThreads) {
+        if (useVirtualThreads) {
+            try {
+                Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+                builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "ui-task-", 0L);
+                return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // JVM sans threads virtuels : threads classiques
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "ui-task-" + counter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Diffère les tâches jusqu'à la fin du prérequis : celles soumises avant attendent, sans occuper de thread.
+     * @param prerequisite Par exemple la préparation de la base (AsyncDao.whenReady).
+     */
+    public void setPrerequisite(CompletableFuture<?> prerequisite) {
+        this.prerequisite = prerequisite;
+    }
+
+    /**
+     * Soumet une tâche qui ne doit pas être annulée par une autre (écriture, import, export).
+     */
+    public void submit(Task<?> task) {
+        execute(new Submission(null, task));
+    }
+
+    /**
+     * Soumet une tâche de lecture identifiée par une clé. Si une tâche de même clé est encore
+     * en attente ou en cours, elle est annulée, ainsi que sa requête SQL éventuelle.
+     * @param key L'objet de la tâche, par exemple "notes" ou "etudiants".
+     * @param task La tâche à exécuter.
+     */
+    public void submit(String key, Task<?> task) {
+        Submission submission = new Submission(key, task);
+        Submission previous = latestByKey.put(key, submission);
+        if (previous != null) {
+            previous.cancel();
+        }
+        execute(submission);
+    }
+
+    private void execute(Submission submission) {
+        CompletableFuture<?> current = prerequisite;
+        if (current.isDone()) {
+            executor.execute(submission);
+        } else {
+            current.whenComplete((result, error) -> executor.execute(submission));
+        }
+    }
+
+    /**
+     * Annule la tâche en cours pour une clé, s'il y en a une.
+     */
+    public void cancel(String key) {
+        Submission previous = latestByKey.remove(key);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * @return Un instantané des métriques : file d'attente, tâches en cours, temps d'attente et d'exécution.
+     */
+    public TaskSchedulerStats getStats() {
+        long done = completed.sum();
+        double averageQueue = done == 0 ? 0.0 : totalQueueNanos.sum() / (double) done / 1_000_000.0;
+        double averageRun = done == 0 ? 0.0 : totalRunNanos.sum() / (double) done / 1_000_000.0;
+        return new TaskSchedulerStats(executor.getQueue().size(), executor.getActiveCount(), done, cancelled.sum(),
+                averageQueue, averageRun, maxRunNanos.get() / 1_000_000.0);
+    }
+
+    @Override
+    public int getQueued() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public int getRunning() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    @Override
+    public long getCancelled() {
+        return cancelled.sum();
+    }
+
+    @Override
+    public double getQueueP50Millis() {
+        return queueTimes.percentileNanos(50) / 1_000_000.0;
+    }
+
+    @Override
+    public double getQueueP99Millis() {
+        return queueTimes.percentileNanos(99) / 1_000_000.0;
+    }
+
+    @Override
+    public double getQueueMaxMillis() {
+        return queueTimes.maxNanos() / 1_000_000.0;
+    }
+
+    @Override
+    public double getRunP50Millis() {
+        return runTimes.percentileNanos(50) / 1_000_000.0;
+    }
+
+    @Override
+    public double getRunP99Millis() {
+        return runTimes.percentileNanos(99) / 1_000_000.0;
+    }
+
+    @Override
+    public double getRunMaxMillis() {
+        return runTimes.maxNanos() / 1_000_000.0;
+    }
+
+    /**
+     * Arrête le planificateur et annule les tâches en cours.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Enveloppe d'une tâche soumise : mesure ses temps et permet son annulation.
+     */
+    private final class Submission implements Runnable {
+        private final String key;
+        private final Task<?> task;
+        private final long submittedNanos = System.nanoTime();
+        // Requêtes de cette tâche seulement : le thread qui l'exécute passe ensuite à d'autres tâches
+        private final StatementTracker.Scope statements = new StatementTracker.Scope();
+
+        private Submission(String key, Task<?> task) {
+            this.key = key;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (task.isCancelled()) {
+                return;
+            }
+            long start = System.nanoTime();
+            StatementTracker.enter(statements);
+            String previousTask = Metrics.enterTask(key);
+            try {
+                task.run();
+            } finally {
+                Metrics.enterTask(previousTask);
+                StatementTracker.exit(statements);
+                long end = System.nanoTime();
+                completed.increment();
+                totalQueueNanos.add(start - submittedNanos);
+                totalRunNanos.add(end - start);
+                maxRunNanos.accumulateAndGet(end - start, Math::max);
+                queueTimes.record(start - submittedNanos);
+                runTimes.record(end - start);
+                Metrics.operation("Task", key != null ? key : NO_KEY).record(end - submittedNanos);
+                if (key != null) {
+                    latestByKey.remove(key, this);
+                }
+            }
+        }
+
+        private void cancel() {
+            cancelled.increment();
+            task.cancel(false);
+            statements.cancel();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.gestionnotes.task;
+
+/**
+ * Vue JMX du planificateur de tâches (com.example.gestionnotes:type=TaskScheduler).
+ * L'attente va de la soumission d'une tâche au début de son exécution ; les durées sont en millisecondes.
+ * La latence de bout en bout de chaque clé de tâche est publiée à part (type=Task).
+ */
+public interface TaskSchedulerMXBean {
+
+    int getQueued();
+
+    int getRunning();
+
+    long getCompleted();
+
+    long getCancelled();
+
+    double getQueueP50Millis();
+
+    double getQueueP99Millis();
+
+    double getQueueMaxMillis();
+
+    double getRunP50Millis();
+
+    double getRunP99Millis();
+
+    double getRunMaxMillis();
+}
@@ -0,0 +1,63 @@
+package com.example.gestionnotes.task;
+
+/**
+ * Instantané des métriques du planificateur de tâches.
+ */
+public class TaskSchedulerStats {
+    private final int queued;
+    private final int running;
+    private final long completed;
+    private final long cancelled;
+    private final double averageQueueMillis;
+    private final double averageRunMillis;
+    private final double maxRunMillis;
+
+    public TaskSchedulerStats(int queued, int running, long completed, long cancelled,
+                              double averageQueueMillis, double averageRunMillis, double maxRunMillis) {
+        this.queued = queued;
+        this.running = running;
+        this.completed = completed;
+        this.cancelled = cancelled;
+        this.averageQueueMillis = averageQueueMillis;
+        this.averageRunMillis = averageRunMillis;
+        this.maxRunMillis = maxRunMillis;
+    }
+
+    /** @return Le nombre de tâches en attente d'un thread. */
+    public int getQueued() {
+        return queued;
+    }
+
+    /** @return Le nombre de tâches en cours d'exécution. */
+    public int getRunning() {
+        return running;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    /** @return Le nombre de tâches annulées par une tâche plus récente de même clé. */
+    public long getCancelled() {
+        return cancelled;
+    }
+
+    /** @return Le temps moyen passé en file d'attente avant exécution. */
+    public double getAverageQueueMillis() {
+        return averageQueueMillis;
+    }
+
+    public double getAverageRunMillis() {
+        return averageRunMillis;
+    }
+
+    public double getMaxRunMillis() {
+        return maxRunMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TaskSchedulerStats[en attente=%d, en cours=%d, terminées=%d, annulées=%d, attente moy=%.2f ms, exécution moy=%.2f ms, exécution max=%.2f ms]",
+                queued, running, completed, cancelled, averageQueueMillis, averageRunMillis, maxRunMillis);
+    }
+}
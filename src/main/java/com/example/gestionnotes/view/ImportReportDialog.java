@@ -0,0 +1,37 @@
+package com.example.gestionnotes.view;
+
+import com.example.gestionnotes.model.ImportReport;
+import javafx.scene.control.Alert;
+import javafx.scene.control.TextArea;
+
+/**
+ * Fenêtre listant les lignes rejetées lors d'un import CSV (étudiants ou notes).
+ */
+public final class ImportReportDialog {
+
+    private ImportReportDialog() {
+    }
+
+    /**
+     * Affiche la liste des lignes rejetées lors d'un import, sans attendre sa fermeture.
+     */
+    public static void show(ImportReport report) {
+        StringBuilder details = new StringBuilder();
+        for (ImportReport.Erreur erreur : report.getErreurs()) {
+            details.append(erreur).append('\n');
+        }
+        if (report.getRejetees() > report.getErreurs().size()) {
+            details.append("... et ").append(report.getRejetees() - report.getErreurs().size()).append(" autre(s) ligne(s).");
+        }
+
+        TextArea textArea = new TextArea(details.toString());
+        textArea.setEditable(false);
+        textArea.setWrapText(true);
+
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Rapport d'importation");
+        alert.setHeaderText(report.getRejetees() + " ligne(s) rejetée(s)");
+        alert.getDialogPane().setContent(textArea);
+        alert.show();
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.gestionnotes.view;
+
+import com.example.gestionnotes.model.Etudiant;
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grille de cartes étudiants virtualisée.
+ * Les étudiants sont regroupés en lignes affichées par un ListView : seules les lignes visibles
+ * ont des nœuds, et ces nœuds sont recyclés au défilement. La sélection est mémorisée par
+ * identifiant d'étudiant, son changement ne restyle que l'ancienne et la nouvelle carte.
+ */
+public class StudentCardGrid extends StackPane {
+
+    private static final double CARD_WIDTH = 150;
+    private static final double CARD_HEIGHT = 80;
+    private static final double GAP = 8;
+
+    private final ListView<List<Etudiant>> rowsView = new ListView<>();
+    private final List<Etudiant> students = new ArrayList<>();
+    private int columns = 1;
+
+    private final ObjectProperty<Etudiant> selectedStudent = new SimpleObjectProperty<>(this, "selectedStudent");
+    // Cartes actuellement affichées, par identifiant d'étudiant
+    private final Map<Integer, StudentCard> visibleCards = new HashMap<>();
+    private Runnable onNearEnd;
+    private boolean nearEndPending;
+
+    public StudentCardGrid() {
+        getStyleClass().add("student-card-grid");
+        rowsView.getStyleClass().add("student-card-rows");
+        rowsView.setFocusTraversable(false);
+        rowsView.setFixedCellSize(CARD_HEIGHT + GAP);
+        rowsView.setCellFactory(listView -> new RowCell());
+        getChildren().add(rowsView);
+
+        widthProperty().addListener((observable, oldValue, newValue) -> {
+            int newColumns = Math.max(1, (int) ((newValue.doubleValue() - 2 * GAP) / (CARD_WIDTH + GAP)));
+            if (newColumns != columns) {
+                columns = newColumns;
+                rebuildRows();
+            }
+        });
+
+        selectedStudent.addListener((observable, oldValue, newValue) -> {
+            if (oldValue != null) {
+                StudentCard card = visibleCards.get(oldValue.getId());
+                if (card != null) {
+                    card.setSelected(false);
+                }
+            }
+            if (newValue != null) {
+                StudentCard card = visibleCards.get(newValue.getId());
+                if (card != null) {
+                    card.setSelected(true);
+                }
+            }
+        });
+    }
+
+    /**
+     * Remplace les étudiants affichés.
+     */
+    public void setStudents(List<Etudiant> newStudents) {
+        students.clear();
+        students.addAll(newStudents);
+        rebuildRows();
+        rowsView.scrollTo(0);
+    }
+
+    /**
+     * Ajoute des étudiants à la fin de la grille (page suivante d'une recherche).
+     */
+    public void appendStudents(List<Etudiant> moreStudents) {
+        if (moreStudents.isEmpty()) {
+            return;
+        }
+        int firstNewRow = students.size() / columns;
+        students.addAll(moreStudents);
+        ObservableList<List<Etudiant>> rows = rowsView.getItems();
+        // La dernière ligne incomplète est reconstruite avec les nouveaux étudiants
+        if (firstNewRow < rows.size()) {
+            rows.remove(firstNewRow, rows.size());
+        }
+        rows.addAll(chunk(firstNewRow));
+    }
+
+    /**
+     * @return Les étudiants affichés, dans l'ordre de la grille (liste non modifiable).
+     */
+    public List<Etudiant> getStudents() {
+        return Collections.unmodifiableList(students);
+    }
+
+    public ObjectProperty<Etudiant> selectedStudentProperty() {
+        return selectedStudent;
+    }
+
+    public Etudiant getSelectedStudent() {
+        return selectedStudent.get();
+    }
+
+    public void setSelectedStudent(Etudiant etudiant) {
+        selectedStudent.set(etudiant);
+    }
+
+    /**
+     * Définit le nœud affiché lorsque la grille est vide.
+     */
+    public void setPlaceholder(Node placeholder) {
+        rowsView.setPlaceholder(placeholder);
+    }
+
+    /**
+     * Définit l'action appelée lorsque les dernières lignes de la grille deviennent visibles,
+     * typiquement pour charger la page d'étudiants suivante.
+     */
+    public void setOnNearEnd(Runnable onNearEnd) {
+        this.onNearEnd = onNearEnd;
+    }
+
+    private void rebuildRows() {
+        rowsView.getItems().setAll(chunk(0));
+    }
+
+    private List<List<Etudiant>> chunk(int fromRow) {
+        List<List<Etudiant>> rows = new ArrayList<>();
+        for (int i = fromRow * columns; i < students.size(); i += columns) {
+            // Copie : une vue subList deviendrait invalide au prochain ajout d'étudiants
+            rows.add(new ArrayList<>(students.subList(i, Math.min(i + columns, students.size()))));
+        }
+        return rows;
+    }
+
+    private void fireNearEnd() {
+        if (onNearEnd == null || nearEndPending) {
+            return;
+        }
+        nearEndPending = true;
+        // Hors de la passe de mise en page en cours
+        Platform.runLater(() -> {
+            nearEndPending = false;
+            onNearEnd.run();
+        });
+    }
+
+    /**
+     * Une ligne de la grille : un nombre fixe de cartes réutilisées d'un étudiant à l'autre.
+     */
+    private final class RowCell extends ListCell<List<Etudiant>> {
+        private final HBox box = new HBox(GAP);
+        private final List<StudentCard> cards = new ArrayList<>();
+
+        private RowCell() {
+            box.setPadding(new Insets(0, GAP, GAP, GAP));
+            getStyleClass().add("student-card-row");
+        }
+
+        @Override
+        protected void updateItem(List<Etudiant> row, boolean empty) {
+            super.updateItem(row, empty);
+            for (StudentCard card : cards) {
+                card.unbind();
+            }
+            if (empty || row == null) {
+                setGraphic(null);
+                return;
+            }
+            while (cards.size() < row.size()) {
+                StudentCard card = new StudentCard();
+                cards.add(card);
+                box.getChildren().add(card);
+            }
+            for (int i = 0; i < cards.size(); i++) {
+                StudentCard card = cards.get(i);
+                if (i < row.size()) {
+                    card.bind(row.get(i));
+                } else {
+                    card.setVisible(false);
+                }
+            }
+            setGraphic(box);
+
+            if (getIndex() >= getListView().getItems().size() - 2) {
+                fireNearEnd();
+            }
+        }
+    }
+
+    /**
+     * Carte visuelle d'un étudiant, réaffectée à un autre étudiant lors du défilement.
+     */
+    private final class StudentCard extends VBox {
+        private final Label nameLabel = new Label();
+        private final Label filiereLabel = new Label();
+        private Etudiant etudiant;
+
+        private StudentCard() {
+            super(5);
+            getStyleClass().add("student-card");
+            setPrefSize(CARD_WIDTH, CARD_HEIGHT);
+            setMinSize(CARD_WIDTH, CARD_HEIGHT);
+            setMaxSize(CARD_WIDTH, CARD_HEIGHT);
+            setAlignment(Pos.CENTER);
+            nameLabel.getStyleClass().add("student-card-name");
+            nameLabel.setWrapText(true);
+            filiereLabel.getStyleClass().add("student-card-filiere");
+            getChildren().addAll(nameLabel, filiereLabel);
+
+            setOnMouseClicked(event -> {
+                if (etudiant != null) {
+                    selectedStudent.set(etudiant);
+                }
+            });
+        }
+
+        private void bind(Etudiant etudiant) {
+            this.etudiant = etudiant;
+            nameLabel.setText(etudiant.getPrenom() + " " + etudiant.getNom());
+            filiereLabel.setText(etudiant.getFiliere());
+            Etudiant selected = selectedStudent.get();
+            setSelected(selected != null && selected.getId() == etudiant.getId());
+            setVisible(true);
+            visibleCards.put(etudiant.getId(), this);
+        }
+
+        private void unbind() {
+            if (etudiant != null) {
+                visibleCards.remove(etudiant.getId(), this);
+                etudiant = null;
+            }
+        }
+
+        private void setSelected(boolean selected) {
+            getStyleClass().remove("student-card-selected");
+            if (selected) {
+                getStyleClass().add("student-card-selected");
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- Tables de base de l'application.
+-- IF NOT EXISTS : une base créée à la main avant l'arrivée des migrations est conservée telle quelle.
+
+CREATE TABLE IF NOT EXISTS etudiant (
+    id INT NOT NULL AUTO_INCREMENT,
+    nom VARCHAR(100) NOT NULL,
+    prenom VARCHAR(100) NOT NULL,
+    filiere VARCHAR(100) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE IF NOT EXISTS note (
+    id INT NOT NULL AUTO_INCREMENT,
+    etudiant_id INT NOT NULL,
+    matiere VARCHAR(100) NOT NULL,
+    note_devoir DOUBLE NOT NULL,
+    note_examen DOUBLE NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
@@ -0,0 +1,6 @@
+-- Liste et recherche paginée d'une filière : WHERE filiere = ? ORDER BY nom, prenom, id.
+-- InnoDB ajoute la clé primaire (id) à la fin de chaque index secondaire, ce qui couvre le tri complet.
+CREATE INDEX idx_etudiant_filiere_nom_prenom ON etudiant (filiere, nom, prenom);
+
+-- Liste et recherche paginée de toutes les filières : ORDER BY nom, prenom, id sans filtre.
+CREATE INDEX idx_etudiant_nom_prenom ON etudiant (nom, prenom);
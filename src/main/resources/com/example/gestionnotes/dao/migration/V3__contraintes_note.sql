@@ -0,0 +1,8 @@
+-- Une seule note par étudiant et par matière. L'index sert aussi aux lectures par étudiant
+-- (WHERE etudiant_id = ? ORDER BY matiere) et au remplacement des notes lors des imports.
+-- Échoue si des étudiants ont déjà plusieurs notes dans la même matière : à corriger avant de relancer.
+CREATE UNIQUE INDEX uk_note_etudiant_matiere ON note (etudiant_id, matiere);
+
+-- Une note appartient à un étudiant existant. La clé étrangère s'appuie sur l'index ci-dessus.
+-- Échoue si des notes font référence à des étudiants supprimés.
+ALTER TABLE note ADD CONSTRAINT fk_note_etudiant FOREIGN KEY (etudiant_id) REFERENCES etudiant (id);
@@ -0,0 +1,7 @@
+-- Empreinte du barème avec lequel les colonnes calculées note.moyenne et note.valide ont été définies.
+-- Ces colonnes dépendent du barème configuré (clés grading.*) et ne peuvent donc pas figurer dans un script figé :
+-- MigrationRunner les crée, ou les redéfinit quand cette empreinte ne correspond plus (voir NoteGradeColumns).
+CREATE TABLE IF NOT EXISTS note_bareme (
+    empreinte CHAR(64) NOT NULL,
+    PRIMARY KEY (empreinte)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
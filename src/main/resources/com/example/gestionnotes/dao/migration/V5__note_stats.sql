@@ -0,0 +1,12 @@
+-- Table de synthèse des statistiques (voir NoteStatsSummary), tenue à jour par les écritures des DAOs.
+-- IF NOT EXISTS : les bases où les DAOs l'avaient déjà créée la conservent, avec ses compteurs.
+-- Elle est remplie au premier accès, et recalculée si le barème a changé depuis son remplissage.
+CREATE TABLE IF NOT EXISTS note_stats (
+    portee CHAR(1) NOT NULL,
+    cle VARCHAR(100) NOT NULL,
+    nb_etudiants INT NOT NULL DEFAULT 0,
+    nb_notes INT NOT NULL DEFAULT 0,
+    somme_moyennes DOUBLE NOT NULL DEFAULT 0,
+    nb_valides INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (portee, cle)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
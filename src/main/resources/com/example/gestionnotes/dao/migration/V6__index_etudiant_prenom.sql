@@ -0,0 +1,4 @@
+-- Recherche par début du nom, du prénom ou de la filière : nom LIKE 't%' OR prenom LIKE 't%' OR filiere LIKE 't%'.
+-- Avec les index de V2, dont les premières colonnes sont nom et filiere, chaque condition est une plage d'index :
+-- MySQL peut les fusionner (index_merge) au lieu de parcourir la table.
+CREATE INDEX idx_etudiant_prenom ON etudiant (prenom);
@@ -0,0 +1,194 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.Statistiques;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Vérifie que la table de synthèse note_stats, tenue à jour par les écritures en lot (NoteDAO.upsertNotes,
+ * appelé par la saisie différée), reste égale à un recalcul complet quand une même matière est saisie
+ * avec d'autres accents, une autre casse ou un espace final.
+ *
+ * S'exécute contre la base MySQL ou MariaDB configurée (clés db.*, surchargeables par -Ddb.url=…) : seule sa
+ * collation (utf8mb4_0900_ai_ci) décide quelles matières sont la même note ; sans une telle base, les tests
+ * sont ignorés. L'étudiant de test et ses notes sont supprimés à la fin de chaque test.
+ */
+class NoteStatsUpsertTest {
+
+    private static final int CONNEXION_TIMEOUT_SEC = 3;
+    private static final String FILIERE = "Test note_stats";
+
+    @TempDir
+    Path dossier;
+
+    private int etudiantId;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        DriverManager.setLoginTimeout(CONNEXION_TIMEOUT_SEC);
+        boolean mySql;
+        try (Connection conn = DBConnection.getConnection()) {
+            mySql = MigrationRunner.isMySql(conn);
+        } catch (SQLException e) {
+            mySql = false;
+            System.out.println("Base de données injoignable, note_stats non vérifiée : " + e.getMessage());
+        }
+        assumeTrue(mySql, "La collation des matières n'est vérifiée que sous MySQL ou MariaDB");
+        new MigrationRunner().migrate();
+        NoteStatsSummary.ensureReady();
+    }
+
+    @AfterAll
+    static void close() {
+        DBConnection.closeConnection();
+    }
+
+    @BeforeEach
+    void creeEtudiant() throws SQLException {
+        Etudiant etudiant = new Etudiant(0, "Upsert", "Test", FILIERE);
+        assertTrue(new EtudiantDAO().addEtudiant(etudiant));
+        etudiantId = etudiant.getId();
+        rebuild();
+    }
+
+    @AfterEach
+    void supprimeEtudiant() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement notes = conn.prepareStatement("DELETE FROM note WHERE etudiant_id = ?");
+             PreparedStatement etudiant = conn.prepareStatement("DELETE FROM etudiant WHERE id = ?")) {
+            notes.setInt(1, etudiantId);
+            notes.executeUpdate();
+            etudiant.setInt(1, etudiantId);
+            etudiant.executeUpdate();
+        }
+        rebuild();
+    }
+
+    @Test
+    void matiereSansAccentsEcraseLaNoteDeLaSaisieDifferee() throws IOException, SQLException {
+        NoteWriteBehind writeBehind = new NoteWriteBehind(new NoteDAO(), dossier.resolve("journal.log"), 200, 60_000,
+                CompletableFuture.completedFuture(null));
+        try {
+            writeBehind.enqueue(note("Mathématiques", 8, 9));
+            assertTrue(writeBehind.flushNow());
+            writeBehind.enqueue(note("mathematiques", 15, 16));
+            assertTrue(writeBehind.flushNow());
+        } finally {
+            writeBehind.shutdown();
+        }
+        assertEquals(1, nbNotes());
+        assertStatsEgalesAuRecalcul();
+    }
+
+    @Test
+    void variantesAccentueesDansUnMemeLot() throws SQLException {
+        new NoteDAO().upsertNotes(Arrays.asList(note("Physique-Chimie", 10, 10), note("PHYSIQUE-CHIMÍE", 12, 14)));
+        assertEquals(1, nbNotes());
+        assertStatsEgalesAuRecalcul();
+    }
+
+    @Test
+    void espaceFinalCreeUneAutreNote() throws SQLException {
+        NoteDAO noteDAO = new NoteDAO();
+        noteDAO.upsertNotes(Arrays.asList(note("Math", 10, 10)));
+        noteDAO.upsertNotes(Arrays.asList(note("Math ", 12, 14)));
+        assertEquals(2, nbNotes());
+        assertStatsEgalesAuRecalcul();
+    }
+
+    private Note note(String matiere, double devoir, double examen) {
+        return new Note(0, etudiantId, null, null, matiere, devoir, examen);
+    }
+
+    private int nbNotes() throws SQLException {
+        try (Connection conn = DBConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM note WHERE etudiant_id = ?")) {
+            pstmt.setInt(1, etudiantId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static void rebuild() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            NoteStatsSummary.rebuild(conn);
+            conn.commit();
+        }
+    }
+
+    /**
+     * Compare la table tenue à jour avec un recalcul fait dans une transaction annulée ensuite.
+     */
+    private static void assertStatsEgalesAuRecalcul() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Statistiques tenues = NoteStatsSummary.readAll(conn);
+                NoteStatsSummary.rebuild(conn);
+                Statistiques recalculees = NoteStatsSummary.readAll(conn);
+                assertLigne("global", recalculees.getGlobal(), tenues.getGlobal());
+                assertLignes("filière", recalculees.getParFiliere(), tenues.getParFiliere());
+                assertLignes("matière", recalculees.getParMatiere(), tenues.getParMatiere());
+            } finally {
+                conn.rollback();
+            }
+        }
+    }
+
+    /**
+     * Les clés sont comparées comme la base les compare : une ligne tenue à jour garde l'orthographe
+     * de la première note de sa matière, le recalcul celle de la ligne de note restante.
+     */
+    private static void assertLignes(String portee, Map<String, Statistiques.Ligne> attendues,
+                                     Map<String, Statistiques.Ligne> obtenues) {
+        Map<String, Statistiques.Ligne> attenduesParCle = parCle(attendues);
+        Map<String, Statistiques.Ligne> obtenuesParCle = parCle(obtenues);
+        assertEquals(attenduesParCle.keySet(), obtenuesParCle.keySet(), portee);
+        for (Map.Entry<String, Statistiques.Ligne> entry : attenduesParCle.entrySet()) {
+            assertLigne(portee + " " + entry.getKey(), entry.getValue(), obtenuesParCle.get(entry.getKey()));
+        }
+    }
+
+    private static Map<String, Statistiques.Ligne> parCle(Map<String, Statistiques.Ligne> lignes) {
+        Map<String, Statistiques.Ligne> parCle = new TreeMap<>();
+        for (Map.Entry<String, Statistiques.Ligne> entry : lignes.entrySet()) {
+            // Une ligne revenue à zéro n'existe pas dans le recalcul
+            if (entry.getValue().getNbEtudiants() != 0 || entry.getValue().getNbNotes() != 0) {
+                parCle.put(Note.cleMatiere(entry.getKey()), entry.getValue());
+            }
+        }
+        return parCle;
+    }
+
+    private static void assertLigne(String nom, Statistiques.Ligne attendue, Statistiques.Ligne obtenue) {
+        assertEquals(attendue.getNbEtudiants(), obtenue.getNbEtudiants(), nom + " : étudiants");
+        assertEquals(attendue.getNbNotes(), obtenue.getNbNotes(), nom + " : notes");
+        assertEquals(attendue.getSommeMoyennes(), obtenue.getSommeMoyennes(), 1e-6, nom + " : somme des moyennes");
+        assertEquals(attendue.getNbValides(), obtenue.getNbValides(), nom + " : notes validées");
+    }
+}
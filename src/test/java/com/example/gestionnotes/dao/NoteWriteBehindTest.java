@@ -0,0 +1,105 @@
+package com.example.gestionnotes.dao;
+
+import com.example.gestionnotes.model.Note;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Journal, reprise et fusion des saisies différées. La base n'est jamais prête (baseReady n'est pas terminé) :
+ * aucun lot n'est écrit, les saisies restent en file et dans le journal.
+ */
+class NoteWriteBehindTest {
+
+    @TempDir
+    Path dossier;
+
+    private NoteWriteBehind ouvrir(Path journal) {
+        return new NoteWriteBehind(new NoteDAO(), journal, 200, 60_000, new CompletableFuture<>());
+    }
+
+    @Test
+    void repriseGardeLesSaisiesPosterieuresAuDernierLotEcrit() throws IOException {
+        Path journal = dossier.resolve("journal.log");
+        Files.write(journal, Arrays.asList(
+                "P\t1\t1\tMath\t10.0\t10.0",
+                "P\t2\t2\tInfo\t11.0\t11.0",
+                "F\t2",
+                "P\t3\t1\tMath\t12.0\t13.0",
+                "P\t4\t3\tPhysique-Chimie\t8.0\t8.0",
+                "P\t5\t3\tphysique-chim%C3%ADe\t15.0\t16.0",
+                // Dernière ligne tronquée par un arrêt brutal
+                "P\t6\t4\tAngl"), StandardCharsets.UTF_8);
+
+        NoteWriteBehind writeBehind = ouvrir(journal);
+        try {
+            assertEquals(2, writeBehind.getPendingCount());
+            assertTrue(writeBehind.getPending(2).isEmpty());
+            assertTrue(writeBehind.getPending(4).isEmpty());
+            assertNote(writeBehind.getPending(1), "Math", 12.0, 13.0);
+            // Les deux saisies ne diffèrent que par les accents et la casse : la plus récente l'emporte
+            assertNote(writeBehind.getPending(3), "physique-chimíe", 15.0, 16.0);
+        } finally {
+            writeBehind.shutdown();
+        }
+
+        // Le journal est réécrit avec les seules saisies restantes, renumérotées dans leur ordre
+        assertEquals(Arrays.asList(
+                "P\t1\t1\tMath\t12.0\t13.0",
+                "P\t2\t3\tphysique-chim%C3%ADe\t15.0\t16.0"), Files.readAllLines(journal, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void saisiesDeMemeMatiereSontFusionnees() throws IOException {
+        NoteWriteBehind writeBehind = ouvrir(dossier.resolve("journal.log"));
+        try {
+            writeBehind.enqueue(new Note(0, 7, null, null, "Physique-Chimie", 9.0, 9.0));
+            writeBehind.enqueue(new Note(0, 7, null, null, "PHYSIQUE-CHIMÍE", 14.0, 12.0));
+            writeBehind.enqueue(new Note(0, 7, null, null, "Physique Chimie", 11.0, 11.0));
+            List<Note> pending = writeBehind.getPending(7);
+            assertEquals(2, pending.size());
+            assertEquals("PHYSIQUE-CHIMÍE", pending.get(0).getMatiere());
+            assertEquals(14.0, pending.get(0).getNoteDevoir());
+            assertEquals("Physique Chimie", pending.get(1).getMatiere());
+        } finally {
+            writeBehind.shutdown();
+        }
+    }
+
+    @Test
+    void saisiesNonEcritesSontRejoueesAuRedemarrage() throws IOException {
+        Path journal = dossier.resolve("journal.log");
+        NoteWriteBehind premiere = ouvrir(journal);
+        try {
+            premiere.enqueue(new Note(0, 5, null, null, "Mathématiques", 8.0, 9.0));
+            premiere.enqueue(new Note(0, 5, null, null, "mathematiques", 15.0, 16.0));
+        } finally {
+            premiere.shutdown();
+        }
+
+        NoteWriteBehind seconde = ouvrir(journal);
+        try {
+            assertEquals(1, seconde.getPendingCount());
+            assertNote(seconde.getPending(5), "mathematiques", 15.0, 16.0);
+        } finally {
+            seconde.shutdown();
+        }
+    }
+
+    private static void assertNote(List<Note> notes, String matiere, double devoir, double examen) {
+        assertEquals(1, notes.size());
+        assertEquals(matiere, notes.get(0).getMatiere());
+        assertEquals(devoir, notes.get(0).getNoteDevoir());
+        assertEquals(examen, notes.get(0).getNoteExamen());
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.gestionnotes.dao;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Vérifie avec EXPLAIN que chaque requête des DAOs utilise un index.
+ * Les requêtes vérifiées sont les constantes et constructeurs SQL des DAOs eux-mêmes.
+ *
+ * S'exécute contre la base MySQL ou MariaDB configurée (clés db.*, surchargeables par -Ddb.url=…), la syntaxe
+ * et le format d'EXPLAIN étant propres à ces serveurs ; sans une telle base joignable, les tests sont ignorés.
+ * Le schéma est d'abord mis à jour par MigrationRunner. Sur des tables presque vides, l'optimiseur
+ * préfère souvent un parcours complet : la base doit contenir un volume de données réaliste.
+ * Une requête échoue si elle parcourt une table entière sans y être autorisée.
+ */
+class QueryPlanCheckTest {
+
+    // En dessous de ce nombre d'étudiants, les plans ne sont pas représentatifs
+    private static final int VOLUME_MINIMAL = 1000;
+    private static final int TAILLE_PAGE = 51;
+    // Délai de connexion au-delà duquel la base est considérée comme absente
+    private static final int CONNEXION_TIMEOUT_SEC = 3;
+
+    @BeforeAll
+    static void migrate() throws SQLException {
+        DriverManager.setLoginTimeout(CONNEXION_TIMEOUT_SEC);
+        boolean mySql;
+        try (Connection conn = DBConnection.getConnection()) {
+            mySql = MigrationRunner.isMySql(conn);
+        } catch (SQLException e) {
+            mySql = false;
+            System.out.println("Base de données injoignable, plans d'exécution non vérifiés : " + e.getMessage());
+        }
+        assumeTrue(mySql, "EXPLAIN n'est vérifié que sous MySQL ou MariaDB");
+        new MigrationRunner().migrate();
+        NoteStatsSummary.ensureReady();
+    }
+
+    @AfterAll
+    static void close() {
+        DBConnection.closeConnection();
+    }
+
+    /**
+     * Exécute EXPLAIN sur chaque requête et affiche le plan obtenu ; un test par requête.
+     */
+    @TestFactory
+    List<DynamicTest> plans() throws SQLException {
+        Exemple exemple;
+        try (Connection conn = DBConnection.getConnection()) {
+            exemple = readExemple(conn);
+        }
+        if (exemple.nbEtudiants < VOLUME_MINIMAL) {
+            System.out.println("Attention : seulement " + exemple.nbEtudiants + " étudiants, "
+                    + "les plans obtenus peuvent différer de ceux d'une base réelle.");
+        }
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Verification verification : verifications(exemple)) {
+            tests.add(DynamicTest.dynamicTest(verification.nom, () -> {
+                try (Connection conn = DBConnection.getConnection()) {
+                    assertNull(check(conn, verification), verification.nom);
+                }
+            }));
+        }
+        return tests;
+    }
+
+    private static List<Verification> verifications(Exemple x) {
+        String like = x.nom.substring(0, Math.min(3, x.nom.length())) + "%";
+        String pleineTable = "liste complète : toute la table est lue de toute façon";
+
+        List<Verification> v = new ArrayList<>();
+        v.add(new Verification("EtudiantDAO.getAllEtudiants", EtudiantDAO.etudiantsSql(false), pleineTable));
+        v.add(new Verification("EtudiantDAO.getEtudiantsByFiliere", EtudiantDAO.etudiantsSql(true), null, x.filiere));
+        v.add(new Verification("EtudiantDAO.searchEtudiants (filière, 1re page)",
+                EtudiantDAO.searchPageSql(EtudiantDAO.searchWhere(true, false), false), null, x.filiere, TAILLE_PAGE));
+        v.add(new Verification("EtudiantDAO.searchEtudiants (filière, page suivante)",
+                EtudiantDAO.searchPageSql(EtudiantDAO.searchWhere(true, false), true), null,
+                x.filiere, x.nom, x.nom, x.prenom, x.prenom, x.etudiantId, TAILLE_PAGE));
+        v.add(new Verification("EtudiantDAO.searchEtudiants (toutes filières, page suivante)",
+                EtudiantDAO.searchPageSql(EtudiantDAO.searchWhere(false, false), true), null,
+                x.nom, x.nom, x.prenom, x.prenom, x.etudiantId, TAILLE_PAGE));
+        v.add(new Verification("EtudiantDAO.searchEtudiants (terme)",
+                EtudiantDAO.searchPageSql(EtudiantDAO.searchWhere(false, true), false), null,
+                like, like, like, TAILLE_PAGE));
+        v.add(new Verification("EtudiantDAO.searchEtudiants (total de la filière)",
+                EtudiantDAO.searchCountSql(EtudiantDAO.searchWhere(true, false)), null,
+                x.filiere, EtudiantRepository.TOTAL_MAX + 1));
+        v.add(new Verification("EtudiantDAO.searchEtudiants (total du terme)",
+                EtudiantDAO.searchCountSql(EtudiantDAO.searchWhere(false, true)), null,
+                like, like, like, EtudiantRepository.TOTAL_MAX + 1));
+        v.add(new Verification("EtudiantDAO.getAllFilieres", EtudiantDAO.FILIERES_SQL, null));
+        v.add(new Verification("EtudiantDAO.updateEtudiant", EtudiantDAO.UPDATE_SQL, null,
+                x.nom, x.prenom, x.filiere, x.etudiantId));
+        v.add(new Verification("EtudiantDAO.deleteEtudiant", EtudiantDAO.DELETE_SQL, null, x.etudiantId));
+        v.add(new Verification("EtudiantDAO.lockFiliere", EtudiantDAO.LOCK_FILIERE_SQL, null, x.etudiantId));
+
+        v.add(new Verification("NoteDAO.getAllNotes", NoteDAO.ALL_NOTES_SQL, pleineTable));
+        v.add(new Verification("NoteDAO.getNotesByEtudiant", NoteDAO.NOTES_BY_ETUDIANT_SQL, null, x.etudiantId));
+        v.add(new Verification("NoteDAO.queryNotesByEtudiants", NoteDAO.notesByEtudiantsSql(3), null,
+                x.etudiantId, x.etudiantId + 1, x.etudiantId + 2));
+        v.add(new Verification("NoteDAO.getMoyenneEtudiant", NoteDAO.MOYENNE_ETUDIANT_SQL, null, x.etudiantId));
+        v.add(new Verification("NoteDAO.upsertNotes (filières)", NoteDAO.filieresByIdsSql(2), null,
+                x.etudiantId, x.etudiantId + 1));
+        v.add(new Verification("NoteDAO.upsertNotes (verrou des notes)", NoteDAO.lockNotesSql(2), null,
+                x.etudiantId, x.etudiantId + 1));
+        v.add(new Verification("NoteDAO.exportNotes", NoteDAO.exportSql(false), pleineTable));
+        v.add(new Verification("NoteDAO.exportNotes (filière)", NoteDAO.exportSql(true), null, x.filiere));
+        v.add(new Verification("NoteDAO.updateNote", NoteDAO.UPDATE_SQL, null, x.matiere, 10.0, 10.0, x.noteId));
+        v.add(new Verification("NoteDAO.deleteNote", NoteDAO.DELETE_SQL, null, x.noteId));
+        v.add(new Verification("NoteDAO.lockNote", NoteDAO.LOCK_NOTE_SQL, null, x.noteId));
+        v.add(new Verification("NoteDAO.findFiliere", NoteDAO.FIND_FILIERE_SQL, null, x.etudiantId));
+        v.add(new Verification("NoteDAO.getNoteCountForStudent", NoteDAO.NOTE_COUNT_SQL, null, x.etudiantId));
+        v.add(new Verification("NoteDAO.getNotesNonValidees", NoteDAO.notesParMoyenneSql(false, false, true), null,
+                0.0, 20.0, 0, TAILLE_PAGE));
+        v.add(new Verification("NoteDAO.getNotesNonValidees (filière)", NoteDAO.notesParMoyenneSql(true, false, true), null,
+                0.0, 20.0, 0, x.filiere, TAILLE_PAGE));
+        v.add(new Verification("NoteDAO.getMeilleuresNotes", NoteDAO.notesParMoyenneSql(false, null, false), null,
+                0.0, 20.0, TAILLE_PAGE));
+        v.add(new Verification("NoteDAO.findNotesParMoyenne (tranche)", NoteDAO.notesParMoyenneSql(false, null, true), null,
+                12.0, 14.0, TAILLE_PAGE));
+        v.add(new Verification("NoteDAO.scanRangs", NoteDAO.RANGS_SQL,
+                "chargement initial des classements : toutes les notes sont classées"));
+        v.add(new Verification("NoteDAO.calculerStatistiques", NoteDAO.STATISTIQUES_SQL,
+                "agrégat de toutes les notes ; la table note_stats évite ce calcul à l'affichage"));
+
+        v.add(new Verification("NoteStatsSummary.moveEtudiant", NoteStatsSummary.MOVE_ETUDIANT_SQL, null, x.etudiantId));
+        v.add(new Verification("NoteStatsSummary.readGlobal", NoteStatsSummary.READ_GLOBAL_SQL, null,
+                NoteStatsSummary.GLOBAL));
+        v.add(new Verification("NoteStatsSummary.readAll", NoteStatsSummary.READ_ALL_SQL,
+                "table de synthèse de quelques lignes par filière et par matière"));
+        return v;
+    }
+
+    /**
+     * @return null si le plan est correct, sinon la description de la table parcourue en entier.
+     */
+    private static String check(Connection conn, Verification verification) throws SQLException {
+        List<String> plan = new ArrayList<>();
+        String parcours = null;
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + verification.sql)) {
+            for (int i = 0; i < verification.params.length; i++) {
+                pstmt.setObject(i + 1, verification.params[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String table = rs.getString("table");
+                    String type = rs.getString("type");
+                    String key = rs.getString("key");
+                    String extra = rs.getString("Extra");
+                    plan.add(table + ":" + type + (key != null ? "/" + key : ""));
+                    if (parcours == null && !usesIndex(table, type, key, extra)) {
+                        parcours = "parcours complet de " + table + (extra != null ? " (" + extra + ")" : "");
+                    }
+                }
+            }
+        }
+        if (parcours != null && verification.scanAutorise != null) {
+            System.out.println("OK    " + verification.nom + " " + plan + " — parcours toléré : " + verification.scanAutorise);
+            return null;
+        }
+        if (parcours == null) {
+            System.out.println("OK    " + verification.nom + " " + plan);
+        }
+        return parcours;
+    }
+
+    private static boolean usesIndex(String table, String type, String key, String extra) {
+        if (key != null || table == null || table.startsWith("<")) {
+            // Index utilisé, ou ligne de synthèse d'une union ou d'une table dérivée
+            return true;
+        }
+        if ("const".equals(type) || "system".equals(type)) {
+            return true;
+        }
+        // Plan résolu sans lire la table (aucune ligne possible, agrégat lu dans les métadonnées)
+        return extra != null && (extra.contains("no matching row") || extra.contains("Impossible WHERE")
+                || extra.contains("No tables used") || extra.contains("optimized away"));
+    }
+
+    /**
+     * Lit des valeurs existantes à passer en paramètre, pour que l'optimiseur raisonne sur de vraies clés.
+     */
+    private static Exemple readExemple(Connection conn) throws SQLException {
+        Exemple exemple = new Exemple();
+        try (Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM etudiant")) {
+                exemple.nbEtudiants = rs.next() ? rs.getLong(1) : 0;
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT id, nom, prenom, filiere FROM etudiant ORDER BY id LIMIT 1")) {
+                if (rs.next()) {
+                    exemple.etudiantId = rs.getInt(1);
+                    exemple.nom = rs.getString(2);
+                    exemple.prenom = rs.getString(3);
+                    exemple.filiere = rs.getString(4);
+                }
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT id, matiere FROM note ORDER BY id LIMIT 1")) {
+                if (rs.next()) {
+                    exemple.noteId = rs.getInt(1);
+                    exemple.matiere = rs.getString(2);
+                }
+            }
+        }
+        return exemple;
+    }
+
+    private static final class Exemple {
+        private long nbEtudiants;
+        private int etudiantId = 1;
+        private String nom = "Dupont";
+        private String prenom = "Jean";
+        private String filiere = "Informatique";
+        private int noteId = 1;
+        private String matiere = "Mathématiques";
+    }
+
+    private static final class Verification {
+        private final String nom;
+        private final String sql;
+        private final String scanAutorise;
+        private final Object[] params;
+
+        /**
+         * @param scanAutorise La raison pour laquelle un parcours complet est acceptable, ou null s'il ne l'est pas.
+         */
+        private Verification(String nom, String sql, String scanAutorise, Object... params) {
+            this.nom = nom;
+            this.sql = sql;
+            this.scanAutorise = scanAutorise;
+            this.params = params;
+        }
+    }
+}
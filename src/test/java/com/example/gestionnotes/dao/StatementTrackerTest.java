@@ -0,0 +1,74 @@
+package com.example.gestionnotes.dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StatementTrackerTest {
+
+    /**
+     * @return Une requête factice qui compte les appels à cancel().
+     */
+    private static Statement statement(AtomicInteger annulations) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[]{Statement.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("cancel")) {
+                        annulations.incrementAndGet();
+                    }
+                    return null;
+                });
+    }
+
+    @Test
+    void annuleLaRequeteDeLaPortee() {
+        AtomicInteger annulations = new AtomicInteger();
+        StatementTracker.Scope scope = new StatementTracker.Scope();
+        StatementTracker.enter(scope);
+        try {
+            StatementTracker.register(statement(annulations));
+            assertTrue(scope.cancel());
+        } finally {
+            StatementTracker.exit(scope);
+        }
+        assertEquals(1, annulations.get());
+    }
+
+    @Test
+    void uneTacheTermineeNAnnulePasLaSuivanteDuMemeThread() {
+        StatementTracker.Scope lecture = new StatementTracker.Scope();
+        StatementTracker.enter(lecture);
+        StatementTracker.register(statement(new AtomicInteger()));
+        StatementTracker.exit(lecture);
+
+        AtomicInteger annulations = new AtomicInteger();
+        StatementTracker.Scope ecriture = new StatementTracker.Scope();
+        StatementTracker.enter(ecriture);
+        try {
+            StatementTracker.register(statement(annulations));
+            assertFalse(lecture.cancel());
+        } finally {
+            StatementTracker.exit(ecriture);
+        }
+        assertEquals(0, annulations.get());
+    }
+
+    @Test
+    void uneRequetePrepareeApresLAnnulationEstAnnuleeAussitot() {
+        AtomicInteger annulations = new AtomicInteger();
+        StatementTracker.Scope scope = new StatementTracker.Scope();
+        scope.cancel();
+        StatementTracker.enter(scope);
+        try {
+            StatementTracker.register(statement(annulations));
+        } finally {
+            StatementTracker.exit(scope);
+        }
+        assertEquals(1, annulations.get());
+    }
+}
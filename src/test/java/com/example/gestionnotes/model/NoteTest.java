@@ -0,0 +1,26 @@
+package com.example.gestionnotes.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoteTest {
+
+    @Test
+    void cleMatiereIgnoreLesAccentsEtLaCasse() {
+        assertEquals(Note.cleMatiere("Mathématiques"), Note.cleMatiere("mathematiques"));
+        assertTrue(Note.memeMatiere("Physique-Chimie", "PHYSIQUE-CHIMÍE"));
+        assertTrue(Note.memeMatiere("Œnologie", "oenologie"));
+    }
+
+    @Test
+    void cleMatiereGardeLesEspacesEtLaPonctuation() {
+        // Comme la collation utf8mb4_0900_ai_ci (NO PAD), et contrairement à un Collator de force PRIMARY
+        assertNotEquals(Note.cleMatiere("Math "), Note.cleMatiere("Math"));
+        assertFalse(Note.memeMatiere("Physique-Chimie", "Physique Chimie"));
+        assertFalse(Note.memeMatiere("Physique-Chimie", "PhysiqueChimie"));
+    }
+}
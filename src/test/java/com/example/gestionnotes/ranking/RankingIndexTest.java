@@ -0,0 +1,175 @@
+package com.example.gestionnotes.ranking;
+
+import com.example.gestionnotes.dao.MemoryStore;
+import com.example.gestionnotes.dao.NoteRepository;
+import com.example.gestionnotes.dao.RangHandler;
+import com.example.gestionnotes.model.Etudiant;
+import com.example.gestionnotes.model.Note;
+import com.example.gestionnotes.model.NotesEtudiant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compare les classements (rang, premiers, tranches) à des listes triées recalculées à partir des notes,
+ * sur un stockage en mémoire modifié au hasard : notes ajoutées, modifiées et supprimées, étudiants supprimés.
+ * Les notes sont entières : les ex æquo sont nombreux.
+ */
+class RankingIndexTest {
+
+    private static final String[] FILIERES = {"Informatique", "Mathématiques", "Physique"};
+    private static final String[] MATIERES = {"Algèbre", "Analyse", "Anglais", "Programmation"};
+
+    private final Random aleatoire = new Random(42L);
+    private final MemoryStore store = new MemoryStore();
+    private final NoteRepository notes = store.getNoteDAO();
+    private final List<Etudiant> etudiants = new ArrayList<>();
+
+    @Test
+    void classementsSuiventLesNotesAvecExAequoEtRetraits() {
+        for (int i = 0; i < 300; i++) {
+            Etudiant etudiant = new Etudiant(0, "Nom" + i, "Prenom" + i, FILIERES[i % FILIERES.length]);
+            assertTrue(store.getEtudiantDAO().addEtudiant(etudiant));
+            etudiants.add(etudiant);
+            // Quelques étudiants restent sans note, donc hors des classements
+            if (i % 10 != 0) {
+                for (String matiere : MATIERES) {
+                    if (aleatoire.nextInt(4) > 0) {
+                        notes.addNote(new Note(0, etudiant.getId(), null, null, matiere, note(), note()));
+                    }
+                }
+            }
+        }
+        RankingIndex index = new RankingIndex(notes, store.getEtudiantDAO());
+        assertNull(index.getRang(RankingIndex.FILIERE, FILIERES[1], etudiants.get(1).getId()), "rien avant le chargement");
+        assertTrue(index.mettreAJour());
+        verifier(index);
+
+        for (int tour = 0; tour < 10; tour++) {
+            for (int i = 0; i < 30; i++) {
+                modifierAuHasard(index);
+            }
+            assertTrue(index.mettreAJour());
+            assertTrue(index.isAJour());
+            verifier(index);
+        }
+    }
+
+    private double note() {
+        return aleatoire.nextInt(21);
+    }
+
+    private void modifierAuHasard(RankingIndex index) {
+        Etudiant etudiant = etudiants.get(aleatoire.nextInt(etudiants.size()));
+        List<Note> sesNotes = notes.getNotesByEtudiant(etudiant.getId());
+        switch (aleatoire.nextInt(5)) {
+            case 0:
+                notes.addNote(new Note(0, etudiant.getId(), null, null, MATIERES[aleatoire.nextInt(MATIERES.length)], note(), note()));
+                break;
+            case 1:
+            case 2:
+                if (!sesNotes.isEmpty()) {
+                    Note note = sesNotes.get(aleatoire.nextInt(sesNotes.size()));
+                    note.setNoteDevoir(note());
+                    note.setNoteExamen(note());
+                    notes.updateNote(note);
+                }
+                break;
+            case 3:
+                if (!sesNotes.isEmpty()) {
+                    notes.deleteNote(sesNotes.get(aleatoire.nextInt(sesNotes.size())).getId());
+                }
+                break;
+            default:
+                for (Note note : sesNotes) {
+                    notes.deleteNote(note.getId());
+                }
+                store.getEtudiantDAO().deleteEtudiant(etudiant.getId());
+                etudiants.remove(etudiant);
+                index.onEtudiantDeleted(etudiant.getId());
+                return;
+        }
+        index.onNotesChanged(etudiant.getId());
+    }
+
+    private void verifier(RankingIndex index) {
+        Map<String, List<long[]>> parFiliere = new TreeMap<>();
+        Map<String, List<long[]>> parMatiere = new TreeMap<>();
+        for (Etudiant etudiant : etudiants) {
+            NotesEtudiant notesEtudiant = notes.getNotesEtudiant(etudiant.getId());
+            if (notesEtudiant.getNotes().isEmpty()) {
+                assertNull(index.getRang(RankingIndex.FILIERE, etudiant.getFiliere(), etudiant.getId()));
+                continue;
+            }
+            parFiliere.computeIfAbsent(etudiant.getFiliere(), f -> new ArrayList<>())
+                    .add(new long[]{etudiant.getId(), RangHandler.points(notesEtudiant.getMoyenne())});
+            for (Note note : notesEtudiant.getNotes()) {
+                parMatiere.computeIfAbsent(note.getMatiere(), m -> new ArrayList<>())
+                        .add(new long[]{etudiant.getId(), RangHandler.points(note.getMoyenne())});
+            }
+        }
+        verifier(index, RankingIndex.FILIERE, parFiliere);
+        verifier(index, RankingIndex.MATIERE, parMatiere);
+    }
+
+    private void verifier(RankingIndex index, String portee, Map<String, List<long[]>> classements) {
+        for (Map.Entry<String, List<long[]>> entry : classements.entrySet()) {
+            String cle = entry.getKey();
+            List<long[]> reference = entry.getValue();
+            reference.sort(Comparator.comparingLong((long[] e) -> -e[1]).thenComparingLong(e -> e[0]));
+            String nom = portee + " " + cle;
+            assertEquals(reference.size(), index.getEffectif(portee, cle), nom);
+
+            for (long[] e : reference) {
+                Rang rang = index.getRang(portee, cle, (int) e[0]);
+                assertEquals(rangAttendu(reference, e[1]), rang.getRang(), nom + ", étudiant " + e[0]);
+                assertEquals(reference.size(), rang.getEffectif(), nom);
+            }
+
+            int k = 1 + aleatoire.nextInt(reference.size() + 5);
+            assertListe(nom + ", " + k + " premiers", reference.subList(0, Math.min(k, reference.size())),
+                    index.getPremiers(portee, cle, k), reference);
+
+            double a = aleatoire.nextInt(41) / 2.0;
+            double b = aleatoire.nextInt(41) / 2.0;
+            double min = Math.min(a, b);
+            double max = Math.max(a, b);
+            List<long[]> tranche = new ArrayList<>();
+            for (long[] e : reference) {
+                if (e[1] >= RangHandler.points(min) && e[1] <= RangHandler.points(max)) {
+                    tranche.add(e);
+                }
+            }
+            assertListe(nom + ", tranche [" + min + ", " + max + "]", tranche,
+                    index.getDansTranche(portee, cle, min, max), reference);
+        }
+    }
+
+    /** Rang comme RANK() : 1 + le nombre d'étudiants ayant strictement plus de points. */
+    private static int rangAttendu(List<long[]> reference, long points) {
+        int rang = 1;
+        for (long[] e : reference) {
+            if (e[1] > points) {
+                rang++;
+            }
+        }
+        return rang;
+    }
+
+    private static void assertListe(String nom, List<long[]> attendus, List<Rang> obtenus, List<long[]> reference) {
+        assertEquals(attendus.size(), obtenus.size(), nom);
+        for (int i = 0; i < attendus.size(); i++) {
+            assertEquals(attendus.get(i)[0], obtenus.get(i).getEtudiantId(), nom + ", position " + i);
+            assertEquals(rangAttendu(reference, attendus.get(i)[1]), obtenus.get(i).getRang(), nom + ", position " + i);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.gestionnotes.ranking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compare l'arbre de rangs à une liste triée de référence, au fil d'ajouts et de retraits aléatoires.
+ * Les points sont tirés parmi peu de valeurs pour que les ex æquo soient nombreux.
+ */
+class RankingTreeTest {
+
+    private static final Comparator<long[]> ORDRE = Comparator.comparingLong((long[] e) -> -e[1]).thenComparingLong(e -> e[0]);
+
+    @Test
+    void rangsEtTranchesSuiventUneListeTriee() {
+        Random aleatoire = new Random(20240611L);
+        RankingTree arbre = new RankingTree();
+        // Éléments {etudiantId, points}, triés par points décroissants puis id croissant
+        List<long[]> reference = new ArrayList<>();
+        int prochainId = 1;
+
+        for (int etape = 0; etape < 4000; etape++) {
+            if (reference.isEmpty() || aleatoire.nextInt(3) > 0) {
+                long points = aleatoire.nextInt(40) * 500_000L;
+                arbre.ajouter(prochainId, points);
+                reference.add(new long[]{prochainId, points});
+                reference.sort(ORDRE);
+                prochainId++;
+            } else {
+                long[] retire = reference.remove(aleatoire.nextInt(reference.size()));
+                arbre.retirer((int) retire[0], retire[1]);
+            }
+            if (etape % 50 == 0) {
+                verifier(arbre, reference, aleatoire);
+            }
+        }
+        // Tout retirer : l'arbre redevient vide
+        while (!reference.isEmpty()) {
+            long[] retire = reference.remove(reference.size() / 2);
+            arbre.retirer((int) retire[0], retire[1]);
+        }
+        verifier(arbre, reference, aleatoire);
+    }
+
+    private static void verifier(RankingTree arbre, List<long[]> reference, Random aleatoire) {
+        assertEquals(reference.size(), arbre.taille());
+
+        // Nombre au-dessus, pour chaque valeur de points possible et au-delà
+        for (long points = -500_000L; points <= 20_500_000L; points += 250_000L) {
+            int attendu = 0;
+            for (long[] e : reference) {
+                if (e[1] > points) {
+                    attendu++;
+                }
+            }
+            assertEquals(attendu, arbre.nombreAuDessus(points), "points " + points);
+        }
+
+        // Tranches et premiers : bornes incluses, limite respectée, ordre du classement
+        for (int i = 0; i < 20; i++) {
+            long a = aleatoire.nextInt(42) * 500_000L - 500_000L;
+            long b = aleatoire.nextInt(42) * 500_000L - 500_000L;
+            long max = Math.max(a, b);
+            long min = Math.min(a, b);
+            int limite = aleatoire.nextBoolean() ? Integer.MAX_VALUE : 1 + aleatoire.nextInt(10);
+            List<Long> attendus = new ArrayList<>();
+            for (long[] e : reference) {
+                if (e[1] <= max && e[1] >= min && attendus.size() < limite) {
+                    attendus.add(e[0]);
+                }
+            }
+            assertEquals(attendus, ids(arbre, max, min, limite), "tranche [" + min + ", " + max + "] limite " + limite);
+        }
+        List<Long> premiers = new ArrayList<>();
+        for (int i = 0; i < Math.min(5, reference.size()); i++) {
+            premiers.add(reference.get(i)[0]);
+        }
+        assertEquals(premiers, ids(arbre, Long.MAX_VALUE, Long.MIN_VALUE, 5));
+    }
+
+    private static List<Long> ids(RankingTree arbre, long max, long min, int limite) {
+        List<RankingTree.Noeud> noeuds = new ArrayList<>();
+        arbre.collecter(max, min, limite, noeuds);
+        List<Long> ids = new ArrayList<>(noeuds.size());
+        for (RankingTree.Noeud noeud : noeuds) {
+            ids.add((long) noeud.etudiantId);
+        }
+        return ids;
+    }
+}
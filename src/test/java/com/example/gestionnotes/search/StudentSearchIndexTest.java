@@ -0,0 +1,106 @@
+package com.example.gestionnotes.search;
+
+import com.example.gestionnotes.model.Etudiant;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StudentSearchIndexTest {
+
+    private static StudentSearchIndex index(Etudiant... etudiants) {
+        StudentSearchIndex index = new StudentSearchIndex();
+        index.rebuild(Arrays.asList(etudiants));
+        return index;
+    }
+
+    private static List<Integer> ids(List<Etudiant> etudiants) {
+        List<Integer> ids = new ArrayList<>();
+        for (Etudiant etudiant : etudiants) {
+            ids.add(etudiant.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void termeCourtPrefixeDePlusieursMotsRetourneLEtudiantUneFois() {
+        StudentSearchIndex index = index(
+                new Etudiant(1, "Martin", "Marie", "Informatique"),
+                new Etudiant(2, "Durand", "Paul", "Mathématiques"));
+
+        assertEquals(Arrays.asList(2, 1), ids(index.search("ma", null, 10)));
+    }
+
+    @Test
+    void termeCourtAvecFiliereEtAutreTerme() {
+        StudentSearchIndex index = index(
+                new Etudiant(1, "Martin", "Marie", "Informatique"),
+                new Etudiant(2, "Martin", "Marc", "Informatique"));
+
+        assertEquals(Arrays.asList(1), ids(index.search("ma marie", "Informatique", 10)));
+    }
+
+    @Test
+    void rechercheSansAccentsNiCasse() {
+        StudentSearchIndex index = index(
+                new Etudiant(1, "Dupont", "Éléonore", "Informatique"),
+                new Etudiant(2, "Leroy", "Noé", "Mathématiques"));
+
+        assertEquals(Arrays.asList(1), ids(index.search("eleonore", null, 10)));
+        assertEquals(Arrays.asList(1), ids(index.search("ÉLÉO", null, 10)));
+        assertEquals(Arrays.asList(2), ids(index.search("noe mathematiques", null, 10)));
+        // Sous-chaîne au milieu d'un mot, par les trigrammes
+        assertEquals(Arrays.asList(1), ids(index.search("onor", null, 10)));
+    }
+
+    @Test
+    void termeDeUnOuDeuxCaracteresParDebutDeMot() {
+        StudentSearchIndex index = index(
+                new Etudiant(1, "Dupont", "Éléonore", "Informatique"),
+                new Etudiant(2, "Leroy", "Noé", "Mathématiques"),
+                new Etudiant(3, "Blanc", "Elsa", "Physique"));
+
+        // Par le début des mots, accents ignorés, et non par sous-chaîne (« Noé » ne commence pas par « oe ») ;
+        // à score égal, l'ordre est celui des noms
+        assertEquals(Arrays.asList(3, 1), ids(index.search("él", null, 10)));
+        assertEquals(Arrays.asList(), ids(index.search("oe", null, 10)));
+        assertEquals(Arrays.asList(2), ids(index.search("n", null, 10)));
+    }
+
+    @Test
+    void modificationRetireLesAnciensMotsEtTrigrammes() {
+        StudentSearchIndex index = index(
+                new Etudiant(1, "Dupont", "Éléonore", "Informatique"),
+                new Etudiant(2, "Leroy", "Noé", "Mathématiques"));
+
+        index.onEtudiantUpdated(new Etudiant(1, "Dupont", "Zoé", "Informatique"));
+        assertEquals(Arrays.asList(), ids(index.search("eleonore", null, 10)));
+        assertEquals(Arrays.asList(), ids(index.search("el", null, 10)));
+        assertEquals(Arrays.asList(1), ids(index.search("zoe", null, 10)));
+
+        // Une entrée oubliée dans les listes de trigrammes ou de mots ferait revenir l'étudiant en double
+        index.onEtudiantUpdated(new Etudiant(1, "Dupont", "Éléonore", "Informatique"));
+        assertEquals(Arrays.asList(1), ids(index.search("eleonore", null, 10)));
+        assertEquals(Arrays.asList(1), ids(index.search("el", null, 10)));
+        assertEquals(Arrays.asList(), ids(index.search("zoe", null, 10)));
+    }
+
+    @Test
+    void suppressionRetireLEtudiant() {
+        StudentSearchIndex index = index(
+                new Etudiant(1, "Dupont", "Éléonore", "Informatique"),
+                new Etudiant(2, "Leroy", "Noé", "Mathématiques"));
+
+        index.onEtudiantDeleted(1);
+        assertEquals(Arrays.asList(), ids(index.search("eleonore", null, 10)));
+        assertEquals(Arrays.asList(), ids(index.search("du", null, 10)));
+        assertEquals(1, index.size());
+
+        index.onEtudiantAdded(new Etudiant(1, "Dupont", "Éléonore", "Informatique"));
+        assertEquals(Arrays.asList(1), ids(index.search("eleonore", null, 10)));
+        assertEquals(Arrays.asList(1), ids(index.search("du", null, 10)));
+    }
+}